@@ -0,0 +1,142 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * Hashed timing wheel with a fixed tick duration. Timeouts are kept in doubly linked lists per bucket, so scheduling
+ * and cancelling are O(1). Advancing by one tick only visits the timeouts of one bucket. Timeouts which are more than
+ * one round ahead stay in their bucket and are skipped until their deadline tick is reached.
+ * <p/>
+ * Thread safe. The expired tasks are returned to the caller, which is responsible for running them.
+ */
+final class TimingWheel {
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Timeout
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    static final class Timeout {
+        private final Runnable task;
+        private long deadlineTick;
+        private int bucketIndex = -1;
+        @Nullable
+        private Timeout previous;
+        @Nullable
+        private Timeout next;
+
+        private Timeout(Runnable task) {
+            this.task = task;
+        }
+    }
+
+
+    private final long tickDurationMs;
+    private final Timeout[] buckets;
+    private final int mask;
+    private long currentTick;
+    private int numTimeouts;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    TimingWheel(long tickDurationMs, int numBuckets) {
+        if (tickDurationMs <= 0 || Integer.bitCount(numBuckets) != 1)
+            throw new IllegalArgumentException("tickDurationMs must be positive and numBuckets a power of two");
+
+        this.tickDurationMs = tickDurationMs;
+        this.buckets = new Timeout[numBuckets];
+        this.mask = numBuckets - 1;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return The timeout, which runs the task at the first tick at or after the delay. A delay of 0 expires at the
+     * next tick.
+     */
+    synchronized Timeout schedule(long delayMs, Runnable task) {
+        Timeout timeout = new Timeout(task);
+        long delayInTicks = Math.max(1, (delayMs + tickDurationMs - 1) / tickDurationMs);
+        timeout.deadlineTick = currentTick + delayInTicks;
+        timeout.bucketIndex = (int) (timeout.deadlineTick & mask);
+        timeout.next = buckets[timeout.bucketIndex];
+        if (timeout.next != null)
+            timeout.next.previous = timeout;
+        buckets[timeout.bucketIndex] = timeout;
+        numTimeouts++;
+        return timeout;
+    }
+
+    synchronized void cancel(Timeout timeout) {
+        if (timeout.bucketIndex >= 0)
+            remove(timeout);
+    }
+
+    /**
+     * Advances the wheel by one tick.
+     *
+     * @return The tasks of the timeouts which expired with that tick, in no particular order.
+     */
+    synchronized List<Runnable> advance() {
+        currentTick++;
+        List<Runnable> expiredTasks = new ArrayList<>();
+        Timeout timeout = buckets[(int) (currentTick & mask)];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.deadlineTick <= currentTick) {
+                remove(timeout);
+                expiredTasks.add(timeout.task);
+            }
+            timeout = next;
+        }
+        return expiredTasks;
+    }
+
+    synchronized int getNumTimeouts() {
+        return numTimeouts;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void remove(Timeout timeout) {
+        if (timeout.previous != null)
+            timeout.previous.next = timeout.next;
+        else
+            buckets[timeout.bucketIndex] = timeout.next;
+        if (timeout.next != null)
+            timeout.next.previous = timeout.previous;
+
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.bucketIndex = -1;
+        numTimeouts--;
+    }
+}
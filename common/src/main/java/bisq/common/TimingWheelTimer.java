@@ -0,0 +1,138 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.time.Duration;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Timer for headless apps like the seed node. All timers share one {@link TimingWheel} with a tick of 100 ms, which
+ * is driven by a single daemon thread. Scheduling and stopping a timer is O(1) and a tick only visits the timers of
+ * one bucket, so the cost doesn't grow with the number of pending timers as with the {@link FrameRateTimer}.
+ * <p/>
+ * Expired timers of a tick are run in one batch on the user thread.
+ */
+@Slf4j
+public class TimingWheelTimer implements Timer {
+    private static final long TICK_DURATION_MS = 100;
+    // Covers delays up to about 51 sec. in one round
+    private static final int NUM_BUCKETS = 512;
+
+    private static final TimingWheel wheel = new TimingWheel(TICK_DURATION_MS, NUM_BUCKETS);
+
+    static {
+        Thread thread = new Thread(TimingWheelTimer::runTicks, "TimingWheelTimer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private Runnable runnable;
+    private long intervalMs;
+    private boolean isPeriodically;
+    @Nullable
+    private TimingWheel.Timeout timeout;
+    private volatile boolean stopped;
+
+    public TimingWheelTimer() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Timer
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public Timer runLater(Duration delay, Runnable runnable) {
+        this.runnable = runnable;
+        intervalMs = delay.toMillis();
+        schedule();
+        return this;
+    }
+
+    @Override
+    public Timer runPeriodically(Duration interval, Runnable runnable) {
+        this.runnable = runnable;
+        intervalMs = interval.toMillis();
+        isPeriodically = true;
+        schedule();
+        return this;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        TimingWheel.Timeout timeout = this.timeout;
+        if (timeout != null)
+            wheel.cancel(timeout);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void schedule() {
+        timeout = wheel.schedule(intervalMs, this::onExpired);
+    }
+
+    // Called on the user thread
+    private void onExpired() {
+        if (stopped)
+            return;
+
+        try {
+            runnable.run();
+        } catch (Throwable t) {
+            log.error("Timer task failed. We stop the timer.", t);
+            stop();
+            return;
+        }
+
+        if (isPeriodically && !stopped)
+            schedule();
+    }
+
+    private static void runTicks() {
+        long startTs = System.nanoTime();
+        long tick = 0;
+        while (true) {
+            try {
+                long nextTickTs = startTs + TimeUnit.MILLISECONDS.toNanos((tick + 1) * TICK_DURATION_MS);
+                long sleepMs = TimeUnit.NANOSECONDS.toMillis(nextTickTs - System.nanoTime());
+                if (sleepMs > 0)
+                    Thread.sleep(sleepMs);
+                tick++;
+
+                List<Runnable> expiredTasks = wheel.advance();
+                if (!expiredTasks.isEmpty())
+                    UserThread.execute(() -> expiredTasks.forEach(Runnable::run));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable t) {
+                log.error("Error at advancing the timing wheel", t);
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.app;
+
+import bisq.common.UserThread;
+import bisq.common.handlers.ResultHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Runs the steps of the application startup in the order of their dependencies and reports the startup timeline.
+ * <p></p>
+ * A step is started on the user thread as soon as all steps it depends on have completed, so steps which don't
+ * depend on each other overlap while they wait for another thread, a popup or the network. Of the steps which are
+ * ready at the same time the asynchronous ones are started first. A step can only depend on steps which have been
+ * added before it.
+ * <p></p>
+ * Once all steps have completed the timeline is logged. It contains the start and duration of each step, the
+ * measured tasks and milestones, and the critical path, which is the chain of steps which determined the total
+ * startup time.
+ * <p></p>
+ * Must only be used from the user thread.
+ */
+@Slf4j
+public class StartupGraph {
+
+    public static class Step {
+        @Getter
+        private final String name;
+        @Getter
+        private final List<Step> dependencies;
+        @Nullable
+        private final Runnable task;
+        @Nullable
+        private final Consumer<ResultHandler> asyncTask;
+        @Getter
+        private long startTs;
+        @Getter
+        private long completeTs;
+        @Getter
+        private boolean started;
+        @Getter
+        private boolean completed;
+
+        private Step(String name,
+                     List<Step> dependencies,
+                     @Nullable Runnable task,
+                     @Nullable Consumer<ResultHandler> asyncTask) {
+            this.name = name;
+            this.dependencies = dependencies;
+            this.task = task;
+            this.asyncTask = asyncTask;
+        }
+
+        public long getDuration() {
+            return completed ? completeTs - startTs : 0;
+        }
+
+        private boolean isReady() {
+            return !started && dependencies.stream().allMatch(Step::isCompleted);
+        }
+    }
+
+    private final String name;
+    private final Map<String, Step> stepsByName = new LinkedHashMap<>();
+    // Durations of tasks measured within steps and the time of milestones, in the order they happened
+    private final List<String> timelineEntries = new ArrayList<>();
+    private long startTs;
+    private boolean started;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public StartupGraph(String name) {
+        this.name = name;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Adds a step which has completed once the task returns.
+     */
+    public void addStep(String name, Runnable task, String... dependencies) {
+        add(new Step(name, getDependencySteps(name, dependencies), task, null));
+    }
+
+    /**
+     * Adds a step which has completed once the task calls the result handler. The handler can be called from any
+     * thread, further calls are ignored.
+     */
+    public void addAsyncStep(String name, Consumer<ResultHandler> task, String... dependencies) {
+        add(new Step(name, getDependencySteps(name, dependencies), null, task));
+    }
+
+    public void start() {
+        checkState(!started, "The startup graph was started already");
+        started = true;
+        startTs = System.currentTimeMillis();
+        startReadySteps();
+    }
+
+    /**
+     * Runs the task and adds its duration to the timeline, so we see which part of a step takes the time.
+     */
+    public void measure(String name, Runnable task) {
+        long ts = System.currentTimeMillis();
+        task.run();
+        long now = System.currentTimeMillis();
+        timelineEntries.add(name + ": started at +" + (ts - startTs) + " ms, took " + (now - ts) + " ms");
+    }
+
+    /**
+     * Adds the time of an event within a step to the timeline.
+     */
+    public void mark(String milestone) {
+        timelineEntries.add(milestone + ": at +" + (System.currentTimeMillis() - startTs) + " ms");
+    }
+
+    public boolean isComplete() {
+        return stepsByName.values().stream().allMatch(Step::isCompleted);
+    }
+
+    public List<Step> getSteps() {
+        return new ArrayList<>(stepsByName.values());
+    }
+
+    /**
+     * @return The steps which determined the total startup time, starting with the first step.
+     */
+    public List<Step> getCriticalPath() {
+        LinkedList<Step> criticalPath = new LinkedList<>();
+        Step step = getLastCompleted(stepsByName.values());
+        while (step != null) {
+            criticalPath.addFirst(step);
+            step = getLastCompleted(step.getDependencies());
+        }
+        return criticalPath;
+    }
+
+    public String getReport() {
+        StringBuilder sb = new StringBuilder("Startup timeline of ").append(name);
+        Step lastCompleted = getLastCompleted(stepsByName.values());
+        if (lastCompleted != null)
+            sb.append(" (").append(lastCompleted.getCompleteTs() - startTs).append(" ms until all steps completed)");
+        stepsByName.values().forEach(step -> {
+            sb.append("\n").append(step.getName()).append(": ");
+            if (!step.isStarted())
+                sb.append("not started");
+            else if (!step.isCompleted())
+                sb.append("started at +").append(step.getStartTs() - startTs).append(" ms, not completed");
+            else
+                sb.append("started at +").append(step.getStartTs() - startTs).append(" ms, took ")
+                        .append(step.getDuration()).append(" ms");
+        });
+        timelineEntries.forEach(entry -> sb.append("\n  ").append(entry));
+        sb.append("\nCritical path: ").append(getCriticalPath().stream()
+                .map(step -> step.getName() + " (" + step.getDuration() + " ms)")
+                .collect(Collectors.joining(" -> ")));
+        return sb.toString();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private List<Step> getDependencySteps(String name, String[] dependencies) {
+        return Arrays.stream(dependencies)
+                .map(dependency -> {
+                    Step step = stepsByName.get(dependency);
+                    checkArgument(step != null, "Step %s depends on unknown step %s", name, dependency);
+                    return step;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private void add(Step step) {
+        checkState(!started, "Steps must be added before the startup graph is started");
+        checkArgument(!stepsByName.containsKey(step.getName()), "Step %s was added already", step.getName());
+        stepsByName.put(step.getName(), step);
+    }
+
+    private void startReadySteps() {
+        // We start the asynchronous steps first, so their work overlaps with the synchronous steps. A synchronous step
+        // completes while we iterate and starts its dependents before we continue.
+        stepsByName.values().stream()
+                .filter(Step::isReady)
+                .sorted(Comparator.comparing(step -> step.task != null))
+                .collect(Collectors.toList())
+                .forEach(this::startStep);
+    }
+
+    private void startStep(Step step) {
+        if (step.started)
+            return;
+
+        step.started = true;
+        step.startTs = System.currentTimeMillis();
+        log.info("Start step {} of {}", step.getName(), name);
+        if (step.task != null) {
+            step.task.run();
+            onStepCompleted(step);
+        } else if (step.asyncTask != null) {
+            step.asyncTask.accept(() -> UserThread.execute(() -> onStepCompleted(step)));
+        }
+    }
+
+    private void onStepCompleted(Step step) {
+        if (step.completed)
+            return;
+
+        step.completed = true;
+        step.completeTs = System.currentTimeMillis();
+        log.info("Step {} of {} completed after {} ms", step.getName(), name, step.getDuration());
+        if (isComplete())
+            log.info(getReport());
+        else
+            startReadySteps();
+    }
+
+    private static Step getLastCompleted(Iterable<Step> steps) {
+        Step lastCompleted = null;
+        for (Step step : steps) {
+            if (step.isCompleted() && (lastCompleted == null || step.getCompleteTs() > lastCompleted.getCompleteTs()))
+                lastCompleted = step;
+        }
+        return lastCompleted;
+    }
+}
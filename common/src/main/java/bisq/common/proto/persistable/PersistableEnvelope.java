@@ -23,4 +23,14 @@ import bisq.common.Envelope;
  * Interface for the outside envelope object persisted to disc.
  */
 public interface PersistableEnvelope extends Envelope {
+
+    /**
+     * A delayed save creates the proto message on the user thread by default, as that is the thread the persistable
+     * gets mutated from. Persistables which are immutable, a clone, or only hold immutable elements in a concurrent
+     * collection can return true, so their proto message gets created on the persistence thread. Large stores should
+     * do so to not block the user thread while they are serialized.
+     */
+    default boolean isSafeToSerializeOffUserThread() {
+        return false;
+    }
 }
@@ -19,10 +19,17 @@ package bisq.common.proto.persistable;
 
 import java.util.List;
 
+import org.slf4j.LoggerFactory;
+
 public interface PersistedDataHost {
     void readPersisted();
 
     static void apply(List<PersistedDataHost> persistedDataHosts) {
-        persistedDataHosts.forEach(PersistedDataHost::readPersisted);
+        persistedDataHosts.forEach(persistedDataHost -> {
+            long ts = System.currentTimeMillis();
+            persistedDataHost.readPersisted();
+            LoggerFactory.getLogger(PersistedDataHost.class).info("readPersisted at {} took {} ms",
+                    persistedDataHost.getClass().getSimpleName(), System.currentTimeMillis() - ts);
+        });
     }
 }
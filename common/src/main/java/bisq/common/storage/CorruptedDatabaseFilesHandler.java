@@ -33,11 +33,12 @@ public class CorruptedDatabaseFilesHandler {
     public CorruptedDatabaseFilesHandler() {
     }
 
-    public void onFileCorrupted(String fileName) {
+    // Stores might get read concurrently at startup
+    public synchronized void onFileCorrupted(String fileName) {
         corruptedDatabaseFiles.add(fileName);
     }
 
-    public Optional<List<String>> getCorruptedDatabaseFiles() {
+    public synchronized Optional<List<String>> getCorruptedDatabaseFiles() {
         if (!corruptedDatabaseFiles.isEmpty()) {
             if (corruptedDatabaseFiles.size() == 1 && corruptedDatabaseFiles.get(0).equals("ViewPathAsString")) {
                 log.debug("We detected incompatible data base file for Navigation. " +
@@ -17,10 +17,8 @@
 
 package bisq.common.storage;
 
-import bisq.common.UserThread;
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
-import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
 
@@ -34,27 +32,33 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 
-import java.util.Random;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.locks.ReentrantLock;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class FileManager<T extends PersistableEnvelope> {
     private final File dir;
     private final File storageFile;
-    private final ScheduledThreadPoolExecutor executor;
-    private final AtomicBoolean savePending;
+    private final PersistenceEngine persistenceEngine;
     private final long delay;
-    private final Callable<Void> saveFileTask;
-    private T persistable;
     private final PersistenceProtoResolver persistenceProtoResolver;
     private final ReentrantLock writeLock = CycleDetectingLockFactory.newInstance(CycleDetectingLockFactory.Policies.THROW).newReentrantLock("writeLock");
 
+    // Delayed save state, guarded by saveLock
+    private final Object saveLock = new Object();
+    private T persistable;
+    @Nullable
+    private ScheduledFuture<?> pendingSave;
+    private long pendingSaveDeadline;
+    private long snapshotSequenceNumber;
+
+    // Guarded by this
+    private long writtenSequenceNumber;
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -63,30 +67,8 @@ public class FileManager<T extends PersistableEnvelope> {
         this.dir = dir;
         this.storageFile = storageFile;
         this.persistenceProtoResolver = persistenceProtoResolver;
-
-        executor = Utilities.getScheduledThreadPoolExecutor("FileManager", 1, 10, 5);
-
-        // File must only be accessed from the auto-save executor from now on, to avoid simultaneous access.
-        savePending = new AtomicBoolean();
         this.delay = delay;
-
-        saveFileTask = () -> {
-            try {
-                Thread.currentThread().setName("Save-file-task-" + new Random().nextInt(10000));
-                // Runs in an auto save thread.
-                if (!savePending.getAndSet(false)) {
-                    // Some other scheduled request already beat us to it.
-                    return null;
-                }
-                saveNowInternal(persistable);
-            } catch (Throwable e) {
-                log.error("Error during saveFileTask", e);
-            }
-            return null;
-        };
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            UserThread.execute(FileManager.this::shutDown);
-        }, "FileManager.ShutDownHook"));
+        persistenceEngine = PersistenceEngine.getInstance();
     }
 
 
@@ -98,7 +80,13 @@ public class FileManager<T extends PersistableEnvelope> {
      * Actually write the wallet file to disk, using an atomic rename when possible. Runs on the current thread.
      */
     public void saveNow(T persistable) {
-        saveNowInternal(persistable);
+        long sequenceNumber;
+        synchronized (saveLock) {
+            sequenceNumber = ++snapshotSequenceNumber;
+        }
+        PB.PersistableEnvelope protoPersistable = toProtoMessage(persistable);
+        if (protoPersistable != null)
+            saveToFile(protoPersistable, sequenceNumber);
     }
 
     /**
@@ -108,13 +96,25 @@ public class FileManager<T extends PersistableEnvelope> {
         saveLater(persistable, delay);
     }
 
+    /**
+     * Queues up a save which gets written at latest after delayInMilli. If a save is already pending it will
+     * write the given persistable instead, and it gets rescheduled only if it was due later than requested.
+     */
     public void saveLater(T persistable, long delayInMilli) {
-        this.persistable = persistable;
+        synchronized (saveLock) {
+            this.persistable = persistable;
 
-        if (savePending.getAndSet(true))
-            return;   // Already pending.
+            long deadline = System.currentTimeMillis() + delayInMilli;
+            if (pendingSave != null) {
+                if (deadline >= pendingSaveDeadline)
+                    return;   // Already pending.
 
-        executor.schedule(saveFileTask, delayInMilli, TimeUnit.MILLISECONDS);
+                pendingSave.cancel(false);
+            }
+            pendingSaveDeadline = deadline;
+            pendingSave = persistenceEngine.scheduleSave(this, delayInMilli,
+                    !persistable.isSafeToSerializeOffUserThread());
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -135,6 +135,17 @@ public class FileManager<T extends PersistableEnvelope> {
     public synchronized void removeFile(String fileName) {
         log.debug("removeFile" + fileName);
         File file = new File(dir, fileName);
+        if (file.equals(storageFile)) {
+            // A pending or already scheduled write must not bring the file back
+            synchronized (saveLock) {
+                if (pendingSave != null) {
+                    pendingSave.cancel(false);
+                    pendingSave = null;
+                    persistenceEngine.onSnapshotTaken(this);
+                }
+                writtenSequenceNumber = ++snapshotSequenceNumber;
+            }
+        }
         boolean result = file.delete();
         if (!result)
             log.warn("Could not delete file: " + file.toString());
@@ -147,22 +158,19 @@ public class FileManager<T extends PersistableEnvelope> {
                 if (!result)
                     log.warn("Could not delete backupFile: " + file.toString());
             }
-        }
-    }
 
-
-    /**
-     * Shut down auto-saving.
-     */
-    void shutDown() {
-        executor.shutdown();
-        try {
-            executor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            File rollingBackupDir = FileUtil.getRollingBackupDir(dir, fileName);
+            if (rollingBackupDir.exists()) {
+                try {
+                    FileUtil.deleteDirectory(rollingBackupDir);
+                } catch (IOException e) {
+                    log.warn("Could not delete rollingBackupDir: " + rollingBackupDir.toString());
+                }
+            }
         }
     }
 
+
     public synchronized void removeAndBackupFile(String fileName) throws IOException {
         File corruptedBackupDir = new File(Paths.get(dir.getAbsolutePath(), "backup_of_corrupted_data").toString());
         if (!corruptedBackupDir.exists())
@@ -177,34 +185,75 @@ public class FileManager<T extends PersistableEnvelope> {
         FileUtil.rollingBackup(dir, fileName, numMaxBackupFiles);
     }
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package scope, used by PersistenceEngine
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Called once a delayed save is due, on the user thread unless the persistable is safe to serialize concurrently
+    void saveSnapshot() {
+        Runnable writeTask = takePendingSnapshot();
+        if (writeTask != null)
+            persistenceEngine.write(writeTask);
+    }
+
+    // Called at shutdown, writes a pending save on the current thread
+    void flush() {
+        Runnable writeTask = takePendingSnapshot();
+        if (writeTask != null)
+            writeTask.run();
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void saveNowInternal(T persistable) {
-        long now = System.currentTimeMillis();
-        saveToFile(persistable, dir, storageFile);
-        log.trace("Save {} completed in {} msec", storageFile, System.currentTimeMillis() - now);
+    @Nullable
+    private Runnable takePendingSnapshot() {
+        T persistable;
+        long sequenceNumber;
+        synchronized (saveLock) {
+            if (pendingSave == null)
+                return null;   // Already saved by a save which was rescheduled or flushed.
+
+            pendingSave.cancel(false);
+            pendingSave = null;
+            persistable = this.persistable;
+            sequenceNumber = ++snapshotSequenceNumber;
+            persistenceEngine.onSnapshotTaken(this);
+        }
+        PB.PersistableEnvelope protoPersistable = toProtoMessage(persistable);
+        return protoPersistable != null ? () -> saveToFile(protoPersistable, sequenceNumber) : null;
+    }
+
+    @Nullable
+    private PB.PersistableEnvelope toProtoMessage(T persistable) {
+        try {
+            PB.PersistableEnvelope protoPersistable = (PB.PersistableEnvelope) persistable.toProtoMessage();
+            // getSerializedSize is memoized, so that check does not cost an additional serialization
+            if (protoPersistable.getSerializedSize() == 0)
+                log.error("protoPersistable is empty. persistable=" + persistable.getClass().getSimpleName());
+            return protoPersistable;
+        } catch (Throwable e) {
+            log.error("Error in saveToFile toProtoMessage: {}, {}", persistable.getClass().getSimpleName(), storageFile);
+            e.printStackTrace();
+            return null;
+        }
     }
 
-    private synchronized void saveToFile(T persistable, File dir, File storageFile) {
+    private synchronized void saveToFile(PB.PersistableEnvelope protoPersistable, long sequenceNumber) {
+        if (sequenceNumber <= writtenSequenceNumber) {
+            log.debug("A newer snapshot of {} got already written", storageFile.getName());
+            return;
+        }
+
+        long ts = System.currentTimeMillis();
         File tempFile = null;
         FileOutputStream fileOutputStream = null;
         PrintWriter printWriter = null;
 
         try {
             log.debug("Write to disc: {}", storageFile.getName());
-            PB.PersistableEnvelope protoPersistable;
-            try {
-                protoPersistable = (PB.PersistableEnvelope) persistable.toProtoMessage();
-                if (protoPersistable.toByteArray().length == 0)
-                    log.error("protoPersistable is empty. persistable=" + persistable.getClass().getSimpleName());
-            } catch (Throwable e) {
-                log.error("Error in saveToFile toProtoMessage: {}, {}", persistable.getClass().getSimpleName(), storageFile);
-                e.printStackTrace();
-                throw new RuntimeException(e);
-            }
-
             if (!dir.exists() && !dir.mkdir())
                 log.warn("make dir failed");
 
@@ -212,7 +261,7 @@ public class FileManager<T extends PersistableEnvelope> {
             tempFile.deleteOnExit();
             fileOutputStream = new FileOutputStream(tempFile);
 
-            log.debug("Writing protobuffer class:{} to file:{}", persistable.getClass(), storageFile.getName());
+            log.debug("Writing protobuffer message case:{} to file:{}", protoPersistable.getMessageCase(), storageFile.getName());
             writeLock.lock();
             protoPersistable.writeDelimitedTo(fileOutputStream);
 
@@ -226,6 +275,8 @@ public class FileManager<T extends PersistableEnvelope> {
             // when rename temp file
             fileOutputStream.close();
             FileUtil.renameFile(tempFile, storageFile);
+            writtenSequenceNumber = sequenceNumber;
+            persistenceEngine.onFileWritten(storageFile, storageFile.length(), System.currentTimeMillis() - ts);
         } catch (Throwable t) {
             log.error("Error at saveToFile, storageFile=" + storageFile.toString(), t);
         } finally {
@@ -51,10 +51,7 @@ public class FileUtil {
 
             File origFile = new File(Paths.get(dir.getAbsolutePath(), fileName).toString());
             if (origFile.exists()) {
-                String dirName = "backups_" + fileName;
-                if (dirName.contains("."))
-                    dirName = dirName.replace(".", "_");
-                File backupFileDir = new File(Paths.get(backupDir.getAbsolutePath(), dirName).toString());
+                File backupFileDir = getRollingBackupDir(dir, fileName);
                 if (!backupFileDir.exists())
                     if (!backupFileDir.mkdir())
                         log.warn("make backupFileDir failed.\nBackupFileDir=" + backupFileDir.getAbsolutePath());
@@ -95,6 +92,14 @@ public class FileUtil {
         }
     }
 
+    // The directory in which rollingBackup keeps the backups of the given file
+    public static File getRollingBackupDir(File dir, String fileName) {
+        String dirName = "backups_" + fileName;
+        if (dirName.contains("."))
+            dirName = dirName.replace(".", "_");
+        return new File(Paths.get(dir.getAbsolutePath(), "backup", dirName).toString());
+    }
+
     public static void deleteDirectory(File file) throws IOException {
         deleteDirectory(file, null, true);
     }
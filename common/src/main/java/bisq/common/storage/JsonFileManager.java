@@ -25,13 +25,16 @@ import org.json.simple.parser.ParseException;
 
 import java.nio.file.Paths;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -67,32 +70,25 @@ public class JsonFileManager {
     }
 
     public void writeToDisc(String json, String fileName) {
-        executor.execute(() -> {
-            File jsonFile = new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
-            File tempFile = null;
-            PrintWriter printWriter = null;
-            try {
-                tempFile = File.createTempFile("temp", null, dir);
-                if (!executor.isShutdown() && !executor.isTerminated() && !executor.isTerminating())
-                    tempFile.deleteOnExit();
-
-                printWriter = new PrintWriter(tempFile);
-                printWriter.println(json);
-
-                FileUtil.renameFile(tempFile, jsonFile);
-            } catch (Throwable t) {
-                log.error("storageFile " + jsonFile.toString());
-                t.printStackTrace();
-            } finally {
-                if (tempFile != null && tempFile.exists()) {
-                    log.warn("Temp file still exists after failed save. We will delete it now. storageFile=" + fileName);
-                    if (!tempFile.delete())
-                        log.error("Cannot delete temp file.");
-                }
-
-                if (printWriter != null)
-                    printWriter.close();
-            }
+        executor.execute(() -> writeToDiscSync(json, fileName));
+    }
+
+    /**
+     * Writes the json file from the calling thread. Used by callers which manage their own threads, as the executor
+     * drops tasks if its queue is full.
+     */
+    public void writeToDiscSync(String json, String fileName) {
+        write(fileName, printWriter -> printWriter.println(json));
+    }
+
+    /**
+     * Streams the json representation of the object to the file from the calling thread, so large objects don't need
+     * to be converted to one string first.
+     */
+    public void writeObjectToDiscSync(Object object, String fileName) {
+        write(fileName, printWriter -> {
+            Utilities.objectToJson(object, printWriter);
+            printWriter.println();
         });
     }
 
@@ -106,4 +102,37 @@ public class JsonFileManager {
             throw new RuntimeException(e);
         }
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void write(String fileName, Consumer<PrintWriter> contentWriter) {
+        File jsonFile = new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("temp", null, dir);
+            if (!executor.isShutdown() && !executor.isTerminated() && !executor.isTerminating())
+                tempFile.deleteOnExit();
+
+            try (PrintWriter printWriter = new PrintWriter(new BufferedWriter(new FileWriter(tempFile)))) {
+                contentWriter.accept(printWriter);
+                // PrintWriter does not throw IOExceptions, so we need to check for errors before we replace the file
+                if (printWriter.checkError())
+                    throw new IOException("Writing to temp file failed");
+            }
+
+            FileUtil.renameFile(tempFile, jsonFile);
+        } catch (Throwable t) {
+            log.error("storageFile " + jsonFile.toString());
+            t.printStackTrace();
+        } finally {
+            if (tempFile != null && tempFile.exists()) {
+                log.warn("Temp file still exists after failed save. We will delete it now. storageFile=" + fileName);
+                if (!tempFile.delete())
+                    log.error("Cannot delete temp file.");
+            }
+        }
+    }
 }
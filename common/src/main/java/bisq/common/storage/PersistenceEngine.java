@@ -0,0 +1,167 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import bisq.common.UserThread;
+import bisq.common.util.Utilities;
+
+import java.io.File;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executes the delayed writes of all {@link FileManager}s on one small thread pool instead of a pool per file.
+ * <p></p>
+ * A delayed save is scheduled once per file, further save requests before it is due are coalesced with it. When
+ * it is due, the proto message of the persistable is created on the user thread, which is the thread the
+ * persistable gets mutated from, so we never serialize a half updated object. Persistables which are safe to
+ * serialize concurrently (see {@link bisq.common.proto.persistable.PersistableEnvelope#isSafeToSerializeOffUserThread})
+ * create their proto message on the pool instead. Serializing the snapshot, writing it to a temp file, fsync and the
+ * rename to the storage file happen on the pool. Each file is synced before it
+ * replaces the storage file, so a crash leaves either the old or the new file but never a partial one.
+ * <p></p>
+ * At shutdown all pending saves are written immediately.
+ */
+@Slf4j
+public class PersistenceEngine {
+    private static final int NUM_THREADS = 2;
+    private static final long SLOW_WRITE_MS = 1000;
+
+    private static final PersistenceEngine INSTANCE = new PersistenceEngine();
+
+    public static PersistenceEngine getInstance() {
+        return INSTANCE;
+    }
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final Set<FileManager<?>> fileManagersWithPendingSave = ConcurrentHashMap.newKeySet();
+    private final Map<String, WriteStats> writeStatsByFileName = new ConcurrentHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private PersistenceEngine() {
+        executor = Utilities.getScheduledThreadPoolExecutor("PersistenceEngine", NUM_THREADS, NUM_THREADS, 60);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutDown, "PersistenceEngine.ShutDownHook"));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return Write statistics per file name, updated with every write.
+     */
+    public Map<String, WriteStats> getWriteStats() {
+        return new HashMap<>(writeStatsByFileName);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package scope, used by FileManager
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    ScheduledFuture<?> scheduleSave(FileManager<?> fileManager, long delayInMilli, boolean snapshotOnUserThread) {
+        fileManagersWithPendingSave.add(fileManager);
+        Runnable saveSnapshot = snapshotOnUserThread ?
+                () -> UserThread.execute(fileManager::saveSnapshot) :
+                fileManager::saveSnapshot;
+        return executor.schedule(saveSnapshot, delayInMilli, TimeUnit.MILLISECONDS);
+    }
+
+    void onSnapshotTaken(FileManager<?> fileManager) {
+        fileManagersWithPendingSave.remove(fileManager);
+    }
+
+    void write(Runnable writeTask) {
+        executor.execute(writeTask);
+    }
+
+    void onFileWritten(File storageFile, long numBytes, long durationInMilli) {
+        writeStatsByFileName.computeIfAbsent(storageFile.getName(), fileName -> new WriteStats())
+                .add(numBytes, durationInMilli);
+        if (durationInMilli > SLOW_WRITE_MS)
+            log.info("Writing {} ({} bytes) took {} ms", storageFile.getName(), numBytes, durationInMilli);
+        else
+            log.debug("Writing {} ({} bytes) took {} ms", storageFile.getName(), numBytes, durationInMilli);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void shutDown() {
+        // We cannot rely on the user thread being still alive, so we write the pending saves from the current thread
+        fileManagersWithPendingSave.forEach(FileManager::flush);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // WriteStats
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Getter
+    public static class WriteStats {
+        private long numWrites;
+        private long lastNumBytes;
+        private long lastDuration;
+        private long maxDuration;
+        private long totalNumBytes;
+        private long totalDuration;
+
+        private synchronized void add(long numBytes, long duration) {
+            numWrites++;
+            lastNumBytes = numBytes;
+            lastDuration = duration;
+            maxDuration = Math.max(maxDuration, duration);
+            totalNumBytes += numBytes;
+            totalDuration += duration;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "WriteStats{" +
+                    "numWrites=" + numWrites +
+                    ", lastNumBytes=" + lastNumBytes +
+                    ", lastDuration=" + lastDuration +
+                    ", maxDuration=" + maxDuration +
+                    ", totalNumBytes=" + totalNumBytes +
+                    ", totalDuration=" + totalDuration +
+                    '}';
+        }
+    }
+}
@@ -47,6 +47,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * As the data are small and it is just one read access the performance penalty is small and might be even worse to create and setup a thread for it.
  * <p></p>
  * The write operation used a background thread and supports a delayed write to avoid too many repeated write operations.
+ * All files are written by the shared {@link PersistenceEngine}, the delay is the maximum time a change might wait
+ * until it gets written.
  */
 public class Storage<T extends PersistableEnvelope> {
     private static final Logger log = LoggerFactory.getLogger(Storage.class);
@@ -107,10 +109,33 @@ public class Storage<T extends PersistableEnvelope> {
         queueUpForSave(persistable, delayInMilli);
     }
 
+    // If set to 0 we don't make a backup at first read
     public void setNumMaxBackupFiles(int numMaxBackupFiles) {
         this.numMaxBackupFiles = numMaxBackupFiles;
     }
 
+    public File getDir() {
+        return dir;
+    }
+
+    /**
+     * Creates a storage for files in the given sub directory of our directory, e.g. to persist the elements of a
+     * large collection in separate files. The directory gets created at the first write.
+     */
+    public <E extends PersistableEnvelope> Storage<E> forSubDirectory(String dirName) {
+        return new Storage<>(new File(dir, dirName), persistenceProtoResolver);
+    }
+
+    // Save on the current thread. Only use it if the data must be on disk before we continue.
+    public void saveNow() {
+        if (persistable != null) {
+            checkNotNull(storageFile, "storageFile = null. Call setupFileStorage before using read/write.");
+            fileManager.saveNow(persistable);
+        } else {
+            log.trace("saveNow called but no persistable set");
+        }
+    }
+
     // Save delayed and on a background thread
     public void queueUpForSave(T persistable) {
         if (persistable != null) {
@@ -154,9 +179,11 @@ public class Storage<T extends PersistableEnvelope> {
                 log.trace("Read {} completed in {}msec", storageFile, System.currentTimeMillis() - now);
 
                 // If we did not get any exception we can be sure the data are consistent so we make a backup
-                now = System.currentTimeMillis();
-                fileManager.backupFile(fileName, numMaxBackupFiles);
-                log.trace("Backup {} completed in {}msec", storageFile, System.currentTimeMillis() - now);
+                if (numMaxBackupFiles > 0) {
+                    now = System.currentTimeMillis();
+                    fileManager.backupFile(fileName, numMaxBackupFiles);
+                    log.trace("Backup {} completed in {}msec", storageFile, System.currentTimeMillis() - now);
+                }
 
                 return persistedObject;
             } catch (Throwable t) {
@@ -42,6 +42,14 @@ public abstract class Task<T extends Model> {
             throw new InterceptTaskException("Task intercepted for testing purpose. Task = " + getClass().getSimpleName());
     }
 
+    /**
+     * @return Whether the model gets persisted after the task completed. Tasks which do not change the model, like
+     * checks of the peer's data, override it to avoid a needless write.
+     */
+    protected boolean isPersistAfterCompletion() {
+        return true;
+    }
+
     protected void appendToErrorMessage(String message) {
         errorMessage += "\n" + message;
     }
@@ -26,33 +26,50 @@ import java.util.concurrent.LinkedBlockingQueue;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Runs the added tasks one after another on the shared model. The model gets persisted after each completed task
+ * unless the task opted out with {@link Task#isPersistAfterCompletion()}.
+ * <p></p>
+ * The duration of each task is added to the {@link TaskTimings} under the protocol name, which is the simple class
+ * name of the model if not set explicitly.
+ */
 @Slf4j
 public class TaskRunner<T extends Model> {
-    private final Queue<Class<? extends Task>> tasks = new LinkedBlockingQueue<>();
+    private final Queue<TaskFactory<T>> tasks = new LinkedBlockingQueue<>();
     private final T sharedModel;
-    private final Class<T> sharedModelClass;
+    private final String protocolName;
     private final ResultHandler resultHandler;
     private final ErrorMessageHandler errorMessageHandler;
     private boolean failed = false;
     private boolean isCanceled;
 
-    private Class<? extends Task> currentTask;
+    private Task<T> currentTask;
+    private long currentTaskStartTs;
+    private final StringBuilder completedTasks = new StringBuilder();
+
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
 
     public TaskRunner(T sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
-        //noinspection unchecked
-        this(sharedModel, (Class<T>) sharedModel.getClass(), resultHandler, errorMessageHandler);
+        this(sharedModel, sharedModel.getClass().getSimpleName(), resultHandler, errorMessageHandler);
     }
 
-    public TaskRunner(T sharedModel, Class<T> sharedModelClass, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
+    public TaskRunner(T sharedModel, String protocolName, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         this.sharedModel = sharedModel;
+        this.protocolName = protocolName;
         this.resultHandler = resultHandler;
         this.errorMessageHandler = errorMessageHandler;
-        this.sharedModelClass = sharedModelClass;
     }
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
     @SafeVarargs
-    public final void addTasks(Class<? extends Task<T>>... items) {
+    public final void addTasks(TaskFactory<T>... items) {
         tasks.addAll(Arrays.asList(items));
     }
 
@@ -60,36 +77,63 @@ public class TaskRunner<T extends Model> {
         next();
     }
 
+    public void cancel() {
+        isCanceled = true;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package scope, used by Task
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void handleComplete() {
+        long duration = onTaskFinished(false);
+        log.trace("Task completed: {} ({} ms)", currentTask.getClass().getSimpleName(), duration);
+        completedTasks.append(completedTasks.length() > 0 ? ", " : "")
+                .append(currentTask.getClass().getSimpleName()).append(" (").append(duration).append(" ms)");
+        if (currentTask.isPersistAfterCompletion())
+            sharedModel.persist();
+        next();
+    }
+
+    void handleErrorMessage(String errorMessage) {
+        String taskName = currentTask != null ? currentTask.getClass().getSimpleName() : "n/a";
+        if (currentTask != null)
+            onTaskFinished(true);
+        log.error("Task failed: " + taskName + " / errorMessage: " + errorMessage);
+        failed = true;
+        errorMessageHandler.handleErrorMessage(errorMessage);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
     private void next() {
         if (!failed && !isCanceled) {
             if (tasks.size() > 0) {
                 try {
-                    currentTask = tasks.poll();
-                    log.info("Run task: " + currentTask.getSimpleName());
-                    currentTask.getDeclaredConstructor(TaskRunner.class, sharedModelClass).newInstance(this, sharedModel).run();
+                    // Reset first so a failing factory is not reported as a failure of the previous task
+                    currentTask = null;
+                    currentTask = tasks.poll().create(this, sharedModel);
+                    log.debug("Run task: " + currentTask.getClass().getSimpleName());
+                    currentTaskStartTs = System.currentTimeMillis();
+                    currentTask.run();
                 } catch (Throwable throwable) {
                     throwable.printStackTrace();
                     handleErrorMessage("Error at taskRunner: " + throwable.getMessage());
                 }
             } else {
+                log.info("{} completed tasks: {}", protocolName, completedTasks);
                 resultHandler.handleResult();
             }
         }
     }
 
-    public void cancel() {
-        isCanceled = true;
-    }
-
-    void handleComplete() {
-        log.trace("Task completed: " + currentTask.getSimpleName());
-        sharedModel.persist();
-        next();
-    }
-
-    void handleErrorMessage(String errorMessage) {
-        log.error("Task failed: " + currentTask.getSimpleName() + " / errorMessage: " + errorMessage);
-        failed = true;
-        errorMessageHandler.handleErrorMessage(errorMessage);
+    private long onTaskFinished(boolean failed) {
+        long duration = System.currentTimeMillis() - currentTaskStartTs;
+        TaskTimings.getInstance().add(protocolName, currentTask.getClass(), duration, failed);
+        return duration;
     }
 }
@@ -0,0 +1,130 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.Getter;
+
+/**
+ * Collects the durations of the tasks run by all {@link TaskRunner}s, grouped by protocol and task class. The duration
+ * of a task is the time from its start until it completed or failed, so tasks waiting for a peer, a broadcast or the
+ * wallet include that waiting time.
+ */
+public class TaskTimings {
+    // Upper bounds of the histogram buckets in ms, the last bucket takes all longer durations
+    private static final long[] BUCKET_LIMITS = {10, 50, 100, 500, 1000, 5000, 10_000, 30_000};
+
+    private static final TaskTimings INSTANCE = new TaskTimings();
+
+    public static TaskTimings getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<String, TaskStats> statsByKey = new ConcurrentHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private TaskTimings() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return Statistics per protocol and task, keyed by "protocol/task".
+     */
+    public Map<String, TaskStats> getTaskStats() {
+        return new HashMap<>(statsByKey);
+    }
+
+    /**
+     * @return One line per protocol and task with the number of runs, failures, the mean and max duration and the
+     * duration histogram, sorted by the total time spent in the task.
+     */
+    public String getReport() {
+        StringBuilder sb = new StringBuilder("Task timings (histogram buckets in ms: ")
+                .append(Arrays.toString(BUCKET_LIMITS)).append(", more)");
+        statsByKey.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, TaskStats> e) -> e.getValue().getTotalDuration()).reversed())
+                .forEach(e -> sb.append("\n").append(e.getKey()).append(": ").append(e.getValue()));
+        return sb.toString();
+    }
+
+    public void clear() {
+        statsByKey.clear();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package scope, used by TaskRunner
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void add(String protocolName, Class<?> taskClass, long durationInMilli, boolean failed) {
+        statsByKey.computeIfAbsent(protocolName + "/" + taskClass.getSimpleName(), key -> new TaskStats())
+                .add(durationInMilli, failed);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // TaskStats
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Getter
+    public static class TaskStats {
+        private long numRuns;
+        private long numFailures;
+        private long totalDuration;
+        private long maxDuration;
+        private final long[] histogram = new long[BUCKET_LIMITS.length + 1];
+
+        private synchronized void add(long duration, boolean failed) {
+            numRuns++;
+            if (failed)
+                numFailures++;
+            totalDuration += duration;
+            maxDuration = Math.max(maxDuration, duration);
+            int bucket = 0;
+            while (bucket < BUCKET_LIMITS.length && duration > BUCKET_LIMITS[bucket])
+                bucket++;
+            histogram[bucket]++;
+        }
+
+        public synchronized long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "numRuns=" + numRuns +
+                    ", numFailures=" + numFailures +
+                    ", meanDuration=" + (numRuns > 0 ? totalDuration / numRuns : 0) +
+                    ", maxDuration=" + maxDuration +
+                    ", histogram=" + Arrays.toString(histogram);
+        }
+    }
+}
@@ -21,6 +21,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -104,4 +106,55 @@ public class PermutationUtil {
                 (System.currentTimeMillis() - ts), list.size(), counter, Profiler.getUsedMemoryInMB());
         return result;
     }
+
+    /**
+     * Searches the sets of indices to remove from a list for the first one which matches the predicate. The sets are
+     * created lazily with increasing size, so all single indices are tried first, then all pairs and so on. At least
+     * one item always remains in the list. Unlike findAllPermutations no lists are created, the caller can build the
+     * partial list from the indices with getPartialList or apply the indices on data derived from the list.
+     *
+     * @param listSize          Size of the list
+     * @param predicate         Gets the ascending indices to remove. The array is reused for the next set, so the
+     *                          predicate must not keep it.
+     * @param maxIterations     Max. number of sets we try
+     * @return A copy of the ascending indices of the first matching set
+     */
+    public static Optional<int[]> findIndicesToRemove(int listSize, Predicate<int[]> predicate, int maxIterations) {
+        long ts = System.currentTimeMillis();
+        int counter = 0;
+        for (int numIndices = 1; numIndices < listSize; numIndices++) {
+            int[] indices = new int[numIndices];
+            for (int i = 0; i < numIndices; i++)
+                indices[i] = i;
+
+            while (true) {
+                counter++;
+                if (counter > maxIterations) {
+                    log.warn("We reached maxIterations of our allowed iterations. counter={}", counter);
+                    return Optional.empty();
+                }
+
+                if (predicate.test(indices)) {
+                    log.info("findIndicesToRemove took {} ms for {} items and {} iterations.",
+                            (System.currentTimeMillis() - ts), listSize, counter);
+                    return Optional.of(indices.clone());
+                }
+
+                // Advance to the next set in lexicographic order, e.g. for 4 items [0,1] [0,2] [0,3] [1,2] [1,3] [2,3]
+                int i = numIndices - 1;
+                while (i >= 0 && indices[i] == listSize - numIndices + i)
+                    i--;
+                if (i < 0)
+                    break;
+
+                indices[i]++;
+                for (int j = i + 1; j < numIndices; j++)
+                    indices[j] = indices[j - 1] + 1;
+            }
+        }
+
+        log.info("findIndicesToRemove took {} ms for {} items and {} iterations without a match.",
+                (System.currentTimeMillis() - ts), listSize, counter);
+        return Optional.empty();
+    }
 }
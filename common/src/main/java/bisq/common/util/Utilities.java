@@ -89,16 +89,26 @@ import static java.awt.Desktop.isDesktopSupported;
 public class Utilities {
     private static long lastTimeStamp = System.currentTimeMillis();
     public static final String LB = System.getProperty("line.separator");
+    private static final Gson JSON_GSON = createJsonGson();
 
     // TODO check out Jackson lib
     public static String objectToJson(Object object) {
-        Gson gson = new GsonBuilder()
+        return JSON_GSON.toJson(object);
+    }
+
+    // Streams the json to the writer so large objects don't need to be held as one string in memory
+    public static void objectToJson(Object object, Appendable writer) {
+        JSON_GSON.toJson(object, writer);
+    }
+
+    // Gson is thread safe, so we can share one instance instead of creating it for each object
+    private static Gson createJsonGson() {
+        return new GsonBuilder()
                 .setExclusionStrategies(new AnnotationExclusionStrategy())
                 /*.excludeFieldsWithModifiers(Modifier.TRANSIENT)*/
                 /*  .setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE)*/
                 .setPrettyPrinting()
                 .create();
-        return gson.toJson(object);
     }
 
     public static ListeningExecutorService getListeningSingleThreadExecutor(String name) {
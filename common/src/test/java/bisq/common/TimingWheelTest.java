@@ -0,0 +1,69 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTest {
+    @Test
+    public void testTimeoutsExpireAtTheirTick() {
+        TimingWheel wheel = new TimingWheel(100, 8);
+        List<String> expired = new ArrayList<>();
+        wheel.schedule(0, () -> expired.add("immediately"));
+        wheel.schedule(250, () -> expired.add("3 ticks"));
+        // More than one round ahead, shares the bucket with the 3 ticks timeout
+        wheel.schedule(1100, () -> expired.add("11 ticks"));
+        assertEquals(3, wheel.getNumTimeouts());
+
+        List<String> expiredByTick = new ArrayList<>();
+        for (int tick = 1; tick <= 11; tick++) {
+            wheel.advance().forEach(Runnable::run);
+            if (!expired.isEmpty()) {
+                expiredByTick.add(tick + ":" + expired.get(0));
+                expired.clear();
+            }
+        }
+        assertEquals("[1:immediately, 3:3 ticks, 11:11 ticks]", expiredByTick.toString());
+        assertEquals(0, wheel.getNumTimeouts());
+    }
+
+    @Test
+    public void testCancelledTimeoutDoesNotExpire() {
+        TimingWheel wheel = new TimingWheel(100, 8);
+        List<String> expired = new ArrayList<>();
+        TimingWheel.Timeout first = wheel.schedule(200, () -> expired.add("first"));
+        wheel.schedule(200, () -> expired.add("second"));
+        TimingWheel.Timeout third = wheel.schedule(200, () -> expired.add("third"));
+        wheel.cancel(first);
+        wheel.cancel(third);
+        // Cancelling twice has no effect
+        wheel.cancel(third);
+        assertEquals(1, wheel.getNumTimeouts());
+
+        assertTrue(wheel.advance().isEmpty());
+        wheel.advance().forEach(Runnable::run);
+        assertEquals("[second]", expired.toString());
+        assertEquals(0, wheel.getNumTimeouts());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.app;
+
+import bisq.common.handlers.ResultHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StartupGraphTest {
+    @Test
+    public void testStepsStartWhenDependenciesCompleted() {
+        List<String> started = new ArrayList<>();
+        AtomicReference<ResultHandler> asyncHandler = new AtomicReference<>();
+        StartupGraph startupGraph = new StartupGraph("test");
+        startupGraph.addStep("sync", () -> started.add("sync"));
+        startupGraph.addAsyncStep("async", resultHandler -> {
+            started.add("async");
+            asyncHandler.set(resultHandler);
+        });
+        startupGraph.addStep("last", () -> started.add("last"), "sync", "async");
+
+        startupGraph.start();
+        // The asynchronous step gets started first so it overlaps with the synchronous one
+        assertEquals(2, started.size());
+        assertEquals("async", started.get(0));
+        assertFalse(startupGraph.isComplete());
+
+        asyncHandler.get().handleResult();
+        assertEquals("last", started.get(2));
+        assertTrue(startupGraph.isComplete());
+
+        // Further calls of the result handler are ignored
+        asyncHandler.get().handleResult();
+        assertEquals(3, started.size());
+        assertEquals("last", startupGraph.getCriticalPath().get(1).getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownDependency() {
+        new StartupGraph("test").addStep("step", () -> {
+        }, "unknown");
+    }
+
+    @Test
+    public void testReportContainsMeasuredTasks() {
+        StartupGraph startupGraph = new StartupGraph("test");
+        startupGraph.addStep("step", () -> startupGraph.measure("service", () -> {
+        }));
+        startupGraph.start();
+
+        assertTrue(startupGraph.isComplete());
+        assertEquals("step", startupGraph.getSteps().stream().map(StartupGraph.Step::getName)
+                .collect(Collectors.joining()));
+        assertTrue(startupGraph.getReport().contains("service: started at"));
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import bisq.common.UserThread;
+import bisq.common.proto.persistable.PersistableEnvelope;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.Message;
+
+import java.io.File;
+import java.io.FileInputStream;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FileManagerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSavesAreCoalesced() throws Exception {
+        File dir = folder.getRoot();
+        File storageFile = new File(dir, "Coalesced");
+        FileManager<TestPersistable> fileManager = new FileManager<>(dir, storageFile, 200, null);
+
+        TestPersistable first = new TestPersistable(1);
+        TestPersistable second = new TestPersistable(2);
+        fileManager.saveLater(first);
+        fileManager.saveLater(first);
+        fileManager.saveLater(second);
+        assertFalse(storageFile.exists());
+
+        waitForWrite("Coalesced", 1);
+        assertEquals(0, first.numSnapshots.get());
+        assertEquals(1, second.numSnapshots.get());
+        assertEquals(2, readNumEntries(storageFile));
+    }
+
+    @Test
+    public void testShorterDelayReschedulesPendingSave() throws Exception {
+        File dir = folder.getRoot();
+        File storageFile = new File(dir, "Rescheduled");
+        FileManager<TestPersistable> fileManager = new FileManager<>(dir, storageFile, 60_000, null);
+
+        TestPersistable persistable = new TestPersistable(3);
+        fileManager.saveLater(persistable);
+        fileManager.saveLater(persistable, 10);
+
+        waitForWrite("Rescheduled", 1);
+        assertEquals(1, persistable.numSnapshots.get());
+        assertEquals(3, readNumEntries(storageFile));
+    }
+
+    @Test
+    public void testSnapshotThread() throws Exception {
+        File dir = folder.getRoot();
+        ExecutorService userThreadExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "UserThread"));
+        Executor previousExecutor = UserThread.getExecutor();
+        UserThread.setExecutor(userThreadExecutor);
+        try {
+            TestPersistable mutable = new TestPersistable(1);
+            new FileManager<TestPersistable>(dir, new File(dir, "Mutable"), 10, null).saveLater(mutable);
+            waitForWrite("Mutable", 1);
+            assertEquals("UserThread", mutable.snapshotThreadName);
+
+            TestPersistable immutable = new TestPersistable(1, true);
+            new FileManager<TestPersistable>(dir, new File(dir, "Immutable"), 10, null).saveLater(immutable);
+            waitForWrite("Immutable", 1);
+            assertNotEquals("UserThread", immutable.snapshotThreadName);
+        } finally {
+            UserThread.setExecutor(previousExecutor);
+            userThreadExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRemoveFileDeletesBackups() throws Exception {
+        File dir = folder.getRoot();
+        File storageFile = new File(dir, "Removed");
+        FileManager<TestPersistable> fileManager = new FileManager<>(dir, storageFile, 10, null);
+        fileManager.saveNow(new TestPersistable(1));
+        fileManager.backupFile("Removed", 3);
+        File rollingBackupDir = FileUtil.getRollingBackupDir(dir, "Removed");
+        assertEquals(1, rollingBackupDir.listFiles().length);
+
+        fileManager.removeFile("Removed");
+        assertFalse(storageFile.exists());
+        assertFalse(rollingBackupDir.exists());
+    }
+
+    private static void waitForWrite(String fileName, long numWrites) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            PersistenceEngine.WriteStats writeStats = PersistenceEngine.getInstance().getWriteStats().get(fileName);
+            if (writeStats != null && writeStats.getNumWrites() >= numWrites) {
+                // Give a superfluous write the chance to show up
+                Thread.sleep(300);
+                assertEquals(numWrites, writeStats.getNumWrites());
+                assertTrue(writeStats.getLastNumBytes() > 0);
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("File " + fileName + " was not written in time");
+    }
+
+    private static int readNumEntries(File file) throws Exception {
+        try (FileInputStream fileInputStream = new FileInputStream(file)) {
+            return PB.PersistableEnvelope.parseDelimitedFrom(fileInputStream)
+                    .getSequenceNumberMap().getSequenceNumberEntriesCount();
+        }
+    }
+
+    private static class TestPersistable implements PersistableEnvelope {
+        private final int numEntries;
+        private final boolean safeToSerializeOffUserThread;
+        private final AtomicInteger numSnapshots = new AtomicInteger();
+        private volatile String snapshotThreadName;
+
+        TestPersistable(int numEntries) {
+            this(numEntries, false);
+        }
+
+        TestPersistable(int numEntries, boolean safeToSerializeOffUserThread) {
+            this.numEntries = numEntries;
+            this.safeToSerializeOffUserThread = safeToSerializeOffUserThread;
+        }
+
+        @Override
+        public boolean isSafeToSerializeOffUserThread() {
+            return safeToSerializeOffUserThread;
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            numSnapshots.incrementAndGet();
+            snapshotThreadName = Thread.currentThread().getName();
+            PB.SequenceNumberMap.Builder builder = PB.SequenceNumberMap.newBuilder();
+            for (int i = 0; i < numEntries; i++)
+                builder.addSequenceNumberEntries(PB.SequenceNumberEntry.getDefaultInstance());
+            return PB.PersistableEnvelope.newBuilder().setSequenceNumberMap(builder).build();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TaskRunnerTest {
+    private final TestModel model = new TestModel();
+    private final List<String> errorMessages = new ArrayList<>();
+    private boolean completed;
+
+    @Before
+    public void setUp() {
+        TaskTimings.getInstance().clear();
+    }
+
+    @Test
+    public void testTasksRunInOrderAndPersistUnlessOptedOut() {
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, () -> completed = true, errorMessages::add);
+        taskRunner.addTasks(FirstTask::new, CheckTask::new, FirstTask::new);
+        taskRunner.run();
+
+        assertTrue(completed);
+        assertTrue(errorMessages.isEmpty());
+        assertEquals(3, model.numRuns);
+        assertEquals(2, model.numPersists);
+
+        TaskTimings.TaskStats firstTaskStats = TaskTimings.getInstance().getTaskStats().get("TestModel/FirstTask");
+        assertEquals(2, firstTaskStats.getNumRuns());
+        assertEquals(0, firstTaskStats.getNumFailures());
+        assertEquals(1, TaskTimings.getInstance().getTaskStats().get("TestModel/CheckTask").getNumRuns());
+    }
+
+    @Test
+    public void testFailedTaskStopsRunner() {
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, "TestProtocol", () -> completed = true, errorMessages::add);
+        taskRunner.addTasks(FailingTask::new, FirstTask::new);
+        taskRunner.run();
+
+        assertFalse(completed);
+        assertEquals(1, errorMessages.size());
+        assertEquals(0, model.numRuns);
+        assertEquals(1, TaskTimings.getInstance().getTaskStats().get("TestProtocol/FailingTask").getNumFailures());
+    }
+
+    private static class TestModel implements Model {
+        private int numRuns;
+        private int numPersists;
+
+        @Override
+        public void persist() {
+            numPersists++;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private static class FirstTask extends Task<TestModel> {
+        FirstTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            model.numRuns++;
+            complete();
+        }
+    }
+
+    private static class CheckTask extends FirstTask {
+        CheckTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected boolean isPersistAfterCompletion() {
+            return false;
+        }
+    }
+
+    private static class FailingTask extends Task<TestModel> {
+        FailingTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            failed("Expected failure");
+        }
+    }
+}
@@ -21,9 +21,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class PermutationTest {
@@ -428,5 +431,40 @@ public class PermutationTest {
 
     }
 
-
+    @Test
+    public void testFindIndicesToRemove() {
+        List<String> list = Arrays.asList("A", "B", "C", "D");
+        List<String> tried = new ArrayList<>();
+        Optional<int[]> result = PermutationUtil.findIndicesToRemove(list.size(), indices -> {
+            List<Integer> indicesToRemove = new ArrayList<>();
+            for (int index : indices)
+                indicesToRemove.add(index);
+            List<String> partialList = PermutationUtil.getPartialList(list, indicesToRemove);
+            tried.add(String.join("", partialList));
+            return partialList.equals(Arrays.asList("A", "D"));
+        }, 1000);
+
+        assertTrue(result.isPresent());
+        assertEquals("[1, 2]", Arrays.toString(result.get()));
+        // Single removals first, then pairs in lexicographic order
+        assertEquals("[BCD, ACD, ABD, ABC, CD, BD, BC, AD]", tried.toString());
+
+        // No match: all removal sets leaving at least one item are tried
+        int[] counter = new int[1];
+        result = PermutationUtil.findIndicesToRemove(list.size(), indices -> {
+            counter[0]++;
+            return false;
+        }, 1000);
+        assertFalse(result.isPresent());
+        assertEquals(14, counter[0]);
+
+        // Stops at maxIterations
+        counter[0] = 0;
+        result = PermutationUtil.findIndicesToRemove(list.size(), indices -> {
+            counter[0]++;
+            return false;
+        }, 5);
+        assertFalse(result.isPresent());
+        assertEquals(5, counter[0]);
+    }
 }
@@ -206,7 +206,7 @@ public class BisqEnvironment extends StandardEnvironment {
             torRcFile, torRcOptions, externalTorControlPort, externalTorPassword, externalTorCookieFile,
             socks5ProxyHttpAddress, useAllProvidedNodes, numConnectionForBtc, genesisTxId, genesisBlockHeight, referralId, daoActivated;
 
-    protected final boolean externalTorUseSafeCookieAuthentication, torStreamIsolation;
+    protected final boolean externalTorUseSafeCookieAuthentication, torStreamIsolation, torWarmStart, useVirtualThreads;
 
     public BisqEnvironment(OptionSet options) {
         this(new JOptCommandLinePropertySource(BISQ_COMMANDLINE_PROPERTY_SOURCE_NAME, checkNotNull(
@@ -300,6 +300,12 @@ public class BisqEnvironment extends StandardEnvironment {
         torStreamIsolation = commandLineProperties.containsProperty(NetworkOptionKeys.TOR_STREAM_ISOLATION) ?
                 true :
                 false;
+        torWarmStart = commandLineProperties.containsProperty(NetworkOptionKeys.TOR_WARM_START) ?
+                true :
+                false;
+        useVirtualThreads = commandLineProperties.containsProperty(NetworkOptionKeys.USE_VIRTUAL_THREADS) ?
+                true :
+                false;
 
         //RpcOptionKeys
         rpcUser = commandLineProperties.containsProperty(DaoOptionKeys.RPC_USER) ?
@@ -477,6 +483,10 @@ public class BisqEnvironment extends StandardEnvironment {
                     setProperty(NetworkOptionKeys.EXTERNAL_TOR_USE_SAFECOOKIE, "true");
                 if (torStreamIsolation)
                     setProperty(NetworkOptionKeys.TOR_STREAM_ISOLATION, "true");
+                if (torWarmStart)
+                    setProperty(NetworkOptionKeys.TOR_WARM_START, "true");
+                if (useVirtualThreads)
+                    setProperty(NetworkOptionKeys.USE_VIRTUAL_THREADS, "true");
 
                 setProperty(AppOptionKeys.APP_DATA_DIR_KEY, appDataDir);
                 setProperty(AppOptionKeys.DESKTOP_WITH_HTTP_API, desktopWithHttpApi);
@@ -43,6 +43,7 @@ import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.setup.GracefulShutDownHandler;
 import bisq.common.storage.CorruptedDatabaseFilesHandler;
 import bisq.common.storage.Storage;
+import bisq.common.taskrunner.TaskTimings;
 
 import org.springframework.core.env.JOptCommandLinePropertySource;
 
@@ -285,6 +286,7 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
     // This might need to be overwritten in case the application is not using all modules
     @Override
     public void gracefulShutDown(ResultHandler resultHandler) {
+        log.info(TaskTimings.getInstance().getReport());
         try {
             if (injector != null) {
                 injector.getInstance(ArbitratorManager.class).shutDown();
@@ -415,6 +417,14 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
         parser.accepts(NetworkOptionKeys.TOR_STREAM_ISOLATION,
                 "Use stream isolation for Tor [experimental!].");
 
+        parser.accepts(NetworkOptionKeys.TOR_WARM_START,
+                "Keep the Tor state (consensus, descriptors and guards) of the previous run to speed up the Tor " +
+                        "startup. Falls back to a cold start if Tor fails to start with it.")
+                .availableUnless(NetworkOptionKeys.EXTERNAL_TOR_CONTROL_PORT);
+
+        parser.accepts(NetworkOptionKeys.USE_VIRTUAL_THREADS,
+                "Send outbound P2P messages on virtual threads if supported by the JDK (Java 21+) [experimental!].");
+
         //AppOptionKeys
         parser.accepts(AppOptionKeys.USER_DATA_DIR_KEY,
                 format("User data directory (default: %s)", BisqEnvironment.DEFAULT_USER_DATA_DIR))
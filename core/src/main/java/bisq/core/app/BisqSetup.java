@@ -63,9 +63,11 @@ import bisq.common.Timer;
 import bisq.common.UserThread;
 import bisq.common.app.DevEnv;
 import bisq.common.app.Log;
+import bisq.common.app.StartupGraph;
 import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.KeyRing;
 import bisq.common.crypto.SealedAndSigned;
+import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.util.Utilities;
 
@@ -191,6 +193,7 @@ public class BisqSetup {
     @SuppressWarnings("FieldCanBeLocal")
     private MonadicBinding<Boolean> p2pNetworkAndWalletInitialized;
     private List<BisqSetupCompleteListener> bisqSetupCompleteListeners = new ArrayList<>();
+    private final StartupGraph startupGraph = new StartupGraph("BisqSetup");
 
     @Inject
     public BisqSetup(P2PNetworkSetup p2PNetworkSetup,
@@ -280,26 +283,22 @@ public class BisqSetup {
     }
 
     public void start() {
-        maybeReSyncSPVChain();
-        maybeShowTac();
+        // The TAC popup, the check for a localhost Bitcoin node and reading the data stores from the resources don't
+        // depend on each other, so they run concurrently. The P2P network and the wallet need all of them.
+        startupGraph.addStep("reSyncSpvChain", this::maybeReSyncSPVChain);
+        startupGraph.addAsyncStep("tac", this::maybeShowTac);
+        startupGraph.addAsyncStep("localhostNodeCheck", this::checkIfLocalHostNodeIsRunning);
+        startupGraph.addAsyncStep("readMapsFromResources", this::readMapsFromResources);
+        startupGraph.addStep("cleanupTorFiles", torSetup::cleanupTorFiles);
+        startupGraph.addAsyncStep("cryptoCheck", this::checkCryptoSetup, "tac");
+        startupGraph.addStep("osArchitectureCheck", this::checkForCorrectOSArchitecture, "tac");
+        startupGraph.addAsyncStep("p2pNetworkAndWallet", this::startP2pNetworkAndWallet,
+                "reSyncSpvChain", "tac", "localhostNodeCheck", "readMapsFromResources", "cleanupTorFiles");
+        startupGraph.addStep("initDomainServices", this::completeSetup, "p2pNetworkAndWallet");
+        startupGraph.start();
     }
 
-    private void step2() {
-        checkIfLocalHostNodeIsRunning();
-    }
-
-    private void step3() {
-        torSetup.cleanupTorFiles();
-        readMapsFromResources();
-        checkCryptoSetup();
-        checkForCorrectOSArchitecture();
-    }
-
-    private void step4() {
-        startP2pNetworkAndWallet();
-    }
-
-    private void step5() {
+    private void completeSetup() {
         initDomainServices();
 
         bisqSetupCompleteListeners.forEach(BisqSetupCompleteListener::onSetupComplete);
@@ -397,19 +396,19 @@ public class BisqSetup {
         }
     }
 
-    private void maybeShowTac() {
+    private void maybeShowTac(ResultHandler resultHandler) {
         if (!preferences.isTacAccepted() && !DevEnv.isDevMode()) {
             if (displayTacHandler != null)
                 displayTacHandler.accept(() -> {
                     preferences.setTacAccepted(true);
-                    step2();
+                    resultHandler.handleResult();
                 });
         } else {
-            step2();
+            resultHandler.handleResult();
         }
     }
 
-    private void checkIfLocalHostNodeIsRunning() {
+    private void checkIfLocalHostNodeIsRunning(ResultHandler resultHandler) {
         Thread checkIfLocalHostNodeIsRunningThread = new Thread(() -> {
             Thread.currentThread().setName("checkIfLocalHostNodeIsRunningThread");
             Socket socket = null;
@@ -420,10 +419,10 @@ public class BisqSetup {
                 log.info("Localhost Bitcoin node detected.");
                 UserThread.execute(() -> {
                     bisqEnvironment.setBitcoinLocalhostNodeRunning(true);
-                    step3();
+                    resultHandler.handleResult();
                 });
             } catch (Throwable e) {
-                UserThread.execute(BisqSetup.this::step3);
+                resultHandler.handleResult();
             } finally {
                 if (socket != null) {
                     try {
@@ -436,14 +435,14 @@ public class BisqSetup {
         checkIfLocalHostNodeIsRunningThread.start();
     }
 
-    private void readMapsFromResources() {
+    private void readMapsFromResources(ResultHandler resultHandler) {
         SetupUtils.readFromResources(p2PService.getP2PDataStorage()).addListener((observable, oldValue, newValue) -> {
             if (newValue)
-                step4();
+                resultHandler.handleResult();
         });
     }
 
-    private void checkCryptoSetup() {
+    private void checkCryptoSetup(ResultHandler resultHandler) {
         // We want to test if the client is compiled with the correct crypto provider (BountyCastle)
         // and if the unlimited Strength for cryptographic keys is set.
         // If users compile themselves they might miss that step and then would get an exception in the trade.
@@ -472,11 +471,12 @@ public class BisqSetup {
                 if (cryptoSetupFailedHandler != null)
                     cryptoSetupFailedHandler.accept(msg);
             }
+            resultHandler.handleResult();
         });
         checkCryptoThread.start();
     }
 
-    private void startP2pNetworkAndWallet() {
+    private void startP2pNetworkAndWallet(ResultHandler resultHandler) {
         ChangeListener<Boolean> walletInitializedListener = (observable, oldValue, newValue) -> {
             // TODO that seems to be called too often if Tor takes longer to start up...
             if (newValue && !p2pNetworkReady.get() && displayTorNetworkSettingsHandler != null)
@@ -497,6 +497,14 @@ public class BisqSetup {
         }, STARTUP_TIMEOUT_MINUTES, TimeUnit.MINUTES);
 
         p2pNetworkReady = p2PNetworkSetup.init(this::initWallet, displayTorNetworkSettingsHandler);
+        p2pNetworkReady.addListener((observable, oldValue, newValue) -> {
+            if (newValue)
+                startupGraph.mark("p2pNetworkReady");
+        });
+        walletInitialized.addListener((observable, oldValue, newValue) -> {
+            if (newValue)
+                startupGraph.mark("walletInitialized");
+        });
 
         // We only init wallet service here if not using Tor for bitcoinj.
         // When using Tor, wallet init must be deferred until Tor is ready.
@@ -516,7 +524,7 @@ public class BisqSetup {
                 walletInitialized.removeListener(walletInitializedListener);
                 if (displayTorNetworkSettingsHandler != null)
                     displayTorNetworkSettingsHandler.accept(false);
-                step5();
+                resultHandler.handleResult();
             }
         });
     }
@@ -583,20 +591,20 @@ public class BisqSetup {
 
         clock.start();
 
-        PaymentMethod.onAllServicesInitialized();
+        startupGraph.measure("PaymentMethod", PaymentMethod::onAllServicesInitialized);
 
-        disputeManager.onAllServicesInitialized();
+        startupGraph.measure("disputeManager", disputeManager::onAllServicesInitialized);
 
-        tradeManager.onAllServicesInitialized();
+        startupGraph.measure("tradeManager", tradeManager::onAllServicesInitialized);
 
         if (walletsSetup.downloadPercentageProperty().get() == 1)
             checkForLockedUpFunds();
 
-        openOfferManager.onAllServicesInitialized();
+        startupGraph.measure("openOfferManager", openOfferManager::onAllServicesInitialized);
 
-        balances.onAllServicesInitialized();
+        startupGraph.measure("balances", balances::onAllServicesInitialized);
 
-        arbitratorManager.onAllServicesInitialized();
+        startupGraph.measure("arbitratorManager", arbitratorManager::onAllServicesInitialized);
 
         alertManager.alertMessageProperty().addListener((observable, oldValue, newValue) ->
                 displayAlertIfPresent(newValue, false));
@@ -607,30 +615,30 @@ public class BisqSetup {
                 displayPrivateNotificationHandler.accept(newValue);
         });
 
-        p2PService.onAllServicesInitialized();
+        startupGraph.measure("p2PService", p2PService::onAllServicesInitialized);
 
-        feeService.onAllServicesInitialized();
+        startupGraph.measure("feeService", feeService::onAllServicesInitialized);
 
         if (DevEnv.isDaoActivated()) {
-            daoSetup.onAllServicesInitialized(errorMessage -> {
+            startupGraph.measure("daoSetup", () -> daoSetup.onAllServicesInitialized(errorMessage -> {
                 if (daoErrorMessageHandler != null)
                     daoErrorMessageHandler.accept(errorMessage);
             }, warningMessage -> {
                 if (daoWarnMessageHandler != null)
                     daoWarnMessageHandler.accept(warningMessage);
-            });
+            }));
         }
 
-        tradeStatisticsManager.onAllServicesInitialized();
-        tradeActivityCheck.onAllServicesInitialized();
+        startupGraph.measure("tradeStatisticsManager", tradeStatisticsManager::onAllServicesInitialized);
+        startupGraph.measure("tradeActivityCheck", tradeActivityCheck::onAllServicesInitialized);
 
-        assetService.onAllServicesInitialized();
+        startupGraph.measure("assetService", assetService::onAllServicesInitialized);
 
-        accountAgeWitnessService.onAllServicesInitialized();
+        startupGraph.measure("accountAgeWitnessService", accountAgeWitnessService::onAllServicesInitialized);
 
         priceFeedService.setCurrencyCodeOnInit();
 
-        filterManager.onAllServicesInitialized();
+        startupGraph.measure("filterManager", filterManager::onAllServicesInitialized);
         filterManager.addListener(filter -> {
             if (filter != null && filterWarningHandler != null) {
                 if (filter.getSeedNodes() != null && !filter.getSeedNodes().isEmpty())
@@ -650,12 +658,12 @@ public class BisqSetup {
             }
         });
 
-        mobileNotificationService.onAllServicesInitialized();
-        myOfferTakenEvents.onAllServicesInitialized();
-        tradeEvents.onAllServicesInitialized();
-        disputeMsgEvents.onAllServicesInitialized();
-        priceAlert.onAllServicesInitialized();
-        marketAlerts.onAllServicesInitialized();
+        startupGraph.measure("mobileNotificationService", mobileNotificationService::onAllServicesInitialized);
+        startupGraph.measure("myOfferTakenEvents", myOfferTakenEvents::onAllServicesInitialized);
+        startupGraph.measure("tradeEvents", tradeEvents::onAllServicesInitialized);
+        startupGraph.measure("disputeMsgEvents", disputeMsgEvents::onAllServicesInitialized);
+        startupGraph.measure("priceAlert", priceAlert::onAllServicesInitialized);
+        startupGraph.measure("marketAlerts", marketAlerts::onAllServicesInitialized);
 
         allBasicServicesInitialized = true;
     }
@@ -38,13 +38,23 @@ import javax.annotation.Nullable;
 @Slf4j
 public class TorSetup {
     private File torDir;
+    private final boolean torWarmStart;
 
     @Inject
-    public TorSetup(@Named(NetworkOptionKeys.TOR_DIR) File torDir) {
+    public TorSetup(@Named(NetworkOptionKeys.TOR_DIR) File torDir,
+                    @Named(NetworkOptionKeys.TOR_WARM_START) boolean torWarmStart) {
         this.torDir = torDir;
+        this.torWarmStart = torWarmStart;
     }
 
+    // Called at startup. With a warm start we keep the files, if Tor fails to start with them the TorNetworkNode
+    // deletes them and retries with a cold start.
     public void cleanupTorFiles() {
+        if (torWarmStart) {
+            log.info("We keep the Tor files of the previous run for a warm start");
+            return;
+        }
+
         cleanupTorFiles(null, null);
     }
 
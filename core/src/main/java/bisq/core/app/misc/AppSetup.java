@@ -22,6 +22,7 @@ import bisq.core.app.SetupUtils;
 
 import bisq.network.crypto.EncryptionService;
 
+import bisq.common.app.StartupGraph;
 import bisq.common.app.Version;
 import bisq.common.crypto.KeyRing;
 
@@ -33,6 +34,7 @@ import lombok.extern.slf4j.Slf4j;
 public abstract class AppSetup {
     protected final EncryptionService encryptionService;
     protected final KeyRing keyRing;
+    protected final StartupGraph startupGraph = new StartupGraph(getClass().getSimpleName());
 
     @Inject
     public AppSetup(EncryptionService encryptionService,
@@ -46,17 +48,23 @@ public abstract class AppSetup {
     }
 
     public void start() {
-        SetupUtils.checkCryptoSetup(keyRing, encryptionService, () -> {
-            initPersistedDataHosts();
-            initBasicServices();
-        }, throwable -> {
-            log.error(throwable.getMessage());
-            throwable.printStackTrace();
-            System.exit(1);
-        });
+        // The crypto check runs in its own thread while we read the persisted data
+        startupGraph.addAsyncStep("cryptoCheck", resultHandler ->
+                SetupUtils.checkCryptoSetup(keyRing, encryptionService, resultHandler, throwable -> {
+                    log.error(throwable.getMessage());
+                    throwable.printStackTrace();
+                    System.exit(1);
+                }));
+        startupGraph.addStep("readPersisted", this::initPersistedDataHosts);
+        addBasicServicesSteps(startupGraph);
+        startupGraph.start();
     }
 
     abstract void initPersistedDataHosts();
 
-    abstract void initBasicServices();
+    /**
+     * Adds the steps which start the basic services. They have to depend on the steps "cryptoCheck" and
+     * "readPersisted".
+     */
+    abstract void addBasicServicesSteps(StartupGraph startupGraph);
 }
@@ -29,8 +29,11 @@ import bisq.network.p2p.P2PServiceListener;
 import bisq.network.p2p.network.CloseConnectionReason;
 import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.ConnectionListener;
+import bisq.network.p2p.network.TorBootstrapState;
 
+import bisq.common.app.StartupGraph;
 import bisq.common.crypto.KeyRing;
+import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.persistable.PersistedDataHost;
 
 import javax.inject.Inject;
@@ -86,18 +89,23 @@ public class AppSetupWithP2P extends AppSetup {
     }
 
     @Override
-    protected void initBasicServices() {
-        SetupUtils.readFromResources(p2PService.getP2PDataStorage()).addListener((observable, oldValue, newValue) -> {
-            if (newValue)
-                startInitP2PNetwork();
-        });
+    protected void addBasicServicesSteps(StartupGraph startupGraph) {
+        // Reading the data stores from the resources does not depend on the other steps
+        startupGraph.addAsyncStep("readFromResources", resultHandler ->
+                SetupUtils.readFromResources(p2PService.getP2PDataStorage()).addListener((observable, oldValue, newValue) -> {
+                    if (newValue)
+                        resultHandler.handleResult();
+                }));
+        startupGraph.addAsyncStep("p2pNetwork", this::startInitP2PNetwork,
+                "cryptoCheck", "readPersisted", "readFromResources");
+        startupGraph.addStep("basicServices", this::onBasicServicesInitialized, "p2pNetwork");
     }
 
-    private void startInitP2PNetwork() {
+    private void startInitP2PNetwork(ResultHandler resultHandler) {
         p2pNetWorkReady = initP2PNetwork();
         p2pNetWorkReady.addListener((observable, oldValue, newValue) -> {
             if (newValue)
-                onBasicServicesInitialized();
+                resultHandler.handleResult();
         });
     }
 
@@ -138,6 +146,7 @@ public class AppSetupWithP2P extends AppSetup {
             @Override
             public void onHiddenServicePublished() {
                 log.info("onHiddenServicePublished");
+                startupGraph.mark("hiddenServicePublished");
             }
 
             @Override
@@ -172,6 +181,11 @@ public class AppSetupWithP2P extends AppSetup {
             public void onRequestCustomBridges() {
 
             }
+
+            @Override
+            public void onTorBootstrapPhaseCompleted(TorBootstrapState phase, long durationMs) {
+                startupGraph.mark("tor " + phase + " completed after " + durationMs + " ms");
+            }
         });
 
         return p2pNetworkInitialized;
@@ -180,12 +194,12 @@ public class AppSetupWithP2P extends AppSetup {
     protected void onBasicServicesInitialized() {
         log.info("onBasicServicesInitialized");
 
-        p2PService.onAllServicesInitialized();
+        startupGraph.measure("p2PService", p2PService::onAllServicesInitialized);
 
-        tradeStatisticsManager.onAllServicesInitialized();
+        startupGraph.measure("tradeStatisticsManager", tradeStatisticsManager::onAllServicesInitialized);
 
-        accountAgeWitnessService.onAllServicesInitialized();
+        startupGraph.measure("accountAgeWitnessService", accountAgeWitnessService::onAllServicesInitialized);
 
-        filterManager.onAllServicesInitialized();
+        startupGraph.measure("filterManager", filterManager::onAllServicesInitialized);
     }
 }
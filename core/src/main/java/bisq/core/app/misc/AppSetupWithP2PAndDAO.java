@@ -85,6 +85,6 @@ public class AppSetupWithP2PAndDAO extends AppSetupWithP2P {
     protected void onBasicServicesInitialized() {
         super.onBasicServicesInitialized();
 
-        daoSetup.onAllServicesInitialized(log::error, log::warn);
+        startupGraph.measure("daoSetup", () -> daoSetup.onAllServicesInitialized(log::error, log::warn));
     }
 }
@@ -35,8 +35,11 @@ import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyStringProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -85,8 +88,8 @@ public final class Dispute implements NetworkPayload {
     private BooleanProperty isClosedProperty = new SimpleBooleanProperty();
     // disputeResultProperty.get is Nullable!
     private ObjectProperty<DisputeResult> disputeResultProperty = new SimpleObjectProperty<>();
-    @Nullable
-    private String disputePayoutTxId;
+    // disputePayoutTxIdProperty.get is Nullable!
+    private StringProperty disputePayoutTxIdProperty = new SimpleStringProperty();
 
     private long openingDate;
 
@@ -204,7 +207,7 @@ public final class Dispute implements NetworkPayload {
         Optional.ofNullable(payoutTxSerialized).ifPresent(e -> builder.setPayoutTxSerialized(ByteString.copyFrom(e)));
         Optional.ofNullable(depositTxId).ifPresent(builder::setDepositTxId);
         Optional.ofNullable(payoutTxId).ifPresent(builder::setPayoutTxId);
-        Optional.ofNullable(disputePayoutTxId).ifPresent(builder::setDisputePayoutTxId);
+        Optional.ofNullable(disputePayoutTxIdProperty.get()).ifPresent(builder::setDisputePayoutTxId);
         Optional.ofNullable(makerContractSignature).ifPresent(builder::setMakerContractSignature);
         Optional.ofNullable(takerContractSignature).ifPresent(builder::setTakerContractSignature);
         Optional.ofNullable(disputeResultProperty.get()).ifPresent(result -> builder.setDisputeResult(disputeResultProperty.get().toProtoMessage()));
@@ -238,7 +241,7 @@ public final class Dispute implements NetworkPayload {
         dispute.isClosedProperty.set(proto.getIsClosed());
         if (proto.hasDisputeResult())
             dispute.disputeResultProperty.set(DisputeResult.fromProto(proto.getDisputeResult()));
-        dispute.disputePayoutTxId = ProtoUtil.stringOrNullFromProto(proto.getDisputePayoutTxId());
+        dispute.disputePayoutTxIdProperty.set(ProtoUtil.stringOrNullFromProto(proto.getDisputePayoutTxId()));
         return dispute;
     }
 
@@ -282,8 +285,8 @@ public final class Dispute implements NetworkPayload {
 
     @SuppressWarnings("NullableProblems")
     public void setDisputePayoutTxId(String disputePayoutTxId) {
-        boolean changed = this.disputePayoutTxId == null || !this.disputePayoutTxId.equals(disputePayoutTxId);
-        this.disputePayoutTxId = disputePayoutTxId;
+        boolean changed = disputePayoutTxIdProperty.get() == null || !disputePayoutTxIdProperty.get().equals(disputePayoutTxId);
+        disputePayoutTxIdProperty.set(disputePayoutTxId);
         if (changed)
             storage.queueUpForSave();
     }
@@ -305,6 +308,15 @@ public final class Dispute implements NetworkPayload {
         return disputeResultProperty;
     }
 
+    public ReadOnlyStringProperty disputePayoutTxIdProperty() {
+        return disputePayoutTxIdProperty;
+    }
+
+    @Nullable
+    public String getDisputePayoutTxId() {
+        return disputePayoutTxIdProperty.get();
+    }
+
     public Date getTradeDate() {
         return new Date(tradeDate);
     }
@@ -342,7 +354,7 @@ public final class Dispute implements NetworkPayload {
                 ", disputeCommunicationMessages=" + disputeCommunicationMessages +
                 ", isClosed=" + isClosedProperty.get() +
                 ", disputeResult=" + disputeResultProperty.get() +
-                ", disputePayoutTxId='" + disputePayoutTxId + '\'' +
+                ", disputePayoutTxId='" + disputePayoutTxIdProperty.get() + '\'' +
                 ", isClosedProperty=" + isClosedProperty +
                 ", disputeResultProperty=" + disputeResultProperty +
                 '}';
@@ -36,6 +36,7 @@ import bisq.core.dao.state.model.governance.RemoveAssetProposal;
 import bisq.core.locale.CurrencyUtil;
 import bisq.core.trade.statistics.TradeStatistics2;
 import bisq.core.trade.statistics.TradeStatisticsManager;
+import bisq.core.trade.statistics.TradeVolumeIndex;
 import bisq.core.util.BsqFormatter;
 
 import bisq.common.Timer;
@@ -43,6 +44,7 @@ import bisq.common.UserThread;
 import bisq.common.app.DevEnv;
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
+import bisq.common.util.Utilities;
 
 import org.bitcoinj.core.Coin;
 import org.bitcoinj.core.InsufficientMoneyException;
@@ -56,16 +58,13 @@ import javafx.beans.property.SimpleIntegerProperty;
 import javafx.collections.SetChangeListener;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -74,7 +73,10 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 @Slf4j
 public class AssetService implements DaoSetupService, DaoStateListener {
@@ -91,7 +93,8 @@ public class AssetService implements DaoSetupService, DaoStateListener {
     private IntegerProperty updateFlag = new SimpleIntegerProperty(0);
     @Getter
     private final List<StatefulAsset> statefulAssets = new ArrayList<>();
-    private Map<String, List<TradeStatistics2>> tradeStatsByTickerSymbol;
+    @Nullable
+    private TradeVolumeIndex tradeVolumeIndex;
     private long bsqFeePerDay;
     private long minVolumeInBtc;
     private Timer timer;
@@ -117,15 +120,14 @@ public class AssetService implements DaoSetupService, DaoStateListener {
     }
 
     public void onAllServicesInitialized() {
-        tradeStatsByTickerSymbol = getTradeStatsByTickerSymbol();
+        tradeVolumeIndex = tradeStatisticsManager.getTradeVolumeIndex();
         tradeStatisticsManager.getObservableTradeStatisticsSet().addListener((SetChangeListener<TradeStatistics2>) change -> {
             // At startup if a user has downloaded the app long after the release he might receive a lots of trade statistic
-            // objects from the seed node. We don't want to trigger the expensive getTradeStatsByTickerSymbol call in
-            // between so we delay 20 sec. to be sure to call it after the data has been processed.
+            // objects from the seed node. We don't want to update the list for each of them so we delay 20 sec. to be
+            // sure to call it after the data has been processed.
             // To use a listener would be better but that requires bigger effort at the p2p lib side.
             if (timer == null)
                 timer = UserThread.runAfter(() -> {
-                    tradeStatsByTickerSymbol = getTradeStatsByTickerSymbol();
                     updateList();
                     timer = null;
                 }, 20);
@@ -151,15 +153,16 @@ public class AssetService implements DaoSetupService, DaoStateListener {
     }
 
     public void updateList() {
-        if (tradeStatsByTickerSymbol == null)
+        if (tradeVolumeIndex == null)
             return;
 
+        Map<String, List<Tx>> feeTxsByOpReturnData = getFeeTxsByOpReturnData();
         statefulAssets.forEach(statefulAsset -> {
             AssetState assetState;
             if (wasAssetRemovedByVoting(statefulAsset.getTickerSymbol())) {
                 assetState = AssetState.REMOVED_BY_VOTING;
             } else {
-                statefulAsset.setFeePayments(getFeePayments(statefulAsset));
+                statefulAsset.setFeePayments(getFeePayments(statefulAsset, feeTxsByOpReturnData));
 
                 long lookBackPeriodInDays = getLookBackPeriodInDays(statefulAsset);
                 statefulAsset.setLookBackPeriodInDays(lookBackPeriodInDays);
@@ -179,17 +182,6 @@ public class AssetService implements DaoSetupService, DaoStateListener {
         updateFlag.set(updateFlag.get() + 1);
     }
 
-    private Map<String, List<TradeStatistics2>> getTradeStatsByTickerSymbol() {
-        Map<String, List<TradeStatistics2>> map = new HashMap<>();
-        tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .filter(e -> CurrencyUtil.isCryptoCurrency(e.getBaseCurrency()))
-                .forEach(e -> {
-                    map.putIfAbsent(e.getBaseCurrency(), new ArrayList<>());
-                    map.get(e.getBaseCurrency()).add(e);
-                });
-        return map;
-    }
-
     private boolean isInTrialPeriod(StatefulAsset statefulAsset) {
         for (FeePayment feePayment : statefulAsset.getFeePayments()) {
             Optional<Integer> passedDays = feePayment.getPassedDays(daoStateService);
@@ -204,13 +196,12 @@ public class AssetService implements DaoSetupService, DaoStateListener {
     }
 
     private long getTradeVolume(StatefulAsset statefulAsset, long lookBackPeriodInDays) {
-        String tickerSymbol = statefulAsset.getTickerSymbol();
-        if (tradeStatsByTickerSymbol.containsKey(tickerSymbol)) {
-            List<TradeStatistics2> tradeStatisticsForAsset = tradeStatsByTickerSymbol.get(tickerSymbol);
-            return getTradeVolume(tradeStatisticsForAsset, lookBackPeriodInDays);
-        } else {
-            return 0;
-        }
+        // We cannot use blocks as the block height is not in the TradeStatistics2 object and the lookup for all the
+        // deposit txs would be too expensive.
+        long lookBackPeriodInMs = TimeUnit.DAYS.toMillis(lookBackPeriodInDays);
+        long now = new Date().getTime();
+        return checkNotNull(tradeVolumeIndex).getCurrencyTradeVolume(statefulAsset.getTickerSymbol())
+                .getVolumeAfter(now - lookBackPeriodInMs);
     }
 
     @NotNull
@@ -227,23 +218,10 @@ public class AssetService implements DaoSetupService, DaoStateListener {
                 .orElse(DEFAULT_LOOK_BACK_PERIOD);
     }
 
-    private long getTradeVolume(List<TradeStatistics2> tradeStatisticsForAsset, long lookBackPeriodInDays) {
-        // We cannot use blocks as the block height is not in the TradeStatistics2 object and the lookup for all the
-        // deposit txs would be too expensive.
-        long lookBackPeriodInMs = TimeUnit.DAYS.toMillis(lookBackPeriodInDays);
-        AtomicLong accumulatedTradeAmount = new AtomicLong(0);
-        long now = new Date().getTime();
-        tradeStatisticsForAsset.forEach(stat -> {
-            long timePassed = now - stat.getTradeDate().getTime();
-            if (timePassed < lookBackPeriodInMs) {
-                accumulatedTradeAmount.addAndGet(stat.getTradeAmount().value);
-            }
-        });
-        return accumulatedTradeAmount.get();
-    }
-
-    private List<FeePayment> getFeePayments(StatefulAsset statefulAsset) {
-        return getFeeTxs(statefulAsset).stream()
+    private List<FeePayment> getFeePayments(StatefulAsset statefulAsset, Map<String, List<Tx>> feeTxsByOpReturnData) {
+        byte[] hash = AssetConsensus.getHash(statefulAsset);
+        byte[] opReturnData = AssetConsensus.getOpReturnData(hash);
+        return feeTxsByOpReturnData.getOrDefault(Utilities.encodeToHex(opReturnData), new ArrayList<>()).stream()
                 .map(tx -> {
                     String txId = tx.getId();
                     long burntFee = tx.getBurntFee();
@@ -252,17 +230,15 @@ public class AssetService implements DaoSetupService, DaoStateListener {
                 .collect(Collectors.toList());
     }
 
-    private List<Tx> getFeeTxs(StatefulAsset statefulAsset) {
-        return daoStateService.getAssetListingFeeOpReturnTxOutputs().stream()
-                .filter(txOutput -> {
-                    byte[] hash = AssetConsensus.getHash(statefulAsset);
-                    byte[] opReturnData = AssetConsensus.getOpReturnData(hash);
-                    return Arrays.equals(opReturnData, txOutput.getOpReturnData());
-                })
-                .map(txOutput -> daoStateService.getTx(txOutput.getTxId()).orElse(null))
-                .filter(Objects::nonNull)
-                .sorted(Comparator.comparing(BaseTx::getTime))
-                .collect(Collectors.toList());
+    // We group the fee txs by their OP_RETURN data once instead of iterating all fee tx outputs for each asset
+    private Map<String, List<Tx>> getFeeTxsByOpReturnData() {
+        Map<String, List<Tx>> map = new HashMap<>();
+        daoStateService.getAssetListingFeeOpReturnTxOutputs().forEach(txOutput ->
+                daoStateService.getTx(txOutput.getTxId()).ifPresent(tx ->
+                        map.computeIfAbsent(Utilities.encodeToHex(txOutput.getOpReturnData()), key -> new ArrayList<>())
+                                .add(tx)));
+        map.values().forEach(list -> list.sort(Comparator.comparing(BaseTx::getTime)));
+        return map;
     }
 
 
@@ -57,6 +57,12 @@ public class ProposalStore implements PersistableEnvelope {
         list.forEach(item -> map.put(new P2PDataStorage.ByteArray(item.getHash()), item));
     }
 
+    // The map is concurrent and its payloads are immutable
+    @Override
+    public boolean isSafeToSerializeOffUserThread() {
+        return true;
+    }
+
     public Message toProtoMessage() {
         return PB.PersistableEnvelope.newBuilder()
                 .setProposalStore(getBuilder())
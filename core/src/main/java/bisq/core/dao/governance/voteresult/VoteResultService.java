@@ -57,7 +57,6 @@ import bisq.core.locale.CurrencyUtil;
 import bisq.network.p2p.storage.P2PDataStorage;
 
 import bisq.common.util.MathUtils;
-import bisq.common.util.PermutationUtil;
 import bisq.common.util.Utilities;
 
 import javax.inject.Inject;
@@ -440,25 +439,17 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     private Optional<List<BlindVote>> findPermutatedListMatchingMajority(byte[] majorityVoteListHash) {
         List<BlindVote> list = BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService);
         long ts = System.currentTimeMillis();
-        List<List<BlindVote>> result = PermutationUtil.findAllPermutations(list, 1000000);
-        for (List<BlindVote> variation : result) {
-            if (isListMatchingMajority(majorityVoteListHash, variation)) {
-                log.info("We found a variation of the blind vote list which matches the majority hash. variation={}",
-                        variation);
-                log.info("findPermutatedListMatchingMajority for {} items took {} ms.",
-                        list.size(), (System.currentTimeMillis() - ts));
-                return Optional.of(variation);
-            }
+        Optional<List<BlindVote>> result = VoteRevealConsensus.findPartialBlindVoteListMatchingHash(list,
+                majorityVoteListHash, 1000000);
+        if (result.isPresent()) {
+            log.info("We found a variation of the blind vote list which matches the majority hash. variation={}",
+                    result.get());
+        } else {
+            log.info("We did not find a variation of the blind vote list which matches the majority hash.");
         }
-        log.info("We did not find a variation of the blind vote list which matches the majority hash.");
         log.info("findPermutatedListMatchingMajority for {} items took {} ms.",
                 list.size(), (System.currentTimeMillis() - ts));
-        return Optional.empty();
-    }
-
-    private boolean isListMatchingMajority(byte[] majorityVoteListHash, List<BlindVote> list) {
-        byte[] hashOfBlindVoteList = VoteRevealConsensus.getHashOfBlindVoteList(list);
-        return Arrays.equals(majorityVoteListHash, hashOfBlindVoteList);
+        return result;
     }
 
     private Set<EvaluatedProposal> getEvaluatedProposals(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet, int chainHeight) {
@@ -22,16 +22,22 @@ import bisq.core.dao.state.model.blockchain.OpReturnType;
 
 import bisq.common.app.Version;
 import bisq.common.crypto.Hash;
+import bisq.common.util.PermutationUtil;
 
 import javax.crypto.SecretKey;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.spongycastle.crypto.digests.SHA256Digest;
+
 /**
  * All consensus critical aspects are handled here.
  */
@@ -51,6 +57,153 @@ public class VoteRevealConsensus {
         return Hash.getSha256Ripemd160hash(outputStream.toByteArray());
     }
 
+    /**
+     * Searches for a partial list of blindVotes which has the given hash. The result is the same as applying
+     * getHashOfBlindVoteList on each partial list, but each blind vote gets serialized only once and the SHA256 state
+     * of the items before the first removed item is reused. The partial lists are tried in two passes which share the
+     * budget of maxIterations hashed lists:
+     * <p>
+     * The first pass tries the partial lists with the fewest items removed, as the majority most likely only missed a
+     * few of our blind votes. It gets half of the budget, or more if the second pass has fewer lists to try.
+     * <p>
+     * The second pass tries the sublists of the first items in the order of PermutationUtil.findAllPermutations, which
+     * was the only search we used before. It skips the sublists the first pass has tried already, so no partial list
+     * gets hashed twice. As the hash is collision resistant, any partial list matching the hash is the same list, so
+     * the order of the passes does not change the result.
+     *
+     * @param blindVotes        The sorted blind votes
+     * @param hash              The hash the partial list must have
+     * @param maxIterations     Max. number of partial lists we try
+     * @return The first partial list which has the hash
+     */
+    public static Optional<List<BlindVote>> findPartialBlindVoteListMatchingHash(List<BlindVote> blindVotes,
+                                                                                 byte[] hash,
+                                                                                 int maxIterations) {
+        int size = blindVotes.size();
+        byte[][] serializedBlindVotes = new byte[size][];
+        // prefixDigests[i] has the SHA256 state after the items 0 to i - 1
+        SHA256Digest[] prefixDigests = new SHA256Digest[size];
+        SHA256Digest digest = new SHA256Digest();
+        for (int i = 0; i < size; i++) {
+            prefixDigests[i] = new SHA256Digest(digest);
+            serializedBlindVotes[i] = blindVotes.get(i).toProtoMessage().toByteArray();
+            digest.update(serializedBlindVotes[i], 0, serializedBlindVotes[i].length);
+        }
+
+        // findAllPermutations returns the sublists of the set bits of 1, 2, 3... up to maxIterations
+        long numSublists = size < 31 ? Math.min((1L << size) - 1, maxIterations) : maxIterations;
+        int firstPassIterations = (int) Math.max(maxIterations / 2, maxIterations - numSublists);
+
+        byte[] sha256 = new byte[digest.getDigestSize()];
+        Optional<int[]> indicesToRemove = PermutationUtil.findIndicesToRemove(size, indices -> {
+            SHA256Digest candidateDigest = new SHA256Digest(prefixDigests[indices[0]]);
+            int nextIndexToRemove = 1;
+            for (int i = indices[0] + 1; i < size; i++) {
+                if (nextIndexToRemove < indices.length && indices[nextIndexToRemove] == i) {
+                    nextIndexToRemove++;
+                    continue;
+                }
+                candidateDigest.update(serializedBlindVotes[i], 0, serializedBlindVotes[i].length);
+            }
+            return isMatchingHash(candidateDigest, hash, sha256);
+        }, firstPassIterations);
+
+        if (indicesToRemove.isPresent()) {
+            List<BlindVote> partialList = new ArrayList<>(blindVotes);
+            int[] indices = indicesToRemove.get();
+            for (int i = indices.length - 1; i >= 0; i--)
+                partialList.remove(indices[i]);
+            return Optional.of(partialList);
+        }
+
+        // The first pass tries all sets of one size before the next size, so we know which sizes it has covered
+        int numCoveredRemovals = 0;
+        long numFirstPassIterations = 0;
+        long numSetsOfSize = 1;
+        for (int numRemovals = 1; numRemovals < size; numRemovals++) {
+            numSetsOfSize = numSetsOfSize * (size - numRemovals + 1) / numRemovals;
+            if (numFirstPassIterations + numSetsOfSize > firstPassIterations)
+                break;
+            numFirstPassIterations += numSetsOfSize;
+            numCoveredRemovals = numRemovals;
+        }
+        // The sets of the next size were tried up to that number in lexicographic order
+        long numPartiallyCoveredSets = 0;
+        if (numCoveredRemovals < size - 1) {
+            numPartiallyCoveredSets = firstPassIterations - numFirstPassIterations;
+            numFirstPassIterations = firstPassIterations;
+        }
+
+        long remainingIterations = maxIterations - numFirstPassIterations;
+        for (long mask = 1; mask <= numSublists && remainingIterations > 0; mask++) {
+            int numRemovals = size - Long.bitCount(mask);
+            // That skips the full list as well
+            if (numRemovals <= numCoveredRemovals)
+                continue;
+            if (numRemovals == numCoveredRemovals + 1 &&
+                    getRankOfRemovedIndices(mask, size, numRemovals, numPartiallyCoveredSets) < numPartiallyCoveredSets)
+                continue;
+
+            remainingIterations--;
+            int numLeadingItems = Long.numberOfTrailingZeros(~mask);
+            SHA256Digest candidateDigest = new SHA256Digest(prefixDigests[numLeadingItems]);
+            int numBits = Long.SIZE - Long.numberOfLeadingZeros(mask);
+            for (int i = numLeadingItems + 1; i < numBits; i++) {
+                if ((mask & (1L << i)) != 0)
+                    candidateDigest.update(serializedBlindVotes[i], 0, serializedBlindVotes[i].length);
+            }
+            if (isMatchingHash(candidateDigest, hash, sha256)) {
+                List<BlindVote> sublist = new ArrayList<>();
+                for (int i = 0; i < numBits; i++) {
+                    if ((mask & (1L << i)) != 0)
+                        sublist.add(blindVotes.get(i));
+                }
+                return Optional.of(sublist);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Returns the position of the set of indices not in the mask within the sets of that size in lexicographic order,
+    // or the limit if the position is not below it
+    private static long getRankOfRemovedIndices(long mask, int size, int numRemovals, long limit) {
+        long rank = 0;
+        int numRemovedIndices = 0;
+        for (int i = 0; i < size && numRemovedIndices < numRemovals; i++) {
+            if (i >= Long.SIZE || (mask & (1L << i)) == 0) {
+                numRemovedIndices++;
+            } else {
+                // All sets which have i at that position come before
+                long numSetsBefore = getBinomialCoefficient(size - 1 - i, numRemovals - 1 - numRemovedIndices);
+                if (numSetsBefore >= limit - rank)
+                    return limit;
+                rank += numSetsBefore;
+            }
+        }
+        return rank;
+    }
+
+    // Returns Long.MAX_VALUE if the coefficient is too large
+    private static long getBinomialCoefficient(int n, int k) {
+        if (k < 0 || k > n)
+            return 0;
+
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            try {
+                result = Math.multiplyExact(result, n - k + i) / i;
+            } catch (ArithmeticException e) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return result;
+    }
+
+    private static boolean isMatchingHash(SHA256Digest digest, byte[] hash, byte[] sha256) {
+        digest.doFinal(sha256, 0);
+        return Arrays.equals(hash, Hash.getRipemd160hash(sha256));
+    }
+
     public static byte[] getOpReturnData(byte[] hashOfBlindVoteList, SecretKey secretKey) throws IOException {
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
             outputStream.write(OpReturnType.VOTE_REVEAL.getType());
@@ -20,13 +20,15 @@ package bisq.core.dao.node.explorer;
 import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.state.DaoStateService;
-import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.PubKeyScript;
 import bisq.core.dao.state.model.blockchain.Tx;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
 
+import bisq.common.UserThread;
 import bisq.common.storage.FileUtil;
 import bisq.common.storage.JsonFileManager;
 import bisq.common.storage.Storage;
@@ -38,6 +40,8 @@ import com.google.inject.Inject;
 
 import javax.inject.Named;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -49,24 +53,57 @@ import java.io.File;
 import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
+/**
+ * Exports the BSQ blocks, txs and tx outputs as json files for the block explorer.
+ * <p>
+ * At each new block only the files of txs and tx outputs which have changed since the last export get written. A tx
+ * changes only if it is new, one of its outputs got spent or BSQ got issued to it or to a tx it spends from, so we
+ * find the changes by the chain height of the last export. The blocks file is streamed to disk. The files are written in batches on a small thread pool. If a new
+ * block arrives while an export is running we export the latest state once the running export has completed.
+ * <p>
+ * After each export we store the chain height and the hash of its block in the export state file, so after a restart
+ * we continue with the existing files. If that block is not in our chain anymore, e.g. after a reorg, we write all
+ * files and delete those of the txs we don't have anymore.
+ */
 @Slf4j
 public class ExportJsonFilesService implements DaoSetupService {
+    private static final int NUM_WRITE_THREADS = 4;
+    private static final String EXPORT_STATE_FILE_NAME = "exportState";
+    private static final String CHAIN_HEIGHT_KEY = "chainHeight";
+    private static final String BLOCK_HASH_KEY = "blockHash";
+
     private final DaoStateService daoStateService;
     private final File storageDir;
     private final boolean dumpBlockchainData;
 
     private final ListeningExecutorService executor = Utilities.getListeningExecutorService("JsonExporter",
-            1, 1, 1200);
-    private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager;
+            NUM_WRITE_THREADS, NUM_WRITE_THREADS, 1200);
+    private File txDir, txOutputDir;
+    private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager, exportStateFileManager;
+
+    // Chain height and block hash of the last completed export, which might be of a previous run. -1 and null if we
+    // need to write all files. Only accessed from the user thread.
+    private int exportedChainHeight = -1;
+    @Nullable
+    private String exportedBlockHash;
+    private boolean exportInProgress;
+    private boolean exportRequested;
 
     @Inject
     public ExportJsonFilesService(DaoStateService daoStateService,
@@ -90,33 +127,38 @@ public class ExportJsonFilesService implements DaoSetupService {
     public void start() {
         if (dumpBlockchainData) {
             File jsonDir = new File(Paths.get(storageDir.getAbsolutePath(), "json").toString());
-            File txDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "tx").toString());
-            File txOutputDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "txo").toString());
+            txDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "tx").toString());
+            txOutputDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "txo").toString());
             File bsqStateDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "all").toString());
-            try {
-                if (txDir.exists())
-                    FileUtil.deleteDirectory(txDir);
-                if (txOutputDir.exists())
-                    FileUtil.deleteDirectory(txOutputDir);
-                if (bsqStateDir.exists())
-                    FileUtil.deleteDirectory(bsqStateDir);
-                if (jsonDir.exists())
-                    FileUtil.deleteDirectory(jsonDir);
-            } catch (IOException e) {
-                log.error(e.toString());
-                e.printStackTrace();
-            }
 
-            if (!jsonDir.mkdir())
+            if (!jsonDir.exists() && !jsonDir.mkdir())
                 log.warn("make jsonDir failed.\njsonDir=" + jsonDir.getAbsolutePath());
 
-            if (!txDir.mkdir())
+            exportStateFileManager = new JsonFileManager(jsonDir);
+            readExportState(jsonDir);
+            if (exportedBlockHash != null) {
+                log.info("We keep the existing json files exported up to chain height {}", exportedChainHeight);
+            } else {
+                try {
+                    if (txDir.exists())
+                        FileUtil.deleteDirectory(txDir);
+                    if (txOutputDir.exists())
+                        FileUtil.deleteDirectory(txOutputDir);
+                    if (bsqStateDir.exists())
+                        FileUtil.deleteDirectory(bsqStateDir);
+                } catch (IOException e) {
+                    log.error(e.toString());
+                    e.printStackTrace();
+                }
+            }
+
+            if (!txDir.exists() && !txDir.mkdir())
                 log.warn("make txDir failed.\ntxDir=" + txDir.getAbsolutePath());
 
-            if (!txOutputDir.mkdir())
+            if (!txOutputDir.exists() && !txOutputDir.mkdir())
                 log.warn("make txOutputDir failed.\ntxOutputDir=" + txOutputDir.getAbsolutePath());
 
-            if (!bsqStateDir.mkdir())
+            if (!bsqStateDir.exists() && !bsqStateDir.mkdir())
                 log.warn("make bsqStateDir failed.\nbsqStateDir=" + bsqStateDir.getAbsolutePath());
 
             txFileManager = new JsonFileManager(txDir);
@@ -127,55 +169,211 @@ public class ExportJsonFilesService implements DaoSetupService {
 
     public void shutDown() {
         if (dumpBlockchainData) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
             txFileManager.shutDown();
             txOutputFileManager.shutDown();
             bsqStateFileManager.shutDown();
+            exportStateFileManager.shutDown();
         }
     }
 
     public void exportToJson() {
         if (dumpBlockchainData) {
+            if (exportInProgress) {
+                exportRequested = true;
+                return;
+            }
+            exportInProgress = true;
+
             // We store the data we need once we write the data to disk (in the thread) locally.
             // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
-            List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
-
-            List<JsonTx> jsonTxs = daoStateService.getTxStream()
-                    .map(tx -> {
-                        JsonTx jsonTx = getJsonTx(tx);
-                        allJsonTxOutputs.addAll(jsonTx.getOutputs());
-                        return jsonTx;
-                    }).collect(Collectors.toList());
-
-            DaoState daoState = daoStateService.getClone();
-            List<JsonBlock> jsonBlockList = daoState.getBlocks().stream()
-                    .map(this::getJsonBlock)
+            List<JsonTx> jsonTxs = new ArrayList<>();
+            List<JsonBlock> jsonBlockList = daoStateService.getBlocks().stream()
+                    .map(block -> getJsonBlock(block, jsonTxs))
                     .collect(Collectors.toList());
-            JsonBlocks jsonBlocks = new JsonBlocks(daoState.getChainHeight(), jsonBlockList);
+            int chainHeight = daoStateService.getChainHeight();
+            JsonBlocks jsonBlocks = new JsonBlocks(chainHeight, jsonBlockList);
+            String blockHash = daoStateService.getBlockAtHeight(chainHeight).map(Block::getHash).orElse(null);
+
+            // If the block of the last export is not in our chain anymore the files might contain txs we don't have
+            // anymore or outputs which are not spent anymore, so we write all files and delete the other ones.
+            int sinceChainHeight = isExportedBlockInChain() ? exportedChainHeight : -1;
+            Set<String> issuedTxIds = getIssuedTxIdsSince(sinceChainHeight);
+            List<JsonTx> changedJsonTxs = new ArrayList<>();
+            List<JsonTxOutput> changedJsonTxOutputs = new ArrayList<>();
+            jsonTxs.forEach(jsonTx -> addChanges(jsonTx, sinceChainHeight, issuedTxIds, changedJsonTxs,
+                    changedJsonTxOutputs));
+            log.info("Exporting {} changed txs and {} changed tx outputs since chain height {} at chain height {}",
+                    changedJsonTxs.size(), changedJsonTxOutputs.size(), sinceChainHeight, chainHeight);
+
+            List<Runnable> writeTasks = new ArrayList<>();
+            changedJsonTxs.forEach(jsonTx -> writeTasks.add(() ->
+                    txFileManager.writeObjectToDiscSync(jsonTx, jsonTx.getId())));
+            changedJsonTxOutputs.forEach(jsonTxOutput -> writeTasks.add(() ->
+                    txOutputFileManager.writeObjectToDiscSync(jsonTxOutput, jsonTxOutput.getId())));
+            if (sinceChainHeight < 0) {
+                Set<String> txIds = changedJsonTxs.stream().map(JsonTx::getId).collect(Collectors.toSet());
+                Set<String> txOutputIds = changedJsonTxOutputs.stream().map(JsonTxOutput::getId).collect(Collectors.toSet());
+                writeTasks.add(() -> {
+                    deleteOtherFiles(txDir, txIds);
+                    deleteOtherFiles(txOutputDir, txOutputIds);
+                });
+            }
 
-            ListenableFuture<Void> future = executor.submit(() -> {
-                bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), "blocks");
-                allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
-                jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
-                return null;
-            });
+            // The executor drops tasks if its queue is full, so we submit one batch per thread and not one task per file
+            List<ListenableFuture<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> bsqStateFileManager.writeObjectToDiscSync(jsonBlocks, "blocks")));
+            if (!writeTasks.isEmpty()) {
+                int batchSize = (writeTasks.size() + NUM_WRITE_THREADS - 1) / NUM_WRITE_THREADS;
+                Lists.partition(writeTasks, batchSize).forEach(batch ->
+                        futures.add(executor.submit(() -> batch.forEach(Runnable::run))));
+            }
 
-            Futures.addCallback(future, new FutureCallback<>() {
-                public void onSuccess(Void ignore) {
-                    log.trace("onSuccess");
+            Futures.addCallback(Futures.allAsList(futures), new FutureCallback<>() {
+                public void onSuccess(List<Object> ignore) {
+                    if (blockHash != null) {
+                        Map<String, Object> exportState = new HashMap<>();
+                        exportState.put(CHAIN_HEIGHT_KEY, chainHeight);
+                        exportState.put(BLOCK_HASH_KEY, blockHash);
+                        exportStateFileManager.writeToDiscSync(Utilities.objectToJson(exportState), EXPORT_STATE_FILE_NAME);
+                    }
+                    UserThread.execute(() -> {
+                        exportedChainHeight = blockHash != null ? chainHeight : -1;
+                        exportedBlockHash = blockHash;
+                        onExportCompleted();
+                    });
                 }
 
                 public void onFailure(@NotNull Throwable throwable) {
                     log.error(throwable.toString());
                     throwable.printStackTrace();
+                    UserThread.execute(() -> {
+                        // We don't know which files got written so we write all at the next export
+                        exportedChainHeight = -1;
+                        exportedBlockHash = null;
+                        onExportCompleted();
+                    });
                 }
             });
         }
     }
 
-    private JsonBlock getJsonBlock(Block block) {
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void onExportCompleted() {
+        exportInProgress = false;
+        if (exportRequested) {
+            exportRequested = false;
+            exportToJson();
+        }
+    }
+
+    private void readExportState(File jsonDir) {
+        File exportStateFile = new File(jsonDir, EXPORT_STATE_FILE_NAME + ".json");
+        if (!exportStateFile.exists())
+            return;
+
+        try {
+            Map<?, ?> exportState = (Map<?, ?>) exportStateFileManager.readJsonFromDisc(EXPORT_STATE_FILE_NAME);
+            Object chainHeight = exportState.get(CHAIN_HEIGHT_KEY);
+            Object blockHash = exportState.get(BLOCK_HASH_KEY);
+            if (chainHeight instanceof Number && blockHash instanceof String) {
+                exportedChainHeight = ((Number) chainHeight).intValue();
+                exportedBlockHash = (String) blockHash;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not read export state file. We export all files again. {}", e.toString());
+        }
+    }
+
+    private boolean isExportedBlockInChain() {
+        return exportedBlockHash != null &&
+                daoStateService.getBlockAtHeight(exportedChainHeight)
+                        .map(block -> block.getHash().equals(exportedBlockHash))
+                        .orElse(false);
+    }
+
+    // The vote result issues BSQ to the issuance candidate output of a compensation or reimbursement request after
+    // the block of its tx, which changes that output and the inputs spending it
+    private Set<String> getIssuedTxIdsSince(int chainHeight) {
+        return Arrays.stream(IssuanceType.values())
+                .flatMap(issuanceType -> daoStateService.getIssuanceSet(issuanceType).stream())
+                .filter(issuance -> issuance.getChainHeight() > chainHeight)
+                .map(Issuance::getTxId)
+                .collect(Collectors.toSet());
+    }
+
+    // Called from the write threads. The ids of the files we write concurrently are in the given set, so we never
+    // delete them.
+    private static void deleteOtherFiles(File dir, Set<String> ids) {
+        File[] files = dir.listFiles((file, name) -> name.endsWith(".json") &&
+                !ids.contains(name.substring(0, name.length() - ".json".length())));
+        if (files == null)
+            return;
+
+        if (files.length > 0)
+            log.info("Deleting {} json files of txs we don't have anymore in {}", files.length, dir);
+        for (File file : files) {
+            if (!file.delete())
+                log.warn("Cannot delete file " + file);
+        }
+    }
+
+    /**
+     * The json of a tx only changes after it was added if one of its outputs gets spent or if BSQ gets issued to it or
+     * to one of the txs it spends from.
+     *
+     * @param issuedTxIds   The ids of the txs which got BSQ issued after the chain height.
+     */
+    @VisibleForTesting
+    static boolean isUnchangedSince(JsonTx jsonTx, int chainHeight, Set<String> issuedTxIds) {
+        return jsonTx.getBlockHeight() <= chainHeight &&
+                !issuedTxIds.contains(jsonTx.getId()) &&
+                jsonTx.getInputs().stream().noneMatch(jsonTxInput -> issuedTxIds.contains(jsonTxInput.getSpendingTxId())) &&
+                jsonTx.getOutputs().stream().noneMatch(jsonTxOutput -> isSpentAfter(jsonTxOutput, chainHeight));
+    }
+
+    /**
+     * Adds the tx and its outputs which have changed since the given chain height, or all of them if the chain height
+     * is -1.
+     */
+    @VisibleForTesting
+    static void addChanges(JsonTx jsonTx,
+                           int sinceChainHeight,
+                           Set<String> issuedTxIds,
+                           List<JsonTx> changedJsonTxs,
+                           List<JsonTxOutput> changedJsonTxOutputs) {
+        if (sinceChainHeight >= 0 && isUnchangedSince(jsonTx, sinceChainHeight, issuedTxIds))
+            return;
+
+        changedJsonTxs.add(jsonTx);
+        jsonTx.getOutputs().stream()
+                .filter(jsonTxOutput -> sinceChainHeight < 0 ||
+                        jsonTx.getBlockHeight() > sinceChainHeight ||
+                        issuedTxIds.contains(jsonTx.getId()) ||
+                        isSpentAfter(jsonTxOutput, sinceChainHeight))
+                .forEach(changedJsonTxOutputs::add);
+    }
+
+    private static boolean isSpentAfter(JsonTxOutput jsonTxOutput, int chainHeight) {
+        JsonSpentInfo spentInfo = jsonTxOutput.getSpentInfo();
+        return spentInfo != null && spentInfo.getHeight() > chainHeight;
+    }
+
+    private JsonBlock getJsonBlock(Block block, List<JsonTx> allJsonTxs) {
         List<JsonTx> jsonTxs = block.getTxs().stream()
                 .map(this::getJsonTx)
                 .collect(Collectors.toList());
+        allJsonTxs.addAll(jsonTxs);
         return new JsonBlock(block.getHeight(),
                 block.getTime(),
                 block.getHash(),
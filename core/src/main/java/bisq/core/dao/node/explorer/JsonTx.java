@@ -45,7 +45,6 @@ class JsonTx {
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof JsonTx)) return false;
-        if (!super.equals(o)) return false;
         JsonTx jsonTx = (JsonTx) o;
         return blockHeight == jsonTx.blockHeight &&
                 time == jsonTx.time &&
@@ -56,13 +55,13 @@ class JsonTx {
                 Objects.equals(blockHash, jsonTx.blockHash) &&
                 Objects.equals(inputs, jsonTx.inputs) &&
                 Objects.equals(outputs, jsonTx.outputs) &&
-                txType.name().equals(jsonTx.txType.name()) &&
+                txType == jsonTx.txType &&
                 Objects.equals(txTypeDisplayString, jsonTx.txTypeDisplayString);
     }
 
     @Override
     public int hashCode() {
 
-        return Objects.hash(super.hashCode(), txVersion, id, blockHeight, blockHash, time, inputs, outputs, txType.name(), txTypeDisplayString, burntFee, unlockBlockHeight);
+        return Objects.hash(txVersion, id, blockHeight, blockHash, time, inputs, outputs, txType != null ? txType.name() : null, txTypeDisplayString, burntFee, unlockBlockHeight);
     }
 }
@@ -60,7 +60,6 @@ class JsonTxOutput {
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof JsonTxOutput)) return false;
-        if (!super.equals(o)) return false;
         JsonTxOutput that = (JsonTxOutput) o;
         return index == that.index &&
                 bsqAmount == that.bsqAmount &&
@@ -76,7 +75,7 @@ class JsonTxOutput {
                 Objects.equals(address, that.address) &&
                 Objects.equals(scriptPubKey, that.scriptPubKey) &&
                 Objects.equals(spentInfo, that.spentInfo) &&
-                txType.name().equals(that.txType.name()) &&
+                txType == that.txType &&
                 Objects.equals(txTypeDisplayString, that.txTypeDisplayString) &&
                 txOutputType == that.txOutputType &&
                 Objects.equals(txOutputTypeDisplayString, that.txOutputTypeDisplayString) &&
@@ -86,6 +85,6 @@ class JsonTxOutput {
     @Override
     public int hashCode() {
 
-        return Objects.hash(super.hashCode(), txVersion, txId, index, bsqAmount, btcAmount, height, isVerified, burntFee, address, scriptPubKey, spentInfo, time, txType.name(), txTypeDisplayString, txOutputType, txOutputTypeDisplayString, opReturn, lockTime, isUnspent);
+        return Objects.hash(txVersion, txId, index, bsqAmount, btcAmount, height, isVerified, burntFee, address, scriptPubKey, spentInfo, time, txType != null ? txType.name() : null, txTypeDisplayString, txOutputType != null ? txOutputType.name() : null, txOutputTypeDisplayString, opReturn, lockTime, isUnspent);
     }
 }
@@ -52,6 +52,12 @@ public class DaoStateStore implements PersistableEnvelope {
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // The daoState is always a clone which does not get mutated after it was set
+    @Override
+    public boolean isSafeToSerializeOffUserThread() {
+        return true;
+    }
+
     public Message toProtoMessage() {
         checkNotNull(daoState, "daoState must not be null when toProtoMessage is invoked");
         PB.DaoStateStore.Builder builder = PB.DaoStateStore.newBuilder()
@@ -0,0 +1,95 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.notifications.alerts.market;
+
+import bisq.core.payment.payload.PaymentMethod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups the market alert filters by the payment method of their payment account and by the offer direction they
+ * are triggered for. Within a group the filters are sorted by their trigger value, so the filters triggered by an
+ * offer are found with a binary search instead of checking each filter.
+ * <p/>
+ * Must be rebuilt after the filters have changed.
+ */
+final class MarketAlertFilterIndex {
+    private static final class Bucket {
+        // Sorted by trigger value
+        private final MarketAlertFilter[] filters;
+        private final int[] triggerValues;
+
+        private Bucket(List<MarketAlertFilter> filters) {
+            this.filters = filters.stream()
+                    .sorted(Comparator.comparingInt(MarketAlertFilter::getTriggerValue))
+                    .toArray(MarketAlertFilter[]::new);
+            this.triggerValues = Arrays.stream(this.filters).mapToInt(MarketAlertFilter::getTriggerValue).toArray();
+        }
+    }
+
+    private final Map<PaymentMethod, Bucket> bucketsForBuyOffers = new HashMap<>();
+    private final Map<PaymentMethod, Bucket> bucketsForSellOffers = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void rebuild(Collection<MarketAlertFilter> marketAlertFilters) {
+        Map<PaymentMethod, List<MarketAlertFilter>> filtersForBuyOffers = new HashMap<>();
+        Map<PaymentMethod, List<MarketAlertFilter>> filtersForSellOffers = new HashMap<>();
+        marketAlertFilters.forEach(filter -> {
+            Map<PaymentMethod, List<MarketAlertFilter>> map = filter.isBuyOffer() ? filtersForBuyOffers : filtersForSellOffers;
+            map.computeIfAbsent(filter.getPaymentAccount().getPaymentMethod(), key -> new ArrayList<>()).add(filter);
+        });
+
+        bucketsForBuyOffers.clear();
+        filtersForBuyOffers.forEach((paymentMethod, filters) -> bucketsForBuyOffers.put(paymentMethod, new Bucket(filters)));
+        bucketsForSellOffers.clear();
+        filtersForSellOffers.forEach((paymentMethod, filters) -> bucketsForSellOffers.put(paymentMethod, new Bucket(filters)));
+    }
+
+    /**
+     * @param paymentMethod The payment method of the offer
+     * @param isBuyOffer    If the offer is a buy offer
+     * @param ratio         Distance of the offer price from the market price in the unit of the trigger value
+     * @return The filters for the payment method and direction with a trigger value of at least the ratio
+     */
+    List<MarketAlertFilter> getTriggeredFilters(PaymentMethod paymentMethod, boolean isBuyOffer, double ratio) {
+        Bucket bucket = (isBuyOffer ? bucketsForBuyOffers : bucketsForSellOffers).get(paymentMethod);
+        if (bucket == null)
+            return new ArrayList<>();
+
+        int low = 0;
+        int high = bucket.triggerValues.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (bucket.triggerValues[middle] >= ratio)
+                high = middle;
+            else
+                low = middle + 1;
+        }
+        return Arrays.asList(bucket.filters).subList(low, bucket.filters.length);
+    }
+}
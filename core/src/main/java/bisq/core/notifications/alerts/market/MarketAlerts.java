@@ -41,6 +41,7 @@ import javax.inject.Inject;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -52,6 +53,7 @@ public class MarketAlerts {
     private final PriceFeedService priceFeedService;
     private final KeyRing keyRing;
     private final BSFormatter formatter;
+    private final MarketAlertFilterIndex marketAlertFilterIndex = new MarketAlertFilterIndex();
 
     @Inject
     public MarketAlerts(OfferBookService offerBookService, MobileNotificationService mobileNotificationService,
@@ -80,16 +82,19 @@ public class MarketAlerts {
             public void onRemoved(Offer offer) {
             }
         });
+        marketAlertFilterIndex.rebuild(user.getMarketAlertFilters());
         applyFilterOnAllOffers();
     }
 
     public void addMarketAlertFilter(MarketAlertFilter filter) {
         user.addMarketAlertFilter(filter);
+        marketAlertFilterIndex.rebuild(user.getMarketAlertFilters());
         applyFilterOnAllOffers();
     }
 
     public void removeMarketAlertFilter(MarketAlertFilter filter) {
         user.removeMarketAlertFilter(filter);
+        marketAlertFilterIndex.rebuild(user.getMarketAlertFilters());
     }
 
     public List<MarketAlertFilter> getMarketAlertFilters() {
@@ -118,89 +123,83 @@ public class MarketAlerts {
         String currencyCode = offer.getCurrencyCode();
         MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
         Price offerPrice = offer.getPrice();
-        if (marketPrice != null && offerPrice != null) {
+        if (marketPrice != null && offerPrice != null && !offer.isMyOffer(keyRing)) {
             boolean isSellOffer = offer.getDirection() == OfferPayload.Direction.SELL;
             String shortOfferId = offer.getShortId();
             boolean isFiatCurrency = CurrencyUtil.isFiatCurrency(currencyCode);
             String alertId = getAlertId(offer);
-            user.getMarketAlertFilters().stream()
-                    .filter(marketAlertFilter -> !offer.isMyOffer(keyRing))
-                    .filter(marketAlertFilter -> offer.getPaymentMethod().equals(marketAlertFilter.getPaymentAccount().getPaymentMethod()))
+            int precision = CurrencyUtil.isCryptoCurrency(currencyCode) ?
+                    Altcoin.SMALLEST_UNIT_EXPONENT :
+                    Fiat.SMALLEST_UNIT_EXPONENT;
+            double marketPriceAsDouble = MathUtils.scaleUpByPowerOf10(marketPrice.getPrice(), precision);
+            double offerPriceValue = offerPrice.getValue();
+            double ratio = offerPriceValue / marketPriceAsDouble;
+            ratio = 1 - ratio;
+            if (isFiatCurrency && isSellOffer)
+                ratio *= -1;
+            else if (!isFiatCurrency && !isSellOffer)
+                ratio *= -1;
+
+            ratio = ratio * 10000;
+            // Only the filters for the payment method and direction of the offer with a trigger value of at least
+            // the ratio are triggered
+            List<MarketAlertFilter> triggeredFilters = marketAlertFilterIndex.getTriggeredFilters(offer.getPaymentMethod(),
+                    !isSellOffer, ratio).stream()
                     .filter(marketAlertFilter -> marketAlertFilter.notContainsAlertId(alertId))
-                    .forEach(marketAlertFilter -> {
-                        int triggerValue = marketAlertFilter.getTriggerValue();
-                        boolean isTriggerForBuyOffer = marketAlertFilter.isBuyOffer();
-                        double marketPriceAsDouble1 = marketPrice.getPrice();
-                        int precision = CurrencyUtil.isCryptoCurrency(currencyCode) ?
-                                Altcoin.SMALLEST_UNIT_EXPONENT :
-                                Fiat.SMALLEST_UNIT_EXPONENT;
-                        double marketPriceAsDouble = MathUtils.scaleUpByPowerOf10(marketPriceAsDouble1, precision);
-                        double offerPriceValue = offerPrice.getValue();
-                        double ratio = offerPriceValue / marketPriceAsDouble;
-                        ratio = 1 - ratio;
-                        if (isFiatCurrency && isSellOffer)
-                            ratio *= -1;
-                        else if (!isFiatCurrency && !isSellOffer)
-                            ratio *= -1;
-
-                        ratio = ratio * 10000;
-                        boolean triggered = ratio <= triggerValue;
-                        if (!triggered)
-                            return;
-
-                        boolean isTriggerForBuyOfferAndTriggered = !isSellOffer && isTriggerForBuyOffer;
-                        boolean isTriggerForSellOfferAndTriggered = isSellOffer && !isTriggerForBuyOffer;
-                        if (isTriggerForBuyOfferAndTriggered || isTriggerForSellOfferAndTriggered) {
-                            String direction = isSellOffer ? Res.get("shared.sell") : Res.get("shared.buy");
-                            String marketDir;
-                            if (isFiatCurrency) {
-                                if (isSellOffer) {
-                                    marketDir = ratio > 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                } else {
-                                    marketDir = ratio < 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                }
-                            } else {
-                                if (isSellOffer) {
-                                    marketDir = ratio < 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                } else {
-                                    marketDir = ratio > 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                }
-                            }
-
-                            ratio = Math.abs(ratio);
-                            String msg = Res.get("account.notifications.marketAlert.message.msg",
-                                    direction,
-                                    formatter.getCurrencyPair(currencyCode),
-                                    formatter.formatPrice(offerPrice),
-                                    formatter.formatToPercentWithSymbol(ratio / 10000d),
-                                    marketDir,
-                                    Res.get(offer.getPaymentMethod().getId()),
-                                    shortOfferId);
-                            MobileMessage message = new MobileMessage(Res.get("account.notifications.marketAlert.message.title"),
-                                    msg,
-                                    shortOfferId,
-                                    MobileMessageType.MARKET);
-                            try {
-                                boolean wasSent = mobileNotificationService.sendMessage(message);
-                                if (wasSent) {
-                                    // In case we have disabled alerts wasSent is false and we do not
-                                    // persist the offer
-                                    marketAlertFilter.addAlertId(alertId);
-                                    user.persist();
-                                }
-                            } catch (Exception e) {
-                                e.printStackTrace();
-                            }
-                        }
-                    });
+                    .collect(Collectors.toList());
+            if (triggeredFilters.isEmpty())
+                return;
+
+            String direction = isSellOffer ? Res.get("shared.sell") : Res.get("shared.buy");
+            String marketDir;
+            if (isFiatCurrency) {
+                if (isSellOffer) {
+                    marketDir = ratio > 0 ?
+                            Res.get("account.notifications.marketAlert.message.msg.above") :
+                            Res.get("account.notifications.marketAlert.message.msg.below");
+                } else {
+                    marketDir = ratio < 0 ?
+                            Res.get("account.notifications.marketAlert.message.msg.above") :
+                            Res.get("account.notifications.marketAlert.message.msg.below");
+                }
+            } else {
+                if (isSellOffer) {
+                    marketDir = ratio < 0 ?
+                            Res.get("account.notifications.marketAlert.message.msg.above") :
+                            Res.get("account.notifications.marketAlert.message.msg.below");
+                } else {
+                    marketDir = ratio > 0 ?
+                            Res.get("account.notifications.marketAlert.message.msg.above") :
+                            Res.get("account.notifications.marketAlert.message.msg.below");
+                }
+            }
+
+            ratio = Math.abs(ratio);
+            String msg = Res.get("account.notifications.marketAlert.message.msg",
+                    direction,
+                    formatter.getCurrencyPair(currencyCode),
+                    formatter.formatPrice(offerPrice),
+                    formatter.formatToPercentWithSymbol(ratio / 10000d),
+                    marketDir,
+                    Res.get(offer.getPaymentMethod().getId()),
+                    shortOfferId);
+            triggeredFilters.forEach(marketAlertFilter -> {
+                MobileMessage message = new MobileMessage(Res.get("account.notifications.marketAlert.message.title"),
+                        msg,
+                        shortOfferId,
+                        MobileMessageType.MARKET);
+                try {
+                    boolean wasSent = mobileNotificationService.sendMessage(message);
+                    if (wasSent) {
+                        // In case we have disabled alerts wasSent is false and we do not
+                        // persist the offer
+                        marketAlertFilter.addAlertId(alertId);
+                        user.persist();
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            });
         }
     }
 
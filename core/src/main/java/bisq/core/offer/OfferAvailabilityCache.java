@@ -0,0 +1,200 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.core.arbitration.Arbitrator;
+import bisq.core.arbitration.ArbitratorManager;
+import bisq.core.offer.availability.ArbitratorSelection;
+import bisq.core.trade.statistics.TradeStatistics2;
+import bisq.core.trade.statistics.TradeStatisticsManager;
+import bisq.core.user.Preferences;
+
+import bisq.network.p2p.NodeAddress;
+
+import javafx.collections.MapChangeListener;
+import javafx.collections.SetChangeListener;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Holds the maker side data we need to answer offer availability requests, so a request does not sort the trade
+ * statistics for the arbitrator selection or scan the ignore list, and limits the number of requests per peer.
+ * <p></p>
+ * The least used arbitrator is selected at the first request after the trade statistics or the arbitrators have
+ * changed. The ignore list is converted to a set whenever the preferences hold a new list. A peer can send
+ * {@link #MAX_REQUESTS_PER_PEER} requests per {@link #RATE_LIMIT_INTERVAL_MS}, further requests only get a negative
+ * ack.
+ * <p></p>
+ * Must only be used from the user thread.
+ */
+@Slf4j
+class OfferAvailabilityCache {
+    static final int MAX_REQUESTS_PER_PEER = 10;
+    static final long RATE_LIMIT_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long REPORT_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
+    private static class RequestWindow {
+        private long startTs;
+        private int numRequests;
+    }
+
+    private final TradeStatisticsManager tradeStatisticsManager;
+    private final ArbitratorManager arbitratorManager;
+    private final Preferences preferences;
+
+    private final Map<NodeAddress, RequestWindow> requestWindowByPeer = new HashMap<>();
+    private long lastPruneTs;
+    private boolean listenersAdded;
+    @Nullable
+    private Arbitrator leastUsedArbitrator;
+    @Nullable
+    private List<String> ignoreTradersList;
+    private Set<String> ignoredHostNames = new HashSet<>();
+
+    private long numRequests;
+    private long numRateLimitedRequests;
+    private long numArbitratorSelections;
+    private final Map<AvailabilityResult, Long> numResponsesByResult = new EnumMap<>(AvailabilityResult.class);
+    private long numFailedResponses;
+    private long totalLatency;
+    private long maxLatency;
+    private long lastReportTs = System.currentTimeMillis();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    OfferAvailabilityCache(TradeStatisticsManager tradeStatisticsManager,
+                           ArbitratorManager arbitratorManager,
+                           Preferences preferences) {
+        this.tradeStatisticsManager = tradeStatisticsManager;
+        this.arbitratorManager = arbitratorManager;
+        this.preferences = preferences;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Counts the request of the peer.
+     *
+     * @return True if the peer has sent more requests than allowed in the current interval.
+     */
+    boolean isRateLimited(NodeAddress peer, long now) {
+        numRequests++;
+        pruneRequestWindows(now);
+
+        RequestWindow requestWindow = requestWindowByPeer.computeIfAbsent(peer, key -> new RequestWindow());
+        if (now - requestWindow.startTs >= RATE_LIMIT_INTERVAL_MS) {
+            requestWindow.startTs = now;
+            requestWindow.numRequests = 0;
+        }
+        requestWindow.numRequests++;
+        if (requestWindow.numRequests > MAX_REQUESTS_PER_PEER) {
+            numRateLimitedRequests++;
+            return true;
+        }
+        return false;
+    }
+
+    boolean isIgnored(NodeAddress peer) {
+        List<String> list = preferences.getIgnoreTradersList();
+        // The preferences replace the list if the user edits it
+        if (list != ignoreTradersList) {
+            ignoreTradersList = list;
+            ignoredHostNames = new HashSet<>(list);
+        }
+        return ignoredHostNames.contains(peer.getHostName());
+    }
+
+    Arbitrator getLeastUsedArbitrator() {
+        // The arbitrators are only available after the services are initialized, so we add the listeners at first use
+        if (!listenersAdded) {
+            tradeStatisticsManager.getObservableTradeStatisticsSet().addListener(
+                    (SetChangeListener<TradeStatistics2>) change -> leastUsedArbitrator = null);
+            arbitratorManager.getArbitratorsObservableMap().addListener(
+                    (MapChangeListener<NodeAddress, Arbitrator>) change -> leastUsedArbitrator = null);
+            listenersAdded = true;
+        }
+        if (leastUsedArbitrator == null) {
+            leastUsedArbitrator = ArbitratorSelection.getLeastUsedArbitrator(tradeStatisticsManager, arbitratorManager);
+            numArbitratorSelections++;
+        }
+        return leastUsedArbitrator;
+    }
+
+    /**
+     * @param startTs   The time we received the request.
+     * @param now       The time our response arrived at the peer.
+     */
+    void onResponseArrived(AvailabilityResult availabilityResult, long startTs, long now) {
+        numResponsesByResult.merge(availabilityResult, 1L, Long::sum);
+        long latency = now - startTs;
+        totalLatency += latency;
+        maxLatency = Math.max(maxLatency, latency);
+
+        if (now - lastReportTs > REPORT_INTERVAL_MS) {
+            log.info(toString());
+            lastReportTs = now;
+        }
+    }
+
+    void onResponseFailed() {
+        numFailedResponses++;
+    }
+
+    @Override
+    public String toString() {
+        long numResponses = numResponsesByResult.values().stream().mapToLong(Long::longValue).sum();
+        return "OfferAvailabilityCache{" +
+                "numRequests=" + numRequests +
+                ", numRateLimitedRequests=" + numRateLimitedRequests +
+                ", numResponsesByResult=" + numResponsesByResult +
+                ", numFailedResponses=" + numFailedResponses +
+                ", numArbitratorSelections=" + numArbitratorSelections +
+                ", meanLatency=" + (numResponses > 0 ? totalLatency / numResponses : 0) +
+                ", maxLatency=" + maxLatency +
+                '}';
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void pruneRequestWindows(long now) {
+        if (now - lastPruneTs < RATE_LIMIT_INTERVAL_MS)
+            return;
+
+        requestWindowByPeer.values().removeIf(requestWindow -> now - requestWindow.startTs >= RATE_LIMIT_INTERVAL_MS);
+        lastPruneTs = now;
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Schedules the republishing and the TTL refreshing of our open offers with a deadline per offer, so the broadcasts
+ * are spread over the refresh interval instead of being sent for all offers at once.
+ * <p></p>
+ * Each deadline gets a random jitter of up to a fifth of its interval, so deadlines of offers published at the same
+ * time drift apart. A republish extends the TTL as well, so the pending refresh of that offer is dropped and the next
+ * refresh is due one refresh interval after the republish.
+ * <p></p>
+ * Broadcasts are spaced by the refresh interval divided by twice the number of offers, so the spacing leaves room for
+ * the jitter while a maker with few offers doesn't send faster than needed. The spacing is kept between
+ * {@link #MIN_SEND_INTERVAL_MS} and {@link #MAX_SEND_INTERVAL_MS}. Due deadlines beyond that are sent late and the
+ * delay is reported as refresh lag.
+ * <p></p>
+ * Must only be used from the user thread.
+ */
+@Slf4j
+class OfferRefreshScheduler {
+    // At most 10 broadcasts per second to stay well below the throttle limits of our peers. The TimingWheelTimer of
+    // UserThread fires on a 100 ms tick, so a shorter interval would not be kept anyway.
+    static final long MIN_SEND_INTERVAL_MS = 100;
+    // Offers which get published at the same time are not delayed by more than that per offer
+    static final long MAX_SEND_INTERVAL_MS = TimeUnit.SECONDS.toMillis(5);
+    private static final long REPORT_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
+    interface Handler {
+        /**
+         * @return The estimated number of bytes sent or 0 if the offer was not republished.
+         */
+        int republish(String offerId);
+
+        /**
+         * @return The estimated number of bytes sent or 0 if the offer was not refreshed.
+         */
+        int refresh(String offerId);
+    }
+
+    private enum Action {
+        REPUBLISH,
+        REFRESH
+    }
+
+    @Value
+    private static class Deadline {
+        String offerId;
+        Action action;
+        long dueTs;
+    }
+
+    private static class OfferDeadlines {
+        private long republishTs;
+        private long refreshTs;
+    }
+
+    private final long republishInterval;
+    private final long refreshInterval;
+    private final Handler handler;
+    private final Map<String, OfferDeadlines> deadlinesByOfferId = new HashMap<>();
+    private final PriorityQueue<Deadline> queue = new PriorityQueue<>(Comparator.comparingLong(Deadline::getDueTs));
+    private final Random random = new Random();
+
+    private Timer timer;
+    private long timerDueTs;
+    private long lastSendTs;
+
+    private long numDueDeadlines;
+    private long numRepublishes;
+    private long numRefreshes;
+    private long numBytesSent;
+    private long totalLag;
+    private long maxLag;
+    private long lastReportTs = System.currentTimeMillis();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    OfferRefreshScheduler(long republishInterval, long refreshInterval, Handler handler) {
+        this.republishInterval = republishInterval;
+        this.refreshInterval = refreshInterval;
+        this.handler = handler;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Republishes the offer after the given delay. A later republish deadline of that offer is replaced.
+     */
+    void scheduleRepublish(String offerId, long delayInMilli) {
+        OfferDeadlines offerDeadlines = deadlinesByOfferId.computeIfAbsent(offerId, id -> new OfferDeadlines());
+        long dueTs = System.currentTimeMillis() + delayInMilli;
+        if (offerDeadlines.republishTs == 0 || dueTs < offerDeadlines.republishTs) {
+            offerDeadlines.republishTs = dueTs;
+            add(new Deadline(offerId, Action.REPUBLISH, dueTs));
+        }
+    }
+
+    /**
+     * Sets the next republish and refresh deadlines of an offer which was just published to the network.
+     */
+    void onPublished(String offerId) {
+        long now = System.currentTimeMillis();
+        OfferDeadlines offerDeadlines = deadlinesByOfferId.computeIfAbsent(offerId, id -> new OfferDeadlines());
+        offerDeadlines.republishTs = now + withJitter(republishInterval);
+        add(new Deadline(offerId, Action.REPUBLISH, offerDeadlines.republishTs));
+        scheduleRefresh(offerId, offerDeadlines, now);
+    }
+
+    void remove(String offerId) {
+        // The deadlines in the queue get dropped when they are due
+        deadlinesByOfferId.remove(offerId);
+    }
+
+    void clear() {
+        deadlinesByOfferId.clear();
+        queue.clear();
+        stopTimer();
+    }
+
+    @VisibleForTesting
+    long getSendInterval() {
+        long numOffers = Math.max(1, deadlinesByOfferId.size());
+        long sendInterval = refreshInterval / (2 * numOffers);
+        return Math.max(MIN_SEND_INTERVAL_MS, Math.min(MAX_SEND_INTERVAL_MS, sendInterval));
+    }
+
+    @Override
+    public String toString() {
+        return "OfferRefreshScheduler{" +
+                "numOffers=" + deadlinesByOfferId.size() +
+                ", numRepublishes=" + numRepublishes +
+                ", numRefreshes=" + numRefreshes +
+                ", numBytesSent=" + numBytesSent +
+                ", meanLag=" + (numDueDeadlines > 0 ? totalLag / numDueDeadlines : 0) +
+                ", maxLag=" + maxLag +
+                '}';
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void scheduleRefresh(String offerId, OfferDeadlines offerDeadlines, long now) {
+        offerDeadlines.refreshTs = now + withJitter(refreshInterval);
+        add(new Deadline(offerId, Action.REFRESH, offerDeadlines.refreshTs));
+    }
+
+    private long withJitter(long interval) {
+        return interval - (long) (random.nextDouble() * interval / 5);
+    }
+
+    private void add(Deadline deadline) {
+        queue.add(deadline);
+        scheduleTimer();
+    }
+
+    private boolean isPending(Deadline deadline) {
+        OfferDeadlines offerDeadlines = deadlinesByOfferId.get(deadline.getOfferId());
+        if (offerDeadlines == null)
+            return false;
+        long dueTs = deadline.getAction() == Action.REPUBLISH ? offerDeadlines.republishTs : offerDeadlines.refreshTs;
+        return dueTs == deadline.getDueTs();
+    }
+
+    private Deadline peekPending() {
+        while (!queue.isEmpty() && !isPending(queue.peek()))
+            queue.poll();
+        return queue.peek();
+    }
+
+    private void scheduleTimer() {
+        Deadline next = peekPending();
+        if (next == null) {
+            stopTimer();
+            return;
+        }
+
+        long dueTs = Math.max(next.getDueTs(), lastSendTs + getSendInterval());
+        // An earlier timer reschedules itself when it fires
+        if (timer != null && timerDueTs <= dueTs)
+            return;
+
+        stopTimer();
+        timerDueTs = dueTs;
+        timer = UserThread.runAfter(this::onTimer,
+                Math.max(0, dueTs - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    private void onTimer() {
+        timer = null;
+        long now = System.currentTimeMillis();
+        Deadline deadline = peekPending();
+        if (deadline != null && deadline.getDueTs() <= now && now - lastSendTs >= getSendInterval()) {
+            queue.poll();
+            lastSendTs = now;
+            send(deadline, now);
+        }
+        scheduleTimer();
+    }
+
+    private void send(Deadline deadline, long now) {
+        String offerId = deadline.getOfferId();
+        OfferDeadlines offerDeadlines = deadlinesByOfferId.get(offerId);
+        long lag = now - deadline.getDueTs();
+        numDueDeadlines++;
+        totalLag += lag;
+        maxLag = Math.max(maxLag, lag);
+
+        // We set the next deadlines before we call the handler, as it might remove the offer
+        if (deadline.getAction() == Action.REPUBLISH) {
+            offerDeadlines.republishTs = now + withJitter(republishInterval);
+            add(new Deadline(offerId, Action.REPUBLISH, offerDeadlines.republishTs));
+            scheduleRefresh(offerId, offerDeadlines, now);
+            int numBytes = handler.republish(offerId);
+            if (numBytes > 0) {
+                numRepublishes++;
+                numBytesSent += numBytes;
+            }
+        } else {
+            scheduleRefresh(offerId, offerDeadlines, now);
+            int numBytes = handler.refresh(offerId);
+            if (numBytes > 0) {
+                numRefreshes++;
+                numBytesSent += numBytes;
+            }
+        }
+        log.debug("{} offer {} with a lag of {} ms", deadline.getAction(), offerId, lag);
+
+        if (now - lastReportTs > REPORT_INTERVAL_MS) {
+            log.info(toString());
+            lastReportTs = now;
+        }
+    }
+
+    private void stopTimer() {
+        if (timer != null) {
+            timer.stop();
+            timer = null;
+        }
+    }
+}
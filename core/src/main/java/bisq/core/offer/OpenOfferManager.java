@@ -22,7 +22,6 @@ import bisq.core.btc.wallet.BsqWalletService;
 import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.btc.wallet.TradeWalletService;
 import bisq.core.exceptions.TradePriceOutOfToleranceException;
-import bisq.core.offer.availability.ArbitratorSelection;
 import bisq.core.offer.messages.OfferAvailabilityRequest;
 import bisq.core.offer.messages.OfferAvailabilityResponse;
 import bisq.core.offer.placeoffer.PlaceOfferModel;
@@ -63,6 +62,7 @@ import org.bitcoinj.core.Coin;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 import java.io.File;
@@ -92,6 +92,10 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private static final long REPUBLISH_AGAIN_AT_STARTUP_DELAY_SEC = 30;
     private static final long REPUBLISH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(30);
     private static final long REFRESH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(5);
+    // An AddDataMessage carries the offer with the pub key ring of the maker, the owner pub key and the signature
+    private static final int APPROX_ADD_OFFER_MESSAGE_SIZE = 2000;
+    // A RefreshOfferMessage carries two hashes, the signature and the sequence number
+    private static final int APPROX_REFRESH_MESSAGE_SIZE = 150;
 
     private final KeyRing keyRing;
     private final User user;
@@ -107,8 +111,11 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private final ArbitratorManager arbitratorManager;
     private final Storage<TradableList<OpenOffer>> openOfferTradableListStorage;
     private final Map<String, OpenOffer> offersToBeEdited = new HashMap<>();
+    private final Map<String, OpenOffer> openOfferById = new HashMap<>();
+    private final OfferRefreshScheduler offerRefreshScheduler;
+    private final OfferAvailabilityCache offerAvailabilityCache;
     private boolean stopped;
-    private Timer periodicRepublishOffersTimer, periodicRefreshOffersTimer, retryRepublishOffersTimer;
+    private Timer retryRepublishOffersTimer;
     private TradableList<OpenOffer> openOffers;
 
 
@@ -146,6 +153,19 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         this.arbitratorManager = arbitratorManager;
 
         openOfferTradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
+        offerRefreshScheduler = new OfferRefreshScheduler(REPUBLISH_INTERVAL_MS, REFRESH_INTERVAL_MS,
+                new OfferRefreshScheduler.Handler() {
+                    @Override
+                    public int republish(String offerId) {
+                        return republishOfferById(offerId);
+                    }
+
+                    @Override
+                    public int refresh(String offerId) {
+                        return refreshOfferById(offerId);
+                    }
+                });
+        offerAvailabilityCache = new OfferAvailabilityCache(tradeStatisticsManager, arbitratorManager, preferences);
 
         // In case the app did get killed the shutDown from the modules is not called, so we use a shutdown hook
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
@@ -157,6 +177,16 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     public void readPersisted() {
         openOffers = new TradableList<>(openOfferTradableListStorage, "OpenOffers");
         openOffers.forEach(e -> e.getOffer().setPriceFeedService(priceFeedService));
+        openOffers.forEach(e -> openOfferById.put(e.getId(), e));
+        openOffers.getList().addListener((ListChangeListener<OpenOffer>) c -> {
+            while (c.next()) {
+                c.getRemoved().forEach(openOffer -> {
+                    openOfferById.remove(openOffer.getId());
+                    offerRefreshScheduler.remove(openOffer.getId());
+                });
+                c.getAddedSubList().forEach(openOffer -> openOfferById.put(openOffer.getId(), openOffer));
+            }
+        });
     }
 
     public void onAllServicesInitialized() {
@@ -198,9 +228,10 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         p2PService.getPeerManager().removeListener(this);
         p2PService.removeDecryptedDirectMessageListener(this);
 
-        stopPeriodicRefreshOffersTimer();
-        stopPeriodicRepublishOffersTimer();
+        offerRefreshScheduler.clear();
         stopRetryRepublishOffersTimer();
+        log.info("Offer refresh at shutDown: {}", offerRefreshScheduler);
+        log.info("Offer availability requests at shutDown: {}", offerAvailabilityCache);
 
         log.debug("remove all open offers at shutDown");
         // we remove own offers from offerbook when we go offline
@@ -267,11 +298,9 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private void onBootstrapComplete() {
         stopped = false;
 
-        // Republish means we send the complete offer object
+        // Republish means we send the complete offer object. Each offer gets refreshed and republished again by the
+        // offerRefreshScheduler once it got republished.
         republishOffers();
-        startPeriodicRepublishOffersTimer();
-
-        // Refresh is started once we get a success from republish
 
         // We republish after a bit as it might be that our connected node still has the offer in the data map
         // but other peers have it already removed because of expired TTL.
@@ -296,8 +325,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     public void onAllConnectionsLost() {
         log.info("onAllConnectionsLost");
         stopped = true;
-        stopPeriodicRefreshOffersTimer();
-        stopPeriodicRepublishOffersTimer();
+        offerRefreshScheduler.clear();
         stopRetryRepublishOffersTimer();
 
         restart();
@@ -346,8 +374,8 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
                     openOfferTradableListStorage.queueUpForSave();
                     resultHandler.handleResult(transaction);
                     if (!stopped) {
-                        startPeriodicRepublishOffersTimer();
-                        startPeriodicRefreshOffersTimer();
+                        // The offer was added to the offer book by the PlaceOfferProtocol
+                        offerRefreshScheduler.onPublished(openOffer.getId());
                     } else {
                         log.debug("We have stopped already. We ignore that placeOfferProtocol.placeOffer.onResult call.");
                     }
@@ -379,6 +407,8 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
             offerBookService.activateOffer(offer,
                     () -> {
                         openOffer.setState(OpenOffer.State.AVAILABLE);
+                        if (!stopped)
+                            offerRefreshScheduler.onPublished(openOffer.getId());
                         log.debug("activateOpenOffer, offerId={}", offer.getId());
                         resultHandler.handleResult();
                     },
@@ -519,7 +549,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     }
 
     public Optional<OpenOffer> getOpenOfferById(String offerId) {
-        return openOffers.stream().filter(e -> e.getId().equals(offerId)).findFirst();
+        return Optional.ofNullable(openOfferById.get(offerId));
     }
 
 
@@ -528,6 +558,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void handleOfferAvailabilityRequest(OfferAvailabilityRequest request, NodeAddress peer) {
+        long startTs = System.currentTimeMillis();
         log.info("Received OfferAvailabilityRequest from {} with offerId {} and uid {}",
                 peer, request.getOfferId(), request.getUid());
 
@@ -558,6 +589,17 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
             return;
         }
 
+        if (offerAvailabilityCache.isRateLimited(peer, startTs)) {
+            errorMessage = "Rate limited";
+            log.debug("We ignore the OfferAvailabilityRequest from {} with offerId {} as the peer has sent more " +
+                    "than {} requests in the last {} sec.", peer, request.getOfferId(),
+                    OfferAvailabilityCache.MAX_REQUESTS_PER_PEER, OfferAvailabilityCache.RATE_LIMIT_INTERVAL_MS / 1000);
+            // We only ack the request. Sending an encrypted response to each request would keep the costs the limit
+            // should remove.
+            sendAckMessage(request, peer, false, errorMessage);
+            return;
+        }
+
         try {
             Optional<OpenOffer> openOfferOptional = getOpenOfferById(request.offerId);
             AvailabilityResult availabilityResult;
@@ -566,12 +608,12 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
                 OpenOffer openOffer = openOfferOptional.get();
                 if (openOffer.getState() == OpenOffer.State.AVAILABLE) {
                     Offer offer = openOffer.getOffer();
-                    if (preferences.getIgnoreTradersList().stream().noneMatch(hostName -> hostName.equals(peer.getHostName()))) {
+                    if (!offerAvailabilityCache.isIgnored(peer)) {
                         availabilityResult = AvailabilityResult.AVAILABLE;
 
                         List<NodeAddress> acceptedArbitrators = user.getAcceptedArbitratorAddresses();
                         if (acceptedArbitrators != null && !acceptedArbitrators.isEmpty()) {
-                            arbitratorNodeAddress = ArbitratorSelection.getLeastUsedArbitrator(tradeStatisticsManager, arbitratorManager).getNodeAddress();
+                            arbitratorNodeAddress = offerAvailabilityCache.getLeastUsedArbitrator().getNodeAddress();
                             openOffer.setArbitratorNodeAddress(arbitratorNodeAddress);
 
                             // Check also tradePrice to avoid failures after taker fee is paid caused by a too big difference
@@ -604,27 +646,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
                 availabilityResult = AvailabilityResult.OFFER_TAKEN;
             }
 
-            OfferAvailabilityResponse offerAvailabilityResponse = new OfferAvailabilityResponse(request.offerId, availabilityResult, arbitratorNodeAddress);
-            log.info("Send {} with offerId {} and uid {} to peer {}",
-                    offerAvailabilityResponse.getClass().getSimpleName(), offerAvailabilityResponse.getOfferId(),
-                    offerAvailabilityResponse.getUid(), peer);
-            p2PService.sendEncryptedDirectMessage(peer,
-                    request.getPubKeyRing(),
-                    offerAvailabilityResponse,
-                    new SendDirectMessageListener() {
-                        @Override
-                        public void onArrived() {
-                            log.info("{} arrived at peer: offerId={}; uid={}",
-                                    offerAvailabilityResponse.getClass().getSimpleName(), offerAvailabilityResponse.getOfferId(), offerAvailabilityResponse.getUid());
-                        }
-
-                        @Override
-                        public void onFault(String errorMessage) {
-                            log.error("Sending {} failed: uid={}; peer={}; error={}",
-                                    offerAvailabilityResponse.getClass().getSimpleName(), offerAvailabilityResponse.getUid(),
-                                    peer, errorMessage);
-                        }
-                    });
+            sendOfferAvailabilityResponse(request, peer, availabilityResult, arbitratorNodeAddress, startTs);
             result = true;
         } catch (Throwable t) {
             errorMessage = "Exception at handleRequestIsOfferAvailableMessage " + t.getMessage();
@@ -635,6 +657,36 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         }
     }
 
+    private void sendOfferAvailabilityResponse(OfferAvailabilityRequest request,
+                                               NodeAddress peer,
+                                               AvailabilityResult availabilityResult,
+                                               @Nullable NodeAddress arbitratorNodeAddress,
+                                               long startTs) {
+        OfferAvailabilityResponse offerAvailabilityResponse = new OfferAvailabilityResponse(request.offerId, availabilityResult, arbitratorNodeAddress);
+        log.info("Send {} with offerId {} and uid {} to peer {}",
+                offerAvailabilityResponse.getClass().getSimpleName(), offerAvailabilityResponse.getOfferId(),
+                offerAvailabilityResponse.getUid(), peer);
+        p2PService.sendEncryptedDirectMessage(peer,
+                request.getPubKeyRing(),
+                offerAvailabilityResponse,
+                new SendDirectMessageListener() {
+                    @Override
+                    public void onArrived() {
+                        log.info("{} arrived at peer: offerId={}; uid={}",
+                                offerAvailabilityResponse.getClass().getSimpleName(), offerAvailabilityResponse.getOfferId(), offerAvailabilityResponse.getUid());
+                        offerAvailabilityCache.onResponseArrived(availabilityResult, startTs, System.currentTimeMillis());
+                    }
+
+                    @Override
+                    public void onFault(String errorMessage) {
+                        log.error("Sending {} failed: uid={}; peer={}; error={}",
+                                offerAvailabilityResponse.getClass().getSimpleName(), offerAvailabilityResponse.getUid(),
+                                peer, errorMessage);
+                        offerAvailabilityCache.onResponseFailed();
+                    }
+                });
+    }
+
     private void sendAckMessage(OfferAvailabilityRequest message, NodeAddress sender, boolean result, String errorMessage) {
         String offerId = message.getOfferId();
         String sourceUid = message.getUid();
@@ -680,36 +732,37 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         final ArrayList<OpenOffer> openOffersList = new ArrayList<>(openOffers.getList());
         Log.traceCall("Number of offer for republish: " + size);
         if (!stopped) {
-            stopPeriodicRefreshOffersTimer();
             for (int i = 0; i < size; i++) {
                 // we delay to avoid reaching throttle limits
-
                 long delay = 700;
                 final long minDelay = (i + 1) * delay;
                 final long maxDelay = (i + 2) * delay;
-                final OpenOffer openOffer = openOffersList.get(i);
-                UserThread.runAfterRandomDelay(() -> {
-                    if (openOffers.contains(openOffer)) {
-                        String id = openOffer.getId();
-                        if (id != null && !openOffer.isDeactivated())
-                            republishOffer(openOffer);
-                    }
-
-                }, minDelay, maxDelay, TimeUnit.MILLISECONDS);
+                long randomDelay = minDelay + (long) (Math.random() * (maxDelay - minDelay));
+                offerRefreshScheduler.scheduleRepublish(openOffersList.get(i).getId(), randomDelay);
             }
         } else {
             log.debug("We have stopped already. We ignore that republishOffers call.");
         }
     }
 
+    private int republishOfferById(String offerId) {
+        // We need to check if in the meantime the offer has been removed or deactivated
+        OpenOffer openOffer = openOfferById.get(offerId);
+        if (stopped || openOffer == null || openOffer.isDeactivated())
+            return 0;
+
+        republishOffer(openOffer);
+        return APPROX_ADD_OFFER_MESSAGE_SIZE;
+    }
+
     private void republishOffer(OpenOffer openOffer) {
         offerBookService.addOffer(openOffer.getOffer(),
                 () -> {
                     if (!stopped) {
                         log.debug("Successful added offer to P2P network");
-                        // Refresh means we send only the dat needed to refresh the TTL (hash, signature and sequence no.)
-                        if (periodicRefreshOffersTimer == null)
-                            startPeriodicRefreshOffersTimer();
+                        // Refresh means we send only the data needed to refresh the TTL (hash, signature and sequence no.)
+                        if (openOffers.contains(openOffer))
+                            offerRefreshScheduler.onPublished(openOffer.getId());
                     } else {
                         log.debug("We have stopped already. We ignore that offerBookService.republishOffers.onSuccess call.");
                     }
@@ -727,63 +780,15 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         openOffer.setStorage(openOfferTradableListStorage);
     }
 
-    private void startPeriodicRepublishOffersTimer() {
-        Log.traceCall();
-        stopped = false;
-        if (periodicRepublishOffersTimer == null)
-            periodicRepublishOffersTimer = UserThread.runPeriodically(() -> {
-                        if (!stopped) {
-                            republishOffers();
-                        } else {
-                            log.debug("We have stopped already. We ignore that periodicRepublishOffersTimer.run call.");
-                        }
-                    },
-                    REPUBLISH_INTERVAL_MS,
-                    TimeUnit.MILLISECONDS);
-        else
-            log.trace("periodicRepublishOffersTimer already stated");
-    }
+    private int refreshOfferById(String offerId) {
+        OpenOffer openOffer = openOfferById.get(offerId);
+        if (stopped || openOffer == null || openOffer.isDeactivated())
+            return 0;
 
-    private void startPeriodicRefreshOffersTimer() {
-        Log.traceCall();
-        stopped = false;
-        // refresh sufficiently before offer would expire
-        if (periodicRefreshOffersTimer == null)
-            periodicRefreshOffersTimer = UserThread.runPeriodically(() -> {
-                        if (!stopped) {
-                            int size = openOffers.size();
-                            Log.traceCall("Number of offer for refresh: " + size);
-
-                            //we clone our list as openOffers might change during our delayed call
-                            final ArrayList<OpenOffer> openOffersList = new ArrayList<>(openOffers.getList());
-                            for (int i = 0; i < size; i++) {
-                                // we delay to avoid reaching throttle limits
-                                // roughly 4 offers per second
-
-                                long delay = 300;
-                                final long minDelay = (i + 1) * delay;
-                                final long maxDelay = (i + 2) * delay;
-                                final OpenOffer openOffer = openOffersList.get(i);
-                                UserThread.runAfterRandomDelay(() -> {
-                                    // we need to check if in the meantime the offer has been removed
-                                    if (openOffers.contains(openOffer) && !openOffer.isDeactivated())
-                                        refreshOffer(openOffer);
-                                }, minDelay, maxDelay, TimeUnit.MILLISECONDS);
-                            }
-                        } else {
-                            log.debug("We have stopped already. We ignore that periodicRefreshOffersTimer.run call.");
-                        }
-                    },
-                    REFRESH_INTERVAL_MS,
-                    TimeUnit.MILLISECONDS);
-        else
-            log.trace("periodicRefreshOffersTimer already stated");
-    }
-
-    private void refreshOffer(OpenOffer openOffer) {
         offerBookService.refreshTTL(openOffer.getOffer().getOfferPayload(),
                 () -> log.debug("Successful refreshed TTL for offer"),
                 log::warn);
+        return APPROX_REFRESH_MESSAGE_SIZE;
     }
 
     private void restart() {
@@ -794,8 +799,6 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
                 stopRetryRepublishOffersTimer();
                 republishOffers();
             }, RETRY_REPUBLISH_DELAY_SEC);
-
-        startPeriodicRepublishOffersTimer();
     }
 
 
@@ -803,20 +806,6 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void stopPeriodicRefreshOffersTimer() {
-        if (periodicRefreshOffersTimer != null) {
-            periodicRefreshOffersTimer.stop();
-            periodicRefreshOffersTimer = null;
-        }
-    }
-
-    private void stopPeriodicRepublishOffersTimer() {
-        if (periodicRepublishOffersTimer != null) {
-            periodicRepublishOffersTimer.stop();
-            periodicRepublishOffersTimer = null;
-        }
-    }
-
     private void stopRetryRepublishOffersTimer() {
         if (retryRepublishOffersTimer != null) {
             retryRepublishOffersTimer.stop();
@@ -75,9 +75,9 @@ public class PlaceOfferProtocol {
                 }
         );
         taskRunner.addTasks(
-                ValidateOffer.class,
-                CreateMakerFeeTx.class,
-                AddToOfferBook.class
+                ValidateOffer::new,
+                CreateMakerFeeTx::new,
+                AddToOfferBook::new
         );
 
         taskRunner.run();
@@ -41,6 +41,11 @@ public class ValidateOffer extends Task<PlaceOfferModel> {
         super(taskHandler, model);
     }
 
+    @Override
+    protected boolean isPersistAfterCompletion() {
+        return false;
+    }
+
     @Override
     protected void run() {
         Offer offer = model.getOffer();
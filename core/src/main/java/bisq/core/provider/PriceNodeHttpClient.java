@@ -22,11 +22,24 @@ import bisq.network.http.HttpClient;
 
 import javax.inject.Inject;
 
+import java.util.concurrent.TimeUnit;
+
 import javax.annotation.Nullable;
 
+/**
+ * Shared by the PriceFeedService and the FeeProvider. Prices are requested every minute and fees
+ * every few minutes from the same price node, so we keep the connection over Tor alive between
+ * requests instead of building a new circuit for each of them.
+ */
 public class PriceNodeHttpClient extends HttpClient {
+    private static final int CONNECT_TIMEOUT_MS = 60_000;
+    private static final int READ_TIMEOUT_MS = 30_000;
+    private static final long KEEP_ALIVE_MS = TimeUnit.MINUTES.toMillis(3);
+
     @Inject
     public PriceNodeHttpClient(@Nullable Socks5ProxyProvider socks5ProxyProvider) {
         super(socks5ProxyProvider);
+        setTimeouts(CONNECT_TIMEOUT_MS, READ_TIMEOUT_MS);
+        setConnectionPooling(true, KEEP_ALIVE_MS);
     }
 }
@@ -20,6 +20,7 @@ package bisq.core.provider.price;
 import bisq.core.provider.HttpClientProvider;
 
 import bisq.network.http.HttpClient;
+import bisq.network.http.HttpResponse;
 
 import bisq.common.app.Version;
 import bisq.common.util.MathUtils;
@@ -37,24 +38,53 @@ import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
+/**
+ * Requests the market prices of a single price node. After the first response we only ask for
+ * what changed: if the price node supports it (i.e. it reports a "ts" value) we request only the
+ * prices changed since then, otherwise we send the ETag of the last response and get a
+ * 304 Not Modified response without body if nothing changed. As the returned map might contain only
+ * the new or changed prices, callers need to merge it into the prices they already have.
+ */
 @Slf4j
 public class PriceProvider extends HttpClientProvider {
+    @Nullable
+    private String etag;
+    private long ts;
+    private Map<String, Long> tsMap = new HashMap<>();
 
     // Do not use Guice here as we might create multiple instances
     public PriceProvider(HttpClient httpClient, String baseUrl) {
         super(httpClient, baseUrl, false);
     }
 
-    public Tuple2<Map<String, Long>, Map<String, MarketPrice>> getAll() throws IOException {
+    public synchronized Tuple2<Map<String, Long>, Map<String, MarketPrice>> getAll() throws IOException {
         Map<String, MarketPrice> marketPriceMap = new HashMap<>();
-        String json = httpClient.requestWithGET("getAllMarketPrices", "User-Agent", "bisq/"
-                + Version.VERSION + ", uid:" + httpClient.getUid());
+        Map<String, String> headers = new HashMap<>();
+        headers.put("User-Agent", "bisq/" + Version.VERSION + ", uid:" + httpClient.getUid());
+        String param = "getAllMarketPrices";
+        if (ts > 0)
+            param += "?since=" + ts;
+        else if (etag != null)
+            headers.put("If-None-Match", etag);
+
+        HttpResponse response = httpClient.requestWithGETForResponse(param, headers);
+        if (response.isNotModified()) {
+            log.debug("Market prices not modified since last request");
+            return new Tuple2<>(tsMap, marketPriceMap);
+        }
+        etag = response.getHeader("ETag");
 
-        LinkedTreeMap<String, Object> map = new Gson().<LinkedTreeMap<String, Object>>fromJson(json, LinkedTreeMap.class);
+        LinkedTreeMap<String, Object> map = new Gson().<LinkedTreeMap<String, Object>>fromJson(response.getBody(), LinkedTreeMap.class);
         Map<String, Long> tsMap = new HashMap<>();
         tsMap.put("btcAverageTs", ((Double) map.get("btcAverageTs")).longValue());
         tsMap.put("poloniexTs", ((Double) map.get("poloniexTs")).longValue());
         tsMap.put("coinmarketcapTs", ((Double) map.get("coinmarketcapTs")).longValue());
+        this.tsMap = tsMap;
+        // Only reported by price nodes supporting the 'since' parameter
+        if (map.containsKey("ts"))
+            ts = ((Double) map.get("ts")).longValue();
 
         //noinspection unchecked
         List<LinkedTreeMap<String, Object>> list = (ArrayList<LinkedTreeMap<String, Object>>) map.get("data");
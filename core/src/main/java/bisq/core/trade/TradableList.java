@@ -30,11 +30,19 @@ import io.bisq.generated.protobuffer.PB;
 
 import com.google.protobuf.Message;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.io.File;
+import java.io.IOException;
+
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -44,11 +52,26 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Persists its tradables either all together in one file or, if created with
+ * {@link #withRecordFiles(Storage, String, int)}, each tradable in its own record file. Each record is a TradableList
+ * holding a single tradable, so a change of a trade only requires to write that trade and not all the others.
+ */
 @Slf4j
 public final class TradableList<T extends Tradable> implements PersistableEnvelope {
+    private static final String RECORD_DIR_SUFFIX = "Records";
+    private static final String MIGRATED_MARKER_SUFFIX = "_migrated";
+
     transient final private Storage<TradableList<T>> storage;
     @Getter
     private final ObservableList<T> list = FXCollections.observableArrayList();
+    // Only set if we use record files
+    @Nullable
+    transient final private String recordDirName;
+    transient private int numMaxBackupFilesPerRecord;
+    transient final private Map<String, TradableList<T>> recordByName = new HashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -57,19 +80,69 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     public TradableList(Storage<TradableList<T>> storage, String fileName) {
         this.storage = storage;
+        recordDirName = null;
 
         TradableList<T> persisted = storage.initAndGetPersisted(this, fileName, 50);
         if (persisted != null)
             list.addAll(persisted.getList());
     }
 
+    /**
+     * Creates a list which persists each tradable in its own record file in the directory fileName + "Records".
+     * If the file of a list persisted as a whole exists, its tradables are written to record files once. We leave
+     * that file in place, so a downgrade to a version without record files still finds the tradables as of the
+     * migration, and mark the migration as done with the empty file fileName + "_migrated". Changes a downgraded
+     * version makes to the old file are not migrated again after the next upgrade.
+     *
+     * @param numMaxBackupFilesPerRecord Number of backups of each record at startup, 0 for no backups.
+     */
+    public static <T extends Tradable> TradableList<T> withRecordFiles(Storage<TradableList<T>> storage,
+                                                                       String fileName,
+                                                                       int numMaxBackupFilesPerRecord) {
+        return new TradableList<>(storage, fileName, numMaxBackupFilesPerRecord);
+    }
+
+    private TradableList(Storage<TradableList<T>> storage, String fileName, int numMaxBackupFilesPerRecord) {
+        this.storage = storage;
+        this.recordDirName = fileName + RECORD_DIR_SUFFIX;
+        this.numMaxBackupFilesPerRecord = numMaxBackupFilesPerRecord;
+
+        long ts = System.currentTimeMillis();
+        File[] recordFiles = new File(storage.getDir(), recordDirName).listFiles(File::isFile);
+        if (recordFiles != null) {
+            for (File recordFile : recordFiles) {
+                String recordName = recordFile.getName();
+                // Skip temp files of interrupted writes
+                if (recordName.endsWith(".tmp"))
+                    continue;
+
+                TradableList<T> record = createRecord(recordName);
+                if (record.list.isEmpty()) {
+                    log.warn("Record {} of {} is empty", recordName, fileName);
+                    continue;
+                }
+                recordByName.put(recordName, record);
+                list.addAll(record.list);
+            }
+        }
+
+        if (new File(storage.getDir(), fileName).exists() &&
+                !new File(storage.getDir(), fileName + MIGRATED_MARKER_SUFFIX).exists())
+            migrateToRecordFiles(fileName);
+
+        list.sort(Comparator.comparing(Tradable::getDate));
+        log.info("Reading {} records of {} took {} ms", list.size(), fileName, System.currentTimeMillis() - ts);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private TradableList(Storage<TradableList<T>> storage, List<T> list) {
+    @VisibleForTesting
+    TradableList(Storage<TradableList<T>> storage, List<T> list) {
         this.storage = storage;
+        this.recordDirName = null;
         this.list.addAll(list);
     }
 
@@ -119,18 +192,35 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     public boolean add(T tradable) {
         boolean changed = list.add(tradable);
-        if (changed)
-            storage.queueUpForSave();
+        if (changed) {
+            if (recordDirName != null)
+                addRecord(tradable);
+            else
+                storage.queueUpForSave();
+        }
         return changed;
     }
 
     public boolean remove(T tradable) {
         boolean changed = list.remove(tradable);
-        if (changed)
-            storage.queueUpForSave();
+        if (changed) {
+            if (recordDirName != null)
+                removeRecord(tradable);
+            else
+                storage.queueUpForSave();
+        }
         return changed;
     }
 
+    /**
+     * @return The storage which persists the given tradable, i.e. the storage of its record if we use record files,
+     * otherwise the storage of the list.
+     */
+    public Storage<TradableList<T>> getStorage(T tradable) {
+        TradableList<T> record = recordByName.get(getRecordName(tradable));
+        return record != null ? record.storage : storage;
+    }
+
     public Stream<T> stream() {
         return list.stream();
     }
@@ -146,4 +236,64 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
     public boolean contains(T thing) {
         return list.contains(thing);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Record files
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private TradableList<T> createRecord(String recordName) {
+        Storage<TradableList<T>> recordStorage = storage.forSubDirectory(checkNotNull(recordDirName));
+        recordStorage.setNumMaxBackupFiles(numMaxBackupFilesPerRecord);
+        return new TradableList<>(recordStorage, recordName);
+    }
+
+    private void addRecord(T tradable) {
+        TradableList<T> record = createRecord(getRecordName(tradable));
+        record.add(tradable);
+        recordByName.put(getRecordName(tradable), record);
+        if (tradable instanceof Trade)
+            ((Trade) tradable).setStorage(record.storage);
+    }
+
+    private void removeRecord(T tradable) {
+        String recordName = getRecordName(tradable);
+        TradableList<T> record = recordByName.remove(recordName);
+        if (record != null) {
+            record.storage.remove(recordName);
+            // The trade might have been added already to another list which set its storage
+            if (tradable instanceof Trade && ((Trade) tradable).getStorage() == record.storage)
+                ((Trade) tradable).setStorage(null);
+        }
+    }
+
+    private void migrateToRecordFiles(String fileName) {
+        log.info("Migrating {} to record files", fileName);
+        TradableList<T> persisted = storage.initAndGetPersistedWithFileName(fileName, 50);
+        if (persisted != null) {
+            persisted.list.stream()
+                    .filter(tradable -> !recordByName.containsKey(getRecordName(tradable)))
+                    .forEach(tradable -> {
+                        TradableList<T> record = createRecord(getRecordName(tradable));
+                        record.list.add(tradable);
+                        // The records must be on disk before we mark the migration as done
+                        record.storage.saveNow();
+                        recordByName.put(getRecordName(tradable), record);
+                        list.add(tradable);
+                    });
+        }
+
+        File markerFile = new File(storage.getDir(), fileName + MIGRATED_MARKER_SUFFIX);
+        try {
+            if (!markerFile.createNewFile())
+                log.warn("Marker file {} exists already", markerFile);
+        } catch (IOException e) {
+            log.error("Could not mark migration of {} to record files as done. {}", fileName, e.getMessage());
+        }
+    }
+
+    // A trade has the id of its offer, so we add the type to the name
+    private static String getRecordName(Tradable tradable) {
+        return (tradable instanceof OpenOffer ? "OpenOffer_" : "Trade_") + tradable.getId();
+    }
 }
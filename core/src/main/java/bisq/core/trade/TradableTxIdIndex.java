@@ -0,0 +1,177 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade;
+
+import bisq.core.arbitration.Dispute;
+import bisq.core.arbitration.DisputeManager;
+import bisq.core.offer.OpenOffer;
+import bisq.core.offer.OpenOfferManager;
+import bisq.core.trade.closed.ClosedTradableManager;
+import bisq.core.trade.failed.FailedTradesManager;
+
+import com.google.inject.Inject;
+
+import javafx.beans.value.ChangeListener;
+
+import javafx.collections.ListChangeListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Maps the ids of the offer fee, taker fee, deposit and payout transactions of our open offers and all our trades and
+ * the payout transactions of their disputes to their tradable, so we don't need to check every tradable for every
+ * wallet transaction.
+ * <p>
+ * The index is built at the first lookup and rebuilt at the next lookup after any of the tradable lists, the dispute
+ * list, the state of a pending trade or the payout transaction of a dispute changed.
+ * <p>
+ * Must only be used from the user thread.
+ */
+@Slf4j
+public class TradableTxIdIndex {
+    private final OpenOfferManager openOfferManager;
+    private final TradeManager tradeManager;
+    private final ClosedTradableManager closedTradableManager;
+    private final FailedTradesManager failedTradesManager;
+    private final DisputeManager disputeManager;
+
+    private final Map<String, Tradable> tradableByTxId = new HashMap<>();
+    private final Map<String, Trade> tradeById = new HashMap<>();
+    private final Set<Trade> observedTrades = new HashSet<>();
+    private final ChangeListener<Trade.State> tradeStateListener = (observable, oldValue, newValue) -> invalidate();
+    private final Set<Dispute> observedDisputes = new HashSet<>();
+    private final ChangeListener<String> disputePayoutTxIdListener = (observable, oldValue, newValue) -> invalidate();
+    private boolean listenersAdded;
+    private boolean dirty = true;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public TradableTxIdIndex(OpenOfferManager openOfferManager,
+                             TradeManager tradeManager,
+                             ClosedTradableManager closedTradableManager,
+                             FailedTradesManager failedTradesManager,
+                             DisputeManager disputeManager) {
+        this.openOfferManager = openOfferManager;
+        this.tradeManager = tradeManager;
+        this.closedTradableManager = closedTradableManager;
+        this.failedTradesManager = failedTradesManager;
+        this.disputeManager = disputeManager;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public Optional<Tradable> getTradable(@Nullable String txId) {
+        if (txId == null)
+            return Optional.empty();
+
+        // The lists are only available after the persisted data have been read, so we add the listeners at first use
+        if (!listenersAdded) {
+            ListChangeListener<Object> listChangeListener = change -> invalidate();
+            openOfferManager.getObservableList().addListener(listChangeListener);
+            tradeManager.getTradableList().addListener(listChangeListener);
+            closedTradableManager.getClosedTradables().addListener(listChangeListener);
+            failedTradesManager.getFailedTrades().addListener(listChangeListener);
+            disputeManager.getDisputesAsObservableList().addListener(listChangeListener);
+            listenersAdded = true;
+        }
+        if (dirty)
+            rebuild();
+
+        return Optional.ofNullable(tradableByTxId.get(txId));
+    }
+
+    public void invalidate() {
+        dirty = true;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void rebuild() {
+        long ts = System.currentTimeMillis();
+        tradableByTxId.clear();
+        tradeById.clear();
+
+        // If a transaction belongs to multiple tradables, e.g. the offer fee transaction of an offer and its trade,
+        // the first one in that order wins
+        openOfferManager.getObservableList().forEach(this::add);
+        tradeManager.getTradableList().forEach(this::add);
+        closedTradableManager.getClosedTradables().forEach(this::add);
+        failedTradesManager.getFailedTrades().forEach(this::add);
+
+        // The payout transaction id of a dispute gets set after the dispute was added, so we observe it as well
+        List<Dispute> disputes = disputeManager.getDisputesAsObservableList();
+        disputes.forEach(dispute -> {
+            Trade trade = tradeById.get(dispute.getTradeId());
+            if (trade != null)
+                addTxId(dispute.getDisputePayoutTxId(), trade);
+        });
+        observedDisputes.forEach(dispute -> dispute.disputePayoutTxIdProperty().removeListener(disputePayoutTxIdListener));
+        observedDisputes.clear();
+        disputes.forEach(dispute -> dispute.disputePayoutTxIdProperty().addListener(disputePayoutTxIdListener));
+        observedDisputes.addAll(disputes);
+
+        // The transactions of a pending trade get set during the trade protocol, each followed by a state change
+        List<Trade> pendingTrades = tradeManager.getTradableList();
+        observedTrades.forEach(trade -> trade.stateProperty().removeListener(tradeStateListener));
+        observedTrades.clear();
+        pendingTrades.forEach(trade -> trade.stateProperty().addListener(tradeStateListener));
+        observedTrades.addAll(pendingTrades);
+
+        dirty = false;
+        log.debug("Rebuilding the tx id index with {} transactions took {} ms",
+                tradableByTxId.size(), System.currentTimeMillis() - ts);
+    }
+
+    private void add(Tradable tradable) {
+        if (tradable instanceof OpenOffer) {
+            addTxId(tradable.getOffer().getOfferFeePaymentTxId(), tradable);
+        } else if (tradable instanceof Trade) {
+            Trade trade = (Trade) tradable;
+            tradeById.putIfAbsent(trade.getId(), trade);
+            if (trade.getOffer() != null)
+                addTxId(trade.getOffer().getOfferFeePaymentTxId(), trade);
+            addTxId(trade.getTakerFeeTxId(), trade);
+            addTxId(trade.getDepositTxId(), trade);
+            addTxId(trade.getPayoutTxId(), trade);
+        }
+    }
+
+    private void addTxId(@Nullable String txId, Tradable tradable) {
+        if (txId != null)
+            tradableByTxId.putIfAbsent(txId, tradable);
+    }
+}
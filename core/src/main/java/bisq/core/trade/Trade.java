@@ -489,6 +489,11 @@ public abstract class Trade implements Tradable, Model {
         this.btcWalletService = btcWalletService;
     }
 
+    // Used by the TradableList if each trade is persisted in its own record file
+    void setStorage(@Nullable Storage<? extends TradableList> storage) {
+        this.storage = storage;
+    }
+
     public void init(P2PService p2PService,
                      BtcWalletService btcWalletService,
                      BsqWalletService bsqWalletService,
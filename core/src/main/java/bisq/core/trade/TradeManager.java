@@ -209,9 +209,10 @@ public class TradeManager implements PersistedDataHost {
 
     @Override
     public void readPersisted() {
-        tradableList = new TradableList<>(tradableListStorage, "PendingTrades");
+        // Each task of the trade protocol persists the trade, so we write only that trade and not all pending trades
+        tradableList = TradableList.withRecordFiles(tradableListStorage, "PendingTrades", 10);
         tradableList.forEach(trade -> {
-            trade.setTransientFields(tradableListStorage, btcWalletService);
+            trade.setTransientFields(tradableList.getStorage(trade), btcWalletService);
             Offer offer = trade.getOffer();
             if (offer != null)
                 offer.setPriceFeedService(priceFeedService);
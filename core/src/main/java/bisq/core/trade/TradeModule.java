@@ -48,6 +48,7 @@ public class TradeModule extends AppModule {
         bind(TradeStatistics2StorageService.class).in(Singleton.class);
         bind(ClosedTradableManager.class).in(Singleton.class);
         bind(FailedTradesManager.class).in(Singleton.class);
+        bind(TradableTxIdIndex.class).in(Singleton.class);
         bind(AccountAgeWitnessService.class).in(Singleton.class);
         bind(ReferralIdService.class).in(Singleton.class);
         bind(AccountAgeWitnessStorageService.class).in(Singleton.class);
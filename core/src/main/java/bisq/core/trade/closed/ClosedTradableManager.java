@@ -60,19 +60,21 @@ public class ClosedTradableManager implements PersistedDataHost {
         this.priceFeedService = priceFeedService;
         this.btcWalletService = btcWalletService;
         tradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
-        // The ClosedTrades object can become a few MB so we don't keep so many backups
+        // The ClosedTrades object can become a few MB so we don't keep so many backups. Only used for the migration
+        // to record files.
         tradableListStorage.setNumMaxBackupFiles(3);
 
     }
 
     @Override
     public void readPersisted() {
-        closedTradables = new TradableList<>(tradableListStorage, "ClosedTrades");
+        // Closed trades hardly change after they got closed, so we don't make backups of their records
+        closedTradables = TradableList.withRecordFiles(tradableListStorage, "ClosedTrades", 0);
         closedTradables.forEach(tradable -> {
             tradable.getOffer().setPriceFeedService(priceFeedService);
             if (tradable instanceof Trade) {
                 Trade trade = (Trade) tradable;
-                trade.setTransientFields(tradableListStorage, btcWalletService);
+                trade.setTransientFields(closedTradables.getStorage(trade), btcWalletService);
             }
         });
     }
@@ -71,14 +71,14 @@ public class BuyerAsMakerProtocol extends TradeProtocol implements BuyerProtocol
                     () -> handleTaskRunnerSuccess("MakerSetupDepositTxListener"),
                     this::handleTaskRunnerFault);
 
-            taskRunner.addTasks(MakerSetupDepositTxListener.class);
+            taskRunner.addTasks(MakerSetupDepositTxListener::new);
             taskRunner.run();
         } else if (trade.isFiatSent() && !trade.isPayoutPublished()) {
             TradeTaskRunner taskRunner = new TradeTaskRunner(trade,
                     () -> handleTaskRunnerSuccess("BuyerSetupPayoutTxListener"),
                     this::handleTaskRunnerFault);
 
-            taskRunner.addTasks(BuyerSetupPayoutTxListener.class);
+            taskRunner.addTasks(BuyerSetupPayoutTxListener::new);
             taskRunner.run();
         }
     }
@@ -128,15 +128,15 @@ public class BuyerAsMakerProtocol extends TradeProtocol implements BuyerProtocol
                     handleTaskRunnerFault(errorMessage);
                 });
         taskRunner.addTasks(
-                MakerProcessPayDepositRequest.class,
-                CheckIfPeerIsBanned.class,
-                MakerVerifyTakerAccount.class,
-                VerifyPeersAccountAgeWitness.class,
-                MakerVerifyTakerFeePayment.class,
-                MakerCreateAndSignContract.class,
-                BuyerAsMakerCreatesAndSignsDepositTx.class,
-                MakerSetupDepositTxListener.class,
-                MakerSendPublishDepositTxRequest.class
+                MakerProcessPayDepositRequest::new,
+                CheckIfPeerIsBanned::new,
+                MakerVerifyTakerAccount::new,
+                VerifyPeersAccountAgeWitness::new,
+                MakerVerifyTakerFeePayment::new,
+                MakerCreateAndSignContract::new,
+                BuyerAsMakerCreatesAndSignsDepositTx::new,
+                MakerSetupDepositTxListener::new,
+                MakerSendPublishDepositTxRequest::new
         );
         // We don't use a timeout here because if the DepositTxPublishedMessage does not arrive we
         // get the deposit tx set at MakerSetupDepositTxListener once it is seen in the bitcoin network
@@ -158,10 +158,10 @@ public class BuyerAsMakerProtocol extends TradeProtocol implements BuyerProtocol
                 },
                 errorMessage -> handleTaskRunnerFault(tradeMessage, errorMessage));
         taskRunner.addTasks(
-                MakerProcessDepositTxPublishedMessage.class,
-                MakerVerifyTakerAccount.class,
-                MakerVerifyTakerFeePayment.class,
-                PublishTradeStatistics.class
+                MakerProcessDepositTxPublishedMessage::new,
+                MakerVerifyTakerAccount::new,
+                MakerVerifyTakerFeePayment::new,
+                PublishTradeStatistics::new
         );
         taskRunner.run();
     }
@@ -186,12 +186,12 @@ public class BuyerAsMakerProtocol extends TradeProtocol implements BuyerProtocol
                         handleTaskRunnerFault(errorMessage);
                     });
             taskRunner.addTasks(
-                    CheckIfPeerIsBanned.class,
-                    MakerVerifyTakerAccount.class,
-                    MakerVerifyTakerFeePayment.class,
-                    BuyerAsMakerSignPayoutTx.class,
-                    BuyerSendCounterCurrencyTransferStartedMessage.class,
-                    BuyerSetupPayoutTxListener.class
+                    CheckIfPeerIsBanned::new,
+                    MakerVerifyTakerAccount::new,
+                    MakerVerifyTakerFeePayment::new,
+                    BuyerAsMakerSignPayoutTx::new,
+                    BuyerSendCounterCurrencyTransferStartedMessage::new,
+                    BuyerSetupPayoutTxListener::new
             );
             taskRunner.run();
         } else {
@@ -213,7 +213,7 @@ public class BuyerAsMakerProtocol extends TradeProtocol implements BuyerProtocol
                 errorMessage -> handleTaskRunnerFault(tradeMessage, errorMessage));
 
         taskRunner.addTasks(
-                BuyerProcessPayoutTxPublishedMessage.class
+                BuyerProcessPayoutTxPublishedMessage::new
         );
         taskRunner.run();
     }
@@ -71,7 +71,7 @@ public class BuyerAsTakerProtocol extends TradeProtocol implements BuyerProtocol
                     () -> handleTaskRunnerSuccess("BuyerSetupPayoutTxListener"),
                     this::handleTaskRunnerFault);
 
-            taskRunner.addTasks(BuyerSetupPayoutTxListener.class);
+            taskRunner.addTasks(BuyerSetupPayoutTxListener::new);
             taskRunner.run();
         }
     }
@@ -113,12 +113,12 @@ public class BuyerAsTakerProtocol extends TradeProtocol implements BuyerProtocol
                 this::handleTaskRunnerFault);
 
         taskRunner.addTasks(
-                TakerSelectMediator.class,
-                TakerVerifyMakerAccount.class,
-                TakerVerifyMakerFeePayment.class,
-                CreateTakerFeeTx.class,
-                BuyerAsTakerCreatesDepositTxInputs.class,
-                TakerSendPayDepositRequest.class
+                TakerSelectMediator::new,
+                TakerVerifyMakerAccount::new,
+                TakerVerifyMakerFeePayment::new,
+                CreateTakerFeeTx::new,
+                BuyerAsTakerCreatesDepositTxInputs::new,
+                TakerSendPayDepositRequest::new
         );
 
         //TODO if peer does get an error he does not respond and all we get is the timeout now knowing why it failed.
@@ -143,15 +143,15 @@ public class BuyerAsTakerProtocol extends TradeProtocol implements BuyerProtocol
                 },
                 errorMessage -> handleTaskRunnerFault(tradeMessage, errorMessage));
         taskRunner.addTasks(
-                TakerProcessPublishDepositTxRequest.class,
-                CheckIfPeerIsBanned.class,
-                TakerVerifyMakerAccount.class,
-                VerifyPeersAccountAgeWitness.class,
-                TakerVerifyMakerFeePayment.class,
-                TakerVerifyAndSignContract.class,
-                BuyerAsTakerSignAndPublishDepositTx.class,
-                TakerSendDepositTxPublishedMessage.class,
-                PublishTradeStatistics.class
+                TakerProcessPublishDepositTxRequest::new,
+                CheckIfPeerIsBanned::new,
+                TakerVerifyMakerAccount::new,
+                VerifyPeersAccountAgeWitness::new,
+                TakerVerifyMakerFeePayment::new,
+                TakerVerifyAndSignContract::new,
+                BuyerAsTakerSignAndPublishDepositTx::new,
+                TakerSendDepositTxPublishedMessage::new,
+                PublishTradeStatistics::new
         );
         taskRunner.run();
     }
@@ -177,12 +177,12 @@ public class BuyerAsTakerProtocol extends TradeProtocol implements BuyerProtocol
                         handleTaskRunnerFault(errorMessage);
                     });
             taskRunner.addTasks(
-                    CheckIfPeerIsBanned.class,
-                    TakerVerifyMakerAccount.class,
-                    TakerVerifyMakerFeePayment.class,
-                    BuyerAsMakerSignPayoutTx.class,
-                    BuyerSendCounterCurrencyTransferStartedMessage.class,
-                    BuyerSetupPayoutTxListener.class
+                    CheckIfPeerIsBanned::new,
+                    TakerVerifyMakerAccount::new,
+                    TakerVerifyMakerFeePayment::new,
+                    BuyerAsMakerSignPayoutTx::new,
+                    BuyerSendCounterCurrencyTransferStartedMessage::new,
+                    BuyerSetupPayoutTxListener::new
             );
             taskRunner.run();
         } else {
@@ -205,7 +205,7 @@ public class BuyerAsTakerProtocol extends TradeProtocol implements BuyerProtocol
                 errorMessage -> handleTaskRunnerFault(tradeMessage, errorMessage));
 
         taskRunner.addTasks(
-                BuyerProcessPayoutTxPublishedMessage.class
+                BuyerProcessPayoutTxPublishedMessage::new
         );
         taskRunner.run();
     }
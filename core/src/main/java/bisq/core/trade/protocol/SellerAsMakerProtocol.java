@@ -72,7 +72,7 @@ public class SellerAsMakerProtocol extends TradeProtocol implements SellerProtoc
                     () -> handleTaskRunnerSuccess("MakerSetupDepositTxListener"),
                     this::handleTaskRunnerFault);
 
-            taskRunner.addTasks(MakerSetupDepositTxListener.class);
+            taskRunner.addTasks(MakerSetupDepositTxListener::new);
             taskRunner.run();
         }
     }
@@ -123,15 +123,15 @@ public class SellerAsMakerProtocol extends TradeProtocol implements SellerProtoc
                 });
 
         taskRunner.addTasks(
-                MakerProcessPayDepositRequest.class,
-                CheckIfPeerIsBanned.class,
-                MakerVerifyTakerAccount.class,
-                VerifyPeersAccountAgeWitness.class,
-                MakerVerifyTakerFeePayment.class,
-                MakerCreateAndSignContract.class,
-                SellerAsMakerCreatesAndSignsDepositTx.class,
-                MakerSetupDepositTxListener.class,
-                MakerSendPublishDepositTxRequest.class
+                MakerProcessPayDepositRequest::new,
+                CheckIfPeerIsBanned::new,
+                MakerVerifyTakerAccount::new,
+                VerifyPeersAccountAgeWitness::new,
+                MakerVerifyTakerFeePayment::new,
+                MakerCreateAndSignContract::new,
+                SellerAsMakerCreatesAndSignsDepositTx::new,
+                MakerSetupDepositTxListener::new,
+                MakerSendPublishDepositTxRequest::new
         );
 
         // We don't start a timeout because if we don't receive the peers DepositTxPublishedMessage we still
@@ -155,10 +155,10 @@ public class SellerAsMakerProtocol extends TradeProtocol implements SellerProtoc
                 errorMessage -> handleTaskRunnerFault(tradeMessage, errorMessage));
 
         taskRunner.addTasks(
-                MakerProcessDepositTxPublishedMessage.class,
-                PublishTradeStatistics.class,
-                MakerVerifyTakerAccount.class,
-                MakerVerifyTakerFeePayment.class
+                MakerProcessDepositTxPublishedMessage::new,
+                PublishTradeStatistics::new,
+                MakerVerifyTakerAccount::new,
+                MakerVerifyTakerFeePayment::new
         );
         taskRunner.run();
     }
@@ -177,9 +177,9 @@ public class SellerAsMakerProtocol extends TradeProtocol implements SellerProtoc
                 errorMessage -> handleTaskRunnerFault(tradeMessage, errorMessage));
 
         taskRunner.addTasks(
-                SellerProcessCounterCurrencyTransferStartedMessage.class,
-                MakerVerifyTakerAccount.class,
-                MakerVerifyTakerFeePayment.class
+                SellerProcessCounterCurrencyTransferStartedMessage::new,
+                MakerVerifyTakerAccount::new,
+                MakerVerifyTakerFeePayment::new
         );
         taskRunner.run();
     }
@@ -205,12 +205,12 @@ public class SellerAsMakerProtocol extends TradeProtocol implements SellerProtoc
                     });
 
             taskRunner.addTasks(
-                    CheckIfPeerIsBanned.class,
-                    MakerVerifyTakerAccount.class,
-                    MakerVerifyTakerFeePayment.class,
-                    SellerSignAndFinalizePayoutTx.class,
-                    SellerBroadcastPayoutTx.class,
-                    SellerSendPayoutTxPublishedMessage.class
+                    CheckIfPeerIsBanned::new,
+                    MakerVerifyTakerAccount::new,
+                    MakerVerifyTakerFeePayment::new,
+                    SellerSignAndFinalizePayoutTx::new,
+                    SellerBroadcastPayoutTx::new,
+                    SellerSendPayoutTxPublishedMessage::new
             );
             taskRunner.run();
         } else {
@@ -230,10 +230,10 @@ public class SellerAsMakerProtocol extends TradeProtocol implements SellerProtoc
                     });
 
             taskRunner.addTasks(
-                    CheckIfPeerIsBanned.class,
-                    MakerVerifyTakerAccount.class,
-                    MakerVerifyTakerFeePayment.class,
-                    SellerSendPayoutTxPublishedMessage.class
+                    CheckIfPeerIsBanned::new,
+                    MakerVerifyTakerAccount::new,
+                    MakerVerifyTakerFeePayment::new,
+                    SellerSendPayoutTxPublishedMessage::new
             );
             taskRunner.run();
         }
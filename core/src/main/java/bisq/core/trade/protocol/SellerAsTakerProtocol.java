@@ -104,12 +104,12 @@ public class SellerAsTakerProtocol extends TradeProtocol implements SellerProtoc
                 this::handleTaskRunnerFault);
 
         taskRunner.addTasks(
-                TakerVerifyMakerAccount.class,
-                TakerVerifyMakerFeePayment.class,
-                TakerSelectMediator.class,
-                CreateTakerFeeTx.class,
-                SellerAsTakerCreatesDepositTxInputs.class,
-                TakerSendPayDepositRequest.class
+                TakerVerifyMakerAccount::new,
+                TakerVerifyMakerFeePayment::new,
+                TakerSelectMediator::new,
+                CreateTakerFeeTx::new,
+                SellerAsTakerCreatesDepositTxInputs::new,
+                TakerSendPayDepositRequest::new
         );
 
         //TODO if peer does get an error he does not respond and all we get is the timeout now knowing why it failed.
@@ -135,15 +135,15 @@ public class SellerAsTakerProtocol extends TradeProtocol implements SellerProtoc
                 errorMessage -> handleTaskRunnerFault(tradeMessage, errorMessage));
 
         taskRunner.addTasks(
-                TakerProcessPublishDepositTxRequest.class,
-                CheckIfPeerIsBanned.class,
-                TakerVerifyMakerAccount.class,
-                VerifyPeersAccountAgeWitness.class,
-                TakerVerifyMakerFeePayment.class,
-                TakerVerifyAndSignContract.class,
-                SellerAsTakerSignAndPublishDepositTx.class,
-                TakerSendDepositTxPublishedMessage.class,
-                PublishTradeStatistics.class
+                TakerProcessPublishDepositTxRequest::new,
+                CheckIfPeerIsBanned::new,
+                TakerVerifyMakerAccount::new,
+                VerifyPeersAccountAgeWitness::new,
+                TakerVerifyMakerFeePayment::new,
+                TakerVerifyAndSignContract::new,
+                SellerAsTakerSignAndPublishDepositTx::new,
+                TakerSendDepositTxPublishedMessage::new,
+                PublishTradeStatistics::new
         );
         taskRunner.run();
     }
@@ -162,9 +162,9 @@ public class SellerAsTakerProtocol extends TradeProtocol implements SellerProtoc
                 errorMessage -> handleTaskRunnerFault(tradeMessage, errorMessage));
 
         taskRunner.addTasks(
-                SellerProcessCounterCurrencyTransferStartedMessage.class,
-                TakerVerifyMakerAccount.class,
-                TakerVerifyMakerFeePayment.class
+                SellerProcessCounterCurrencyTransferStartedMessage::new,
+                TakerVerifyMakerAccount::new,
+                TakerVerifyMakerFeePayment::new
         );
         taskRunner.run();
     }
@@ -190,12 +190,12 @@ public class SellerAsTakerProtocol extends TradeProtocol implements SellerProtoc
                     });
 
             taskRunner.addTasks(
-                    CheckIfPeerIsBanned.class,
-                    TakerVerifyMakerAccount.class,
-                    TakerVerifyMakerFeePayment.class,
-                    SellerSignAndFinalizePayoutTx.class,
-                    SellerBroadcastPayoutTx.class,
-                    SellerSendPayoutTxPublishedMessage.class
+                    CheckIfPeerIsBanned::new,
+                    TakerVerifyMakerAccount::new,
+                    TakerVerifyMakerFeePayment::new,
+                    SellerSignAndFinalizePayoutTx::new,
+                    SellerBroadcastPayoutTx::new,
+                    SellerSendPayoutTxPublishedMessage::new
             );
             taskRunner.run();
         } else {
@@ -215,10 +215,10 @@ public class SellerAsTakerProtocol extends TradeProtocol implements SellerProtoc
                     });
 
             taskRunner.addTasks(
-                    CheckIfPeerIsBanned.class,
-                    TakerVerifyMakerAccount.class,
-                    TakerVerifyMakerFeePayment.class,
-                    SellerSendPayoutTxPublishedMessage.class
+                    CheckIfPeerIsBanned::new,
+                    TakerVerifyMakerAccount::new,
+                    TakerVerifyMakerFeePayment::new,
+                    SellerSendPayoutTxPublishedMessage::new
             );
             taskRunner.run();
         }
@@ -26,7 +26,6 @@ import bisq.common.taskrunner.TaskRunner;
 public class TradeTaskRunner extends TaskRunner<Trade> {
 
     public TradeTaskRunner(Trade sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
-        //noinspection unchecked
-        super(sharedModel, (Class<Trade>) sharedModel.getClass().getSuperclass().getSuperclass(), resultHandler, errorMessageHandler);
+        super(sharedModel, resultHandler, errorMessageHandler);
     }
 }
@@ -36,6 +36,11 @@ public class CheckIfPeerIsBanned extends TradeTask {
         super(taskHandler, trade);
     }
 
+    @Override
+    protected boolean isPersistAfterCompletion() {
+        return false;
+    }
+
     @Override
     protected void run() {
         try {
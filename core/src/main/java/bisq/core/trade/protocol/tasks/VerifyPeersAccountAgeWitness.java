@@ -40,6 +40,11 @@ public class VerifyPeersAccountAgeWitness extends TradeTask {
         super(taskHandler, trade);
     }
 
+    @Override
+    protected boolean isPersistAfterCompletion() {
+        return false;
+    }
+
     @Override
     protected void run() {
         try {
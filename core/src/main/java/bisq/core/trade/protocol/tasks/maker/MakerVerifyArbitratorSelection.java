@@ -35,6 +35,11 @@ public class MakerVerifyArbitratorSelection extends TradeTask {
         super(taskHandler, trade);
     }
 
+    @Override
+    protected boolean isPersistAfterCompletion() {
+        return false;
+    }
+
     @Override
     protected void run() {
         try {
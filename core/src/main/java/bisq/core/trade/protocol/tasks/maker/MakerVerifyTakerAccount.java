@@ -31,6 +31,11 @@ public class MakerVerifyTakerAccount extends TradeTask {
         super(taskHandler, trade);
     }
 
+    @Override
+    protected boolean isPersistAfterCompletion() {
+        return false;
+    }
+
     @Override
     protected void run() {
         try {
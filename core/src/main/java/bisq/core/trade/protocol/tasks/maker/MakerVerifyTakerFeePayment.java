@@ -32,6 +32,11 @@ public class MakerVerifyTakerFeePayment extends TradeTask {
         super(taskHandler, trade);
     }
 
+    @Override
+    protected boolean isPersistAfterCompletion() {
+        return false;
+    }
+
     @Override
     protected void run() {
         try {
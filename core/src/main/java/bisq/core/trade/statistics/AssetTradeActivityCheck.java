@@ -22,8 +22,6 @@ import bisq.core.filter.FilterManager;
 import bisq.core.locale.CryptoCurrency;
 import bisq.core.locale.CurrencyUtil;
 
-import bisq.common.util.Tuple2;
-
 import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
@@ -36,10 +34,8 @@ import java.text.SimpleDateFormat;
 
 import java.util.Comparator;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -67,18 +63,7 @@ public class AssetTradeActivityCheck {
         long minTradeAmount = Coin.parseCoin("0.01").value;
         long minNumOfTrades = 3;
 
-        Map<String, Tuple2<Long, Integer>> tradeStatMap = new HashMap<>();
-        tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .filter(e -> !e.getBaseCurrency().equals("BTC"))
-                .filter(e -> CurrencyUtil.isCryptoCurrency(e.getBaseCurrency()))
-                .filter(e -> e.getTradeDate().getTime() > compareDate.getTime())
-                .forEach(e -> {
-                    tradeStatMap.putIfAbsent(e.getBaseCurrency(), new Tuple2<>(0L, 0));
-                    Tuple2<Long, Integer> tuple2 = tradeStatMap.get(e.getBaseCurrency());
-                    long accumulatedTradeAmount = tuple2.first + e.getTradeAmount().getValue();
-                    int numTrades = tuple2.second + 1;
-                    tradeStatMap.put(e.getBaseCurrency(), new Tuple2<>(accumulatedTradeAmount, numTrades));
-                });
+        TradeVolumeIndex tradeVolumeIndex = tradeStatisticsManager.getTradeVolumeIndex();
         StringBuilder newAssets = new StringBuilder("\nNew assets (in warming up phase):");
         StringBuilder sufficientlyTraded = new StringBuilder("\nSufficiently traded assets:");
         StringBuilder insufficientlyTraded = new StringBuilder("\nInsufficiently traded assets:");
@@ -88,14 +73,10 @@ public class AssetTradeActivityCheck {
         whiteListedSortedCryptoCurrencies.forEach(e -> {
             String code = e.getCode();
             String nameAndCode = CurrencyUtil.getNameAndCode(code);
-            long tradeAmount = 0;
-            int numTrades = 0;
-            boolean isInTradeStatMap = tradeStatMap.containsKey(code);
-            if (isInTradeStatMap) {
-                Tuple2<Long, Integer> tuple = tradeStatMap.get(code);
-                tradeAmount = tuple.first;
-                numTrades = tuple.second;
-            }
+            TradeVolumeIndex.CurrencyTradeVolume currencyTradeVolume = tradeVolumeIndex.getCurrencyTradeVolume(code);
+            long tradeAmount = currencyTradeVolume.getVolumeAfter(compareDate.getTime());
+            int numTrades = currencyTradeVolume.getNumTradesAfter(compareDate.getTime());
+            boolean hasTrades = numTrades > 0;
 
             if (isWarmingUp(code)) {
                 assetsToRemove.remove(e);
@@ -108,7 +89,7 @@ public class AssetTradeActivityCheck {
             }
 
             if (!isWarmingUp(code) /*&& !hasPaidBSQFee(code)*/) {
-                if (isInTradeStatMap) {
+                if (hasTrades) {
                     if (tradeAmount >= minTradeAmount || numTrades >= minNumOfTrades) {
                         assetsToRemove.remove(e);
                         sufficientlyTraded.append("\n")
@@ -56,6 +56,12 @@ public class TradeStatistics2Store implements PersistableEnvelope {
         list.forEach(item -> map.put(new P2PDataStorage.ByteArray(item.getHash()), item));
     }
 
+    // The map is concurrent and its payloads are immutable
+    @Override
+    public boolean isSafeToSerializeOffUserThread() {
+        return true;
+    }
+
     public Message toProtoMessage() {
         return PB.PersistableEnvelope.newBuilder()
                 .setTradeStatistics2Store(getBuilder())
@@ -50,6 +50,7 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -63,6 +64,8 @@ public class TradeStatisticsManager {
     private final ReferralIdService referralIdService;
     private final boolean dumpStatistics;
     private final ObservableSet<TradeStatistics2> observableTradeStatisticsSet = FXCollections.observableSet();
+    @Getter
+    private final TradeVolumeIndex tradeVolumeIndex = new TradeVolumeIndex();
 
     @Inject
     public TradeStatisticsManager(P2PService p2PService,
@@ -106,6 +109,7 @@ public class TradeStatisticsManager {
                 .map(e -> (TradeStatistics2) e)
                 .filter(TradeStatistics2::isValid)
                 .forEach(e -> addToMap(e, map));
+        map.values().forEach(tradeVolumeIndex::add);
         observableTradeStatisticsSet.addAll(map.values());
 
         priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
@@ -159,6 +163,7 @@ public class TradeStatisticsManager {
             if (!tradeStatistics.isValid())
                 return;
 
+            tradeVolumeIndex.add(tradeStatistics);
             observableTradeStatisticsSet.add(tradeStatistics);
             if (storeLocally) {
                 priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
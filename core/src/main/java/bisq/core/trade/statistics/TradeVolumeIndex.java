@@ -0,0 +1,170 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Aggregates the trade statistics per base currency, so the trade activity of all assets can be evaluated without
+ * iterating all trade statistics for each asset. It is updated by the TradeStatisticsManager whenever a trade
+ * statistics object is added.
+ * <p/>
+ * Per currency the trade dates and amounts are kept sorted by date together with the accumulated amounts, so the
+ * number of trades and the volume after a given date are found with a binary search. Trades added out of order get
+ * sorted at the next query.
+ * <p/>
+ * Must only be used from the user thread.
+ */
+public class TradeVolumeIndex {
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // CurrencyTradeVolume
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static class CurrencyTradeVolume {
+        private long[] tradeDates = new long[8];
+        private long[] tradeAmounts = new long[8];
+        // accumulatedAmounts[i] is the sum of tradeAmounts[0] to tradeAmounts[i - 1]. Valid up to validIndex.
+        private long[] accumulatedAmounts = new long[9];
+        private int validIndex;
+        private int numTrades;
+        private boolean sorted = true;
+
+        private void add(long tradeDate, long tradeAmount) {
+            if (numTrades == tradeDates.length) {
+                tradeDates = Arrays.copyOf(tradeDates, numTrades * 2);
+                tradeAmounts = Arrays.copyOf(tradeAmounts, numTrades * 2);
+                accumulatedAmounts = Arrays.copyOf(accumulatedAmounts, numTrades * 2 + 1);
+            }
+
+            // Usually new trades are the most recent ones. At startup they are added in random order, so we sort
+            // only at the next query.
+            if (numTrades > 0 && tradeDates[numTrades - 1] > tradeDate)
+                sorted = false;
+            tradeDates[numTrades] = tradeDate;
+            tradeAmounts[numTrades] = tradeAmount;
+            numTrades++;
+        }
+
+        public int getNumTrades() {
+            return numTrades;
+        }
+
+        public long getVolume() {
+            return getAccumulatedAmount(numTrades);
+        }
+
+        public Optional<Long> getFirstTradeDate() {
+            sort();
+            return numTrades > 0 ? Optional.of(tradeDates[0]) : Optional.empty();
+        }
+
+        public Optional<Long> getLastTradeDate() {
+            sort();
+            return numTrades > 0 ? Optional.of(tradeDates[numTrades - 1]) : Optional.empty();
+        }
+
+        /**
+         * @return The number of trades with a trade date after the given date.
+         */
+        public int getNumTradesAfter(long date) {
+            return numTrades - getFirstIndexAfter(date);
+        }
+
+        /**
+         * @return The accumulated trade amount of the trades with a trade date after the given date.
+         */
+        public long getVolumeAfter(long date) {
+            return getVolume() - getAccumulatedAmount(getFirstIndexAfter(date));
+        }
+
+        private int getFirstIndexAfter(long date) {
+            sort();
+            int low = 0;
+            int high = numTrades;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (tradeDates[middle] > date)
+                    high = middle;
+                else
+                    low = middle + 1;
+            }
+            return low;
+        }
+
+        private long getAccumulatedAmount(int index) {
+            sort();
+            while (validIndex < index) {
+                accumulatedAmounts[validIndex + 1] = accumulatedAmounts[validIndex] + tradeAmounts[validIndex];
+                validIndex++;
+            }
+            return accumulatedAmounts[index];
+        }
+
+        private void sort() {
+            if (sorted)
+                return;
+
+            Integer[] order = new Integer[numTrades];
+            for (int i = 0; i < numTrades; i++)
+                order[i] = i;
+            Arrays.sort(order, (o1, o2) -> Long.compare(tradeDates[o1], tradeDates[o2]));
+
+            long[] sortedTradeDates = new long[tradeDates.length];
+            long[] sortedTradeAmounts = new long[tradeAmounts.length];
+            for (int i = 0; i < numTrades; i++) {
+                sortedTradeDates[i] = tradeDates[order[i]];
+                sortedTradeAmounts[i] = tradeAmounts[order[i]];
+            }
+            tradeDates = sortedTradeDates;
+            tradeAmounts = sortedTradeAmounts;
+            validIndex = 0;
+            sorted = true;
+        }
+    }
+
+
+    private static final CurrencyTradeVolume EMPTY = new CurrencyTradeVolume();
+
+    private final Map<String, CurrencyTradeVolume> volumeByCurrencyCode = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void add(TradeStatistics2 tradeStatistics) {
+        add(tradeStatistics.getBaseCurrency(), tradeStatistics.getTradeDate().getTime(),
+                tradeStatistics.getTradeAmount().value);
+    }
+
+    public void add(String baseCurrencyCode, long tradeDate, long tradeAmount) {
+        volumeByCurrencyCode.computeIfAbsent(baseCurrencyCode, code -> new CurrencyTradeVolume())
+                .add(tradeDate, tradeAmount);
+    }
+
+    /**
+     * @return The trade volume of the base currency. Without any trades it is empty.
+     */
+    public CurrencyTradeVolume getCurrencyTradeVolume(String baseCurrencyCode) {
+        return volumeByCurrencyCode.getOrDefault(baseCurrencyCode, EMPTY);
+    }
+}
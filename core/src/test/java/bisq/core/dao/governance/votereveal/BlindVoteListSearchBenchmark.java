@@ -0,0 +1,92 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.votereveal;
+
+import bisq.core.dao.governance.blindvote.BlindVote;
+
+import bisq.common.util.PermutationUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Compares the time the search for the blind vote list of the majority takes with the search we used before
+ * (hashing each list of PermutationUtil.findAllPermutations) and with findPartialBlindVoteListMatchingHash. Not a
+ * unit test; run it from the test classpath of core:
+ *
+ * <pre>
+ * java -cp ... bisq.core.dao.governance.votereveal.BlindVoteListSearchBenchmark 200 1000000
+ * </pre>
+ *
+ * Arguments are the number of blind votes (default 200) and the max. number of iterations (default 1000000 as used
+ * in VoteResultService). Each search is run for a hash no partial list has, which is the worst case, and for a list
+ * with 2 blind votes removed.
+ */
+public class BlindVoteListSearchBenchmark {
+
+    public static void main(String[] args) {
+        int numBlindVotes = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int maxIterations = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+
+        List<BlindVote> blindVotes = createBlindVotes(numBlindVotes);
+        List<BlindVote> partialList = new ArrayList<>(blindVotes);
+        partialList.remove(numBlindVotes * 2 / 3);
+        partialList.remove(numBlindVotes / 3);
+
+        byte[] unknownHash = new byte[20];
+        byte[] partialListHash = VoteRevealConsensus.getHashOfBlindVoteList(partialList);
+
+        run("no match", blindVotes, unknownHash, maxIterations);
+        run("2 removed", blindVotes, partialListHash, maxIterations);
+    }
+
+    private static void run(String name, List<BlindVote> blindVotes, byte[] hash, int maxIterations) {
+        long ts = System.currentTimeMillis();
+        Optional<List<BlindVote>> permutatedResult = PermutationUtil.findAllPermutations(blindVotes, maxIterations)
+                .stream()
+                .filter(variation -> Arrays.equals(hash, VoteRevealConsensus.getHashOfBlindVoteList(variation)))
+                .findFirst();
+        long permutatedDuration = System.currentTimeMillis() - ts;
+
+        ts = System.currentTimeMillis();
+        Optional<List<BlindVote>> partialResult = VoteRevealConsensus.findPartialBlindVoteListMatchingHash(blindVotes,
+                hash, maxIterations);
+        long partialDuration = System.currentTimeMillis() - ts;
+
+        System.out.printf("%-10s findAllPermutations: %6d ms (found: %b), findPartialBlindVoteListMatchingHash: " +
+                        "%6d ms (found: %b)%n",
+                name, permutatedDuration, permutatedResult.isPresent(), partialDuration, partialResult.isPresent());
+    }
+
+    private static List<BlindVote> createBlindVotes(int size) {
+        Random random = new Random(42);
+        List<BlindVote> blindVotes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            // Roughly the size of a blind vote with a few proposals and the merit list of a contributor
+            byte[] encryptedVotes = new byte[100 + random.nextInt(200)];
+            random.nextBytes(encryptedVotes);
+            byte[] encryptedMeritList = new byte[50 + random.nextInt(100)];
+            random.nextBytes(encryptedMeritList);
+            blindVotes.add(new BlindVote(encryptedVotes, "txId" + i, 1 + random.nextInt(100000), encryptedMeritList));
+        }
+        return blindVotes;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.votereveal;
+
+import bisq.core.dao.governance.blindvote.BlindVote;
+
+import bisq.common.util.PermutationUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VoteRevealConsensusTest {
+    private static final int MAX_ITERATIONS = 1000000;
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testFindPartialBlindVoteListMatchingHashEqualsPermutatedSearch() {
+        for (int run = 0; run < 200; run++) {
+            // With up to 12 items findAllPermutations covers all sublists, so both searches must find the same list
+            List<BlindVote> blindVotes = createBlindVotes(1 + random.nextInt(12));
+            List<BlindVote> partialList = removeRandomItems(blindVotes);
+            byte[] hash = VoteRevealConsensus.getHashOfBlindVoteList(partialList);
+
+            Optional<List<BlindVote>> result = VoteRevealConsensus.findPartialBlindVoteListMatchingHash(blindVotes,
+                    hash, MAX_ITERATIONS);
+            Optional<List<BlindVote>> permutatedResult = findPermutatedBlindVoteListMatchingHash(blindVotes, hash);
+
+            if (partialList.size() == blindVotes.size()) {
+                // We never try the full list with findPartialBlindVoteListMatchingHash
+                assertFalse(result.isPresent());
+            } else {
+                assertTrue(result.isPresent());
+                assertEquals(partialList, result.get());
+                assertArrayEquals(hash, VoteRevealConsensus.getHashOfBlindVoteList(result.get()));
+            }
+            assertTrue(permutatedResult.isPresent());
+            assertEquals(partialList, permutatedResult.get());
+        }
+    }
+
+    @Test
+    public void testFindPartialBlindVoteListMatchingHashWithManyItems() {
+        List<BlindVote> blindVotes = createBlindVotes(100);
+        List<BlindVote> partialList = new ArrayList<>(blindVotes);
+        partialList.remove(70);
+        partialList.remove(3);
+        byte[] hash = VoteRevealConsensus.getHashOfBlindVoteList(partialList);
+
+        Optional<List<BlindVote>> result = VoteRevealConsensus.findPartialBlindVoteListMatchingHash(blindVotes,
+                hash, MAX_ITERATIONS);
+        assertTrue(result.isPresent());
+        assertEquals(partialList, result.get());
+
+        // findAllPermutations only reaches sublists of the first 20 items
+        assertFalse(findPermutatedBlindVoteListMatchingHash(blindVotes, hash).isPresent());
+    }
+
+    @Test
+    public void testFindPartialBlindVoteListMatchingHashWithFewRemainingItems() {
+        // Only the first 2 of 30 items remain. The first pass does not reach that within the iteration limit, but the
+        // second pass tries the sublists findAllPermutations gives us.
+        List<BlindVote> blindVotes = createBlindVotes(30);
+        List<BlindVote> partialList = new ArrayList<>(blindVotes.subList(0, 2));
+        byte[] hash = VoteRevealConsensus.getHashOfBlindVoteList(partialList);
+
+        Optional<List<BlindVote>> result = VoteRevealConsensus.findPartialBlindVoteListMatchingHash(blindVotes,
+                hash, MAX_ITERATIONS);
+        assertTrue(result.isPresent());
+        assertEquals(partialList, result.get());
+        assertEquals(partialList, findPermutatedBlindVoteListMatchingHash(blindVotes, hash).get());
+    }
+
+    @Test
+    public void testFindPartialBlindVoteListMatchingHashSharesIterations() {
+        // The sublist with only item 15 is the 32768th sublist of findAllPermutations
+        List<BlindVote> blindVotes = createBlindVotes(30);
+        byte[] hash = VoteRevealConsensus.getHashOfBlindVoteList(blindVotes.subList(15, 16));
+
+        assertFalse(VoteRevealConsensus.findPartialBlindVoteListMatchingHash(blindVotes, hash, 1000).isPresent());
+        assertFalse(VoteRevealConsensus.findPartialBlindVoteListMatchingHash(blindVotes, hash, 60000).isPresent());
+        Optional<List<BlindVote>> result = VoteRevealConsensus.findPartialBlindVoteListMatchingHash(blindVotes,
+                hash, 70000);
+        assertTrue(result.isPresent());
+        assertEquals(blindVotes.subList(15, 16), result.get());
+    }
+
+    @Test
+    public void testFindPartialBlindVoteListMatchingHashTriesEachPartialListOnce() {
+        // With 2^n - 2 iterations we can only find all partial lists if the two passes never try the same list
+        for (int size = 1; size <= 10; size++) {
+            List<BlindVote> blindVotes = createBlindVotes(size);
+            int numPartialLists = (1 << size) - 2;
+            for (int mask = 1; mask <= numPartialLists; mask++) {
+                List<BlindVote> partialList = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    if ((mask & (1 << i)) != 0)
+                        partialList.add(blindVotes.get(i));
+                }
+                byte[] hash = VoteRevealConsensus.getHashOfBlindVoteList(partialList);
+
+                Optional<List<BlindVote>> result = VoteRevealConsensus.findPartialBlindVoteListMatchingHash(blindVotes,
+                        hash, numPartialLists);
+                assertTrue(result.isPresent());
+                assertEquals(partialList, result.get());
+            }
+        }
+    }
+
+    // The search we used before findPartialBlindVoteListMatchingHash
+    private static Optional<List<BlindVote>> findPermutatedBlindVoteListMatchingHash(List<BlindVote> blindVotes,
+                                                                                     byte[] hash) {
+        return PermutationUtil.findAllPermutations(blindVotes, MAX_ITERATIONS).stream()
+                .filter(variation -> Arrays.equals(hash, VoteRevealConsensus.getHashOfBlindVoteList(variation)))
+                .findFirst();
+    }
+
+    private List<BlindVote> createBlindVotes(int size) {
+        List<BlindVote> blindVotes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            byte[] encryptedVotes = new byte[1 + random.nextInt(300)];
+            random.nextBytes(encryptedVotes);
+            byte[] encryptedMeritList = new byte[1 + random.nextInt(100)];
+            random.nextBytes(encryptedMeritList);
+            blindVotes.add(new BlindVote(encryptedVotes, "txId" + i, 1 + random.nextInt(100000), encryptedMeritList));
+        }
+        return blindVotes;
+    }
+
+    // Removes a random set of items but keeps at least one
+    private List<BlindVote> removeRandomItems(List<BlindVote> blindVotes) {
+        List<BlindVote> partialList = new ArrayList<>();
+        blindVotes.forEach(blindVote -> {
+            if (random.nextBoolean())
+                partialList.add(blindVote);
+        });
+        if (partialList.isEmpty())
+            partialList.add(blindVotes.get(random.nextInt(blindVotes.size())));
+        return partialList;
+    }
+}
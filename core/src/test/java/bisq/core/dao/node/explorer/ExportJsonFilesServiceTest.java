@@ -0,0 +1,314 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.explorer;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.SpentInfo;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ExportJsonFilesServiceTest {
+    private static final String MARKER = "marker";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File storageDir;
+    private LinkedList<Block> blocks;
+    private Map<String, SpentInfo> spentInfoByTxOutputId;
+    private List<Issuance> issuances;
+
+    @Before
+    public void setup() throws IOException {
+        storageDir = folder.newFolder();
+        blocks = new LinkedList<>();
+        spentInfoByTxOutputId = new HashMap<>();
+        issuances = new ArrayList<>();
+    }
+
+    @Test
+    public void testIsUnchangedSince() {
+        JsonTx jsonTx = getJsonTx("tx1", 100, getJsonTxOutput("tx1", 0, 100, 105), getJsonTxOutput("tx1", 1, 100, -1));
+
+        assertFalse(ExportJsonFilesService.isUnchangedSince(jsonTx, 99, Collections.emptySet()));
+        assertFalse(ExportJsonFilesService.isUnchangedSince(jsonTx, 104, Collections.emptySet()));
+        assertTrue(ExportJsonFilesService.isUnchangedSince(jsonTx, 105, Collections.emptySet()));
+        assertTrue(ExportJsonFilesService.isUnchangedSince(jsonTx, 200, Collections.emptySet()));
+    }
+
+    @Test
+    public void testIsUnchangedSinceWithIssuance() {
+        JsonTx issuanceTx = getJsonTx("tx1", 100, getJsonTxOutput("tx1", 0, 100, -1));
+        JsonTx spendingTx = new JsonTx("tx2", 101, "hash", 0,
+                Collections.singletonList(new JsonTxInput(0, "tx1", 1000, false, "address", 0)),
+                Collections.singletonList(getJsonTxOutput("tx2", 0, 101, -1)),
+                JsonTxType.TRANSFER_BSQ, JsonTxType.TRANSFER_BSQ.getDisplayString(), 0, -1);
+        JsonTx otherTx = getJsonTx("tx3", 100, getJsonTxOutput("tx3", 0, 100, -1));
+        Set<String> issuedTxIds = Collections.singleton("tx1");
+
+        assertFalse(ExportJsonFilesService.isUnchangedSince(issuanceTx, 105, issuedTxIds));
+        assertFalse(ExportJsonFilesService.isUnchangedSince(spendingTx, 105, issuedTxIds));
+        assertTrue(ExportJsonFilesService.isUnchangedSince(otherTx, 105, issuedTxIds));
+    }
+
+    @Test
+    public void testAddChangesWithoutChainHeight() {
+        JsonTx jsonTx = getJsonTx("tx1", 100, getJsonTxOutput("tx1", 0, 100, 105), getJsonTxOutput("tx1", 1, 100, -1));
+        List<JsonTx> changedJsonTxs = new ArrayList<>();
+        List<JsonTxOutput> changedJsonTxOutputs = new ArrayList<>();
+
+        ExportJsonFilesService.addChanges(jsonTx, -1, Collections.emptySet(), changedJsonTxs, changedJsonTxOutputs);
+
+        assertEquals(Collections.singletonList(jsonTx), changedJsonTxs);
+        assertEquals(jsonTx.getOutputs(), changedJsonTxOutputs);
+    }
+
+    @Test
+    public void testAddChangesSinceChainHeight() {
+        JsonTxOutput spentOutput = getJsonTxOutput("tx1", 0, 100, 105);
+        JsonTx spentTx = getJsonTx("tx1", 100, spentOutput, getJsonTxOutput("tx1", 1, 100, 102));
+        JsonTx newTx = getJsonTx("tx2", 104, getJsonTxOutput("tx2", 0, 104, -1), getJsonTxOutput("tx2", 1, 104, 105));
+        JsonTx unchangedTx = getJsonTx("tx3", 101, getJsonTxOutput("tx3", 0, 101, 103));
+        List<JsonTx> changedJsonTxs = new ArrayList<>();
+        List<JsonTxOutput> changedJsonTxOutputs = new ArrayList<>();
+
+        Arrays.asList(spentTx, newTx, unchangedTx).forEach(jsonTx ->
+                ExportJsonFilesService.addChanges(jsonTx, 103, Collections.emptySet(), changedJsonTxs,
+                        changedJsonTxOutputs));
+
+        assertEquals(Arrays.asList(spentTx, newTx), changedJsonTxs);
+        List<JsonTxOutput> expectedJsonTxOutputs = new ArrayList<>();
+        expectedJsonTxOutputs.add(spentOutput);
+        expectedJsonTxOutputs.addAll(newTx.getOutputs());
+        assertEquals(expectedJsonTxOutputs, changedJsonTxOutputs);
+    }
+
+    @Test
+    public void testResumeWritesOnlyChangedFiles() throws IOException {
+        addBlock(100, "hash100", "tx1");
+        addBlock(101, "hash101", "tx2");
+        export();
+        assertTrue(getTxFile("tx1").exists());
+        assertTrue(getTxOutputFile("tx1:1").exists());
+        assertTrue(getTxFile("tx2").exists());
+
+        // We mark the files to see which get written again after the restart
+        markFile(getTxFile("tx1"));
+        markFile(getTxOutputFile("tx1:0"));
+        markFile(getTxOutputFile("tx1:1"));
+        markFile(getTxFile("tx2"));
+        markFile(getTxOutputFile("tx2:0"));
+
+        addBlock(102, "hash102", "tx3");
+        spentInfoByTxOutputId.put("tx1:0", new SpentInfo(102, "tx3", 0));
+        export();
+
+        assertFalse(isMarked(getTxFile("tx1")));
+        assertFalse(isMarked(getTxOutputFile("tx1:0")));
+        assertTrue(isMarked(getTxOutputFile("tx1:1")));
+        assertTrue(isMarked(getTxFile("tx2")));
+        assertTrue(isMarked(getTxOutputFile("tx2:0")));
+        assertTrue(getTxFile("tx3").exists());
+        assertTrue(getTxOutputFile("tx3:1").exists());
+    }
+
+    @Test
+    public void testResumeWritesTxWithIssuanceAfterExportedChainHeight() throws IOException {
+        addBlock(100, "hash100", "tx1");
+        addBlock(101, "hash101", "tx2");
+        export();
+        assertTrue(readFile(getTxOutputFile("tx1:0")).contains("\"isVerified\": false"));
+        markFile(getTxFile("tx1"));
+        markFile(getTxOutputFile("tx1:0"));
+        markFile(getTxOutputFile("tx1:1"));
+        markFile(getTxFile("tx2"));
+
+        // The vote result issues BSQ to the outputs of tx1, which got exported as BTC outputs
+        addBlock(102, "hash102", "tx3");
+        issuances.add(new Issuance("tx1", 102, 1000, null, IssuanceType.COMPENSATION));
+        export();
+
+        assertFalse(isMarked(getTxFile("tx1")));
+        assertFalse(isMarked(getTxOutputFile("tx1:1")));
+        assertTrue(readFile(getTxOutputFile("tx1:0")).contains("\"isVerified\": true"));
+        assertTrue(isMarked(getTxFile("tx2")));
+    }
+
+    @Test
+    public void testResumeAfterReorgDeletesFilesOfRemovedTxs() throws IOException {
+        addBlock(100, "hash100", "tx1");
+        addBlock(101, "hash101", "tx2");
+        export();
+        markFile(getTxFile("tx1"));
+
+        // The block we have exported last got replaced while we were offline
+        blocks.removeLast();
+        addBlock(101, "otherHash101", "tx4");
+        addBlock(102, "hash102", "tx5");
+        export();
+
+        assertFalse(isMarked(getTxFile("tx1")));
+        assertFalse(getTxFile("tx2").exists());
+        assertFalse(getTxOutputFile("tx2:0").exists());
+        assertFalse(getTxOutputFile("tx2:1").exists());
+        assertTrue(getTxFile("tx4").exists());
+        assertTrue(getTxOutputFile("tx4:1").exists());
+        assertTrue(getTxFile("tx5").exists());
+        String exportState = readFile(new File(storageDir, "json/exportState.json"));
+        assertTrue(exportState.contains("hash102"));
+    }
+
+    @Test
+    public void testMissingExportStateWritesAllFiles() throws IOException {
+        addBlock(100, "hash100", "tx1");
+        export();
+        markFile(getTxFile("tx1"));
+        assertTrue(new File(storageDir, "json/exportState.json").delete());
+
+        export();
+
+        assertFalse(isMarked(getTxFile("tx1")));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Utils
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Runs an export like after a restart and waits until all files are written
+    private void export() {
+        DaoStateService daoStateService = mock(DaoStateService.class);
+        when(daoStateService.getBlocks()).thenReturn(blocks);
+        when(daoStateService.getChainHeight()).thenAnswer(invocation -> blocks.getLast().getHeight());
+        when(daoStateService.getBlockAtHeight(anyInt())).thenAnswer(invocation -> blocks.stream()
+                .filter(block -> block.getHeight() == (int) invocation.getArgument(0))
+                .findAny());
+        when(daoStateService.getSpentInfo(any())).thenAnswer(invocation -> {
+            TxOutput txOutput = invocation.getArgument(0);
+            return Optional.ofNullable(spentInfoByTxOutputId.get(txOutput.getTxId() + ":" + txOutput.getIndex()));
+        });
+        when(daoStateService.getConnectedTxOutput(any())).thenReturn(Optional.empty());
+        when(daoStateService.getIssuanceSet(any())).thenAnswer(invocation -> issuances.stream()
+                .filter(issuance -> issuance.getIssuanceType() == invocation.getArgument(0))
+                .collect(Collectors.toSet()));
+        // Like the issuance candidate outputs, which are BSQ outputs only if BSQ got issued to them
+        when(daoStateService.isBsqTxOutputType(any())).thenAnswer(invocation -> {
+            String txId = ((TxOutput) invocation.getArgument(0)).getTxId();
+            return issuances.stream().anyMatch(issuance -> issuance.getTxId().equals(txId));
+        });
+
+        ExportJsonFilesService service = new ExportJsonFilesService(daoStateService, storageDir, true);
+        service.start();
+        service.exportToJson();
+        service.shutDown();
+    }
+
+    private void addBlock(int height, String hash, String txId) {
+        Block block = new Block(height, 1500000000L + height, hash, "previousHash");
+        PB.BaseTx.Builder txBuilder = PB.BaseTx.newBuilder()
+                .setId(txId)
+                .setBlockHeight(height)
+                .setBlockHash(hash)
+                .setTime(1500000000L + height)
+                .setTx(PB.Tx.newBuilder()
+                        .addTxOutputs(getTxOutputProto(txId, 0, height))
+                        .addTxOutputs(getTxOutputProto(txId, 1, height))
+                        .setTxType(PB.TxType.TRANSFER_BSQ));
+        block.getTxs().add(Tx.fromProto(txBuilder.build()));
+        blocks.add(block);
+    }
+
+    private static PB.BaseTxOutput getTxOutputProto(String txId, int index, int height) {
+        return PB.BaseTxOutput.newBuilder()
+                .setIndex(index)
+                .setValue(1000)
+                .setTxId(txId)
+                .setAddress("address")
+                .setBlockHeight(height)
+                .setTxOutput(PB.TxOutput.newBuilder().setTxOutputType(PB.TxOutputType.BSQ_OUTPUT))
+                .build();
+    }
+
+    private static JsonTx getJsonTx(String txId, int height, JsonTxOutput... outputs) {
+        return new JsonTx(txId, height, "hash", 0, Collections.emptyList(), Arrays.asList(outputs),
+                JsonTxType.TRANSFER_BSQ, JsonTxType.TRANSFER_BSQ.getDisplayString(), 0, -1);
+    }
+
+    // A spent height of -1 means unspent
+    private static JsonTxOutput getJsonTxOutput(String txId, int index, int height, int spentHeight) {
+        JsonSpentInfo spentInfo = spentHeight >= 0 ? new JsonSpentInfo(new SpentInfo(spentHeight, "spendingTx", 0)) : null;
+        return new JsonTxOutput(txId, index, 1000, 0, height, true, 0, "address", null, spentInfo, 0,
+                JsonTxType.TRANSFER_BSQ, JsonTxType.TRANSFER_BSQ.getDisplayString(), JsonTxOutputType.BSQ_OUTPUT,
+                JsonTxOutputType.BSQ_OUTPUT.getDisplayString(), null, 0, spentInfo == null);
+    }
+
+    private File getTxFile(String id) {
+        return new File(storageDir, "json/tx/" + id + ".json");
+    }
+
+    private File getTxOutputFile(String id) {
+        return new File(storageDir, "json/txo/" + id + ".json");
+    }
+
+    private static void markFile(File file) throws IOException {
+        Files.write(file.toPath(), MARKER.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isMarked(File file) throws IOException {
+        return readFile(file).equals(MARKER);
+    }
+
+    private static String readFile(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
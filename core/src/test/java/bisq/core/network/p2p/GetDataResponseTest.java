@@ -0,0 +1,101 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.network.p2p;
+
+import bisq.core.proto.network.CoreNetworkProtoResolver;
+
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.app.Version;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import com.google.common.collect.Sets;
+
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GetDataResponseTest {
+    private Set<ProtectedStorageEntry> dataSet;
+    private GetDataResponse response;
+
+    @Before
+    public void setup() {
+        dataSet = Sets.newHashSet(TestStorageEntries.createOfferEntry("offerId1", 1),
+                TestStorageEntries.createOfferEntry("offerId2", 2),
+                TestStorageEntries.createMailboxEntry("uid", 1));
+        response = new GetDataResponse(dataSet, null, 1234, false);
+    }
+
+    @Test
+    public void testGetDataSetOfCreatedResponse() {
+        assertNull(response.getLazyDataSet());
+        assertTrue(dataSet == response.getDataSet());
+    }
+
+    @Test
+    public void testGetDataSetOfReceivedResponse() throws InvalidProtocolBufferException {
+        GetDataResponse received = receive(response);
+
+        assertEquals(dataSet.size(), received.getLazyDataSet().size());
+        Set<ProtectedStorageEntry> receivedDataSet = received.getDataSet();
+        assertEquals(dataSet, receivedDataSet);
+        // The entries get decoded only once
+        assertTrue(receivedDataSet == received.getDataSet());
+    }
+
+    @Test
+    public void testEqualsOfReceivedResponses() throws InvalidProtocolBufferException {
+        GetDataResponse received1 = receive(response);
+        GetDataResponse received2 = receive(response);
+
+        // Equals has to decode the data set of the response which was not accessed yet
+        received1.getDataSet();
+        assertEquals(received1, received2);
+        assertEquals(received2, received1);
+        assertEquals(received1.hashCode(), received2.hashCode());
+
+        GetDataResponse other = receive(new GetDataResponse(Sets.newHashSet(TestStorageEntries.createOfferEntry("offerId3", 1)),
+                null, 1234, false));
+        assertNotEquals(received1, other);
+    }
+
+    @Test
+    public void testToProtoOfReceivedResponse() throws InvalidProtocolBufferException {
+        GetDataResponse received = receive(response);
+
+        assertEquals(received, receive(received));
+        assertEquals(dataSet, receive(received).getDataSet());
+    }
+
+    private static GetDataResponse receive(GetDataResponse response) throws InvalidProtocolBufferException {
+        PB.NetworkEnvelope proto = PB.NetworkEnvelope.parseFrom(response.toProtoNetworkEnvelope().toByteArray());
+        return GetDataResponse.fromProto(proto.getGetDataResponse(), new CoreNetworkProtoResolver(),
+                Version.getP2PMessageVersion());
+    }
+}
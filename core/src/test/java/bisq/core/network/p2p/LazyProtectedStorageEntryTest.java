@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.network.p2p;
+
+import bisq.core.proto.network.CoreNetworkProtoResolver;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.LazyProtectedStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LazyProtectedStorageEntryTest {
+
+    @Test
+    public void testHashOfOfferPayload() throws InvalidProtocolBufferException {
+        assertHashOfReceivedEntry(TestStorageEntries.createOfferEntry("offerId", 3));
+    }
+
+    @Test
+    public void testHashOfMailboxPayload() throws InvalidProtocolBufferException {
+        assertHashOfReceivedEntry(TestStorageEntries.createMailboxEntry("uid", 1));
+    }
+
+    private static void assertHashOfReceivedEntry(ProtectedStorageEntry entry) throws InvalidProtocolBufferException {
+        // Parse the entry from its bytes like we do for a received message
+        PB.StorageEntryWrapper proto = PB.StorageEntryWrapper.parseFrom(TestStorageEntries.toWrapper(entry).toByteArray());
+        LazyProtectedStorageEntry lazyEntry = new LazyProtectedStorageEntry(proto, new CoreNetworkProtoResolver());
+
+        // The hash of the raw bytes must be the key P2PDataStorage uses for the decoded payload
+        P2PDataStorage.ByteArray hashOfPayload = lazyEntry.getHashOfPayload();
+        assertEquals(new P2PDataStorage.ByteArray(P2PDataStorage.get32ByteHash(entry.getProtectedStoragePayload())),
+                hashOfPayload);
+        assertEquals(entry.getSequenceNumber(), lazyEntry.getSequenceNumber());
+
+        ProtectedStorageEntry decodedEntry = lazyEntry.get();
+        assertEquals(entry, decodedEntry);
+        assertEquals(entry instanceof ProtectedMailboxStorageEntry, decodedEntry instanceof ProtectedMailboxStorageEntry);
+        assertEquals(new P2PDataStorage.ByteArray(P2PDataStorage.get32ByteHash(decodedEntry.getProtectedStoragePayload())),
+                hashOfPayload);
+        assertTrue(decodedEntry == lazyEntry.get());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.network.p2p;
+
+import bisq.core.offer.OfferPayload;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.crypto.Encryption;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.security.KeyPair;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Creates storage entries with payloads as they are used in the network. The signatures are not valid.
+ */
+class TestStorageEntries {
+    static ProtectedStorageEntry createOfferEntry(String offerId, int sequenceNumber) {
+        KeyPair signatureKeyPair = Sig.generateKeyPair();
+        PubKeyRing pubKeyRing = new PubKeyRing(signatureKeyPair.getPublic(), Encryption.generateKeyPair().getPublic(), null);
+        OfferPayload offerPayload = new OfferPayload(offerId,
+                1500000000000L,
+                new NodeAddress("maker.onion:9999"),
+                pubKeyRing,
+                OfferPayload.Direction.BUY,
+                100000L,
+                0.0,
+                false,
+                100000L,
+                50000L,
+                "BTC",
+                "EUR",
+                Collections.singletonList(new NodeAddress("arbitrator.onion:9999")),
+                Collections.emptyList(),
+                "SEPA",
+                "accountId",
+                "offerFeePaymentTxId",
+                "DE",
+                Arrays.asList("DE", "FR", "AT"),
+                null,
+                null,
+                "0.8.0",
+                500000L,
+                20000L,
+                5000L,
+                true,
+                1000000L,
+                1000000L,
+                10000000L,
+                691200000L,
+                false,
+                false,
+                0L,
+                0L,
+                false,
+                null,
+                ImmutableMap.of("key1", "value1", "key2", "value2"),
+                1);
+        return new ProtectedStorageEntry(offerPayload, signatureKeyPair.getPublic(), sequenceNumber, new byte[]{1, 2, 3});
+    }
+
+    static ProtectedMailboxStorageEntry createMailboxEntry(String uid, int sequenceNumber) {
+        KeyPair senderKeyPair = Sig.generateKeyPair();
+        KeyPair receiverKeyPair = Sig.generateKeyPair();
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(new byte[]{1, 2, 3}, new byte[]{4, 5, 6}, new byte[]{7, 8},
+                senderKeyPair.getPublic());
+        PrefixedSealedAndSignedMessage message = new PrefixedSealedAndSignedMessage(new NodeAddress("sender.onion:9999"),
+                sealedAndSigned, new byte[]{9, 10}, uid);
+        MailboxStoragePayload mailboxStoragePayload = new MailboxStoragePayload(message, senderKeyPair.getPublic(),
+                receiverKeyPair.getPublic());
+        return new ProtectedMailboxStorageEntry(mailboxStoragePayload, senderKeyPair.getPublic(), sequenceNumber,
+                new byte[]{1, 2, 3}, receiverKeyPair.getPublic());
+    }
+
+    static PB.StorageEntryWrapper toWrapper(ProtectedStorageEntry entry) {
+        return entry instanceof ProtectedMailboxStorageEntry ?
+                PB.StorageEntryWrapper.newBuilder()
+                        .setProtectedMailboxStorageEntry((PB.ProtectedMailboxStorageEntry) entry.toProtoMessage())
+                        .build() :
+                PB.StorageEntryWrapper.newBuilder()
+                        .setProtectedStorageEntry((PB.ProtectedStorageEntry) entry.toProtoMessage())
+                        .build();
+    }
+}
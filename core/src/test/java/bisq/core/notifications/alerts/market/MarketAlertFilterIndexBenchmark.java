@@ -0,0 +1,130 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.notifications.alerts.market;
+
+import bisq.core.payment.PaymentAccount;
+import bisq.core.payment.payload.PaymentAccountPayload;
+import bisq.core.payment.payload.PaymentMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the time for matching offers against the market alert filters with the linear scan MarketAlerts used
+ * before and with MarketAlertFilterIndex. Not a unit test; run it from the test classpath of core:
+ *
+ * <pre>
+ * java -cp ... bisq.core.notifications.alerts.market.MarketAlertFilterIndexBenchmark 10000 200 20
+ * </pre>
+ *
+ * Arguments are the number of offers (default 10000), the number of filters (default 200) and the number of rounds
+ * (default 20). The first half of the rounds is a warm up and not reported.
+ */
+public class MarketAlertFilterIndexBenchmark {
+    private static final int NUM_PAYMENT_METHODS = 10;
+
+    // MarketAlertFilterIndex only needs the payment method of the account
+    private static class Account extends PaymentAccount {
+        private Account(PaymentMethod paymentMethod) {
+            super(paymentMethod);
+        }
+
+        @Override
+        protected PaymentAccountPayload createPayload() {
+            return null;
+        }
+    }
+
+    private static class Offer {
+        private final PaymentMethod paymentMethod;
+        private final boolean isBuyOffer;
+        private final double ratio;
+
+        private Offer(PaymentMethod paymentMethod, boolean isBuyOffer, double ratio) {
+            this.paymentMethod = paymentMethod;
+            this.isBuyOffer = isBuyOffer;
+            this.ratio = ratio;
+        }
+    }
+
+    public static void main(String[] args) {
+        int numOffers = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int numFilters = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        Random random = new Random(1);
+        List<PaymentMethod> paymentMethods = new ArrayList<>();
+        for (int i = 0; i < NUM_PAYMENT_METHODS; i++)
+            paymentMethods.add(new PaymentMethod("method" + i));
+
+        List<MarketAlertFilter> filters = new ArrayList<>();
+        for (int i = 0; i < numFilters; i++) {
+            PaymentAccount paymentAccount = new Account(paymentMethods.get(random.nextInt(paymentMethods.size())));
+            filters.add(new MarketAlertFilter(paymentAccount, random.nextInt(1000) - 500, random.nextBoolean()));
+        }
+
+        List<Offer> offers = new ArrayList<>();
+        for (int i = 0; i < numOffers; i++) {
+            offers.add(new Offer(paymentMethods.get(random.nextInt(paymentMethods.size())),
+                    random.nextBoolean(),
+                    random.nextInt(1200) - 600 + random.nextDouble()));
+        }
+
+        MarketAlertFilterIndex index = new MarketAlertFilterIndex();
+        long linearScanNanos = 0;
+        long indexNanos = 0;
+        long linearScanMatches = 0;
+        long indexMatches = 0;
+        for (int round = 0; round < rounds; round++) {
+            long ts = System.nanoTime();
+            long matches = 0;
+            for (Offer offer : offers) {
+                for (MarketAlertFilter filter : filters) {
+                    if (offer.paymentMethod.equals(filter.getPaymentAccount().getPaymentMethod()) &&
+                            offer.isBuyOffer == filter.isBuyOffer() &&
+                            offer.ratio <= filter.getTriggerValue())
+                        matches++;
+                }
+            }
+            long linearScanDuration = System.nanoTime() - ts;
+
+            ts = System.nanoTime();
+            // We include the rebuild as MarketAlerts rebuilds the index before it applies the filters on all offers
+            index.rebuild(filters);
+            long indexedMatches = 0;
+            for (Offer offer : offers)
+                indexedMatches += index.getTriggeredFilters(offer.paymentMethod, offer.isBuyOffer, offer.ratio).size();
+            long indexDuration = System.nanoTime() - ts;
+
+            if (round >= rounds / 2) {
+                linearScanNanos += linearScanDuration;
+                indexNanos += indexDuration;
+                linearScanMatches += matches;
+                indexMatches += indexedMatches;
+            }
+        }
+
+        int measuredRounds = rounds - rounds / 2;
+        System.out.printf("%d offers, %d filters, %d rounds measured%n", numOffers, numFilters, measuredRounds);
+        System.out.printf("linear scan: %8.3f ms per round (%d matches)%n",
+                linearScanNanos / 1e6 / measuredRounds, linearScanMatches / measuredRounds);
+        System.out.printf("index:       %8.3f ms per round (%d matches)%n",
+                indexNanos / 1e6 / measuredRounds, indexMatches / measuredRounds);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.notifications.alerts.market;
+
+import bisq.core.payment.PaymentAccount;
+import bisq.core.payment.payload.PaymentMethod;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MarketAlertFilterIndexTest {
+    @Test
+    public void testMatchesAllFiltersOnManyOffers() {
+        Random random = new Random(1);
+        List<PaymentMethod> paymentMethods = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            paymentMethods.add(new PaymentMethod("method" + i));
+
+        List<MarketAlertFilter> filters = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            PaymentAccount paymentAccount = mock(PaymentAccount.class);
+            when(paymentAccount.getPaymentMethod()).thenReturn(paymentMethods.get(random.nextInt(paymentMethods.size())));
+            filters.add(new MarketAlertFilter(paymentAccount, random.nextInt(1000) - 500, random.nextBoolean()));
+        }
+        MarketAlertFilterIndex index = new MarketAlertFilterIndex();
+        index.rebuild(filters);
+
+        for (int i = 0; i < 10_000; i++) {
+            PaymentMethod paymentMethod = paymentMethods.get(random.nextInt(paymentMethods.size()));
+            boolean isBuyOffer = random.nextBoolean();
+            double ratio = random.nextInt(1200) - 600 + random.nextDouble();
+            Set<MarketAlertFilter> expected = filters.stream()
+                    .filter(filter -> filter.getPaymentAccount().getPaymentMethod().equals(paymentMethod))
+                    .filter(filter -> filter.isBuyOffer() == isBuyOffer)
+                    .filter(filter -> ratio <= filter.getTriggerValue())
+                    .collect(Collectors.toSet());
+            assertEquals(expected, new HashSet<>(index.getTriggeredFilters(paymentMethod, isBuyOffer, ratio)));
+        }
+    }
+
+    @Test
+    public void testTriggerValueEqualToRatio() {
+        PaymentMethod paymentMethod = new PaymentMethod("method");
+        PaymentAccount paymentAccount = mock(PaymentAccount.class);
+        when(paymentAccount.getPaymentMethod()).thenReturn(paymentMethod);
+        List<MarketAlertFilter> filters = new ArrayList<>();
+        filters.add(new MarketAlertFilter(paymentAccount, 100, true));
+        filters.add(new MarketAlertFilter(paymentAccount, 200, true));
+        MarketAlertFilterIndex index = new MarketAlertFilterIndex();
+        index.rebuild(filters);
+
+        assertEquals(2, index.getTriggeredFilters(paymentMethod, true, 100).size());
+        assertEquals(1, index.getTriggeredFilters(paymentMethod, true, 100.5).size());
+        assertEquals(0, index.getTriggeredFilters(paymentMethod, false, 100).size());
+        assertEquals(0, index.getTriggeredFilters(new PaymentMethod("other"), true, 100).size());
+    }
+}
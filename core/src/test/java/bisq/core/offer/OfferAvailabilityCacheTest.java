@@ -0,0 +1,114 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.core.arbitration.Arbitrator;
+import bisq.core.arbitration.ArbitratorManager;
+import bisq.core.trade.statistics.TradeStatistics2;
+import bisq.core.trade.statistics.TradeStatisticsManager;
+import bisq.core.user.Preferences;
+
+import bisq.network.p2p.NodeAddress;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableMap;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OfferAvailabilityCacheTest {
+    private final ObservableMap<NodeAddress, Arbitrator> arbitrators = FXCollections.observableHashMap();
+    private Preferences preferences;
+    private OfferAvailabilityCache cache;
+
+    @Before
+    public void setUp() {
+        TradeStatisticsManager tradeStatisticsManager = mock(TradeStatisticsManager.class);
+        when(tradeStatisticsManager.getObservableTradeStatisticsSet())
+                .thenReturn(FXCollections.<TradeStatistics2>observableSet());
+        ArbitratorManager arbitratorManager = mock(ArbitratorManager.class);
+        when(arbitratorManager.getArbitratorsObservableMap()).thenReturn(arbitrators);
+        preferences = mock(Preferences.class);
+        when(preferences.getIgnoreTradersList()).thenReturn(Collections.emptyList());
+
+        cache = new OfferAvailabilityCache(tradeStatisticsManager, arbitratorManager, preferences);
+    }
+
+    @Test
+    public void testRateLimitPerPeer() {
+        NodeAddress peer = new NodeAddress("peer.onion", 9999);
+        NodeAddress otherPeer = new NodeAddress("other.onion", 9999);
+        long now = 1_000_000;
+        for (int i = 0; i < OfferAvailabilityCache.MAX_REQUESTS_PER_PEER; i++)
+            assertFalse(cache.isRateLimited(peer, now + i));
+
+        assertTrue(cache.isRateLimited(peer, now + 100));
+        assertFalse(cache.isRateLimited(otherPeer, now + 100));
+
+        assertFalse(cache.isRateLimited(peer, now + OfferAvailabilityCache.RATE_LIMIT_INTERVAL_MS));
+    }
+
+    @Test
+    public void testIgnoreListIsUpdatedWithNewList() {
+        NodeAddress peer = new NodeAddress("peer.onion", 9999);
+        assertFalse(cache.isIgnored(peer));
+
+        when(preferences.getIgnoreTradersList()).thenReturn(Arrays.asList("other.onion", "peer.onion"));
+        assertTrue(cache.isIgnored(peer));
+    }
+
+    @Test
+    public void testLeastUsedArbitratorIsSelectedAgainAfterChange() {
+        Arbitrator first = mockArbitrator("bbbb.onion");
+        arbitrators.put(first.getNodeAddress(), first);
+        assertSame(first, cache.getLeastUsedArbitrator());
+        assertSame(first, cache.getLeastUsedArbitrator());
+
+        Arbitrator second = mockArbitrator("aaaa.onion");
+        arbitrators.put(second.getNodeAddress(), second);
+        assertSame(second, cache.getLeastUsedArbitrator());
+        assertTrue(cache.toString().contains("numArbitratorSelections=2"));
+    }
+
+    @Test
+    public void testResponseMetrics() {
+        cache.onResponseArrived(AvailabilityResult.AVAILABLE, 100, 110);
+        cache.onResponseArrived(AvailabilityResult.OFFER_TAKEN, 200, 230);
+        cache.onResponseFailed();
+        String metrics = cache.toString();
+        assertTrue(metrics, metrics.contains("meanLatency=20"));
+        assertTrue(metrics, metrics.contains("maxLatency=30"));
+        assertTrue(metrics, metrics.contains("numResponsesByResult={AVAILABLE=1, OFFER_TAKEN=1}"));
+        assertTrue(metrics, metrics.contains("numFailedResponses=1"));
+    }
+
+    private static Arbitrator mockArbitrator(String hostName) {
+        Arbitrator arbitrator = mock(Arbitrator.class);
+        when(arbitrator.getNodeAddress()).thenReturn(new NodeAddress(hostName, 9999));
+        return arbitrator;
+    }
+}
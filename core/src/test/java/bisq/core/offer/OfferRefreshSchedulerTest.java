@@ -0,0 +1,152 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.common.UserThread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OfferRefreshSchedulerTest {
+    private static final long REPUBLISH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long DELAY_MS = TimeUnit.HOURS.toMillis(1);
+
+    private Executor previousExecutor;
+    private ExecutorService userThread;
+
+    @Before
+    public void setUp() {
+        previousExecutor = UserThread.getExecutor();
+        userThread = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "UserThread"));
+        UserThread.setExecutor(userThread);
+    }
+
+    @After
+    public void tearDown() {
+        UserThread.setExecutor(previousExecutor);
+        userThread.shutdownNow();
+    }
+
+    @Test
+    public void testSendIntervalScalesWithNumOffers() {
+        long refreshInterval = TimeUnit.MINUTES.toMillis(5);
+        OfferRefreshScheduler scheduler = new OfferRefreshScheduler(REPUBLISH_INTERVAL_MS, refreshInterval,
+                new CountingHandler());
+        try {
+            addOffers(scheduler, 100);
+            assertEquals(refreshInterval / 200, scheduler.getSendInterval());
+
+            addOffers(scheduler, 1000);
+            assertEquals(refreshInterval / 2000, scheduler.getSendInterval());
+        } finally {
+            scheduler.clear();
+        }
+    }
+
+    @Test
+    public void testSendIntervalIsBounded() {
+        OfferRefreshScheduler scheduler = new OfferRefreshScheduler(REPUBLISH_INTERVAL_MS,
+                TimeUnit.MINUTES.toMillis(5), new CountingHandler());
+        try {
+            assertEquals(OfferRefreshScheduler.MAX_SEND_INTERVAL_MS, scheduler.getSendInterval());
+
+            addOffers(scheduler, 1);
+            assertEquals(OfferRefreshScheduler.MAX_SEND_INTERVAL_MS, scheduler.getSendInterval());
+
+            addOffers(scheduler, 100_000);
+            assertEquals(OfferRefreshScheduler.MIN_SEND_INTERVAL_MS, scheduler.getSendInterval());
+        } finally {
+            scheduler.clear();
+        }
+    }
+
+    @Test
+    public void testBroadcastsAreSpacedBySendInterval() throws InterruptedException {
+        int numOffers = 4;
+        // Results in a send interval of 500 ms
+        long refreshInterval = 4000;
+        CountingHandler handler = new CountingHandler(numOffers);
+        OfferRefreshScheduler scheduler = new OfferRefreshScheduler(REPUBLISH_INTERVAL_MS, refreshInterval, handler);
+        long sendInterval = refreshInterval / (2 * numOffers);
+        UserThread.execute(() -> {
+            for (int i = 0; i < numOffers; i++)
+                scheduler.scheduleRepublish("offer-" + i, 0);
+        });
+        try {
+            assertTrue(handler.latch.await(10, TimeUnit.SECONDS));
+            List<Long> republishTimestamps = handler.getRepublishTimestamps();
+            for (int i = 1; i < republishTimestamps.size(); i++) {
+                long gap = republishTimestamps.get(i) - republishTimestamps.get(i - 1);
+                assertTrue("gap=" + gap, gap >= sendInterval);
+            }
+        } finally {
+            UserThread.execute(scheduler::clear);
+        }
+    }
+
+    private static void addOffers(OfferRefreshScheduler scheduler, int numOffers) {
+        // The deadlines are far out, so no broadcast is sent while the test runs
+        for (int i = 0; i < numOffers; i++)
+            scheduler.scheduleRepublish("offer-" + i, DELAY_MS);
+    }
+
+    private static class CountingHandler implements OfferRefreshScheduler.Handler {
+        private final List<Long> republishTimestamps = new ArrayList<>();
+        private final CountDownLatch latch;
+
+        CountingHandler() {
+            this(0);
+        }
+
+        CountingHandler(int numRepublishes) {
+            latch = new CountDownLatch(numRepublishes);
+        }
+
+        @Override
+        public int republish(String offerId) {
+            synchronized (republishTimestamps) {
+                republishTimestamps.add(System.currentTimeMillis());
+            }
+            latch.countDown();
+            return 1;
+        }
+
+        @Override
+        public int refresh(String offerId) {
+            return 1;
+        }
+
+        List<Long> getRepublishTimestamps() {
+            synchronized (republishTimestamps) {
+                return new ArrayList<>(republishTimestamps);
+            }
+        }
+    }
+}
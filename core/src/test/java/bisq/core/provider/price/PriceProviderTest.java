@@ -0,0 +1,92 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.provider.price;
+
+import bisq.network.http.HttpClient;
+import bisq.network.http.HttpResponse;
+
+import bisq.common.util.Tuple2;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PriceProviderTest {
+    private static final String FULL_RESPONSE = "{\"btcAverageTs\":1,\"poloniexTs\":2,\"coinmarketcapTs\":3," +
+            "\"data\":[{\"currencyCode\":\"EUR\",\"price\":5000.0,\"timestampSec\":1,\"provider\":\"BTCA_L\"}," +
+            "{\"currencyCode\":\"USD\",\"price\":6000.0,\"timestampSec\":1,\"provider\":\"BTCA_L\"}]}";
+
+    @Test
+    public void testConditionalRequestWithEtag() throws Exception {
+        HttpClient httpClient = mock(HttpClient.class);
+        when(httpClient.requestWithGETForResponse(eq("getAllMarketPrices"), anyMap()))
+                .thenReturn(new HttpResponse(200, Collections.singletonMap("etag", "\"abc\""), FULL_RESPONSE))
+                .thenReturn(new HttpResponse(304, Collections.emptyMap(), null));
+        PriceProvider priceProvider = new PriceProvider(httpClient, "http://localhost/");
+
+        Tuple2<Map<String, Long>, Map<String, MarketPrice>> first = priceProvider.getAll();
+        assertEquals(2, first.second.size());
+        assertEquals(Long.valueOf(1), first.first.get("btcAverageTs"));
+
+        Tuple2<Map<String, Long>, Map<String, MarketPrice>> second = priceProvider.getAll();
+        assertTrue(second.second.isEmpty());
+        assertEquals(first.first, second.first);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, String>> headers = ArgumentCaptor.forClass(Map.class);
+        verify(httpClient, times(2)).requestWithGETForResponse(anyString(), headers.capture());
+        assertFalse(headers.getAllValues().get(0).containsKey("If-None-Match"));
+        assertEquals("\"abc\"", headers.getAllValues().get(1).get("If-None-Match"));
+    }
+
+    @Test
+    public void testDeltaRequestIfSupportedByPriceNode() throws Exception {
+        String fullResponseWithTs = FULL_RESPONSE.replace("\"data\"", "\"ts\":1539936000000,\"data\"");
+        String deltaResponse = "{\"btcAverageTs\":4,\"poloniexTs\":2,\"coinmarketcapTs\":3,\"ts\":1539936060000," +
+                "\"data\":[{\"currencyCode\":\"USD\",\"price\":6100.0,\"timestampSec\":4,\"provider\":\"BTCA_L\"}]}";
+        HttpClient httpClient = mock(HttpClient.class);
+        when(httpClient.requestWithGETForResponse(eq("getAllMarketPrices"), anyMap()))
+                .thenReturn(new HttpResponse(200, Collections.emptyMap(), fullResponseWithTs));
+        when(httpClient.requestWithGETForResponse(eq("getAllMarketPrices?since=1539936000000"), anyMap()))
+                .thenReturn(new HttpResponse(200, Collections.emptyMap(), deltaResponse));
+        PriceProvider priceProvider = new PriceProvider(httpClient, "http://localhost/");
+
+        assertEquals(2, priceProvider.getAll().second.size());
+
+        Tuple2<Map<String, Long>, Map<String, MarketPrice>> delta = priceProvider.getAll();
+        assertEquals(1, delta.second.size());
+        assertEquals(6100, delta.second.get("USD").getPrice(), 0);
+        assertEquals(Long.valueOf(4), delta.first.get("btcAverageTs"));
+        verify(httpClient).requestWithGETForResponse(eq("getAllMarketPrices?since=1539936000000"), any());
+    }
+}
@@ -21,19 +21,37 @@ import bisq.core.offer.Offer;
 import bisq.core.offer.OfferPayload;
 import bisq.core.offer.OpenOffer;
 
+import bisq.common.Payload;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.storage.FileUtil;
 import bisq.common.storage.Storage;
 
 import io.bisq.generated.protobuffer.PB;
 
+import com.google.protobuf.Message;
+
+import java.io.File;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import mockit.Mocked;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static io.bisq.generated.protobuffer.PB.PersistableEnvelope.MessageCase.TRADABLE_LIST;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class TradableListTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
 
     @Test
     public void protoTesting(@Mocked OfferPayload offerPayload) {
@@ -51,4 +69,139 @@ public class TradableListTest {
         assertTrue(message.getMessageCase().equals(TRADABLE_LIST));
         assertEquals(1, message.getTradableList().getTradableList().size());
     }
+
+    @Test
+    public void testRecordFiles() throws Exception {
+        File dir = folder.getRoot();
+        TradableList<TestTradable> tradableList = TradableList.withRecordFiles(createStorage(dir), "PendingTrades", 1);
+        TestTradable first = new TestTradable("first", 2000);
+        TestTradable second = new TestTradable("second", 1000);
+        tradableList.add(first);
+        tradableList.add(second);
+
+        File recordDir = new File(dir, "PendingTradesRecords");
+        waitForFile(new File(recordDir, "Trade_first"));
+        waitForFile(new File(recordDir, "Trade_second"));
+        assertFalse(new File(dir, "PendingTrades").exists());
+
+        // Reading the records makes a rolling backup of each
+        tradableList = TradableList.withRecordFiles(createStorage(dir), "PendingTrades", 1);
+        assertEquals(Arrays.asList("second", "first"), getIds(tradableList));
+        File rollingBackupDir = FileUtil.getRollingBackupDir(recordDir, "Trade_first");
+        assertTrue(rollingBackupDir.exists());
+
+        tradableList.remove(first);
+        assertFalse(new File(recordDir, "Trade_first").exists());
+        assertFalse(rollingBackupDir.exists());
+        assertTrue(new File(recordDir, "Trade_second").exists());
+
+        tradableList = TradableList.withRecordFiles(createStorage(dir), "PendingTrades", 1);
+        assertEquals(Arrays.asList("second"), getIds(tradableList));
+    }
+
+    @Test
+    public void testMigrationToRecordFiles() throws Exception {
+        File dir = folder.getRoot();
+        Storage<TradableList<TestTradable>> legacyStorage = createStorage(dir);
+        TradableList<TestTradable> legacyList = new TradableList<>(legacyStorage, "ClosedTrades");
+        legacyList.add(new TestTradable("first", 1000));
+        legacyList.add(new TestTradable("second", 2000));
+        legacyStorage.saveNow();
+
+        TradableList<TestTradable> tradableList = TradableList.withRecordFiles(createStorage(dir), "ClosedTrades", 0);
+        assertEquals(Arrays.asList("first", "second"), getIds(tradableList));
+        assertTrue(new File(new File(dir, "ClosedTradesRecords"), "Trade_first").exists());
+        assertTrue(new File(new File(dir, "ClosedTradesRecords"), "Trade_second").exists());
+        // The old file stays for a downgrade
+        assertTrue(new File(dir, "ClosedTrades").exists());
+        assertTrue(new File(dir, "ClosedTrades_migrated").exists());
+        assertEquals(Arrays.asList("first", "second"),
+                getIds(new TradableList<>(createStorage(dir), "ClosedTrades")));
+
+        // A removed tradable must not come back from the old file
+        tradableList.remove(tradableList.getList().get(0));
+        tradableList = TradableList.withRecordFiles(createStorage(dir), "ClosedTrades", 0);
+        assertEquals(Arrays.asList("second"), getIds(tradableList));
+    }
+
+    private static Storage<TradableList<TestTradable>> createStorage(File dir) {
+        return new Storage<>(dir, new TestPersistenceProtoResolver());
+    }
+
+    private static List<String> getIds(TradableList<TestTradable> tradableList) {
+        return tradableList.stream().map(TestTradable::getId).collect(Collectors.toList());
+    }
+
+    private static void waitForFile(File file) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!file.exists()) {
+            if (System.currentTimeMillis() > deadline)
+                throw new AssertionError("File " + file + " was not written in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private static class TestTradable implements Tradable {
+        private final String id;
+        private final long date;
+
+        TestTradable(String id, long date) {
+            this.id = id;
+            this.date = date;
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            return PB.Tradable.newBuilder()
+                    .setOpenOffer(PB.OpenOffer.newBuilder()
+                            .setOffer(PB.Offer.newBuilder()
+                                    .setOfferPayload(PB.OfferPayload.newBuilder().setId(id).setDate(date))))
+                    .build();
+        }
+
+        static TestTradable fromProto(PB.Tradable proto) {
+            PB.OfferPayload offerPayload = proto.getOpenOffer().getOffer().getOfferPayload();
+            return new TestTradable(offerPayload.getId(), offerPayload.getDate());
+        }
+
+        @Override
+        public Offer getOffer() {
+            return null;
+        }
+
+        @Override
+        public Date getDate() {
+            return new Date(date);
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getShortId() {
+            return id;
+        }
+    }
+
+    private static class TestPersistenceProtoResolver implements PersistenceProtoResolver {
+        @Override
+        public PersistableEnvelope fromProto(PB.PersistableEnvelope proto) {
+            List<TestTradable> list = proto.getTradableList().getTradableList().stream()
+                    .map(TestTradable::fromProto)
+                    .collect(Collectors.toList());
+            return new TradableList<>(null, list);
+        }
+
+        @Override
+        public Payload fromProto(PB.PaymentAccountPayload proto) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PersistableEnvelope fromProto(PB.PersistableNetworkPayload proto) {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -0,0 +1,127 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade;
+
+import bisq.core.arbitration.Dispute;
+import bisq.core.arbitration.DisputeManager;
+import bisq.core.offer.OpenOffer;
+import bisq.core.offer.OpenOfferManager;
+import bisq.core.trade.closed.ClosedTradableManager;
+import bisq.core.trade.failed.FailedTradesManager;
+
+import bisq.common.storage.Storage;
+
+import javafx.beans.property.SimpleObjectProperty;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TradableTxIdIndexTest {
+    private final ObservableList<Trade> pendingTrades = FXCollections.observableArrayList();
+    private final ObservableList<Tradable> closedTradables = FXCollections.observableArrayList();
+    private final ObservableList<Dispute> disputes = FXCollections.observableArrayList();
+    private TradableTxIdIndex index;
+
+    @Before
+    public void setUp() {
+        OpenOfferManager openOfferManager = mock(OpenOfferManager.class);
+        when(openOfferManager.getObservableList()).thenReturn(FXCollections.<OpenOffer>observableArrayList());
+        TradeManager tradeManager = mock(TradeManager.class);
+        when(tradeManager.getTradableList()).thenReturn(pendingTrades);
+        ClosedTradableManager closedTradableManager = mock(ClosedTradableManager.class);
+        when(closedTradableManager.getClosedTradables()).thenReturn(closedTradables);
+        FailedTradesManager failedTradesManager = mock(FailedTradesManager.class);
+        when(failedTradesManager.getFailedTrades()).thenReturn(FXCollections.observableArrayList());
+        DisputeManager disputeManager = mock(DisputeManager.class);
+        when(disputeManager.getDisputesAsObservableList()).thenReturn(disputes);
+
+        index = new TradableTxIdIndex(openOfferManager, tradeManager, closedTradableManager,
+                failedTradesManager, disputeManager);
+    }
+
+    @Test
+    public void testLookupAfterListChanges() {
+        Trade trade = mockTrade("1", "deposit1");
+        pendingTrades.add(trade);
+        assertEquals(trade, index.getTradable("deposit1").get());
+        assertFalse(index.getTradable("deposit2").isPresent());
+
+        Trade otherTrade = mockTrade("2", "deposit2");
+        closedTradables.add(otherTrade);
+        assertEquals(otherTrade, index.getTradable("deposit2").get());
+
+        pendingTrades.remove(trade);
+        assertFalse(index.getTradable("deposit1").isPresent());
+    }
+
+    @Test
+    public void testLookupAfterTradeStateChange() {
+        SimpleObjectProperty<Trade.State> state = new SimpleObjectProperty<>(Trade.State.PREPARATION);
+        Trade trade = mockTrade("1", null);
+        when(trade.stateProperty()).thenReturn(state);
+        pendingTrades.add(trade);
+        assertFalse(index.getTradable("payout1").isPresent());
+
+        when(trade.getPayoutTxId()).thenReturn("payout1");
+        state.set(Trade.State.SELLER_PUBLISHED_PAYOUT_TX);
+        assertEquals(trade, index.getTradable("payout1").get());
+    }
+
+    @Test
+    public void testLookupAfterDisputePayoutTxIdChange() {
+        Trade trade = mockTrade("1", "deposit1");
+        closedTradables.add(trade);
+        Dispute dispute = createDispute("1");
+        disputes.add(dispute);
+        assertFalse(index.getTradable("disputePayout1").isPresent());
+
+        dispute.setDisputePayoutTxId("disputePayout1");
+        assertEquals(trade, index.getTradable("disputePayout1").get());
+
+        // A dispute payout tx of a trade we don't have is not indexed
+        Dispute otherDispute = createDispute("2");
+        otherDispute.setDisputePayoutTxId("disputePayout2");
+        disputes.add(otherDispute);
+        assertFalse(index.getTradable("disputePayout2").isPresent());
+
+        disputes.remove(dispute);
+        assertFalse(index.getTradable("disputePayout1").isPresent());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Dispute createDispute(String tradeId) {
+        return new Dispute(mock(Storage.class), tradeId, 0, true, true, null, 0, null, null, null,
+                null, null, null, null, null, null, null, false);
+    }
+
+    private static Trade mockTrade(String id, String depositTxId) {
+        Trade trade = mock(Trade.class);
+        when(trade.getId()).thenReturn(id);
+        when(trade.getDepositTxId()).thenReturn(depositTxId);
+        when(trade.stateProperty()).thenReturn(new SimpleObjectProperty<>());
+        return trade;
+    }
+}
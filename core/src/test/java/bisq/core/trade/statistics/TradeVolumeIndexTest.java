@@ -0,0 +1,61 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TradeVolumeIndexTest {
+    @Test
+    public void testVolumeAfterDate() {
+        TradeVolumeIndex index = new TradeVolumeIndex();
+        index.add("XMR", 300, 3);
+        index.add("XMR", 100, 1);
+        index.add("ETH", 150, 50);
+        index.add("XMR", 200, 2);
+
+        TradeVolumeIndex.CurrencyTradeVolume xmr = index.getCurrencyTradeVolume("XMR");
+        assertEquals(3, xmr.getNumTrades());
+        assertEquals(6, xmr.getVolume());
+        assertEquals(Optional.of(100L), xmr.getFirstTradeDate());
+        assertEquals(Optional.of(300L), xmr.getLastTradeDate());
+
+        // Only trades after the date are included
+        assertEquals(5, xmr.getVolumeAfter(100));
+        assertEquals(2, xmr.getNumTradesAfter(100));
+        assertEquals(6, xmr.getVolumeAfter(99));
+        assertEquals(0, xmr.getVolumeAfter(300));
+
+        index.add("XMR", 400, 4);
+        index.add("XMR", 50, 5);
+        assertEquals(15, xmr.getVolume());
+        assertEquals(7, xmr.getVolumeAfter(250));
+        assertEquals(Optional.of(50L), xmr.getFirstTradeDate());
+    }
+
+    @Test
+    public void testUnknownCurrency() {
+        TradeVolumeIndex.CurrencyTradeVolume unknown = new TradeVolumeIndex().getCurrencyTradeVolume("XMR");
+        assertEquals(0, unknown.getNumTrades());
+        assertEquals(0, unknown.getVolumeAfter(0));
+        assertEquals(Optional.empty(), unknown.getLastTradeDate());
+    }
+}
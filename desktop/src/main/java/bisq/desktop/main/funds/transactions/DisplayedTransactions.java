@@ -18,7 +18,6 @@
 package bisq.desktop.main.funds.transactions;
 
 import bisq.core.btc.wallet.BtcWalletService;
-import bisq.core.trade.Tradable;
 
 import org.bitcoinj.core.Transaction;
 
@@ -56,12 +55,10 @@ class DisplayedTransactions extends ObservableListDecorator<TransactionsListItem
     }
 
     private TransactionsListItem convertTransactionToListItem(Transaction transaction) {
-        Set<Tradable> tradables = tradableRepository.getAll();
-
-        TransactionAwareTradable maybeTradable = tradables.stream()
+        // The index might not have been updated yet, so we let the tradable confirm the transaction
+        TransactionAwareTradable maybeTradable = tradableRepository.getTradableByTxId(transaction.getHashAsString())
                 .map(transactionAwareTradableFactory::create)
                 .filter(tradable -> tradable.isRelatedToTransaction(transaction))
-                .findAny()
                 .orElse(null);
 
         return transactionListItemFactory.create(transaction, maybeTradable);
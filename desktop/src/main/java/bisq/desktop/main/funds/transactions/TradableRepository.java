@@ -17,39 +17,22 @@
 
 package bisq.desktop.main.funds.transactions;
 
-import bisq.core.offer.OpenOfferManager;
 import bisq.core.trade.Tradable;
-import bisq.core.trade.TradeManager;
-import bisq.core.trade.closed.ClosedTradableManager;
-import bisq.core.trade.failed.FailedTradesManager;
+import bisq.core.trade.TradableTxIdIndex;
 
 import javax.inject.Inject;
 
-import com.google.common.collect.ImmutableSet;
-
-import java.util.Set;
+import java.util.Optional;
 
 public class TradableRepository {
-    private final OpenOfferManager openOfferManager;
-    private final TradeManager tradeManager;
-    private final ClosedTradableManager closedTradableManager;
-    private final FailedTradesManager failedTradesManager;
+    private final TradableTxIdIndex tradableTxIdIndex;
 
     @Inject
-    TradableRepository(OpenOfferManager openOfferManager, TradeManager tradeManager,
-                       ClosedTradableManager closedTradableManager, FailedTradesManager failedTradesManager) {
-        this.openOfferManager = openOfferManager;
-        this.tradeManager = tradeManager;
-        this.closedTradableManager = closedTradableManager;
-        this.failedTradesManager = failedTradesManager;
+    TradableRepository(TradableTxIdIndex tradableTxIdIndex) {
+        this.tradableTxIdIndex = tradableTxIdIndex;
     }
 
-    Set<Tradable> getAll() {
-        return ImmutableSet.<Tradable>builder()
-                .addAll(openOfferManager.getObservableList())
-                .addAll(tradeManager.getTradableList())
-                .addAll(closedTradableManager.getClosedTradables())
-                .addAll(failedTradesManager.getFailedTrades())
-                .build();
+    Optional<Tradable> getTradableByTxId(String txId) {
+        return tradableTxIdIndex.getTradable(txId);
     }
 }
@@ -42,13 +42,12 @@ class TransactionAwareTrade implements TransactionAwareTradable {
     public boolean isRelatedToTransaction(Transaction transaction) {
         String txId = transaction.getHashAsString();
 
-        boolean isTakerOfferFeeTx = txId.equals(delegate.getTakerFeeTxId());
-        boolean isOfferFeeTx = isOfferFeeTx(txId);
-        boolean isDepositTx = isDepositTx(txId);
-        boolean isPayoutTx = isPayoutTx(txId);
-        boolean isDisputedPayoutTx = isDisputedPayoutTx(txId);
-
-        return isTakerOfferFeeTx || isOfferFeeTx || isDepositTx || isPayoutTx || isDisputedPayoutTx;
+        // The disputes are only searched if the transaction is none of the trade's own transactions
+        return txId.equals(delegate.getTakerFeeTxId()) ||
+                isOfferFeeTx(txId) ||
+                isDepositTx(txId) ||
+                isPayoutTx(txId) ||
+                isDisputedPayoutTx(txId);
     }
 
     private boolean isPayoutTx(String txId) {
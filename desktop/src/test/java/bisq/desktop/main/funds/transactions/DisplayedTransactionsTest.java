@@ -18,12 +18,14 @@
 package bisq.desktop.main.funds.transactions;
 
 import bisq.core.btc.wallet.BtcWalletService;
+import bisq.core.trade.Tradable;
 
 import org.bitcoinj.core.Transaction;
 
 import com.google.common.collect.Sets;
 
 import java.util.Collections;
+import java.util.Optional;
 import java.util.Set;
 
 import org.junit.Test;
@@ -61,7 +63,7 @@ public class DisplayedTransactionsTest {
                 .thenReturn(Collections.singleton(mock(Transaction.class)));
 
         TradableRepository tradableRepository = mock(TradableRepository.class);
-        when(tradableRepository.getAll()).thenReturn(Collections.emptySet());
+        when(tradableRepository.getTradableByTxId(any())).thenReturn(Optional.empty());
 
         TransactionListItemFactory transactionListItemFactory = mock(TransactionListItemFactory.class);
 
@@ -77,4 +79,64 @@ public class DisplayedTransactionsTest {
         assertEquals(1, testedEntity.size());
         verify(transactionListItemFactory).create(any(), nullable(TransactionAwareTradable.class));
     }
+
+    @Test
+    public void testUpdateWithTradableOfTransaction() {
+        Transaction transaction = mock(Transaction.class);
+        when(transaction.getHashAsString()).thenReturn("txId");
+        BtcWalletService walletService = mock(BtcWalletService.class);
+        when(walletService.getTransactions(false)).thenReturn(Collections.singleton(transaction));
+
+        Tradable tradable = mock(Tradable.class);
+        TradableRepository tradableRepository = mock(TradableRepository.class);
+        when(tradableRepository.getTradableByTxId("txId")).thenReturn(Optional.of(tradable));
+
+        TransactionAwareTradable transactionAwareTradable = mock(TransactionAwareTradable.class);
+        when(transactionAwareTradable.isRelatedToTransaction(transaction)).thenReturn(true);
+        TransactionAwareTradableFactory transactionAwareTradableFactory = mock(TransactionAwareTradableFactory.class);
+        when(transactionAwareTradableFactory.create(tradable)).thenReturn(transactionAwareTradable);
+
+        TransactionListItemFactory transactionListItemFactory = mock(TransactionListItemFactory.class);
+
+        @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
+        DisplayedTransactions testedEntity = new DisplayedTransactions(
+                walletService,
+                tradableRepository,
+                transactionListItemFactory,
+                transactionAwareTradableFactory);
+
+        testedEntity.update();
+
+        verify(transactionListItemFactory).create(transaction, transactionAwareTradable);
+    }
+
+    @Test
+    public void testUpdateWhenTradableIsNotRelatedToTransaction() {
+        Transaction transaction = mock(Transaction.class);
+        when(transaction.getHashAsString()).thenReturn("txId");
+        BtcWalletService walletService = mock(BtcWalletService.class);
+        when(walletService.getTransactions(false)).thenReturn(Collections.singleton(transaction));
+
+        Tradable tradable = mock(Tradable.class);
+        TradableRepository tradableRepository = mock(TradableRepository.class);
+        when(tradableRepository.getTradableByTxId("txId")).thenReturn(Optional.of(tradable));
+
+        TransactionAwareTradable transactionAwareTradable = mock(TransactionAwareTradable.class);
+        when(transactionAwareTradable.isRelatedToTransaction(transaction)).thenReturn(false);
+        TransactionAwareTradableFactory transactionAwareTradableFactory = mock(TransactionAwareTradableFactory.class);
+        when(transactionAwareTradableFactory.create(tradable)).thenReturn(transactionAwareTradable);
+
+        TransactionListItemFactory transactionListItemFactory = mock(TransactionListItemFactory.class);
+
+        @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
+        DisplayedTransactions testedEntity = new DisplayedTransactions(
+                walletService,
+                tradableRepository,
+                transactionListItemFactory,
+                transactionAwareTradableFactory);
+
+        testedEntity.update();
+
+        verify(transactionListItemFactory).create(transaction, null);
+    }
 }
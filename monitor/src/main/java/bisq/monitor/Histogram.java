@@ -0,0 +1,150 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.monitor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A fixed-memory latency histogram in the spirit of HdrHistogram. Values below
+ * 128 are counted exactly, larger values go into log-linear buckets with 64
+ * sub-buckets per power of two, which bounds the relative error of reported
+ * percentiles to below 2%. Recording is O(1) and does not allocate, so samples
+ * can be recorded from network callbacks directly.
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+    private final long highestTrackableValue;
+    private final long[] counts;
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Constructor.
+     *
+     * @param highestTrackableValue values above are clamped to this value
+     */
+    public Histogram(long highestTrackableValue) {
+        this.highestTrackableValue = Math.max(highestTrackableValue, SUB_BUCKET_COUNT);
+        counts = new long[indexOf(this.highestTrackableValue) + 1];
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (subBucket - SUB_BUCKET_HALF_COUNT);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Record a single sample. Negative values are ignored.
+     */
+    public synchronized void record(long value) {
+        if (value < 0)
+            return;
+
+        long clamped = Math.min(value, highestTrackableValue);
+        counts[indexOf(clamped)]++;
+        totalCount++;
+        sum += clamped;
+        min = Math.min(min, clamped);
+        max = Math.max(max, clamped);
+    }
+
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+    public synchronized long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized long getMean() {
+        return totalCount == 0 ? 0 : Math.round((double) sum / totalCount);
+    }
+
+    /**
+     * @param percentile in the range of ]0, 100]
+     * @return the highest value that at least <code>percentile</code> percent
+     *         of all recorded samples are less than or equal to
+     */
+    public synchronized long getValueAtPercentile(double percentile) {
+        if (totalCount == 0)
+            return 0;
+
+        long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long runningCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            runningCount += counts[i];
+            if (runningCount >= countAtPercentile)
+                return Math.max(min, Math.min(highestEquivalentValue(i), max));
+        }
+        return max;
+    }
+
+    /**
+     * Clear all recorded samples, e.g. after they have been reported.
+     */
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * @return average, min, max, sample size and p25, p50, p75, p90, p99 in a
+     *         form ready to be handed to a {@link Reporter}
+     */
+    public synchronized Map<String, String> getReport() {
+        Map<String, String> results = new HashMap<>();
+        results.put("average", String.valueOf(getMean()));
+        results.put("max", String.valueOf(getMax()));
+        results.put("min", String.valueOf(getMin()));
+        results.put("sampleSize", String.valueOf(totalCount));
+
+        int[] percentiles = new int[] { 25, 50, 75, 90, 99 };
+        for (int percentile : percentiles)
+            results.put("p" + percentile, String.valueOf(getValueAtPercentile(percentile)));
+
+        return results;
+    }
+}
@@ -17,15 +17,26 @@
 
 package bisq.monitor;
 
+import bisq.common.util.Utilities;
+
 import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Starts a Metric (in its own {@link Thread}), manages its properties and shuts
- * it down gracefully. Furthermore, configuration updates and execution are done
- * in a thread-save manner. Implementing classes only have to implement the
- * {@link Metric#execute()} method.
+ * Schedules a Metric on the executor shared by all Metrics, manages its
+ * properties and shuts it down gracefully. Furthermore, configuration updates
+ * and execution are done in a thread-save manner. Implementing classes only
+ * have to implement the {@link Metric#execute()} method.
+ *
+ * Runs are spread over time by a random jitter of up to
+ * <code>run.jitter</code> seconds (default: none) and a run that exceeds
+ * <code>run.timeout</code> seconds (default: the interval) gets interrupted.
  *
  * @author Florian Reimair
  */
@@ -33,36 +44,60 @@ import lombok.extern.slf4j.Slf4j;
 public abstract class Metric extends Configurable implements Runnable {
 
     private static final String INTERVAL = "run.interval";
+    private static final String JITTER = "run.jitter";
+    private static final String TIMEOUT = "run.timeout";
+
+    /**
+     * the executor shared by all Metrics. Metrics spend most of their time
+     * waiting for the network, so the pool is sized for concurrent runs rather
+     * than for the number of CPUs.
+     */
+    private static final ScheduledThreadPoolExecutor executor =
+            Utilities.getScheduledThreadPoolExecutor("Metric", 16, 16, 60);
+    private static final Random random = new Random();
+
     private volatile boolean shutdown = false;
 
     /**
      * our reporter
      */
     protected final Reporter reporter;
-    private Thread thread = new Thread();
+    private final Object schedulingLock = new Object();
+    private ScheduledFuture<?> nextRun;
+    private boolean running = false;
+    private CountDownLatch terminated = new CountDownLatch(0);
 
     /**
      * disable execution
      */
     private void disable() {
-        shutdown = true;
+        synchronized (schedulingLock) {
+            shutdown = true;
+
+            if (nextRun != null)
+                nextRun.cancel(false);
+            nextRun = null;
+
+            // a run in progress releases the latch once it is finished
+            if (!running)
+                terminated.countDown();
+        }
     }
 
     /**
      * enable execution
      */
     private void enable() {
-        shutdown = false;
-
-        thread = new Thread(this);
-
-        // set human readable name
-        thread.setName(getName());
-
-        // set as daemon, so that the jvm does not terminate the thread
-        thread.setDaemon(true);
-
-        thread.start();
+        long jitter = getJitter();
+        synchronized (schedulingLock) {
+            shutdown = false;
+            if (terminated.getCount() == 0)
+                terminated = new CountDownLatch(1);
+
+            // a run in progress schedules its successor by itself
+            if (!running && nextRun == null)
+                scheduleNextRun(jitter);
+        }
     }
 
     /**
@@ -114,30 +149,73 @@ public abstract class Metric extends Configurable implements Runnable {
 
     @Override
     public void run() {
-        while (!shutdown) {
+        synchronized (schedulingLock) {
+            nextRun = null;
+            if (shutdown) {
+                terminated.countDown();
+                return;
+            }
+            running = true;
+        }
+
+        // make sure our configuration is not changed in the moment we want to query it
+        long interval;
+        long timeout;
+        synchronized (this) {
+            interval = Long.parseLong(configuration.getProperty(INTERVAL));
+            timeout = Long.parseLong(configuration.getProperty(TIMEOUT, String.valueOf(interval)));
+        }
+
+        // interrupt the run if it takes too long
+        Thread runner = Thread.currentThread();
+        ScheduledFuture<?> watchdog = executor.schedule(() -> {
+            log.warn("{} did not finish within {} s. Interrupting.", getName(), timeout);
+            runner.interrupt();
+        }, Math.max(timeout, 1), TimeUnit.SECONDS);
+
+        long start = System.currentTimeMillis();
+        try {
             // if not, execute all the things
             synchronized (this) {
                 log.info("{} started", getName());
                 execute();
-                log.info("{} done", getName());
+                log.info("{} done in {} ms", getName(), System.currentTimeMillis() - start);
             }
+        } catch (Throwable t) {
+            log.error("{} failed: {}", getName(), t.toString());
+        } finally {
+            watchdog.cancel(false);
+            // clear a pending interrupt so that it does not leak into the next task of this pool thread
+            Thread.interrupted();
+        }
 
-            if (shutdown)
-                continue;
-
-            // make sure our configuration is not changed in the moment we want to query it
-            String interval;
-            synchronized (this) {
-                interval = configuration.getProperty(INTERVAL);
+        // and go to sleep for the configured amount of time.
+        long delay = TimeUnit.SECONDS.toMillis(interval) + getJitter();
+        synchronized (schedulingLock) {
+            running = false;
+            if (shutdown) {
+                log.info("{} shutdown", getName());
+                terminated.countDown();
+            } else if (nextRun == null) {
+                scheduleNextRun(delay);
             }
+        }
+    }
 
-            // and go to sleep for the configured amount of time.
-            try {
-                Thread.sleep(Long.parseLong(interval) * 1000);
-            } catch (InterruptedException ignore) {
-            }
+    private void scheduleNextRun(long delay) {
+        nextRun = executor.schedule(this, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return a random delay in milliseconds so that Metrics with equal
+     *         intervals do not hit the network at the very same time
+     */
+    private long getJitter() {
+        long maxJitter;
+        synchronized (this) {
+            maxJitter = TimeUnit.SECONDS.toMillis(Long.parseLong(configuration.getProperty(JITTER, "0")));
         }
-        log.info("{} shutdown", getName());
+        return maxJitter > 0 ? (long) (random.nextDouble() * maxJitter) : 0;
     }
 
     /**
@@ -150,11 +228,19 @@ public abstract class Metric extends Configurable implements Runnable {
      */
     public void shutdown() {
         log.debug("{} shutdown requested", getName());
-        shutdown = true;
+        disable();
     }
 
+    /**
+     * Blocks until the Metric got shut down and its current run, if any, is
+     * finished.
+     */
     void join() throws InterruptedException {
-        thread.join();
+        CountDownLatch current;
+        synchronized (schedulingLock) {
+            current = terminated;
+        }
+        current.await();
     }
 
 }
@@ -30,7 +30,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ThreadGate {
 
-    private CountDownLatch lock = new CountDownLatch(0);
+    private volatile CountDownLatch lock = new CountDownLatch(0);
 
     /**
      * Make everyone wait until the gate is open again.
@@ -51,17 +51,18 @@ public class ThreadGate {
 
     /**
      * Wait for the gate to be opened. Blocks until the gate is open again. Returns
-     * immediately if the gate is already open.
+     * immediately if the gate is already open. Returns early if the waiting thread
+     * gets interrupted, e.g. because the {@link Metric} run timed out, and keeps
+     * the interrupt flag set for the caller to act upon.
      */
-    public synchronized void await() {
-        while (lock.getCount() > 0)
-            try {
-                if (!lock.await(90, TimeUnit.SECONDS)) {
-                    log.warn("timeout occured!");
-                    break; // break the loop
-                }
-            } catch (InterruptedException ignore) {
-            }
+    public void await() {
+        try {
+            if (!lock.await(90, TimeUnit.SECONDS))
+                log.warn("timeout occured!");
+        } catch (InterruptedException e) {
+            log.warn("interrupted while waiting for the gate to open");
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
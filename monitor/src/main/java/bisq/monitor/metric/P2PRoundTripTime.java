@@ -18,10 +18,9 @@
 package bisq.monitor.metric;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Properties;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import org.jetbrains.annotations.NotNull;
 import com.google.common.util.concurrent.FutureCallback;
@@ -32,11 +31,11 @@ import bisq.common.app.Version;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.core.proto.network.CoreNetworkProtoResolver;
 import bisq.monitor.AvailableTor;
+import bisq.monitor.Histogram;
 import bisq.monitor.Metric;
 import bisq.monitor.Monitor;
 import bisq.monitor.OnionParser;
 import bisq.monitor.Reporter;
-import bisq.monitor.StatisticsHelper;
 import bisq.monitor.ThreadGate;
 import bisq.network.p2p.CloseConnectionMessage;
 import bisq.network.p2p.NodeAddress;
@@ -60,7 +59,7 @@ public class P2PRoundTripTime extends Metric implements MessageListener, SetupLi
     private final File torHiddenServiceDir = new File("metric_p2pRoundTripTime");
     private int nonce;
     private long start;
-    private List<Long> samples;
+    private final Histogram samples = new Histogram(TimeUnit.MINUTES.toMillis(10));
     private final ThreadGate gate = new ThreadGate();
     private final ThreadGate hsReady = new ThreadGate();
 
@@ -94,14 +93,18 @@ public class P2PRoundTripTime extends Metric implements MessageListener, SetupLi
 
         // for each configured host
         for (String current : configuration.getProperty(HOSTS, "").split(",")) {
+            // stop if this run timed out
+            if (Thread.currentThread().isInterrupted())
+                break;
+
             try {
                 // parse Url
                 NodeAddress target = OnionParser.getNodeAddress(current);
 
                 // init sample bucket
-                samples = new ArrayList<>();
+                samples.reset();
 
-                while (samples.size() < Integer.parseInt(configuration.getProperty(SAMPLE_SIZE, "1"))) {
+                while (samples.getTotalCount() < Integer.parseInt(configuration.getProperty(SAMPLE_SIZE, "1"))) {
                     // so we do not get disconnected due to DoS protection mechanisms
                     Thread.sleep(200);
 
@@ -133,8 +136,11 @@ public class P2PRoundTripTime extends Metric implements MessageListener, SetupLi
                 }
 
                 // report
-                reporter.report(StatisticsHelper.process(samples),
+                reporter.report(samples.getReport(),
                         "bisq." + getName() + "." + OnionParser.prettyPrint(target));
+            } catch (InterruptedException e) {
+                gate.proceed(); // release the gate on timeout
+                Thread.currentThread().interrupt();
             } catch (Exception e) {
                 gate.proceed(); // release the gate on error
                 e.printStackTrace();
@@ -147,7 +153,7 @@ public class P2PRoundTripTime extends Metric implements MessageListener, SetupLi
         if (networkEnvelope instanceof Pong) {
             Pong pong = (Pong) networkEnvelope;
             if (pong.getRequestNonce() == nonce) {
-                samples.add(System.currentTimeMillis() - start);
+                samples.record(System.currentTimeMillis() - start);
             } else {
                 log.warn("Nonce not matching. That should never happen.\n\t" +
                                 "We drop that message. nonce={} / requestNonce={}",
@@ -17,10 +17,10 @@
 
 package bisq.monitor.metric;
 
+import bisq.monitor.Histogram;
 import bisq.monitor.Metric;
 import bisq.monitor.OnionParser;
 import bisq.monitor.Reporter;
-import bisq.monitor.StatisticsHelper;
 import bisq.network.p2p.NodeAddress;
 
 import org.berndpruenster.netlayer.tor.Tor;
@@ -31,8 +31,8 @@ import com.runjva.sourceforge.jsocks.protocol.SocksSocket;
 
 import java.io.IOException;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -44,6 +44,7 @@ public class TorRoundTripTime extends Metric {
 
     private static final String SAMPLE_SIZE = "run.sampleSize";
     private static final String HOSTS = "run.hosts";
+    private final Histogram samples = new Histogram(TimeUnit.MINUTES.toMillis(10));
 
     public TorRoundTripTime(Reporter reporter) {
         super(reporter);
@@ -63,9 +64,10 @@ public class TorRoundTripTime extends Metric {
                 // parse Url
                 NodeAddress tmp = OnionParser.getNodeAddress(current);
 
-                List<Long> samples = new ArrayList<>();
+                samples.reset();
 
-                while (samples.size() < Integer.parseInt(configuration.getProperty(SAMPLE_SIZE, "1"))) {
+                while (samples.getTotalCount() < Integer.parseInt(configuration.getProperty(SAMPLE_SIZE, "1"))
+                        && !Thread.currentThread().isInterrupted()) {
                     // start timer - we do not need System.nanoTime as we expect our result to be in
                     // seconds time.
                     long start = System.currentTimeMillis();
@@ -74,14 +76,14 @@ public class TorRoundTripTime extends Metric {
                     socket = new SocksSocket(proxy, tmp.getHostName(), tmp.getPort());
 
                     // by the time we get here, we are connected
-                    samples.add(System.currentTimeMillis() - start);
+                    samples.record(System.currentTimeMillis() - start);
 
                     // cleanup
                     socket.close();
                 }
 
                 // report
-                reporter.report(StatisticsHelper.process(samples), "bisq." + getName());
+                reporter.report(samples.getReport(), "bisq." + getName());
             }
         } catch (TorCtlException | IOException e) {
             // TODO Auto-generated catch block
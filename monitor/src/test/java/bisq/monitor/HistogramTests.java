@@ -0,0 +1,79 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.monitor;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+public class HistogramTests {
+
+    @Test
+    public void empty() {
+        Histogram DUT = new Histogram(1000);
+
+        Map<String, String> results = DUT.getReport();
+        Assert.assertEquals("0", results.get("sampleSize"));
+        Assert.assertEquals("0", results.get("p99"));
+        Assert.assertEquals("0", results.get("max"));
+    }
+
+    @Test
+    public void exactForSmallValues() {
+        Histogram DUT = new Histogram(1000);
+        for (long i = 1; i <= 100; i++)
+            DUT.record(i);
+
+        Assert.assertEquals(100, DUT.getTotalCount());
+        Assert.assertEquals(1, DUT.getMin());
+        Assert.assertEquals(100, DUT.getMax());
+        Assert.assertEquals(51, DUT.getMean());
+        Assert.assertEquals(50, DUT.getValueAtPercentile(50));
+        Assert.assertEquals(90, DUT.getValueAtPercentile(90));
+        Assert.assertEquals(99, DUT.getValueAtPercentile(99));
+        Assert.assertEquals(100, DUT.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void boundedErrorForLargeValues() {
+        Histogram DUT = new Histogram(3600 * 1000);
+        for (long i = 1; i <= 10000; i++)
+            DUT.record(i * 100);
+
+        long p50 = DUT.getValueAtPercentile(50);
+        long p99 = DUT.getValueAtPercentile(99);
+        Assert.assertTrue(Math.abs(p50 - 500000) <= 500000 / 50);
+        Assert.assertTrue(Math.abs(p99 - 990000) <= 990000 / 50);
+        Assert.assertEquals(1000000, DUT.getMax());
+    }
+
+    @Test
+    public void clampAndReset() {
+        Histogram DUT = new Histogram(1000);
+        DUT.record(5000);
+        DUT.record(-1);
+
+        Assert.assertEquals(1, DUT.getTotalCount());
+        Assert.assertEquals(1000, DUT.getMax());
+
+        DUT.reset();
+        Assert.assertEquals(0, DUT.getTotalCount());
+        Assert.assertEquals(0, DUT.getMax());
+    }
+}
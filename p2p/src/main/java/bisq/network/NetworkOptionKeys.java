@@ -36,4 +36,6 @@ public class NetworkOptionKeys {
     public static final String EXTERNAL_TOR_COOKIE_FILE = "torControlCookieFile";
     public static final String EXTERNAL_TOR_USE_SAFECOOKIE = "torControlUseSafeCookieAuth";
     public static final String TOR_STREAM_ISOLATION = "torStreamIsolation";
+    public static final String TOR_WARM_START = "torWarmStart";
+    public static final String USE_VIRTUAL_THREADS = "useVirtualThreads";
 }
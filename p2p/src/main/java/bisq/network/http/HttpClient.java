@@ -21,6 +21,8 @@ import bisq.network.Socks5ProxyProvider;
 
 import bisq.common.app.Version;
 
+import org.apache.http.Header;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.protocol.HttpClientContext;
@@ -28,6 +30,7 @@ import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.ssl.SSLContexts;
@@ -45,7 +48,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -57,6 +65,13 @@ import static com.google.common.base.Preconditions.checkNotNull;
 // TODO close connection if failing
 @Slf4j
 public class HttpClient {
+    private static final int DEFAULT_TIMEOUT_MS = 30_000;
+    private static final long DEFAULT_KEEP_ALIVE_MS = TimeUnit.MINUTES.toMillis(2);
+    private static final int MAX_POOLED_CONNECTIONS_PER_ROUTE = 2;
+    private static final int MAX_POOLED_CONNECTIONS = 8;
+    // Requests which take longer get logged at info level
+    private static final long SLOW_REQUEST_MS = 5_000;
+
     @Nullable
     private Socks5ProxyProvider socks5ProxyProvider;
     @Getter
@@ -64,6 +79,16 @@ public class HttpClient {
     private boolean ignoreSocks5Proxy;
     private final String uid;
 
+    private int connectTimeoutMs = DEFAULT_TIMEOUT_MS;
+    private int readTimeoutMs = DEFAULT_TIMEOUT_MS;
+    private long keepAliveMs = DEFAULT_KEEP_ALIVE_MS;
+    private boolean connectionPooling;
+    // Only used if connectionPooling is enabled. Built for a given socks5 proxy and rebuilt if the proxy changes.
+    @Nullable
+    private CloseableHttpClient pooledHttpClient;
+    @Nullable
+    private InetSocketAddress pooledHttpClientSocksAddress;
+
     @Inject
     public HttpClient(@Nullable Socks5ProxyProvider socks5ProxyProvider) {
         this.socks5ProxyProvider = socks5ProxyProvider;
@@ -83,7 +108,34 @@ public class HttpClient {
         this.ignoreSocks5Proxy = ignoreSocks5Proxy;
     }
 
+    public void setTimeouts(int connectTimeoutMs, int readTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    /**
+     * If enabled, connections over the socks5 proxy are kept alive for up to keepAliveMs (or less if the server
+     * closes them earlier) and reused by subsequent requests to the same host. Without pooling each request
+     * pays for building a new Tor circuit to the host. Only enable it for long living instances, as idle pooled
+     * connections are only closed by a background evictor thread.
+     */
+    public synchronized void setConnectionPooling(boolean connectionPooling, long keepAliveMs) {
+        this.connectionPooling = connectionPooling;
+        this.keepAliveMs = keepAliveMs;
+        closePooledHttpClient();
+    }
+
     public String requestWithGET(String param, @Nullable String headerKey, @Nullable String headerValue) throws IOException {
+        return requestWithGETForResponse(param, toHeaders(headerKey, headerValue)).getBody();
+    }
+
+    /**
+     * Like {@link #requestWithGET(String, String, String)} but with any number of request headers, returning
+     * the response headers along with the body. This allows conditional requests, e.g. with an
+     * <code>If-None-Match</code> header, in which case a <code>304 Not Modified</code> response without body is
+     * returned as well.
+     */
+    public HttpResponse requestWithGETForResponse(String param, Map<String, String> headers) throws IOException {
         checkNotNull(baseUrl, "baseUrl must be set before calling requestWithGET");
 
         Socks5Proxy socks5Proxy = null;
@@ -97,10 +149,10 @@ public class HttpClient {
         if (ignoreSocks5Proxy || socks5Proxy == null || baseUrl.contains("localhost")) {
             log.debug("Use clear net for HttpClient. socks5Proxy={}, ignoreSocks5Proxy={}, baseUrl={}",
                     socks5Proxy, ignoreSocks5Proxy, baseUrl);
-            return requestWithGETNoProxy(param, headerKey, headerValue);
+            return requestWithGETNoProxy(param, headers);
         } else {
             log.debug("Use socks5Proxy for HttpClient: " + socks5Proxy);
-            return requestWithGETProxy(param, socks5Proxy, headerKey, headerValue);
+            return requestWithGETProxy(param, socks5Proxy, headers);
         }
     }
 
@@ -108,20 +160,37 @@ public class HttpClient {
      * Make an HTTP Get request directly (not routed over socks5 proxy).
      */
     public String requestWithGETNoProxy(String param, @Nullable String headerKey, @Nullable String headerValue) throws IOException {
+        return requestWithGETNoProxy(param, toHeaders(headerKey, headerValue)).getBody();
+    }
+
+    private HttpResponse requestWithGETNoProxy(String param, Map<String, String> headers) throws IOException {
         HttpURLConnection connection = null;
         log.debug("Executing HTTP request " + baseUrl + param + " proxy: none.");
         URL url = new URL(baseUrl + param);
         try {
             connection = (HttpURLConnection) url.openConnection();
             connection.setRequestMethod("GET");
-            connection.setConnectTimeout(10_000);
-            connection.setReadTimeout(10_000);
+            connection.setConnectTimeout(connectTimeoutMs);
+            connection.setReadTimeout(readTimeoutMs);
             connection.setRequestProperty("User-Agent", "bisq/" + Version.VERSION);
-            if (headerKey != null && headerValue != null)
-                connection.setRequestProperty(headerKey, headerValue);
-
-            if (connection.getResponseCode() == 200) {
-                return convertInputStreamToString(connection.getInputStream());
+            headers.forEach(connection::setRequestProperty);
+
+            // HttpURLConnection reuses kept alive connections transparently, so connect() might return immediately
+            long ts = System.currentTimeMillis();
+            connection.connect();
+            long connectDuration = System.currentTimeMillis() - ts;
+            int statusCode = connection.getResponseCode();
+            long timeToFirstByte = System.currentTimeMillis() - ts;
+            if (statusCode == 200 || statusCode == 304) {
+                Map<String, String> responseHeaders = new HashMap<>();
+                connection.getHeaderFields().forEach((key, values) -> {
+                    // the status line is reported with a null key
+                    if (key != null && !values.isEmpty())
+                        responseHeaders.put(key.toLowerCase(Locale.ROOT), values.get(0));
+                });
+                String body = statusCode == 200 ? convertInputStreamToString(connection.getInputStream()) : null;
+                logTimings(url.toString(), connectDuration, timeToFirstByte, System.currentTimeMillis() - ts);
+                return new HttpResponse(statusCode, responseHeaders, body);
             } else {
                 String error = convertInputStreamToString(connection.getErrorStream());
                 connection.getErrorStream().close();
@@ -148,23 +217,11 @@ public class HttpClient {
     /**
      * Make an HTTP Get request routed over socks5 proxy.
      */
-    private String requestWithGETProxy(String param, Socks5Proxy socks5Proxy, @Nullable String headerKey, @Nullable String headerValue) throws IOException {
+    private HttpResponse requestWithGETProxy(String param, Socks5Proxy socks5Proxy, Map<String, String> headers) throws IOException {
         log.debug("requestWithGETProxy param=" + param);
         // This code is adapted from:
         //  http://stackoverflow.com/a/25203021/5616248
-
-        // Register our own SocketFactories to override createSocket() and connectSocket().
-        // connectSocket does NOT resolve hostname before passing it to proxy.
-        Registry<ConnectionSocketFactory> reg = RegistryBuilder.<ConnectionSocketFactory>create()
-                .register("http", new SocksConnectionSocketFactory())
-                .register("https", new SocksSSLConnectionSocketFactory(SSLContexts.createSystemDefault())).build();
-
-        // Use FakeDNSResolver if not resolving DNS locally.
-        // This prevents a local DNS lookup (which would be ignored anyway)
-        PoolingHttpClientConnectionManager cm = socks5Proxy.resolveAddrLocally() ?
-                new PoolingHttpClientConnectionManager(reg) :
-                new PoolingHttpClientConnectionManager(reg, new FakeDnsResolver());
-        try (CloseableHttpClient httpclient = HttpClients.custom().setConnectionManager(cm).build()) {
+        try {
             InetSocketAddress socksAddress = new InetSocketAddress(socks5Proxy.getInetAddress(), socks5Proxy.getPort());
 
             // remove me: Use this to test with system-wide Tor proxy, or change port for another proxy.
@@ -174,18 +231,106 @@ public class HttpClient {
             context.setAttribute("socks.address", socksAddress);
 
             HttpGet request = new HttpGet(baseUrl + param);
-            if (headerKey != null && headerValue != null)
-                request.setHeader(headerKey, headerValue);
+            request.setConfig(RequestConfig.custom()
+                    .setConnectTimeout(connectTimeoutMs)
+                    .setConnectionRequestTimeout(connectTimeoutMs)
+                    .setSocketTimeout(readTimeoutMs)
+                    .build());
+            headers.forEach(request::setHeader);
 
             log.debug("Executing request " + request + " proxy: " + socksAddress);
-            try (CloseableHttpResponse response = httpclient.execute(request, context)) {
-                return convertInputStreamToString(response.getEntity().getContent());
+            if (connectionPooling) {
+                return execute(getPooledHttpClient(socks5Proxy, socksAddress), request, context);
+            } else {
+                try (CloseableHttpClient httpclient = HttpClients.custom().setConnectionManager(createConnectionManager(socks5Proxy)).build()) {
+                    return execute(httpclient, request, context);
+                }
             }
         } catch (Throwable t) {
             throw new IOException("Error at requestWithGETProxy with URL: " + (baseUrl + param) + ". Throwable=" + t.getMessage());
         }
     }
 
+    private HttpResponse execute(CloseableHttpClient httpclient, HttpGet request, HttpClientContext context) throws IOException {
+        long ts = System.currentTimeMillis();
+        try (CloseableHttpResponse response = httpclient.execute(request, context)) {
+            long timeToFirstByte = System.currentTimeMillis() - ts;
+            Map<String, String> responseHeaders = new HashMap<>();
+            for (Header header : response.getAllHeaders())
+                responseHeaders.putIfAbsent(header.getName().toLowerCase(Locale.ROOT), header.getValue());
+            // The body has to be read completely for the connection to be reused
+            String body = response.getEntity() != null ?
+                    convertInputStreamToString(response.getEntity().getContent()) :
+                    null;
+            Long connectDuration = (Long) context.getAttribute(SocksConnectionSocketFactory.CONNECT_DURATION_ATTRIBUTE);
+            logTimings(request.getURI().toString(), connectDuration, timeToFirstByte, System.currentTimeMillis() - ts);
+            return new HttpResponse(response.getStatusLine().getStatusCode(), responseHeaders, body);
+        }
+    }
+
+    private synchronized CloseableHttpClient getPooledHttpClient(Socks5Proxy socks5Proxy, InetSocketAddress socksAddress) {
+        if (pooledHttpClient == null || !socksAddress.equals(pooledHttpClientSocksAddress)) {
+            closePooledHttpClient();
+
+            PoolingHttpClientConnectionManager cm = createConnectionManager(socks5Proxy);
+            cm.setDefaultMaxPerRoute(MAX_POOLED_CONNECTIONS_PER_ROUTE);
+            cm.setMaxTotal(MAX_POOLED_CONNECTIONS);
+            long keepAliveMs = this.keepAliveMs;
+            pooledHttpClient = HttpClients.custom()
+                    .setConnectionManager(cm)
+                    .setKeepAliveStrategy((response, context) -> {
+                        // Respect a shorter keep alive timeout announced by the server
+                        long serverKeepAliveMs = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                        return serverKeepAliveMs > 0 ? Math.min(serverKeepAliveMs, keepAliveMs) : keepAliveMs;
+                    })
+                    .evictExpiredConnections()
+                    .evictIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS)
+                    .build();
+            pooledHttpClientSocksAddress = socksAddress;
+        }
+        return pooledHttpClient;
+    }
+
+    private synchronized void closePooledHttpClient() {
+        if (pooledHttpClient != null) {
+            try {
+                pooledHttpClient.close();
+            } catch (IOException e) {
+                log.warn("Error at closing pooled http client: " + e.getMessage());
+            }
+            pooledHttpClient = null;
+            pooledHttpClientSocksAddress = null;
+        }
+    }
+
+    private static PoolingHttpClientConnectionManager createConnectionManager(Socks5Proxy socks5Proxy) {
+        // Register our own SocketFactories to override createSocket() and connectSocket().
+        // connectSocket does NOT resolve hostname before passing it to proxy.
+        Registry<ConnectionSocketFactory> reg = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", new SocksConnectionSocketFactory())
+                .register("https", new SocksSSLConnectionSocketFactory(SSLContexts.createSystemDefault())).build();
+
+        // Use FakeDNSResolver if not resolving DNS locally.
+        // This prevents a local DNS lookup (which would be ignored anyway)
+        return socks5Proxy.resolveAddrLocally() ?
+                new PoolingHttpClientConnectionManager(reg) :
+                new PoolingHttpClientConnectionManager(reg, new FakeDnsResolver());
+    }
+
+    private static void logTimings(String url, @Nullable Long connectDuration, long timeToFirstByte, long duration) {
+        String connectInfo = connectDuration != null ? "connect: " + connectDuration + " ms" : "reused connection";
+        if (duration > SLOW_REQUEST_MS)
+            log.info("Request to {} took {} ms ({}, time to first byte: {} ms)", url, duration, connectInfo, timeToFirstByte);
+        else
+            log.debug("Request to {} took {} ms ({}, time to first byte: {} ms)", url, duration, connectInfo, timeToFirstByte);
+    }
+
+    private static Map<String, String> toHeaders(@Nullable String headerKey, @Nullable String headerValue) {
+        return headerKey != null && headerValue != null ?
+                Collections.singletonMap(headerKey, headerValue) :
+                Collections.emptyMap();
+    }
+
     private String convertInputStreamToString(InputStream inputStream) throws IOException {
         BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream));
         StringBuilder stringBuilder = new StringBuilder();
@@ -202,6 +347,7 @@ public class HttpClient {
                 "socks5ProxyProvider=" + socks5ProxyProvider +
                 ", baseUrl='" + baseUrl + '\'' +
                 ", ignoreSocks5Proxy=" + ignoreSocks5Proxy +
+                ", connectionPooling=" + connectionPooling +
                 '}';
     }
 }
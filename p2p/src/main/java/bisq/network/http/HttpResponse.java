@@ -0,0 +1,46 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.http;
+
+import java.util.Locale;
+import java.util.Map;
+
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+/**
+ * Status, headers and body of a successful (2xx) or not modified (304) response.
+ */
+@Value
+public class HttpResponse {
+    private final int statusCode;
+    // header names are lower case
+    private final Map<String, String> headers;
+    @Nullable
+    private final String body;
+
+    @Nullable
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    public boolean isNotModified() {
+        return statusCode == 304;
+    }
+}
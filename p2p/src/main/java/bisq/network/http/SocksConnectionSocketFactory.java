@@ -32,6 +32,9 @@ import java.io.IOException;
 //
 // This class routes connections over Socks, and avoids resolving hostnames locally.
 class SocksConnectionSocketFactory extends PlainConnectionSocketFactory {
+    // Context attribute holding the time in ms it took to connect (including the TLS handshake for https).
+    // Not set if the request was sent over a reused connection.
+    static final String CONNECT_DURATION_ATTRIBUTE = "socks.connectDuration";
 
     /**
      * creates an unconnected Socks Proxy socket
@@ -52,6 +55,9 @@ class SocksConnectionSocketFactory extends PlainConnectionSocketFactory {
         // Convert address to unresolved
         InetSocketAddress unresolvedRemote = InetSocketAddress
                 .createUnresolved(host.getHostName(), remoteAddress.getPort());
-        return super.connectSocket(connectTimeout, socket, host, unresolvedRemote, localAddress, context);
+        long ts = System.currentTimeMillis();
+        Socket connectedSocket = super.connectSocket(connectTimeout, socket, host, unresolvedRemote, localAddress, context);
+        context.setAttribute(CONNECT_DURATION_ATTRIBUTE, System.currentTimeMillis() - ts);
+        return connectedSocket;
     }
 }
@@ -64,6 +64,9 @@ class SocksSSLConnectionSocketFactory extends SSLConnectionSocketFactory {
         // Convert address to unresolved
         InetSocketAddress unresolvedRemote = InetSocketAddress
                 .createUnresolved(host.getHostName(), remoteAddress.getPort());
-        return super.connectSocket(connectTimeout, socket, host, unresolvedRemote, localAddress, context);
+        long ts = System.currentTimeMillis();
+        Socket connectedSocket = super.connectSocket(connectTimeout, socket, host, unresolvedRemote, localAddress, context);
+        context.setAttribute(SocksConnectionSocketFactory.CONNECT_DURATION_ATTRIBUTE, System.currentTimeMillis() - ts);
+        return connectedSocket;
     }
 }
@@ -51,13 +51,16 @@ public class NetworkNodeProvider implements Provider<NetworkNode> {
                                @Named(NetworkOptionKeys.EXTERNAL_TOR_PASSWORD) String password,
                                @Named(NetworkOptionKeys.EXTERNAL_TOR_COOKIE_FILE) String cookieFile,
                                @Named(NetworkOptionKeys.TOR_STREAM_ISOLATION) boolean streamIsolation,
-                               @Named(NetworkOptionKeys.EXTERNAL_TOR_USE_SAFECOOKIE) boolean useSafeCookieAuthentication ) {
+                               @Named(NetworkOptionKeys.TOR_WARM_START) boolean torWarmStart,
+                               @Named(NetworkOptionKeys.EXTERNAL_TOR_USE_SAFECOOKIE) boolean useSafeCookieAuthentication,
+                               @Named(NetworkOptionKeys.USE_VIRTUAL_THREADS) boolean useVirtualThreads) {
         networkNode = useLocalhostForP2P ?
                 new LocalhostNetworkNode(address, port, networkProtoResolver) :
                 new TorNetworkNode(port, networkProtoResolver, streamIsolation,
                         !controlPort.isEmpty() ?
                                 new RunningTor(torDir, Integer.parseInt(controlPort), password, cookieFile, useSafeCookieAuthentication) :
-                                new NewTor(torDir, torrcFile, torrcOptions, bridgeAddressProvider.getBridgeAddresses()));
+                                new NewTor(torDir, torrcFile, torrcOptions, bridgeAddressProvider.getBridgeAddresses(), torWarmStart));
+        networkNode.setUseVirtualThreads(useVirtualThreads);
     }
 
     @Override
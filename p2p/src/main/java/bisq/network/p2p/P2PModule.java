@@ -95,5 +95,7 @@ public class P2PModule extends AppModule {
         bindConstant().annotatedWith(named(NetworkOptionKeys.EXTERNAL_TOR_COOKIE_FILE)).to(environment.getRequiredProperty(NetworkOptionKeys.EXTERNAL_TOR_COOKIE_FILE));
         bindConstant().annotatedWith(named(NetworkOptionKeys.EXTERNAL_TOR_USE_SAFECOOKIE)).to(environment.containsProperty(NetworkOptionKeys.EXTERNAL_TOR_USE_SAFECOOKIE) ? true : false);
         bindConstant().annotatedWith(named(NetworkOptionKeys.TOR_STREAM_ISOLATION)).to(environment.containsProperty(NetworkOptionKeys.TOR_STREAM_ISOLATION) ? true : false);
+        bindConstant().annotatedWith(named(NetworkOptionKeys.TOR_WARM_START)).to(environment.containsProperty(NetworkOptionKeys.TOR_WARM_START) ? true : false);
+        bindConstant().annotatedWith(named(NetworkOptionKeys.USE_VIRTUAL_THREADS)).to(environment.containsProperty(NetworkOptionKeys.USE_VIRTUAL_THREADS) ? true : false);
     }
 }
@@ -23,9 +23,11 @@ import bisq.network.p2p.messaging.DecryptedMailboxListener;
 import bisq.network.p2p.network.CloseConnectionReason;
 import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.ConnectionListener;
+import bisq.network.p2p.network.DispatchMode;
 import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.network.SetupListener;
+import bisq.network.p2p.network.TorBootstrapState;
 import bisq.network.p2p.peers.BroadcastHandler;
 import bisq.network.p2p.peers.Broadcaster;
 import bisq.network.p2p.peers.PeerManager;
@@ -51,6 +53,7 @@ import bisq.common.app.Log;
 import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.KeyRing;
 import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.Sig;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.persistable.PersistedDataHost;
@@ -61,7 +64,11 @@ import com.google.inject.Inject;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.fxmisc.easybind.EasyBind;
 import org.fxmisc.easybind.Subscription;
@@ -76,13 +83,19 @@ import javafx.beans.property.SimpleIntegerProperty;
 import java.security.PublicKey;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -118,6 +131,17 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     private final Set<DecryptedMailboxListener> decryptedMailboxListeners = new CopyOnWriteArraySet<>();
     private final Set<P2PServiceListener> p2pServiceListeners = new CopyOnWriteArraySet<>();
     private final Map<String, ProtectedMailboxStorageEntry> mailboxMap = new HashMap<>();
+    // Payloads of the mailbox entries for us which are being decrypted. If an entry gets removed meanwhile we drop its
+    // payload, so we don't apply the decrypted message after the removal. Only accessed from the user thread.
+    private final Set<MailboxStoragePayload> mailboxPayloadsInDecryption = new HashSet<>();
+    private final ListeningExecutorService mailboxDecryptionExecutor = MoreExecutors.listeningDecorator(
+            Executors.newFixedThreadPool(Math.min(4, Runtime.getRuntime().availableProcessors()),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("MailboxDecryption-%d")
+                            .setDaemon(true)
+                            .build()));
+    @Nullable
+    private byte[] mySignaturePubKeyBytes;
     private final Set<Runnable> shutDownResultHandlers = new CopyOnWriteArraySet<>();
     private final BooleanProperty hiddenServicePublished = new SimpleBooleanProperty();
     private final BooleanProperty preliminaryDataReceived = new SimpleBooleanProperty();
@@ -232,6 +256,8 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             if (keepAliveManager != null)
                 keepAliveManager.shutDown();
 
+            mailboxDecryptionExecutor.shutdown();
+
             if (networkReadySubscription != null)
                 networkReadySubscription.unsubscribe();
 
@@ -311,6 +337,12 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         p2pServiceListeners.stream().forEach(SetupListener::onRequestCustomBridges);
     }
 
+    @Override
+    public void onTorBootstrapPhaseCompleted(TorBootstrapState phase, long durationMs) {
+        log.info("Tor bootstrap phase {} completed after {} ms", phase, durationMs);
+        p2pServiceListeners.forEach(e -> e.onTorBootstrapPhaseCompleted(phase, durationMs));
+    }
+
     // Called from networkReadyBinding
     private void onNetworkReady() {
         Log.traceCall();
@@ -406,10 +438,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             try {
                 PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = (PrefixedSealedAndSignedMessage) networkEnvelope;
                 if (verifyAddressPrefixHash(prefixedSealedAndSignedMessage)) {
-                    // We set connectionType to that connection to avoid that is get closed when
-                    // we get too many connection attempts.
-                    connection.setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
-
+                    // We are called on the lane of the connection, so we decrypt off the user thread
                     log.debug("Try to decrypt...");
                     DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(
                             prefixedSealedAndSignedMessage.getSealedAndSigned());
@@ -417,11 +446,17 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
                     log.debug("\n\nDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDD\n" +
                             "Decrypted SealedAndSignedMessage:\ndecryptedMsgWithPubKey={}"
                             + "\nDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDD\n", decryptedMessageWithPubKey);
-                    if (connection.getPeersNodeAddressOptional().isPresent())
-                        decryptedDirectMessageListeners.forEach(
-                                e -> e.onDirectMessage(decryptedMessageWithPubKey, connection.getPeersNodeAddressOptional().get()));
-                    else
-                        log.error("peersNodeAddress is not available at onMessage.");
+                    UserThread.execute(() -> {
+                        // We set connectionType to that connection to avoid that is get closed when
+                        // we get too many connection attempts.
+                        connection.setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
+
+                        if (connection.getPeersNodeAddressOptional().isPresent())
+                            decryptedDirectMessageListeners.forEach(
+                                    e -> e.onDirectMessage(decryptedMessageWithPubKey, connection.getPeersNodeAddressOptional().get()));
+                        else
+                            log.error("peersNodeAddress is not available at onMessage.");
+                    });
                 } else {
                     log.debug("Wrong receiverAddressMaskHash. The message is not intended for us.");
                 }
@@ -436,6 +471,11 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         }
     }
 
+    @Override
+    public DispatchMode getDispatchMode() {
+        return DispatchMode.ORDERED;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // HashMapChangedListener implementation
@@ -449,6 +489,8 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
 
     @Override
     public void onRemoved(ProtectedStorageEntry data) {
+        if (data instanceof ProtectedMailboxStorageEntry)
+            mailboxPayloadsInDecryption.remove(((ProtectedMailboxStorageEntry) data).getMailboxStoragePayload());
     }
 
 
@@ -519,40 +561,120 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void processMailboxEntry(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+        processMailboxEntries(Collections.singletonList(protectedMailboxStorageEntry), false);
+    }
+
+    // The decryption of the entries which pass the cheap checks in isMailboxEntryForUs is done on the
+    // mailboxDecryptionExecutor. The results are applied on the user thread in the order of the entries, except for
+    // entries which got removed during the decryption.
+    @VisibleForTesting
+    void processMailboxEntries(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries,
+                                       boolean logDuration) {
         NodeAddress nodeAddress = networkNode.getNodeAddress();
         // Seed nodes don't receive mailbox network_messages
-        if (nodeAddress != null && !seedNodeRepository.isSeedNode(nodeAddress)) {
-            Log.traceCall();
-            MailboxStoragePayload mailboxStoragePayload = protectedMailboxStorageEntry.getMailboxStoragePayload();
-            PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = mailboxStoragePayload.getPrefixedSealedAndSignedMessage();
-            if (verifyAddressPrefixHash(prefixedSealedAndSignedMessage)) {
-                try {
-                    DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(
-                            prefixedSealedAndSignedMessage.getSealedAndSigned());
-                    if (decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage) {
-                        MailboxMessage mailboxMessage = (MailboxMessage) decryptedMessageWithPubKey.getNetworkEnvelope();
-                        NodeAddress senderNodeAddress = mailboxMessage.getSenderNodeAddress();
-                        checkNotNull(senderNodeAddress, "senderAddress must not be null for mailbox network_messages");
-
-                        mailboxMap.put(mailboxMessage.getUid(), protectedMailboxStorageEntry);
-                        log.info("Received a {} mailbox message with messageUid {} and senderAddress {}", mailboxMessage.getClass().getSimpleName(), mailboxMessage.getUid(), senderNodeAddress);
-                        decryptedMailboxListeners.forEach(
-                                e -> e.onMailboxMessageAdded(decryptedMessageWithPubKey, senderNodeAddress));
-                    } else {
-                        log.warn("tryDecryptMailboxData: Expected MailboxMessage but got other type. " +
-                                "decryptedMsgWithPubKey.message=", decryptedMessageWithPubKey.getNetworkEnvelope());
+        if (nodeAddress == null || seedNodeRepository.isSeedNode(nodeAddress))
+            return;
+
+        Log.traceCall();
+        long ts = System.currentTimeMillis();
+        List<ProtectedMailboxStorageEntry> entriesForUs = protectedMailboxStorageEntries.stream()
+                .filter(this::isMailboxEntryForUs)
+                .collect(Collectors.toList());
+        if (entriesForUs.isEmpty() && !logDuration)
+            return;
+
+        entriesForUs.forEach(entry -> mailboxPayloadsInDecryption.add(entry.getMailboxStoragePayload()));
+        List<ListenableFuture<DecryptedMessageWithPubKey>> futures = entriesForUs.stream()
+                .map(entry -> mailboxDecryptionExecutor.submit(() -> decryptMailboxEntry(entry)))
+                .collect(Collectors.toList());
+        // Failed decryptions result in null
+        Futures.addCallback(Futures.successfulAsList(futures), new FutureCallback<List<DecryptedMessageWithPubKey>>() {
+            @Override
+            public void onSuccess(@Nullable List<DecryptedMessageWithPubKey> results) {
+                UserThread.execute(() -> {
+                    int numDecrypted = 0;
+                    for (int i = 0; i < entriesForUs.size(); i++) {
+                        ProtectedMailboxStorageEntry entry = entriesForUs.get(i);
+                        boolean isStillStored = mailboxPayloadsInDecryption.remove(entry.getMailboxStoragePayload());
+                        DecryptedMessageWithPubKey decryptedMessageWithPubKey = checkNotNull(results).get(i);
+                        if (decryptedMessageWithPubKey != null && isStillStored) {
+                            onMailboxEntryDecrypted(entry, decryptedMessageWithPubKey);
+                            numDecrypted++;
+                        }
                     }
-                } catch (CryptoException e) {
-                    log.debug(e.toString());
-                    log.debug("Decryption of prefixedSealedAndSignedMessage.sealedAndSigned failed. " +
-                            "That is expected if the message is not intended for us.");
-                } catch (ProtobufferException e) {
-                    log.error("Protobuffer data could not be processed: {}", e.toString());
-                }
-            } else {
-                log.debug("Wrong blurredAddressHash. The message is not intended for us.");
+                    if (logDuration)
+                        log.info("Processing {} mailbox entries took {} ms. {} entries were addressed to us, " +
+                                        "{} of them could be decrypted.", protectedMailboxStorageEntries.size(),
+                                System.currentTimeMillis() - ts, entriesForUs.size(), numDecrypted);
+                });
             }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                log.error("Processing mailbox entries failed: {}", throwable.toString());
+                UserThread.execute(() -> entriesForUs.forEach(entry ->
+                        mailboxPayloadsInDecryption.remove(entry.getMailboxStoragePayload())));
+            }
+        });
+    }
+
+    @VisibleForTesting
+    boolean isMailboxEntryForUs(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+        // Every mailbox entry carries the storage key of the receiver, as only the receiver is permitted to remove it.
+        // Comparing it is much cheaper than the trial decryption and does not need any change of the data. Entries with
+        // another key could not be removed by us anyway.
+        if (!Arrays.equals(protectedMailboxStorageEntry.getReceiversPubKeyBytes(), getMySignaturePubKeyBytes())) {
+            log.trace("Wrong receiversPubKey. The message is not intended for us.");
+            return false;
         }
+
+        MailboxStoragePayload mailboxStoragePayload = protectedMailboxStorageEntry.getMailboxStoragePayload();
+        if (!verifyAddressPrefixHash(mailboxStoragePayload.getPrefixedSealedAndSignedMessage())) {
+            log.debug("Wrong blurredAddressHash. The message is not intended for us.");
+            return false;
+        }
+        return true;
+    }
+
+    // Called on the mailboxDecryptionExecutor
+    @Nullable
+    private DecryptedMessageWithPubKey decryptMailboxEntry(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+        PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = protectedMailboxStorageEntry.getMailboxStoragePayload()
+                .getPrefixedSealedAndSignedMessage();
+        try {
+            DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(
+                    prefixedSealedAndSignedMessage.getSealedAndSigned());
+            if (decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage)
+                return decryptedMessageWithPubKey;
+
+            log.warn("tryDecryptMailboxData: Expected MailboxMessage but got other type. " +
+                    "decryptedMsgWithPubKey.message=", decryptedMessageWithPubKey.getNetworkEnvelope());
+        } catch (CryptoException e) {
+            log.debug(e.toString());
+            log.debug("Decryption of prefixedSealedAndSignedMessage.sealedAndSigned failed. " +
+                    "That is expected if the message is not intended for us.");
+        } catch (ProtobufferException e) {
+            log.error("Protobuffer data could not be processed: {}", e.toString());
+        }
+        return null;
+    }
+
+    private void onMailboxEntryDecrypted(ProtectedMailboxStorageEntry protectedMailboxStorageEntry,
+                                         DecryptedMessageWithPubKey decryptedMessageWithPubKey) {
+        MailboxMessage mailboxMessage = (MailboxMessage) decryptedMessageWithPubKey.getNetworkEnvelope();
+        NodeAddress senderNodeAddress = mailboxMessage.getSenderNodeAddress();
+        checkNotNull(senderNodeAddress, "senderAddress must not be null for mailbox network_messages");
+
+        mailboxMap.put(mailboxMessage.getUid(), protectedMailboxStorageEntry);
+        log.info("Received a {} mailbox message with messageUid {} and senderAddress {}", mailboxMessage.getClass().getSimpleName(), mailboxMessage.getUid(), senderNodeAddress);
+        decryptedMailboxListeners.forEach(
+                e -> e.onMailboxMessageAdded(decryptedMessageWithPubKey, senderNodeAddress));
+    }
+
+    private byte[] getMySignaturePubKeyBytes() {
+        if (mySignaturePubKeyBytes == null)
+            mySignaturePubKeyBytes = Sig.getPublicKeyBytes(keyRing.getSignatureKeyPair().getPublic());
+        return mySignaturePubKeyBytes;
     }
 
     public void sendEncryptedMailboxMessage(NodeAddress peersNodeAddress, PubKeyRing peersPubKeyRing,
@@ -655,10 +777,11 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
 
     private void maybeProcessAllMailboxEntries() {
         if (isBootstrapped) {
-            p2PDataStorage.getMap().values().forEach(protectedStorageEntry -> {
-                if (protectedStorageEntry instanceof ProtectedMailboxStorageEntry)
-                    processMailboxEntry((ProtectedMailboxStorageEntry) protectedStorageEntry);
-            });
+            List<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries = p2PDataStorage.getMap().values().stream()
+                    .filter(protectedStorageEntry -> protectedStorageEntry instanceof ProtectedMailboxStorageEntry)
+                    .map(protectedStorageEntry -> (ProtectedMailboxStorageEntry) protectedStorageEntry)
+                    .collect(Collectors.toList());
+            processMailboxEntries(protectedMailboxStorageEntries, true);
         }
     }
 
@@ -0,0 +1,186 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+import bisq.network.p2p.peers.keepalive.messages.Pong;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes and reads the {@link CompactNetworkEnvelope}s, like Ping, Pong and RefreshOfferMessage, without the protobuf
+ * builders, message objects and ByteString copies. The wire format is the delimited PB.NetworkEnvelope, so peers using
+ * the protobuf classes read and write the same bytes.
+ * <p></p>
+ * Each instance uses a reused buffer, so it must only be used by one thread. A stream uses one instance for writing and
+ * the InputHandler of the connection one for reading.
+ */
+public final class CompactEnvelopeCodec {
+    // Messages up to that size are read into the reused buffer, larger ones are parsed from the stream. Keeps the
+    // buffer of a connection small.
+    static final int MAX_BUFFERED_SIZE = 16 * 1024;
+
+    private static final int MESSAGE_VERSION_TAG = tag(PB.NetworkEnvelope.MESSAGE_VERSION_FIELD_NUMBER,
+            WireFormat.WIRETYPE_VARINT);
+
+    @FunctionalInterface
+    interface Decoder {
+        NetworkEnvelope decode(CodedInputStream inputStream, int messageVersion) throws IOException;
+    }
+
+    private static final Map<Integer, Decoder> DECODER_BY_FIELD_NUMBER = ImmutableMap.of(
+            PB.NetworkEnvelope.PING_FIELD_NUMBER, Ping::fromCompact,
+            PB.NetworkEnvelope.PONG_FIELD_NUMBER, Pong::fromCompact,
+            PB.NetworkEnvelope.REFRESH_OFFER_MESSAGE_FIELD_NUMBER, RefreshOfferMessage::fromCompact);
+
+    private byte[] buffer = new byte[256];
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Writing and reading
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Writes the envelope with the size prefix, like PB.NetworkEnvelope.writeDelimitedTo.
+     *
+     * @return The size of the envelope without the size prefix.
+     */
+    int writeDelimitedTo(CompactNetworkEnvelope envelope, OutputStream outputStream) throws IOException {
+        int messageSize = envelope.getCompactSerializedSize();
+        int envelopeSize = computeInt32Size(PB.NetworkEnvelope.MESSAGE_VERSION_FIELD_NUMBER, envelope.getMessageVersion()) +
+                CodedOutputStream.computeTagSize(envelope.getEnvelopeFieldNumber()) +
+                CodedOutputStream.computeUInt32SizeNoTag(messageSize) +
+                messageSize;
+        int totalSize = CodedOutputStream.computeUInt32SizeNoTag(envelopeSize) + envelopeSize;
+
+        byte[] buffer = getBuffer(totalSize);
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(buffer, 0, totalSize);
+        codedOutputStream.writeUInt32NoTag(envelopeSize);
+        writeInt32(codedOutputStream, PB.NetworkEnvelope.MESSAGE_VERSION_FIELD_NUMBER, envelope.getMessageVersion());
+        codedOutputStream.writeTag(envelope.getEnvelopeFieldNumber(), WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        codedOutputStream.writeUInt32NoTag(messageSize);
+        envelope.writeCompactTo(codedOutputStream);
+        codedOutputStream.checkNoSpaceLeft();
+
+        outputStream.write(buffer, 0, totalSize);
+        return envelopeSize;
+    }
+
+    /**
+     * Reads an envelope of the given size into the buffer. The returned buffer is only valid until the next call.
+     */
+    byte[] readFully(InputStream inputStream, int size) throws IOException {
+        if (size < 0 || size > MAX_BUFFERED_SIZE)
+            throw new InvalidProtocolBufferException("Invalid size for a buffered message: " + size);
+
+        byte[] buffer = getBuffer(size);
+        ByteStreams.readFully(inputStream, buffer, 0, size);
+        return buffer;
+    }
+
+    /**
+     * @return The envelope if it is a compact one with a message version, otherwise null and the envelope has to be
+     * parsed with PB.NetworkEnvelope.
+     */
+    @Nullable
+    NetworkEnvelope decode(byte[] bytes, int size) throws IOException {
+        CodedInputStream inputStream = CodedInputStream.newInstance(bytes, 0, size);
+        int messageVersion = 0;
+        Decoder decoder = null;
+        int messageOffset = 0;
+        int messageSize = 0;
+        int tag;
+        while ((tag = inputStream.readTag()) != 0) {
+            if (tag == MESSAGE_VERSION_TAG) {
+                messageVersion = inputStream.readInt32();
+            } else if (decoder == null &&
+                    WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED &&
+                    DECODER_BY_FIELD_NUMBER.containsKey(WireFormat.getTagFieldNumber(tag))) {
+                decoder = DECODER_BY_FIELD_NUMBER.get(WireFormat.getTagFieldNumber(tag));
+                messageSize = inputStream.readRawVarint32();
+                messageOffset = inputStream.getTotalBytesRead();
+                inputStream.skipRawBytes(messageSize);
+            } else {
+                // Another message type or a field we don't expect, we leave that to the protobuf classes
+                return null;
+            }
+        }
+
+        if (decoder == null || messageVersion == 0)
+            return null;
+
+        return decoder.decode(CodedInputStream.newInstance(bytes, messageOffset, messageSize), messageVersion);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static helpers for the CompactNetworkEnvelopes, default values are not written like in proto3
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static int tag(int fieldNumber, int wireType) {
+        return (fieldNumber << 3) | wireType;
+    }
+
+    public static int computeInt32Size(int fieldNumber, int value) {
+        return value != 0 ? CodedOutputStream.computeInt32Size(fieldNumber, value) : 0;
+    }
+
+    public static int computeBytesSize(int fieldNumber, byte[] value) {
+        return value.length != 0 ? CodedOutputStream.computeByteArraySize(fieldNumber, value) : 0;
+    }
+
+    public static void writeInt32(CodedOutputStream outputStream, int fieldNumber, int value) throws IOException {
+        if (value != 0)
+            outputStream.writeInt32(fieldNumber, value);
+    }
+
+    public static void writeBytes(CodedOutputStream outputStream, int fieldNumber, byte[] value) throws IOException {
+        if (value.length != 0)
+            outputStream.writeByteArray(fieldNumber, value);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private byte[] getBuffer(int size) {
+        if (buffer.length < size)
+            buffer = new byte[Math.max(size, buffer.length * 2)];
+        return buffer;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.IOException;
+
+/**
+ * A frequently sent network envelope which writes its message directly to the output stream instead of creating the
+ * protobuf objects with toProtoNetworkEnvelope. The written bytes must be the same the protobuf classes would write,
+ * as the peer might read them with the protobuf classes. The reading counterpart needs to be registered at
+ * {@link CompactEnvelopeCodec}.
+ */
+public interface CompactNetworkEnvelope {
+    /**
+     * @return The field number of the message in the message oneof of PB.NetworkEnvelope.
+     */
+    int getEnvelopeFieldNumber();
+
+    /**
+     * @return The size of the message without the envelope.
+     */
+    int getCompactSerializedSize();
+
+    void writeCompactTo(CodedOutputStream outputStream) throws IOException;
+
+    int getMessageVersion();
+}
@@ -27,10 +27,8 @@ import bisq.network.p2p.peers.BanList;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
 import bisq.network.p2p.peers.keepalive.messages.KeepAliveMessage;
-import bisq.network.p2p.peers.keepalive.messages.Ping;
 import bisq.network.p2p.storage.messages.AddDataMessage;
 import bisq.network.p2p.storage.messages.AddPersistableNetworkPayloadMessage;
-import bisq.network.p2p.storage.messages.RefreshOfferMessage;
 import bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
@@ -48,6 +46,12 @@ import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
 
+import com.google.protobuf.CodedInputStream;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.Uninterruptibles;
 
@@ -85,6 +89,7 @@ import org.slf4j.LoggerFactory;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -134,6 +139,7 @@ public class Connection implements MessageListener {
     private final ConnectionListener connectionListener;
     private final String portInfo;
     private final String uid;
+    private final OutboundExecutor outboundExecutor;
     private final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
     // holder of state shared between InputHandler and Connection
     private final SharedModel sharedModel;
@@ -159,9 +165,11 @@ public class Connection implements MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     Connection(Socket socket, MessageListener messageListener, ConnectionListener connectionListener,
-               @Nullable NodeAddress peersNodeAddress, NetworkProtoResolver networkProtoResolver) {
+               @Nullable NodeAddress peersNodeAddress, NetworkProtoResolver networkProtoResolver,
+               OutboundExecutor outboundExecutor) {
         this.socket = socket;
         this.connectionListener = connectionListener;
+        this.outboundExecutor = outboundExecutor;
         uid = UUID.randomUUID().toString();
         statistic = new Statistic();
 
@@ -238,31 +246,35 @@ public class Connection implements MessageListener {
                     lastSendTimeStamp = now;
                     String peersNodeAddress = peersNodeAddressOptional.isPresent() ? peersNodeAddressOptional.get().toString() : "null";
 
-                    PB.NetworkEnvelope proto = networkEnvelope.toProtoNetworkEnvelope();
-                    log.debug("Sending message: {}", Utilities.toTruncatedString(proto.toString(), 10000));
-
-                    if (networkEnvelope instanceof Ping | networkEnvelope instanceof RefreshOfferMessage) {
-                        // pings and offer refresh msg we dont want to log in production
+                    if (networkEnvelope instanceof CompactNetworkEnvelope) {
+                        // Compact messages like pings and offer refresh msg are sent often, we don't create the proto
+                        // for logging and we dont want to log them in production
                         log.trace("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
                                         "Sending direct message to peer" +
                                         "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
                                         "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
-                                peersNodeAddress, uid, proto.toString(), proto.getSerializedSize());
-                    } else if (networkEnvelope instanceof PrefixedSealedAndSignedMessage && peersNodeAddressOptional.isPresent()) {
-                        setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
-
-                        log.debug("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
-                                        "Sending direct message to peer" +
-                                        "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
-                                        "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
-                                peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), -1);
-                    } else if (networkEnvelope instanceof GetDataResponse && ((GetDataResponse) networkEnvelope).isGetUpdatedDataResponse()) {
-                        setPeerType(Connection.PeerType.PEER);
+                                peersNodeAddress, uid, networkEnvelope,
+                                ((CompactNetworkEnvelope) networkEnvelope).getCompactSerializedSize());
                     } else {
-                        log.debug("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
-                                        "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
-                                        "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
-                                peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), proto.getSerializedSize());
+                        PB.NetworkEnvelope proto = networkEnvelope.toProtoNetworkEnvelope();
+                        log.debug("Sending message: {}", Utilities.toTruncatedString(proto.toString(), 10000));
+
+                        if (networkEnvelope instanceof PrefixedSealedAndSignedMessage && peersNodeAddressOptional.isPresent()) {
+                            setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
+
+                            log.debug("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
+                                            "Sending direct message to peer" +
+                                            "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
+                                            "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
+                                    peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), -1);
+                        } else if (networkEnvelope instanceof GetDataResponse && ((GetDataResponse) networkEnvelope).isGetUpdatedDataResponse()) {
+                            setPeerType(Connection.PeerType.PEER);
+                        } else {
+                            log.debug("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
+                                            "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
+                                            "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
+                                    peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), proto.getSerializedSize());
+                        }
                     }
 
                     if (!stopped) {
@@ -394,7 +406,7 @@ public class Connection implements MessageListener {
     @Override
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
         checkArgument(connection.equals(this));
-        UserThread.execute(() -> messageListeners.stream().forEach(e -> e.onMessage(networkEnvelope, connection)));
+        MessageDispatcher.getInstance().dispatch(networkEnvelope, connection, messageListeners);
     }
 
 
@@ -441,6 +453,11 @@ public class Connection implements MessageListener {
         return uid;
     }
 
+    // Messages to the same peer are sent one after another, so we use the peer's address if known
+    String getOutboundQueueKey() {
+        return peersNodeAddressOptional.map(NodeAddress::getFullAddress).orElse(uid);
+    }
+
     public boolean hasPeersNodeAddress() {
         return peersNodeAddressOptional.isPresent();
     }
@@ -486,7 +503,8 @@ public class Connection implements MessageListener {
                     + "\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n");
 
             if (closeConnectionReason.sendCloseMessage) {
-                new Thread(() -> {
+                // We send the close message after the messages which are still waiting for that peer
+                ListenableFuture<Void> future = outboundExecutor.submit(getOutboundQueueKey(), () -> {
                     Thread.currentThread().setName("Connection:SendCloseConnectionMessage-" + this.uid);
                     Log.traceCall("sendCloseConnectionMessage");
                     try {
@@ -504,7 +522,19 @@ public class Connection implements MessageListener {
                         setStopFlags();
                         UserThread.execute(() -> doShutDown(closeConnectionReason, shutDownCompleteHandler));
                     }
-                }).start();
+                    return null;
+                });
+                Futures.addCallback(future, new FutureCallback<>() {
+                    public void onSuccess(Void result) {
+                    }
+
+                    public void onFailure(@NotNull Throwable throwable) {
+                        // The task was rejected or cancelled, so we shut down without sending the close message
+                        log.debug("Could not send CloseConnectionMessage: {}", throwable.toString());
+                        setStopFlags();
+                        UserThread.execute(() -> doShutDown(closeConnectionReason, shutDownCompleteHandler));
+                    }
+                });
             } else {
                 setStopFlags();
                 doShutDown(closeConnectionReason, shutDownCompleteHandler);
@@ -737,6 +767,7 @@ public class Connection implements MessageListener {
         private final String portInfo;
         private final MessageListener messageListener;
         private final NetworkProtoResolver networkProtoResolver;
+        private final CompactEnvelopeCodec compactEnvelopeCodec = new CompactEnvelopeCodec();
 
         private volatile boolean stopped;
         private long lastReadTimeStamp;
@@ -798,23 +829,34 @@ public class Connection implements MessageListener {
                             Thread.sleep(20);
                         }
 
-                        // Reading the protobuffer message from the inputstream
-                        PB.NetworkEnvelope proto = PB.NetworkEnvelope.parseDelimitedFrom(protoInputStream);
-
-                        if (proto == null) {
-                            if (protoInputStream.read() == -1)
-                                log.info("proto is null because protoInputStream.read()=-1 (EOF). That is expected if client got stopped without proper shutdown.");
-                            else
-                                log.warn("proto is null. protoInputStream.read()=" + protoInputStream.read());
+                        // Reading the size prefix of the protobuffer message from the inputstream
+                        int firstByte = protoInputStream.read();
+                        if (firstByte == -1) {
+                            log.info("proto is null because protoInputStream.read()=-1 (EOF). That is expected if client got stopped without proper shutdown.");
                             stopAndShutDown(CloseConnectionReason.NO_PROTO_BUFFER_ENV);
                             return;
                         }
+                        int size = CodedInputStream.readRawVarint32(firstByte, protoInputStream);
+
+                        // Small messages are read into a reused buffer, so the compact messages like Ping can be read
+                        // without the protobuf classes. The proto is null for those.
+                        PB.NetworkEnvelope proto = null;
+                        NetworkEnvelope networkEnvelope = null;
+                        if (size <= CompactEnvelopeCodec.MAX_BUFFERED_SIZE) {
+                            byte[] bytes = compactEnvelopeCodec.readFully(protoInputStream, size);
+                            networkEnvelope = compactEnvelopeCodec.decode(bytes, size);
+                            if (networkEnvelope == null)
+                                proto = PB.NetworkEnvelope.parseFrom(CodedInputStream.newInstance(bytes, 0, size));
+                        } else {
+                            proto = PB.NetworkEnvelope.parseFrom(ByteStreams.limit(protoInputStream, size));
+                        }
 
-                        NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
+                        if (proto != null)
+                            networkEnvelope = networkProtoResolver.fromProto(proto);
+                        int messageVersion = proto != null ? proto.getMessageVersion() : networkEnvelope.getMessageVersion();
                         lastReadTimeStamp = now;
                         log.debug("<< Received networkEnvelope of type: " + networkEnvelope.getClass().getSimpleName());
 
-                        int size = proto.getSerializedSize();
                         // We comment out that part as only debug and trace log level is used. For debugging purposes
                         // we leave the code though.
                         /*if (networkEnvelope instanceof Pong || networkEnvelope instanceof RefreshOfferMessage) {
@@ -875,12 +917,12 @@ public class Connection implements MessageListener {
                             return;
 
                         // Check P2P network ID
-                        if (proto.getMessageVersion() != Version.getP2PMessageVersion()
+                        if (messageVersion != Version.getP2PMessageVersion()
                                 && reportInvalidRequest(RuleViolation.WRONG_NETWORK_ID)) {
                             log.warn("RuleViolation.WRONG_NETWORK_ID. version of message={}, app version={}, " +
-                                            "proto.toTruncatedString={}", proto.getMessageVersion(),
+                                            "proto.toTruncatedString={}", messageVersion,
                                     Version.getP2PMessageVersion(),
-                                    Utilities.toTruncatedString(proto.toString()));
+                                    Utilities.toTruncatedString(proto != null ? proto.toString() : networkEnvelope.toString()));
                             return;
                         }
 
@@ -901,7 +943,7 @@ public class Connection implements MessageListener {
                         } else if (!stopped) {
                             // We don't want to get the activity ts updated by ping/pong msg
                             if (!(networkEnvelope instanceof KeepAliveMessage))
-                                connection.statistic.updateLastActivityTimestamp();
+                                connection.statistic.updateLastReceivedTimestamp();
 
                             if (networkEnvelope instanceof GetDataRequest)
                                 connection.setPeerType(PeerType.INITIAL_DATA_REQUEST);
@@ -0,0 +1,34 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+/**
+ * The execution context a {@link MessageListener} gets called in.
+ */
+public enum DispatchMode {
+    // Called on the user thread. The default, as most listeners mutate state which is only accessed from the user thread.
+    USER_THREAD,
+    // Called on the dispatch pool, one message after the other for the messages of one connection. Listeners must
+    // hand over to the user thread with UserThread.execute for mutating shared state.
+    ORDERED,
+    // Called on the dispatch pool without any ordering guarantee. Only for listeners which are fully thread safe.
+    PARALLEL,
+    // Called directly by the thread dispatching the message. Only used by listeners which forward the message to
+    // their own listeners, like the NetworkNode.
+    CALLER
+}
@@ -25,7 +25,8 @@ public class InboundConnection extends Connection {
     public InboundConnection(Socket socket,
                              MessageListener messageListener,
                              ConnectionListener connectionListener,
-                             NetworkProtoResolver networkProtoResolver) {
-        super(socket, messageListener, connectionListener, null, networkProtoResolver);
+                             NetworkProtoResolver networkProtoResolver,
+                             OutboundExecutor outboundExecutor) {
+        super(socket, messageListener, connectionListener, null, networkProtoResolver, outboundExecutor);
     }
 }
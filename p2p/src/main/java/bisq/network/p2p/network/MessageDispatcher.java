@@ -0,0 +1,171 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.common.UserThread;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dispatches the received messages to the {@link MessageListener}s in the execution context each listener declares
+ * with {@link MessageListener#getDispatchMode()}.
+ * <p></p>
+ * The messages of a connection are delivered one after another on a lane of the dispatch pool, so a heavy message
+ * of one connection does not block the messages of the other connections. Listeners with
+ * {@link DispatchMode#ORDERED} are called on the lane. The listeners with {@link DispatchMode#USER_THREAD} get
+ * called with one UserThread.execute call per message after the ordered listeners have been called. As a lane does
+ * not start with the next message before the current one is delivered, the user thread listeners see the messages of
+ * a connection in the order they have been received, and after all user thread tasks the ordered listeners have
+ * submitted for earlier messages.
+ */
+@Slf4j
+class MessageDispatcher {
+    private static final int NUM_THREADS = 4;
+    private static final long SLOW_HANDLER_MS = 1000;
+
+    private static final MessageDispatcher INSTANCE = new MessageDispatcher();
+
+    static MessageDispatcher getInstance() {
+        return INSTANCE;
+    }
+
+    private final ThreadPoolExecutor executor;
+    // Contains a queue for each connection with a message being delivered or waiting. Guarded by this.
+    private final Map<String, Deque<Runnable>> laneByConnectionUid = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private MessageDispatcher() {
+        // The work queue holds at most one runnable per connection and the tasks of the parallel listeners
+        executor = new ThreadPoolExecutor(NUM_THREADS, NUM_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("MessageDispatcher-%d")
+                        .setDaemon(true)
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Queues the message on the lane of the connection.
+     */
+    void dispatch(NetworkEnvelope networkEnvelope, Connection connection, Collection<MessageListener> listeners) {
+        String uid = connection.getUid();
+        Runnable task = () -> deliver(networkEnvelope, connection, listeners);
+        synchronized (this) {
+            Deque<Runnable> lane = laneByConnectionUid.get(uid);
+            if (lane == null) {
+                lane = new ArrayDeque<>();
+                lane.add(task);
+                laneByConnectionUid.put(uid, lane);
+                executor.execute(() -> runNext(uid));
+            } else {
+                lane.add(task);
+            }
+        }
+    }
+
+    /**
+     * Delivers the message to the listeners from the calling thread, which has to be the lane of the connection.
+     * Used by listeners with {@link DispatchMode#CALLER} to forward the message to their own listeners.
+     */
+    void deliver(NetworkEnvelope networkEnvelope, Connection connection, Collection<MessageListener> listeners) {
+        List<MessageListener> userThreadListeners = new ArrayList<>();
+        listeners.forEach(listener -> {
+            switch (listener.getDispatchMode()) {
+                case USER_THREAD:
+                    userThreadListeners.add(listener);
+                    break;
+                case ORDERED:
+                case CALLER:
+                    onMessage(listener, networkEnvelope, connection);
+                    break;
+                case PARALLEL:
+                    executor.execute(() -> onMessage(listener, networkEnvelope, connection));
+                    break;
+            }
+        });
+
+        if (!userThreadListeners.isEmpty())
+            UserThread.execute(() -> userThreadListeners.forEach(listener -> listener.onMessage(networkEnvelope, connection)));
+    }
+
+    synchronized int getNumLanes() {
+        return laneByConnectionUid.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void runNext(String uid) {
+        Runnable task;
+        synchronized (this) {
+            task = laneByConnectionUid.get(uid).poll();
+        }
+
+        task.run();
+
+        synchronized (this) {
+            Deque<Runnable> lane = laneByConnectionUid.get(uid);
+            if (lane.isEmpty())
+                laneByConnectionUid.remove(uid);
+            else
+                // We go to the end of the work queue so other connections are not blocked by a connection with many
+                // messages
+                executor.execute(() -> runNext(uid));
+        }
+    }
+
+    private void onMessage(MessageListener listener, NetworkEnvelope networkEnvelope, Connection connection) {
+        long ts = System.currentTimeMillis();
+        try {
+            listener.onMessage(networkEnvelope, connection);
+        } catch (Throwable t) {
+            // We must not lose the lane because of a failing listener
+            log.error("Listener {} failed at handling {}", listener.getClass().getSimpleName(),
+                    networkEnvelope.getClass().getSimpleName(), t);
+        }
+        long duration = System.currentTimeMillis() - ts;
+        if (duration > SLOW_HANDLER_MS)
+            log.info("{} took {} ms for handling {}", listener.getClass().getSimpleName(), duration,
+                    networkEnvelope.getClass().getSimpleName());
+    }
+}
@@ -21,4 +21,12 @@ import bisq.common.proto.network.NetworkEnvelope;
 
 public interface MessageListener {
     void onMessage(NetworkEnvelope networkEnvelope, Connection connection);
+
+    /**
+     * @return The execution context the listener wants to get called in. Override to handle expensive messages off
+     * the user thread.
+     */
+    default DispatchMode getDispatchMode() {
+        return DispatchMode.USER_THREAD;
+    }
 }
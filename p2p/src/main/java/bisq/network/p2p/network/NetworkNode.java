@@ -51,6 +51,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
+import lombok.Setter;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,6 +65,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public abstract class NetworkNode implements MessageListener {
     private static final Logger log = LoggerFactory.getLogger(NetworkNode.class);
     private static final int CREATE_SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(120);
+    private static final int MAX_OUTBOUND_THREADS = 30;
+    private static final int MAX_QUEUED_OUTBOUND_TASKS = 1000;
 
     final int servicePort;
     private final NetworkProtoResolver networkProtoResolver;
@@ -72,6 +76,9 @@ public abstract class NetworkNode implements MessageListener {
     private final CopyOnWriteArraySet<ConnectionListener> connectionListeners = new CopyOnWriteArraySet<>();
     final CopyOnWriteArraySet<SetupListener> setupListeners = new CopyOnWriteArraySet<>();
     ListeningExecutorService executorService;
+    OutboundExecutor outboundExecutor;
+    @Setter
+    private boolean useVirtualThreads;
     private Server server;
 
     private volatile boolean shutDownInProgress;
@@ -112,7 +119,7 @@ public abstract class NetworkNode implements MessageListener {
                     "We will create a new outbound connection.", peersNodeAddress);
 
             final SettableFuture<Connection> resultFuture = SettableFuture.create();
-            ListenableFuture<Connection> future = executorService.submit(() -> {
+            ListenableFuture<Connection> future = outboundExecutor.submit(peersNodeAddress.getFullAddress(), () -> {
                 Thread.currentThread().setName("NetworkNode:SendMessage-to-" + peersNodeAddress);
                 OutboundConnection outboundConnection = null;
                 try {
@@ -176,7 +183,8 @@ public abstract class NetworkNode implements MessageListener {
                                 NetworkNode.this,
                                 connectionListener,
                                 peersNodeAddress,
-                                networkProtoResolver);
+                                networkProtoResolver,
+                                outboundExecutor);
 
                         log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
                                 "NetworkNode created new outbound connection:"
@@ -260,7 +268,7 @@ public abstract class NetworkNode implements MessageListener {
     public SettableFuture<Connection> sendMessage(Connection connection, NetworkEnvelope networkEnvelope) {
         Log.traceCall("\n\tmessage=" + Utilities.toTruncatedString(networkEnvelope) + "\n\tconnection=" + connection);
         // connection.sendMessage might take a bit (compression, write to stream), so we use a thread to not block
-        ListenableFuture<Connection> future = executorService.submit(() -> {
+        ListenableFuture<Connection> future = outboundExecutor.submit(connection.getOutboundQueueKey(), () -> {
             Thread.currentThread().setName("NetworkNode:SendMessage-to-" + connection.getUid());
             connection.sendMessage(networkEnvelope);
             return connection;
@@ -316,6 +324,10 @@ public abstract class NetworkNode implements MessageListener {
             }
 
             getAllConnections().stream().forEach(c -> c.shutDown(CloseConnectionReason.APP_SHUT_DOWN));
+
+            // The close messages got submitted already, so they are still sent if their peer has no other task waiting
+            if (outboundExecutor != null)
+                outboundExecutor.shutDown();
             log.debug("NetworkNode shutdown complete");
         }
         if (shutDownCompleteHandler != null) shutDownCompleteHandler.run();
@@ -339,7 +351,13 @@ public abstract class NetworkNode implements MessageListener {
 
     @Override
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
-        messageListeners.stream().forEach(e -> e.onMessage(networkEnvelope, connection));
+        MessageDispatcher.getInstance().deliver(networkEnvelope, connection, messageListeners);
+    }
+
+    // We get called on the lane of the connection and our listeners get called in the context they declare
+    @Override
+    public DispatchMode getDispatchMode() {
+        return DispatchMode.CALLER;
     }
 
 
@@ -382,6 +400,9 @@ public abstract class NetworkNode implements MessageListener {
     void createExecutorService() {
         if (executorService == null)
             executorService = Utilities.getListeningExecutorService("NetworkNode-" + servicePort, 15, 30, 60);
+        if (outboundExecutor == null)
+            outboundExecutor = new OutboundExecutor("NetworkNode-Outbound-" + servicePort, MAX_OUTBOUND_THREADS,
+                    MAX_QUEUED_OUTBOUND_TASKS, useVirtualThreads);
     }
 
     void startServer(ServerSocket serverSocket) {
@@ -413,7 +434,8 @@ public abstract class NetworkNode implements MessageListener {
         server = new Server(serverSocket,
                 NetworkNode.this,
                 connectionListener,
-                networkProtoResolver);
+                networkProtoResolver,
+                outboundExecutor);
         executorService.submit(server);
     }
 
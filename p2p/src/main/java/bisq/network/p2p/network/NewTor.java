@@ -17,6 +17,8 @@
 
 package bisq.network.p2p.network;
 
+import bisq.common.storage.FileUtil;
+
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -50,12 +52,24 @@ public class NewTor extends TorMode {
     private final String torrcFile;
     private final String torrcOptions;
     private final Collection<String> bridgeEntries;
+    private final boolean warmStart;
 
     public NewTor(File torWorkingDirectory, String torrcFile, String torrcOptions, Collection<String> bridgeEntries) {
+        this(torWorkingDirectory, torrcFile, torrcOptions, bridgeEntries, false);
+    }
+
+    /**
+     * @param warmStart If set we keep the files of the previous run in the Tor working directory. Tor then only
+     *                  needs to refresh its consensus and descriptors instead of fetching them and can reuse its
+     *                  guards, which saves most of the bootstrap time.
+     */
+    public NewTor(File torWorkingDirectory, String torrcFile, String torrcOptions, Collection<String> bridgeEntries,
+                  boolean warmStart) {
         super(torWorkingDirectory);
         this.torrcFile = torrcFile;
         this.torrcOptions = torrcOptions;
         this.bridgeEntries = bridgeEntries;
+        this.warmStart = warmStart;
     }
 
     @Override
@@ -100,7 +114,7 @@ public class NewTor extends TorMode {
             else
                 override = new Torrc(torrcOptionsMap);
 
-        log.info("Starting tor");
+        log.info("Starting tor ({} start)", warmStart ? "warm" : "cold");
         NativeTor result = new NativeTor(torDir, bridgeEntries, override);
         log.info(
                 "\n################################################################\n"
@@ -116,4 +130,15 @@ public class NewTor extends TorMode {
         return "";
     }
 
+    @Override
+    public boolean isWarmStart() {
+        return warmStart;
+    }
+
+    @Override
+    public void clearCachedState() throws IOException {
+        log.info("Deleting the cached Tor state in {}", torDir);
+        FileUtil.deleteDirectory(torDir, new File(torDir, HIDDEN_SERVICE_DIRECTORY), true);
+    }
+
 }
@@ -28,7 +28,8 @@ public class OutboundConnection extends Connection {
                               MessageListener messageListener,
                               ConnectionListener connectionListener,
                               NodeAddress peersNodeAddress,
-                              NetworkProtoResolver networkProtoResolver) {
-        super(socket, messageListener, connectionListener, peersNodeAddress, networkProtoResolver);
+                              NetworkProtoResolver networkProtoResolver,
+                              OutboundExecutor outboundExecutor) {
+        super(socket, messageListener, connectionListener, peersNodeAddress, networkProtoResolver, outboundExecutor);
     }
 }
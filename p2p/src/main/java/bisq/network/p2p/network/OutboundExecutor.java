@@ -0,0 +1,240 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Runs the blocking connect and write tasks of our outbound messages.
+ * <p></p>
+ * The tasks for one peer are run one after another in the order they got submitted, so a slow peer occupies at most
+ * one thread, and a second message to a peer we are still connecting to finds the new connection instead of opening
+ * another one. The tasks of different peers run in parallel on up to maxThreads threads. If more than
+ * maxQueuedTasks tasks are waiting, further tasks get rejected by failing their future with a
+ * {@link RejectedExecutionException}, so a broadcast storm cannot pile up unlimited work.
+ * <p></p>
+ * If requested and supported by the JDK (Java 21 or newer), the tasks run on virtual threads.
+ */
+@Slf4j
+class OutboundExecutor {
+    private static final long LOG_STATS_INTERVAL_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static class QueuedTask {
+        private final ListenableFutureTask<?> futureTask;
+        private final long submitTs = System.currentTimeMillis();
+
+        QueuedTask(ListenableFutureTask<?> futureTask) {
+            this.futureTask = futureTask;
+        }
+    }
+
+    private final String name;
+    private final int maxQueuedTasks;
+    private final ThreadPoolExecutor executor;
+    // Contains a queue for each peer with a running or waiting task. Guarded by this.
+    private final Map<String, Deque<QueuedTask>> queueByPeer = new HashMap<>();
+    private int numQueuedTasks;
+    private boolean shutDown;
+
+    // Statistics, guarded by this
+    private long numCompletedTasks;
+    private long numRejectedTasks;
+    private int maxNumQueuedTasks;
+    private long totalLatency;
+    private long maxLatency;
+    private long totalQueueTime;
+    private long lastLogStatsTs = System.currentTimeMillis();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    OutboundExecutor(String name, int maxThreads, int maxQueuedTasks, boolean useVirtualThreads) {
+        this.name = name;
+        this.maxQueuedTasks = maxQueuedTasks;
+        // The work queue holds at most one runnable per peer, the number of waiting tasks is limited by us
+        executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                createThreadFactory(name, useVirtualThreads));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param peerKey   Identifies the peer, tasks with the same key are run one after another.
+     * @param callable  The task.
+     * @return The future of the task. It fails with a {@link RejectedExecutionException} if there are too many waiting
+     * tasks or if we are shut down.
+     */
+    <T> ListenableFuture<T> submit(String peerKey, Callable<T> callable) {
+        ListenableFutureTask<T> futureTask = ListenableFutureTask.create(callable);
+        synchronized (this) {
+            if (shutDown)
+                return Futures.immediateFailedFuture(new RejectedExecutionException(name + " is shut down"));
+
+            if (numQueuedTasks >= maxQueuedTasks) {
+                numRejectedTasks++;
+                // We don't want to flood the log in a broadcast storm
+                if (numRejectedTasks % 100 == 1)
+                    log.warn("{} rejected a task as {} tasks are waiting. numRejectedTasks={}",
+                            name, numQueuedTasks, numRejectedTasks);
+                return Futures.immediateFailedFuture(new RejectedExecutionException("Too many outbound tasks are waiting"));
+            }
+
+            numQueuedTasks++;
+            maxNumQueuedTasks = Math.max(maxNumQueuedTasks, numQueuedTasks);
+            Deque<QueuedTask> queue = queueByPeer.get(peerKey);
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                queue.add(new QueuedTask(futureTask));
+                queueByPeer.put(peerKey, queue);
+                executeNext(peerKey);
+            } else {
+                // The task gets run after the running task of that peer
+                queue.add(new QueuedTask(futureTask));
+            }
+        }
+        return futureTask;
+    }
+
+    /**
+     * New tasks get rejected. Running tasks are not interrupted, but the tasks waiting behind them get cancelled.
+     */
+    void shutDown() {
+        synchronized (this) {
+            shutDown = true;
+        }
+        executor.shutdown();
+        log.info(toString());
+    }
+
+    synchronized int getNumQueuedTasks() {
+        return numQueuedTasks;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return name + " outbound tasks: " +
+                "numCompletedTasks=" + numCompletedTasks +
+                ", numRejectedTasks=" + numRejectedTasks +
+                ", numQueuedTasks=" + numQueuedTasks +
+                ", maxNumQueuedTasks=" + maxNumQueuedTasks +
+                ", numPeers=" + queueByPeer.size() +
+                ", meanQueueTime=" + (numCompletedTasks > 0 ? totalQueueTime / numCompletedTasks : 0) +
+                ", meanLatency=" + (numCompletedTasks > 0 ? totalLatency / numCompletedTasks : 0) +
+                ", maxLatency=" + maxLatency;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Must be called with the lock held
+    private void executeNext(String peerKey) {
+        try {
+            executor.execute(() -> runNext(peerKey));
+        } catch (RejectedExecutionException e) {
+            // Only happens after shutDown, we fail all waiting tasks of that peer
+            Deque<QueuedTask> queue = queueByPeer.remove(peerKey);
+            numQueuedTasks -= queue.size();
+            queue.forEach(queuedTask -> queuedTask.futureTask.cancel(false));
+        }
+    }
+
+    private void runNext(String peerKey) {
+        QueuedTask queuedTask;
+        synchronized (this) {
+            queuedTask = queueByPeer.get(peerKey).poll();
+            numQueuedTasks--;
+        }
+
+        long startTs = System.currentTimeMillis();
+        queuedTask.futureTask.run();
+        long endTs = System.currentTimeMillis();
+
+        synchronized (this) {
+            numCompletedTasks++;
+            long latency = endTs - queuedTask.submitTs;
+            totalLatency += latency;
+            maxLatency = Math.max(maxLatency, latency);
+            totalQueueTime += startTs - queuedTask.submitTs;
+            if (endTs - lastLogStatsTs > LOG_STATS_INTERVAL_MS) {
+                lastLogStatsTs = endTs;
+                log.info(toString());
+            }
+
+            Deque<QueuedTask> queue = queueByPeer.get(peerKey);
+            if (queue.isEmpty())
+                queueByPeer.remove(peerKey);
+            else
+                // We go to the end of the work queue so other peers are not blocked by a peer with many messages
+                executeNext(peerKey);
+        }
+    }
+
+    private static ThreadFactory createThreadFactory(String name, boolean useVirtualThreads) {
+        if (useVirtualThreads) {
+            ThreadFactory virtualThreadFactory = createVirtualThreadFactory(name);
+            if (virtualThreadFactory != null)
+                return virtualThreadFactory;
+
+            log.warn("Virtual threads are not supported by this JDK ({}), we use platform threads.",
+                    System.getProperty("java.version"));
+        }
+        return new ThreadFactoryBuilder()
+                .setNameFormat(name + "-%d")
+                .setDaemon(true)
+                .build();
+    }
+
+    // We compile against a JDK without virtual threads, so we look up Thread.ofVirtual().name(..).factory() at runtime
+    @Nullable
+    private static ThreadFactory createVirtualThreadFactory(String name) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -37,6 +37,7 @@ class ProtoOutputStream {
 
     private final OutputStream delegate;
     private final Statistic statistic;
+    private final CompactEnvelopeCodec compactEnvelopeCodec = new CompactEnvelopeCodec();
 
     ProtoOutputStream(OutputStream delegate, Statistic statistic) {
         this.delegate = delegate;
@@ -61,15 +62,21 @@ class ProtoOutputStream {
     }
 
     private void writeEnvelopeOrThrow(NetworkEnvelope envelope) throws IOException {
-        PB.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
-        proto.writeDelimitedTo(delegate);
+        int size;
+        if (envelope instanceof CompactNetworkEnvelope) {
+            size = compactEnvelopeCodec.writeDelimitedTo((CompactNetworkEnvelope) envelope, delegate);
+        } else {
+            PB.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
+            proto.writeDelimitedTo(delegate);
+            size = proto.getSerializedSize();
+        }
         delegate.flush();
 
-        statistic.addSentBytes(proto.getSerializedSize());
+        statistic.addSentBytes(size);
         statistic.addSentMessage(envelope);
 
         if (!(envelope instanceof KeepAliveMessage)) {
-            statistic.updateLastActivityTimestamp();
+            statistic.updateLastSentTimestamp();
         }
     }
 }
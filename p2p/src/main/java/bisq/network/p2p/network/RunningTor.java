@@ -55,6 +55,14 @@ public class RunningTor extends TorMode {
         this.useSafeCookieAuthentication = useSafeCookieAuthentication;
     }
 
+    /**
+     * Uses a local Tor which is managed outside of Bisq and accepts unauthenticated control connections, e.g. a Tor
+     * started once for a test suite, so the tests don't need to bootstrap their own Tor.
+     */
+    public RunningTor(final File torDir, final int controlPort) {
+        this(torDir, controlPort, "", "", false);
+    }
+
     @Override
     public Tor getTor() throws IOException, TorCtlException {
         long ts1 = new Date().getTime();
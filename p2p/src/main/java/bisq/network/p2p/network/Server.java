@@ -44,13 +44,16 @@ class Server implements Runnable {
     private final Set<Connection> connections = new CopyOnWriteArraySet<>();
     private volatile boolean stopped;
     private final NetworkProtoResolver networkProtoResolver;
+    private final OutboundExecutor outboundExecutor;
 
 
     public Server(ServerSocket serverSocket,
                   MessageListener messageListener,
                   ConnectionListener connectionListener,
-                  NetworkProtoResolver networkProtoResolver) {
+                  NetworkProtoResolver networkProtoResolver,
+                  OutboundExecutor outboundExecutor) {
         this.networkProtoResolver = networkProtoResolver;
+        this.outboundExecutor = outboundExecutor;
         Log.traceCall();
         this.serverSocket = serverSocket;
         this.messageListener = messageListener;
@@ -72,7 +75,8 @@ class Server implements Runnable {
                         InboundConnection connection = new InboundConnection(socket,
                                 messageListener,
                                 connectionListener,
-                                networkProtoResolver);
+                                networkProtoResolver,
+                                outboundExecutor);
 
                         log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
                                 "Server created new inbound connection:"
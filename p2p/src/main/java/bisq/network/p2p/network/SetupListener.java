@@ -26,4 +26,14 @@ public interface SetupListener {
     void onSetupFailed(Throwable throwable);
 
     void onRequestCustomBridges();
+
+    /**
+     * Called at the user thread when the network node has left a phase of its bootstrap, so the time spent in
+     * each phase can be logged or displayed.
+     *
+     * @param phase      The phase which has been completed
+     * @param durationMs The time spent in that phase
+     */
+    default void onTorBootstrapPhaseCompleted(TorBootstrapState phase, long durationMs) {
+    }
 }
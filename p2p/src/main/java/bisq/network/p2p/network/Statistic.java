@@ -61,6 +61,8 @@ public class Statistic {
 
     private final Date creationDate;
     private long lastActivityTimestamp = System.currentTimeMillis();
+    private long lastReceivedTimestamp = System.currentTimeMillis();
+    private long lastSentTimestamp = System.currentTimeMillis();
     private final LongProperty sentBytes = new SimpleLongProperty(0);
     private final LongProperty receivedBytes = new SimpleLongProperty(0);
     private final Map<String, Integer> receivedMessages = new ConcurrentHashMap<>();
@@ -80,8 +82,19 @@ public class Statistic {
     // Update, increment
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public void updateLastActivityTimestamp() {
-        UserThread.execute(() -> lastActivityTimestamp = System.currentTimeMillis());
+    // Received messages prove that the peer is alive, sent messages do not
+    public void updateLastReceivedTimestamp() {
+        UserThread.execute(() -> {
+            lastActivityTimestamp = System.currentTimeMillis();
+            lastReceivedTimestamp = lastActivityTimestamp;
+        });
+    }
+
+    public void updateLastSentTimestamp() {
+        UserThread.execute(() -> {
+            lastActivityTimestamp = System.currentTimeMillis();
+            lastSentTimestamp = lastActivityTimestamp;
+        });
     }
 
     public void addSentBytes(int value) {
@@ -129,8 +142,12 @@ public class Statistic {
         return lastActivityTimestamp;
     }
 
-    public long getLastActivityAge() {
-        return System.currentTimeMillis() - lastActivityTimestamp;
+    public long getLastReceivedAge() {
+        return System.currentTimeMillis() - lastReceivedTimestamp;
+    }
+
+    public long getLastSentAge() {
+        return System.currentTimeMillis() - lastSentTimestamp;
     }
 
     public long getSentBytes() {
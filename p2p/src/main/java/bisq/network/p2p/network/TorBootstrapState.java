@@ -0,0 +1,40 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+/**
+ * The states a {@link TorNetworkNode} passes through until its hidden service is reachable. Each state except
+ * {@link #READY} and {@link #FAILED} is a phase of the bootstrap whose duration gets reported to the
+ * {@link SetupListener}s when it is left.
+ */
+public enum TorBootstrapState {
+    NOT_STARTED,
+    // Starting the Tor process or connecting to a running Tor. Much faster with a warm start, as Tor can use its
+    // cached consensus, descriptors and guards.
+    STARTING_TOR,
+    // Waiting until the descriptor of our hidden service is published
+    PUBLISHING_HIDDEN_SERVICE,
+    // Starting the server for inbound connections
+    STARTING_SERVER,
+    READY,
+    FAILED;
+
+    public boolean isFinal() {
+        return this == READY || this == FAILED;
+    }
+}
@@ -79,6 +79,21 @@ public abstract class TorMode {
      */
     public abstract String getHiddenServiceDirectory();
 
+    /**
+     * @return <code>true</code> if Tor gets started with the state of the previous run, i.e. the cached consensus,
+     *         descriptors and guards. Only {@link NewTor} owns the state of its Tor and supports that.
+     */
+    public boolean isWarmStart() {
+        return false;
+    }
+
+    /**
+     * Deletes the cached state of Tor but keeps the hidden service directory, so the next start is a cold start
+     * with the same onion address.
+     */
+    public void clearCachedState() throws IOException {
+    }
+
     /**
      * Do a rolling backup of the "private_key" file.
      */
@@ -33,6 +33,7 @@ import org.berndpruenster.netlayer.tor.TorSocket;
 
 import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -42,13 +43,18 @@ import org.fxmisc.easybind.EasyBind;
 import org.fxmisc.easybind.monadic.MonadicBinding;
 
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleObjectProperty;
 
+import java.net.ServerSocket;
 import java.net.Socket;
 import java.security.SecureRandom;
 import java.io.IOException;
 import java.util.Base64;
-import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -81,6 +87,11 @@ public class TorNetworkNode extends NetworkNode {
 
     private Socks5Proxy socksProxy;
 
+    private final ObjectProperty<TorBootstrapState> bootstrapState = new SimpleObjectProperty<>(TorBootstrapState.NOT_STARTED);
+    private final Map<TorBootstrapState, Long> durationByPhase = new EnumMap<>(TorBootstrapState.class);
+    private long bootstrapStateTs;
+    private boolean coldStartFallback;
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -110,6 +121,10 @@ public class TorNetworkNode extends NetworkNode {
         createTorAndHiddenService(Utils.findFreeSystemPort(), servicePort);
     }
 
+    public ReadOnlyObjectProperty<TorBootstrapState> bootstrapStateProperty() {
+        return bootstrapState;
+    }
+
     @Override
     protected Socket createSocket(NodeAddress peerNodeAddress) throws IOException {
         checkArgument(peerNodeAddress.getHostName().endsWith(".onion"), "PeerAddress is not an onion address");
@@ -223,7 +238,33 @@ public class TorNetworkNode extends NetworkNode {
 
     private void restartTor(String errorMessage) {
         Log.traceCall();
+        if (torMode.isWarmStart() && !coldStartFallback) {
+            // The cached state of the previous run might be broken, e.g. if we got killed while Tor was writing it.
+            // We retry once with a cold start before we ask the user for bridges.
+            coldStartFallback = true;
+            log.warn("Starting Tor with the cached state failed. We retry with a cold start.");
+            executorService.submit(() -> {
+                // Tor might still be running and using its state, e.g. if publishing the hidden service failed
+                Tor previousTor = Tor.getDefault();
+                if (previousTor != null) {
+                    try {
+                        previousTor.shutdown();
+                    } catch (Throwable t) {
+                        log.error("Could not shut down Tor before the cold start: " + t.toString());
+                    }
+                }
+                try {
+                    torMode.clearCachedState();
+                } catch (IOException e) {
+                    log.error("Could not delete the cached Tor state: " + e.toString());
+                }
+                UserThread.execute(() -> createTorAndHiddenService(Utils.findFreeSystemPort(), servicePort));
+            });
+            return;
+        }
+
         log.info("Restarting Tor");
+        setBootstrapState(TorBootstrapState.FAILED);
         restartCounter++;
         if (restartCounter <= MAX_RESTART_ATTEMPTS) {
             UserThread.execute(() -> {
@@ -248,45 +289,26 @@ public class TorNetworkNode extends NetworkNode {
     private void createTorAndHiddenService(int localPort, int servicePort) {
         Log.traceCall();
 
+        setBootstrapState(TorBootstrapState.STARTING_TOR);
         ListenableFuture<Void> future = executorService.submit(() -> {
             try {
                 // get tor
                 Tor.setDefault(torMode.getTor());
-                UserThread.execute(() -> setupListeners.stream().forEach(SetupListener::onTorNodeReady));
+                UserThread.execute(() -> {
+                    setBootstrapState(TorBootstrapState.PUBLISHING_HIDDEN_SERVICE);
+                    setupListeners.forEach(SetupListener::onTorNodeReady);
+                });
 
                 // start hidden service
-                long ts2 = new Date().getTime();
                 hiddenServiceSocket = new HiddenServiceSocket(localPort, torMode.getHiddenServiceDirectory(), servicePort);
                 hiddenServiceSocket.addReadyListener(socket -> {
-                    try {
-                        log.info("\n################################################################\n" +
-                                        "Tor hidden service published after {} ms. Socked={}\n" +
-                                        "################################################################",
-                                (new Date().getTime() - ts2), socket); //takes usually 30-40 sec
-                        new Thread() {
-                            @Override
-                            public void run() {
-                                try {
-                                    Log.traceCall("hiddenService created");
-                                    nodeAddressProperty.set(new NodeAddress(hiddenServiceSocket.getServiceName() + ":" + hiddenServiceSocket.getHiddenServicePort()));
-                                    startServer(socket);
-                                    UserThread.execute(() -> setupListeners.stream().forEach(SetupListener::onHiddenServicePublished));
-                                } catch (final Exception e1) {
-                                    log.error(e1.toString());
-                                    e1.printStackTrace();
-                                }
-                            }
-                        }.start();
-                    } catch (final Exception e) {
-                        log.error(e.toString());
-                        e.printStackTrace();
-                    }
+                    UserThread.execute(() -> onHiddenServiceReady(socket));
                     return null;
                 });
                 log.info("It will take some time for the HS to be reachable (~40 seconds). You will be notified about this");
             } catch (TorCtlException e) {
                 log.error("Tor node creation failed: " + (e.getCause() != null ? e.getCause().toString() : e.toString()));
-                restartTor(e.getMessage());
+                UserThread.execute(() -> restartTor(e.getMessage()));
             } catch (IOException e) {
                 log.error("Could not connect to running Tor: "
                         + e.getMessage());
@@ -295,7 +317,12 @@ public class TorNetworkNode extends NetworkNode {
                 // Furthermore, we have no hidden services started yet, so there is no graceful
                 // shutdown needed either
                 System.exit(1);
-            } catch (Throwable ignore) {
+            } catch (Throwable t) {
+                log.error("Tor node creation failed: " + t.toString());
+                UserThread.execute(() -> {
+                    setBootstrapState(TorBootstrapState.FAILED);
+                    setupListeners.forEach(e -> e.onSetupFailed(t));
+                });
             }
 
             return null;
@@ -312,4 +339,41 @@ public class TorNetworkNode extends NetworkNode {
             }
         });
     }
+
+    private void onHiddenServiceReady(ServerSocket socket) {
+        log.info("\n################################################################\n" +
+                        "Tor hidden service published after {} ms. Socked={}\n" +
+                        "################################################################",
+                System.currentTimeMillis() - bootstrapStateTs, socket); //takes usually 30-40 sec
+        setBootstrapState(TorBootstrapState.STARTING_SERVER);
+        try {
+            nodeAddressProperty.set(new NodeAddress(hiddenServiceSocket.getServiceName() + ":" + hiddenServiceSocket.getHiddenServicePort()));
+            startServer(socket);
+            setBootstrapState(TorBootstrapState.READY);
+            setupListeners.forEach(SetupListener::onHiddenServicePublished);
+        } catch (Exception e) {
+            log.error(e.toString());
+            e.printStackTrace();
+            setBootstrapState(TorBootstrapState.FAILED);
+        }
+    }
+
+    // Called at the user thread. Reports the duration of the phase we leave to the setup listeners.
+    @VisibleForTesting
+    void setBootstrapState(TorBootstrapState newState) {
+        TorBootstrapState previousState = bootstrapState.get();
+        long now = System.currentTimeMillis();
+        if (previousState != TorBootstrapState.NOT_STARTED && !previousState.isFinal()) {
+            long duration = now - bootstrapStateTs;
+            // A failed warm start adds to the duration of the phase it failed in
+            durationByPhase.merge(previousState, duration, Long::sum);
+            setupListeners.forEach(e -> e.onTorBootstrapPhaseCompleted(previousState, duration));
+        }
+        bootstrapStateTs = now;
+        bootstrapState.set(newState);
+
+        if (newState.isFinal())
+            log.info("Tor bootstrap ({} start) ended with state {}. Duration per phase in ms: {}",
+                    torMode.isWarmStart() && !coldStartFallback ? "warm" : "cold", newState, durationByPhase);
+    }
 }
@@ -108,6 +108,7 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
     private final Set<Peer> reportedPeers = new HashSet<>();
     private final Clock.Listener listener;
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final RoundTripTimeEstimator roundTripTimeEstimator = new RoundTripTimeEstimator();
     private Timer checkMaxConnectionsTimer;
     private boolean stopped;
     private boolean lostAllConnections;
@@ -195,6 +196,22 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
         return maxConnectionsAbsolute;
     }
 
+    public void addRoundTripTimeSample(NodeAddress nodeAddress, long roundTripTime) {
+        roundTripTimeEstimator.addSample(nodeAddress, roundTripTime);
+    }
+
+    public Optional<Long> getEstimatedRoundTripTime(NodeAddress nodeAddress) {
+        return roundTripTimeEstimator.getEstimate(nodeAddress);
+    }
+
+    /**
+     * Sorts the peers with the lowest estimated round trip time first. Peers we have not measured yet keep their
+     * order after the measured ones.
+     */
+    public void sortByRoundTripTime(List<NodeAddress> nodeAddresses) {
+        nodeAddresses.sort(roundTripTimeEstimator.lowLatencyFirst());
+    }
+
     public void addListener(Listener listener) {
         listeners.add(listener);
     }
@@ -0,0 +1,73 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers;
+
+import bisq.network.p2p.NodeAddress;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Smoothed round trip time per peer, computed from the ping/pong round trips of the keep-alive the same way TCP
+ * smooths its round trip time (SRTT in RFC 6298), so a single slow round trip over a congested Tor circuit does not
+ * rank a peer as slow. We keep the estimates of the most recently measured peers only.
+ * <p>
+ * Must only be used from the user thread.
+ */
+class RoundTripTimeEstimator {
+    private static final int MAX_PEERS = 1000;
+    // Weight of a new sample
+    private static final double ALPHA = 1 / 8D;
+
+    private final Map<NodeAddress, Double> estimateByNodeAddress = new LinkedHashMap<NodeAddress, Double>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<NodeAddress, Double> eldest) {
+            return size() > MAX_PEERS;
+        }
+    };
+
+    void addSample(NodeAddress nodeAddress, long roundTripTime) {
+        if (roundTripTime < 0)
+            return;
+
+        // We re-insert the estimate so the peers we did not measure for the longest time get removed first
+        Double estimate = estimateByNodeAddress.remove(nodeAddress);
+        estimateByNodeAddress.put(nodeAddress, estimate == null ?
+                roundTripTime :
+                (1 - ALPHA) * estimate + ALPHA * roundTripTime);
+    }
+
+    Optional<Long> getEstimate(NodeAddress nodeAddress) {
+        Double estimate = estimateByNodeAddress.get(nodeAddress);
+        return estimate != null ? Optional.of(Math.round(estimate)) : Optional.empty();
+    }
+
+    /**
+     * Orders peers with a lower estimate first. Peers without an estimate come after all measured peers and keep
+     * their order, so a shuffled list of unknown peers stays shuffled.
+     */
+    Comparator<NodeAddress> lowLatencyFirst() {
+        return Comparator.comparingDouble(nodeAddress -> estimateByNodeAddress.getOrDefault(nodeAddress, Double.MAX_VALUE));
+    }
+
+    int size() {
+        return estimateByNodeAddress.size();
+    }
+}
@@ -20,6 +20,7 @@ package bisq.network.p2p.peers.getdata;
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.network.CloseConnectionReason;
 import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.DispatchMode;
 import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.PeerManager;
@@ -29,6 +30,7 @@ import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
 import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.LazyProcessedPayload;
+import bisq.network.p2p.storage.payload.LazyProtectedStorageEntry;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
@@ -194,13 +196,34 @@ class RequestDataHandler implements MessageListener {
 
     @Override
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+        if (networkEnvelope instanceof GetDataResponse) {
+            GetDataResponse getDataResponse = (GetDataResponse) networkEnvelope;
+            // We are called on the lane of the connection. Decoding the entries and verifying their signatures are the
+            // most expensive parts of adding the data, so we do that here and add the data on the user thread. Entries
+            // we already have with the same or a higher sequence number would not get added, so we don't decode them.
+            Set<ProtectedStorageEntry> dataSet = getDataResponse.getRequestNonce() == nonce && isResponseOfPeer(connection) ?
+                    decodeUnknownEntries(getDataResponse.getLazyDataSet()) :
+                    new HashSet<>();
+            dataStorage.preVerifySignatures(dataSet);
+
+            UserThread.execute(() -> {
+                try {
+                    onGetDataResponse(networkEnvelope, dataSet, connection);
+                } finally {
+                    dataStorage.discardPreVerifiedEntries(dataSet);
+                }
+            });
+        }
+    }
+
+    // Called on the user thread with the decoded and pre-verified entries of the response
+    private void onGetDataResponse(NetworkEnvelope networkEnvelope, Set<ProtectedStorageEntry> dataSet, Connection connection) {
         if (networkEnvelope instanceof GetDataResponse) {
             if (connection.getPeersNodeAddressOptional().isPresent() && connection.getPeersNodeAddressOptional().get().equals(peersNodeAddress)) {
                 Log.traceCall(networkEnvelope.toString() + "\n\tconnection=" + connection);
                 if (!stopped) {
                     GetDataResponse getDataResponse = (GetDataResponse) networkEnvelope;
                     Map<String, Set<NetworkPayload>> payloadByClassName = new HashMap<>();
-                    final Set<ProtectedStorageEntry> dataSet = getDataResponse.getDataSet();
                     dataSet.stream().forEach(e -> {
                         final ProtectedStoragePayload protectedStoragePayload = e.getProtectedStoragePayload();
                         if (protectedStoragePayload == null) {
@@ -308,6 +331,11 @@ class RequestDataHandler implements MessageListener {
         }
     }
 
+    @Override
+    public DispatchMode getDispatchMode() {
+        return DispatchMode.ORDERED;
+    }
+
     public void stop() {
         cleanup();
     }
@@ -316,6 +344,34 @@ class RequestDataHandler implements MessageListener {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private boolean isResponseOfPeer(Connection connection) {
+        return connection.getPeersNodeAddressOptional().isPresent() &&
+                connection.getPeersNodeAddressOptional().get().equals(peersNodeAddress);
+    }
+
+    private Set<ProtectedStorageEntry> decodeUnknownEntries(@Nullable List<LazyProtectedStorageEntry> lazyDataSet) {
+        Set<ProtectedStorageEntry> dataSet = new HashSet<>();
+        if (lazyDataSet == null)
+            return dataSet;
+
+        long ts = System.currentTimeMillis();
+        int numKnown = 0;
+        for (LazyProtectedStorageEntry lazyEntry : lazyDataSet) {
+            if (dataStorage.isKnownWithSameOrHigherSequenceNumber(lazyEntry.getHashOfPayload(), lazyEntry.getSequenceNumber())) {
+                numKnown++;
+                continue;
+            }
+
+            try {
+                dataSet.add(lazyEntry.get());
+            } catch (Throwable t) {
+                log.warn("Could not decode entry of GetDataResponse. error={}", t.toString());
+            }
+        }
+        log.info("Decoding {} of {} entries took {} ms. {} entries were already known.",
+                dataSet.size(), lazyDataSet.size(), System.currentTimeMillis() - ts, numKnown);
+        return dataSet;
+    }
 
     @SuppressWarnings("UnusedParameters")
     private void handleFault(String errorMessage, NodeAddress nodeAddress, CloseConnectionReason closeConnectionReason) {
@@ -19,6 +19,7 @@ package bisq.network.p2p.peers.getdata.messages;
 
 import bisq.network.p2p.ExtendedDataSizePermission;
 import bisq.network.p2p.SupportedCapabilitiesMessage;
+import bisq.network.p2p.storage.payload.LazyProtectedStorageEntry;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
 import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
@@ -37,17 +38,30 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 @Slf4j
 @EqualsAndHashCode(callSuper = true)
+@ToString(doNotUseGetters = true)
 @Value
 public final class GetDataResponse extends NetworkEnvelope implements SupportedCapabilitiesMessage, ExtendedDataSizePermission {
-    // Set of ProtectedStorageEntry objects
-    private final Set<ProtectedStorageEntry> dataSet;
+    // Set of ProtectedStorageEntry objects. For a received response it gets created from the lazyDataSet at first access.
+    @NonFinal
+    @Nullable
+    private Set<ProtectedStorageEntry> dataSet;
+
+    // The entries of a received response, decoded on access. Null for a response we created.
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Nullable
+    private final List<LazyProtectedStorageEntry> lazyDataSet;
 
     // Set of PersistableNetworkPayload objects
     // We added that in v 0.6 and we would get a null object from older peers, so keep it annotated with @Nullable
@@ -64,6 +78,7 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                            int requestNonce,
                            boolean isGetUpdatedDataResponse) {
         this(dataSet,
+                null,
                 persistableNetworkPayloadSet,
                 requestNonce,
                 isGetUpdatedDataResponse,
@@ -75,7 +90,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private GetDataResponse(Set<ProtectedStorageEntry> dataSet,
+    private GetDataResponse(@Nullable Set<ProtectedStorageEntry> dataSet,
+                            @Nullable List<LazyProtectedStorageEntry> lazyDataSet,
                             @Nullable Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
                             int requestNonce,
                             boolean isGetUpdatedDataResponse,
@@ -84,6 +100,7 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
         super(messageVersion);
 
         this.dataSet = dataSet;
+        this.lazyDataSet = lazyDataSet;
         this.persistableNetworkPayloadSet = persistableNetworkPayloadSet;
         this.requestNonce = requestNonce;
         this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
@@ -93,7 +110,7 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     @Override
     public PB.NetworkEnvelope toProtoNetworkEnvelope() {
         final PB.GetDataResponse.Builder builder = PB.GetDataResponse.newBuilder()
-                .addAllDataSet(dataSet.stream()
+                .addAllDataSet(getDataSet().stream()
                         .map(protectedStorageEntry -> protectedStorageEntry instanceof ProtectedMailboxStorageEntry ?
                                 PB.StorageEntryWrapper.newBuilder()
                                         .setProtectedMailboxStorageEntry((PB.ProtectedMailboxStorageEntry) protectedStorageEntry.toProtoMessage())
@@ -117,10 +134,9 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     }
 
     public static GetDataResponse fromProto(PB.GetDataResponse proto, NetworkProtoResolver resolver, int messageVersion) {
-        Set<ProtectedStorageEntry> dataSet = new HashSet<>(
-                proto.getDataSetList().stream()
-                        .map(entry -> (ProtectedStorageEntry) resolver.fromProto(entry))
-                        .collect(Collectors.toSet()));
+        List<LazyProtectedStorageEntry> lazyDataSet = proto.getDataSetList().stream()
+                .map(entry -> new LazyProtectedStorageEntry(entry, resolver))
+                .collect(Collectors.toList());
 
         Set<PersistableNetworkPayload> persistableNetworkPayloadSet = proto.getPersistableNetworkPayloadItemsList().isEmpty() ?
                 null :
@@ -130,11 +146,27 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                                 .collect(Collectors.toSet()));
 
         //PersistableNetworkPayload
-        return new GetDataResponse(dataSet,
+        return new GetDataResponse(null,
+                lazyDataSet,
                 persistableNetworkPayloadSet,
                 proto.getRequestNonce(),
                 proto.getIsGetUpdatedDataResponse(),
                 proto.getSupportedCapabilitiesList().isEmpty() ? null : proto.getSupportedCapabilitiesList(),
                 messageVersion);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // For a received response all entries get decoded at the first call. Use lazyDataSet to decode only the entries
+    // which are needed.
+    public synchronized Set<ProtectedStorageEntry> getDataSet() {
+        if (dataSet == null)
+            dataSet = new HashSet<>(checkNotNull(lazyDataSet).stream()
+                    .map(LazyProtectedStorageEntry::get)
+                    .collect(Collectors.toSet()));
+        return dataSet;
+    }
 }
@@ -46,8 +46,6 @@ import javax.annotation.Nullable;
 class KeepAliveHandler implements MessageListener {
     private static final Logger log = LoggerFactory.getLogger(KeepAliveHandler.class);
 
-    private static final int DELAY_MS = 10_000;
-
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Listener
@@ -95,8 +93,8 @@ class KeepAliveHandler implements MessageListener {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public void sendPingAfterRandomDelay(Connection connection) {
-        delayTimer = UserThread.runAfterRandomDelay(() -> sendPing(connection), 1, DELAY_MS, TimeUnit.MILLISECONDS);
+    public void sendPingAfterDelay(Connection connection, long delayMs) {
+        delayTimer = UserThread.runAfter(() -> sendPing(connection), delayMs, TimeUnit.MILLISECONDS);
     }
 
     private void sendPing(Connection connection) {
@@ -153,6 +151,8 @@ class KeepAliveHandler implements MessageListener {
                     int roundTripTime = (int) (System.currentTimeMillis() - sendTs);
                     log.trace("roundTripTime=" + roundTripTime + "\n\tconnection=" + connection);
                     connection.getStatistic().setRoundTripTime(roundTripTime);
+                    connection.getPeersNodeAddressOptional().ifPresent(nodeAddress ->
+                            peerManager.addRoundTripTimeSample(nodeAddress, roundTripTime));
                     cleanup();
                     listener.onComplete();
                 } else {
@@ -34,13 +34,18 @@ import bisq.common.proto.network.NetworkEnvelope;
 
 import javax.inject.Inject;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,11 +56,16 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
     private static final Logger log = LoggerFactory.getLogger(KeepAliveManager.class);
 
     private static final int INTERVAL_SEC = new Random().nextInt(5) + 30;
-    private static final long LAST_ACTIVITY_AGE_MS = INTERVAL_SEC / 2;
+    private static final long INTERVAL_MS = TimeUnit.SECONDS.toMillis(INTERVAL_SEC);
+    // If we received a message from the peer and sent one to it within that time, the connection is alive in both
+    // directions and we don't need to ping. The peer's socket has a read timeout as well, so our own traffic has to
+    // be recent too.
+    private static final long MAX_TRAFFIC_AGE_MS = INTERVAL_MS;
 
     private final NetworkNode networkNode;
     private final PeerManager peerManager;
     private final Map<String, KeepAliveHandler> handlerMap = new HashMap<>();
+    private final Random random = new Random();
 
     private boolean stopped;
     private Timer keepAliveTimer;
@@ -204,31 +214,43 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
     private void keepAlive() {
         if (!stopped) {
             Log.traceCall();
-            networkNode.getConfirmedConnections().stream()
-                    .filter(connection -> connection instanceof OutboundConnection &&
-                            connection.getStatistic().getLastActivityAge() > LAST_ACTIVITY_AGE_MS)
-                    .forEach(connection -> {
-                        final String uid = connection.getUid();
-                        if (!handlerMap.containsKey(uid)) {
-                            KeepAliveHandler keepAliveHandler = new KeepAliveHandler(networkNode, peerManager, new KeepAliveHandler.Listener() {
-                                @Override
-                                public void onComplete() {
-                                    handlerMap.remove(uid);
-                                }
-
-                                @Override
-                                public void onFault(String errorMessage) {
-                                    handlerMap.remove(uid);
-                                }
-                            });
-                            handlerMap.put(uid, keepAliveHandler);
-                            keepAliveHandler.sendPingAfterRandomDelay(connection);
-                        } else {
-                            // TODO check if this situation causes any issues
-                            log.debug("Connection with id {} has not completed and is still in our map. " +
-                                    "We will try to ping that peer at the next schedule.", uid);
-                        }
-                    });
+            List<Connection> connectionsToPing = new ArrayList<>();
+            int numSkipped = 0;
+            for (Connection connection : networkNode.getConfirmedConnections()) {
+                if (!(connection instanceof OutboundConnection))
+                    continue;
+
+                if (!requiresPing(connection)) {
+                    numSkipped++;
+                } else if (handlerMap.containsKey(connection.getUid())) {
+                    // TODO check if this situation causes any issues
+                    log.debug("Connection with id {} has not completed and is still in our map. " +
+                            "We will try to ping that peer at the next schedule.", connection.getUid());
+                } else {
+                    connectionsToPing.add(connection);
+                }
+            }
+            log.debug("We ping {} connections and skip {} connections with recent traffic",
+                    connectionsToPing.size(), numSkipped);
+
+            for (int i = 0; i < connectionsToPing.size(); i++) {
+                Connection connection = connectionsToPing.get(i);
+                String uid = connection.getUid();
+                KeepAliveHandler keepAliveHandler = new KeepAliveHandler(networkNode, peerManager, new KeepAliveHandler.Listener() {
+                    @Override
+                    public void onComplete() {
+                        handlerMap.remove(uid);
+                    }
+
+                    @Override
+                    public void onFault(String errorMessage) {
+                        handlerMap.remove(uid);
+                    }
+                });
+                handlerMap.put(uid, keepAliveHandler);
+                keepAliveHandler.sendPingAfterDelay(connection,
+                        getPingDelay(i, connectionsToPing.size(), INTERVAL_MS, random.nextDouble()));
+            }
 
             int size = handlerMap.size();
             log.debug("handlerMap size=" + size);
@@ -240,6 +262,31 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
         }
     }
 
+    private boolean requiresPing(Connection connection) {
+        return requiresPing(connection.getStatistic().getLastReceivedAge(),
+                connection.getStatistic().getLastSentAge(),
+                connection.getPeersNodeAddressOptional()
+                        .flatMap(peerManager::getEstimatedRoundTripTime)
+                        .isPresent());
+    }
+
+    // We ping a peer unless we have received from and sent to it recently, or if we don't have a round trip time
+    // estimate for it yet
+    @VisibleForTesting
+    static boolean requiresPing(long lastReceivedAge, long lastSentAge, boolean hasRoundTripTimeEstimate) {
+        return lastReceivedAge > MAX_TRAFFIC_AGE_MS ||
+                lastSentAge > MAX_TRAFFIC_AGE_MS ||
+                !hasRoundTripTimeEstimate;
+    }
+
+    // We spread the pings evenly over the interval, so a node with many connections doesn't send all pings within a
+    // few seconds. Each ping gets a random delay within its slot.
+    @VisibleForTesting
+    static long getPingDelay(int index, int numPings, long intervalMs, double random) {
+        long slotMs = Math.max(1, intervalMs / Math.max(1, numPings));
+        return 1 + index * slotMs + (long) (random * slotMs);
+    }
+
     private void stopKeepAliveTimer() {
         stopped = true;
         if (keepAliveTimer != null) {
@@ -17,17 +17,30 @@
 
 package bisq.network.p2p.peers.keepalive.messages;
 
+import bisq.network.p2p.network.CompactEnvelopeCodec;
+import bisq.network.p2p.network.CompactNetworkEnvelope;
+
 import bisq.common.app.Version;
 import bisq.common.proto.network.NetworkEnvelope;
 
 import io.bisq.generated.protobuffer.PB;
 
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+
 import lombok.EqualsAndHashCode;
 import lombok.Value;
 
 @EqualsAndHashCode(callSuper = true)
 @Value
-public final class Ping extends NetworkEnvelope implements KeepAliveMessage {
+public final class Ping extends NetworkEnvelope implements KeepAliveMessage, CompactNetworkEnvelope {
+    private static final int NONCE_TAG = CompactEnvelopeCodec.tag(PB.Ping.NONCE_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+    private static final int LAST_ROUND_TRIP_TIME_TAG = CompactEnvelopeCodec.tag(PB.Ping.LAST_ROUND_TRIP_TIME_FIELD_NUMBER,
+            WireFormat.WIRETYPE_VARINT);
+
     private final int nonce;
     private final int lastRoundTripTime;
 
@@ -58,4 +71,41 @@ public final class Ping extends NetworkEnvelope implements KeepAliveMessage {
     public static Ping fromProto(PB.Ping proto, int messageVersion) {
         return new Ping(proto.getNonce(), proto.getLastRoundTripTime(), messageVersion);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // CompactNetworkEnvelope implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public int getEnvelopeFieldNumber() {
+        return PB.NetworkEnvelope.PING_FIELD_NUMBER;
+    }
+
+    @Override
+    public int getCompactSerializedSize() {
+        return CompactEnvelopeCodec.computeInt32Size(PB.Ping.NONCE_FIELD_NUMBER, nonce) +
+                CompactEnvelopeCodec.computeInt32Size(PB.Ping.LAST_ROUND_TRIP_TIME_FIELD_NUMBER, lastRoundTripTime);
+    }
+
+    @Override
+    public void writeCompactTo(CodedOutputStream outputStream) throws IOException {
+        CompactEnvelopeCodec.writeInt32(outputStream, PB.Ping.NONCE_FIELD_NUMBER, nonce);
+        CompactEnvelopeCodec.writeInt32(outputStream, PB.Ping.LAST_ROUND_TRIP_TIME_FIELD_NUMBER, lastRoundTripTime);
+    }
+
+    public static Ping fromCompact(CodedInputStream inputStream, int messageVersion) throws IOException {
+        int nonce = 0;
+        int lastRoundTripTime = 0;
+        int tag;
+        while ((tag = inputStream.readTag()) != 0) {
+            if (tag == NONCE_TAG)
+                nonce = inputStream.readInt32();
+            else if (tag == LAST_ROUND_TRIP_TIME_TAG)
+                lastRoundTripTime = inputStream.readInt32();
+            else
+                inputStream.skipField(tag);
+        }
+        return new Ping(nonce, lastRoundTripTime, messageVersion);
+    }
 }
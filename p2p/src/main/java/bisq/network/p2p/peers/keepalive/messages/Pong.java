@@ -17,17 +17,29 @@
 
 package bisq.network.p2p.peers.keepalive.messages;
 
+import bisq.network.p2p.network.CompactEnvelopeCodec;
+import bisq.network.p2p.network.CompactNetworkEnvelope;
+
 import bisq.common.app.Version;
 import bisq.common.proto.network.NetworkEnvelope;
 
 import io.bisq.generated.protobuffer.PB;
 
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+
 import lombok.EqualsAndHashCode;
 import lombok.Value;
 
 @EqualsAndHashCode(callSuper = true)
 @Value
-public final class Pong extends NetworkEnvelope implements KeepAliveMessage {
+public final class Pong extends NetworkEnvelope implements KeepAliveMessage, CompactNetworkEnvelope {
+    private static final int REQUEST_NONCE_TAG = CompactEnvelopeCodec.tag(PB.Pong.REQUEST_NONCE_FIELD_NUMBER,
+            WireFormat.WIRETYPE_VARINT);
+
     private final int requestNonce;
 
     public Pong(int requestNonce) {
@@ -55,4 +67,36 @@ public final class Pong extends NetworkEnvelope implements KeepAliveMessage {
     public static Pong fromProto(PB.Pong proto, int messageVersion) {
         return new Pong(proto.getRequestNonce(), messageVersion);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // CompactNetworkEnvelope implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public int getEnvelopeFieldNumber() {
+        return PB.NetworkEnvelope.PONG_FIELD_NUMBER;
+    }
+
+    @Override
+    public int getCompactSerializedSize() {
+        return CompactEnvelopeCodec.computeInt32Size(PB.Pong.REQUEST_NONCE_FIELD_NUMBER, requestNonce);
+    }
+
+    @Override
+    public void writeCompactTo(CodedOutputStream outputStream) throws IOException {
+        CompactEnvelopeCodec.writeInt32(outputStream, PB.Pong.REQUEST_NONCE_FIELD_NUMBER, requestNonce);
+    }
+
+    public static Pong fromCompact(CodedInputStream inputStream, int messageVersion) throws IOException {
+        int requestNonce = 0;
+        int tag;
+        while ((tag = inputStream.readTag()) != 0) {
+            if (tag == REQUEST_NONCE_TAG)
+                requestNonce = inputStream.readInt32();
+            else
+                inputStream.skipField(tag);
+        }
+        return new Pong(requestNonce, messageVersion);
+    }
 }
@@ -295,14 +295,16 @@ public class PeerExchangeManager implements MessageListener, ConnectionListener,
         if (!stopped) {
             if (!peerManager.hasSufficientConnections()) {
                 // We create a new list of not connected candidates
-                // 1. shuffled reported peers
-                // 2. shuffled persisted peers
+                // 1. shuffled reported peers, the ones with a low round trip time first
+                // 2. shuffled persisted peers, the ones with a low round trip time first
                 // 3. Add as last shuffled seedNodes (least priority)
                 List<NodeAddress> list = getFilteredNonSeedNodeList(getNodeAddresses(peerManager.getReportedPeers()), new ArrayList<>());
                 Collections.shuffle(list);
+                peerManager.sortByRoundTripTime(list);
 
                 List<NodeAddress> filteredPersistedPeers = getFilteredNonSeedNodeList(getNodeAddresses(peerManager.getPersistedPeers()), list);
                 Collections.shuffle(filteredPersistedPeers);
+                peerManager.sortByRoundTripTime(filteredPersistedPeers);
                 list.addAll(filteredPersistedPeers);
 
                 List<NodeAddress> filteredSeedNodeAddresses = getFilteredList(new ArrayList<>(seedNodeAddresses), list);
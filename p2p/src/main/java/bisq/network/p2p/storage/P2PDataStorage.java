@@ -45,6 +45,7 @@ import bisq.network.p2p.storage.persistence.ProtectedDataStoreListener;
 import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
 import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
 import bisq.network.p2p.storage.persistence.SequenceNumberMap;
+import bisq.network.p2p.storage.persistence.StoreService;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
@@ -75,9 +76,13 @@ import org.bouncycastle.util.encoders.Hex;
 import java.security.KeyPair;
 import java.security.PublicKey;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -120,6 +125,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     private final Set<AppendOnlyDataStoreListener> appendOnlyDataStoreListeners = new CopyOnWriteArraySet<>();
     private final Set<ProtectedDataStoreListener> protectedDataStoreListeners = new CopyOnWriteArraySet<>();
+    // Entries with a valid signature, verified off the user thread before they get added. We use the identity as the
+    // fields of an entry are not final.
+    private final Set<ProtectedStorageEntry> preVerifiedEntries = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -156,9 +165,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // We should not have any threading issues here as the p2p network is just initializing
 
     public synchronized void readFromResources(String postFix) {
-        appendOnlyDataStoreService.readFromResources(postFix);
-        protectedDataStoreService.readFromResources(postFix);
-        resourceDataStoreService.readFromResources(postFix);
+        List<StoreService<?>> storeServices = new ArrayList<>(appendOnlyDataStoreService.getStoreServices());
+        storeServices.addAll(protectedDataStoreService.getStoreServices());
+        storeServices.addAll(resourceDataStoreService.getStoreServices());
+        StoreService.readFromResources(storeServices, postFix);
 
         map.putAll(protectedDataStoreService.getMap());
     }
@@ -300,6 +310,51 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Verifies the signatures of entries we are about to add, so the add operation on the user thread can skip the
+     * expensive signature check. Can be called from any thread. Entries we have already stored with the same or a
+     * higher sequence number are skipped as they will not get added. The caller has to call
+     * {@link #discardPreVerifiedEntries(Collection)} after the entries have been added.
+     */
+    public void preVerifySignatures(Collection<ProtectedStorageEntry> protectedStorageEntries) {
+        long ts = System.currentTimeMillis();
+        int numVerified = 0;
+        for (ProtectedStorageEntry protectedStorageEntry : protectedStorageEntries) {
+            ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
+            if (protectedStoragePayload == null)
+                continue;
+
+            if (isKnownWithSameOrHigherSequenceNumber(get32ByteHashAsByteArray(protectedStoragePayload),
+                    protectedStorageEntry.getSequenceNumber()))
+                continue;
+
+            if (verifySignature(protectedStorageEntry)) {
+                preVerifiedEntries.add(protectedStorageEntry);
+                numVerified++;
+            }
+        }
+        log.info("Pre-verifying {} of {} signatures took {} ms", numVerified, protectedStorageEntries.size(),
+                System.currentTimeMillis() - ts);
+    }
+
+    public void discardPreVerifiedEntries(Collection<ProtectedStorageEntry> protectedStorageEntries) {
+        preVerifiedEntries.removeAll(protectedStorageEntries);
+    }
+
+    @VisibleForTesting
+    int getNumPreVerifiedEntries() {
+        return preVerifiedEntries.size();
+    }
+
+    /**
+     * @return True if we have stored an entry for that payload hash with the same or a higher sequence number, so a
+     * received entry with that sequence number would not get added. Can be called from any thread.
+     */
+    public boolean isKnownWithSameOrHigherSequenceNumber(ByteArray hashOfPayload, int sequenceNumber) {
+        ProtectedStorageEntry storedEntry = map.get(hashOfPayload);
+        return storedEntry != null && storedEntry.getSequenceNumber() >= sequenceNumber;
+    }
+
     public boolean addPersistableNetworkPayload(PersistableNetworkPayload payload,
                                                 @Nullable NodeAddress sender,
                                                 boolean isDataOwner,
@@ -651,6 +706,14 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
     private boolean checkSignature(ProtectedStorageEntry protectedStorageEntry) {
+        if (preVerifiedEntries.remove(protectedStorageEntry))
+            return true;
+
+        return verifySignature(protectedStorageEntry);
+    }
+
+    // Thread safe
+    private boolean verifySignature(ProtectedStorageEntry protectedStorageEntry) {
         byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(protectedStorageEntry.getProtectedStoragePayload(), protectedStorageEntry.getSequenceNumber()));
         return checkSignature(protectedStorageEntry.getOwnerPubKey(), hashOfDataAndSeqNr, protectedStorageEntry.getSignature());
     }
@@ -17,18 +17,35 @@
 
 package bisq.network.p2p.storage.messages;
 
+import bisq.network.p2p.network.CompactEnvelopeCodec;
+import bisq.network.p2p.network.CompactNetworkEnvelope;
+
 import bisq.common.app.Version;
 
 import io.bisq.generated.protobuffer.PB;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
 
 import lombok.EqualsAndHashCode;
 import lombok.Value;
 
 @EqualsAndHashCode(callSuper = true)
 @Value
-public final class RefreshOfferMessage extends BroadcastMessage {
+public final class RefreshOfferMessage extends BroadcastMessage implements CompactNetworkEnvelope {
+    private static final int HASH_OF_DATA_AND_SEQ_NR_TAG = CompactEnvelopeCodec.tag(
+            PB.RefreshOfferMessage.HASH_OF_DATA_AND_SEQ_NR_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int SIGNATURE_TAG = CompactEnvelopeCodec.tag(
+            PB.RefreshOfferMessage.SIGNATURE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int HASH_OF_PAYLOAD_TAG = CompactEnvelopeCodec.tag(
+            PB.RefreshOfferMessage.HASH_OF_PAYLOAD_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int SEQUENCE_NUMBER_TAG = CompactEnvelopeCodec.tag(
+            PB.RefreshOfferMessage.SEQUENCE_NUMBER_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+
     private final byte[] hashOfDataAndSeqNr;     // 32 bytes
     private final byte[] signature;              // 46 bytes
     private final byte[] hashOfPayload;          // 32 bytes
@@ -76,4 +93,51 @@ public final class RefreshOfferMessage extends BroadcastMessage {
                 proto.getSequenceNumber(),
                 messageVersion);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // CompactNetworkEnvelope implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public int getEnvelopeFieldNumber() {
+        return PB.NetworkEnvelope.REFRESH_OFFER_MESSAGE_FIELD_NUMBER;
+    }
+
+    @Override
+    public int getCompactSerializedSize() {
+        return CompactEnvelopeCodec.computeBytesSize(PB.RefreshOfferMessage.HASH_OF_DATA_AND_SEQ_NR_FIELD_NUMBER, hashOfDataAndSeqNr) +
+                CompactEnvelopeCodec.computeBytesSize(PB.RefreshOfferMessage.SIGNATURE_FIELD_NUMBER, signature) +
+                CompactEnvelopeCodec.computeBytesSize(PB.RefreshOfferMessage.HASH_OF_PAYLOAD_FIELD_NUMBER, hashOfPayload) +
+                CompactEnvelopeCodec.computeInt32Size(PB.RefreshOfferMessage.SEQUENCE_NUMBER_FIELD_NUMBER, sequenceNumber);
+    }
+
+    @Override
+    public void writeCompactTo(CodedOutputStream outputStream) throws IOException {
+        CompactEnvelopeCodec.writeBytes(outputStream, PB.RefreshOfferMessage.HASH_OF_DATA_AND_SEQ_NR_FIELD_NUMBER, hashOfDataAndSeqNr);
+        CompactEnvelopeCodec.writeBytes(outputStream, PB.RefreshOfferMessage.SIGNATURE_FIELD_NUMBER, signature);
+        CompactEnvelopeCodec.writeBytes(outputStream, PB.RefreshOfferMessage.HASH_OF_PAYLOAD_FIELD_NUMBER, hashOfPayload);
+        CompactEnvelopeCodec.writeInt32(outputStream, PB.RefreshOfferMessage.SEQUENCE_NUMBER_FIELD_NUMBER, sequenceNumber);
+    }
+
+    public static RefreshOfferMessage fromCompact(CodedInputStream inputStream, int messageVersion) throws IOException {
+        byte[] hashOfDataAndSeqNr = new byte[0];
+        byte[] signature = new byte[0];
+        byte[] hashOfPayload = new byte[0];
+        int sequenceNumber = 0;
+        int tag;
+        while ((tag = inputStream.readTag()) != 0) {
+            if (tag == HASH_OF_DATA_AND_SEQ_NR_TAG)
+                hashOfDataAndSeqNr = inputStream.readByteArray();
+            else if (tag == SIGNATURE_TAG)
+                signature = inputStream.readByteArray();
+            else if (tag == HASH_OF_PAYLOAD_TAG)
+                hashOfPayload = inputStream.readByteArray();
+            else if (tag == SEQUENCE_NUMBER_TAG)
+                sequenceNumber = inputStream.readInt32();
+            else
+                inputStream.skipField(tag);
+        }
+        return new RefreshOfferMessage(hashOfDataAndSeqNr, signature, hashOfPayload, sequenceNumber, messageVersion);
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.payload;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.crypto.Hash;
+import bisq.common.proto.network.NetworkProtoResolver;
+
+import io.bisq.generated.protobuffer.PB;
+
+import javax.annotation.Nullable;
+
+/**
+ * A ProtectedStorageEntry of a received GetDataResponse which gets decoded at the first access. Decoding the payloads
+ * and their keys is the expensive part of reading a GetDataResponse, and most entries are already known to us.
+ * <p/>
+ * The hash of the payload is taken from the received bytes. It is the same as the hash P2PDataStorage uses as key as
+ * long as the payload has no fields unknown to us. Otherwise we don't find the entry by that hash and decode it.
+ */
+public final class LazyProtectedStorageEntry {
+    private final PB.StorageEntryWrapper proto;
+    private final NetworkProtoResolver resolver;
+    @Nullable
+    private P2PDataStorage.ByteArray hashOfPayload;
+    @Nullable
+    private ProtectedStorageEntry protectedStorageEntry;
+
+    public LazyProtectedStorageEntry(PB.StorageEntryWrapper proto, NetworkProtoResolver resolver) {
+        this.proto = proto;
+        this.resolver = resolver;
+    }
+
+    public synchronized P2PDataStorage.ByteArray getHashOfPayload() {
+        if (hashOfPayload == null)
+            hashOfPayload = new P2PDataStorage.ByteArray(Hash.getSha256Hash(getEntryProto().getStoragePayload().toByteArray()));
+        return hashOfPayload;
+    }
+
+    public int getSequenceNumber() {
+        return getEntryProto().getSequenceNumber();
+    }
+
+    public synchronized ProtectedStorageEntry get() {
+        if (protectedStorageEntry == null)
+            protectedStorageEntry = (ProtectedStorageEntry) resolver.fromProto(proto);
+        return protectedStorageEntry;
+    }
+
+    private PB.ProtectedStorageEntry getEntryProto() {
+        return proto.getMessageCase() == PB.StorageEntryWrapper.MessageCase.PROTECTED_MAILBOX_STORAGE_ENTRY ?
+                proto.getProtectedMailboxStorageEntry().getEntry() :
+                proto.getProtectedStorageEntry();
+    }
+
+    @Override
+    public String toString() {
+        return "LazyProtectedStorageEntry{" +
+                "\n     messageCase=" + proto.getMessageCase() +
+                ",\n     decoded=" + (protectedStorageEntry != null) +
+                "\n}";
+    }
+}
@@ -56,10 +56,9 @@ public class AppendOnlyDataStoreService {
         services.add(service);
     }
 
-    public void readFromResources(String postFix) {
-        services.forEach(service -> service.readFromResources(postFix));
-
-        // transferDeprecatedDataStructure();
+    public List<StoreService<?>> getStoreServices() {
+        // We used to call transferDeprecatedDataStructure() after reading the stores from the resources
+        return new ArrayList<>(services);
     }
 
     // Only needed for one time converting the old data store to the new ones. Can be removed after next release when we
@@ -51,8 +51,8 @@ public class ProtectedDataStoreService {
         services.add(service);
     }
 
-    public void readFromResources(String postFix) {
-        services.forEach(service -> service.readFromResources(postFix));
+    public List<StoreService<?>> getStoreServices() {
+        return new ArrayList<>(services);
     }
 
     public Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> getMap() {
@@ -42,7 +42,7 @@ public class ResourceDataStoreService {
         services.add(service);
     }
 
-    public void readFromResources(String postFix) {
-        services.forEach(service -> service.readFromResources(postFix));
+    public List<StoreService<?>> getStoreServices() {
+        return new ArrayList<>(services);
     }
 }
@@ -22,11 +22,20 @@ import bisq.common.storage.FileUtil;
 import bisq.common.storage.ResourceNotFoundException;
 import bisq.common.storage.Storage;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import java.nio.file.Paths;
 
 import java.io.File;
 import java.io.IOException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -42,6 +51,47 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public abstract class StoreService<T extends PersistableEnvelope> {
+    private static final int MAX_READ_THREADS = 4;
+
+    /**
+     * Reads the stores of the given services concurrently. The stores are independent files and deserializing the
+     * large ones dominates the startup time, so we don't need to read them one after another. Returns after all
+     * stores have been read.
+     */
+    public static void readFromResources(List<? extends StoreService<?>> services, String postFix) {
+        if (services.isEmpty())
+            return;
+
+        long ts = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(services.size(), MAX_READ_THREADS),
+                new ThreadFactoryBuilder().setNameFormat("StoreService-read-%d").setDaemon(true).build());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            services.forEach(service -> futures.add(executor.submit(() -> {
+                long startTs = System.currentTimeMillis();
+                service.readFromResources(postFix);
+                log.info("Reading {} took {} ms", service.getFileName(), System.currentTimeMillis() - startTs);
+            })));
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException)
+                        throw (RuntimeException) e.getCause();
+                    if (e.getCause() instanceof Error)
+                        throw (Error) e.getCause();
+                    throw new RuntimeException(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Reading {} stores took {} ms", services.size(), System.currentTimeMillis() - ts);
+    }
+
 
     protected final Storage<T> storage;
     protected final String absolutePathOfStorageDir;
@@ -125,9 +175,10 @@ public abstract class StoreService<T extends PersistableEnvelope> {
         final String fileName = getFileName();
         store = storage.initAndGetPersistedWithFileName(fileName, 100);
         if (store != null) {
+            // We use the file size as serializing the whole store again only for logging is expensive
             log.info("{}: size of {}: {} MB", this.getClass().getSimpleName(),
                     storage.getClass().getSimpleName(),
-                    store.toProtoMessage().toByteArray().length / 1_000_000D);
+                    new File(storage.getDir(), fileName).length() / 1_000_000D);
         } else {
             store = createStore();
         }
@@ -0,0 +1,250 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p;
+
+import bisq.network.Socks5ProxyProvider;
+import bisq.network.crypto.EncryptionService;
+import bisq.network.p2p.mocks.MockMailboxPayload;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.peers.PeerManager;
+import bisq.network.p2p.peers.getdata.RequestDataManager;
+import bisq.network.p2p.peers.keepalive.KeepAliveManager;
+import bisq.network.p2p.peers.peerexchange.PeerExchangeManager;
+import bisq.network.p2p.seed.SeedNodeRepository;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+
+import bisq.common.UserThread;
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.KeyRing;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.integration.junit4.JMockit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JMockit.class)
+public class P2PServiceMailboxTest {
+    private static final String UNDECRYPTABLE = "undecryptable";
+
+    @Injectable
+    NetworkNode networkNode;
+    @Injectable
+    PeerManager peerManager;
+    @Injectable
+    P2PDataStorage p2PDataStorage;
+    @Injectable
+    RequestDataManager requestDataManager;
+    @Injectable
+    PeerExchangeManager peerExchangeManager;
+    @Injectable
+    KeepAliveManager keepAliveManager;
+    @Injectable
+    Broadcaster broadcaster;
+    @Injectable
+    SeedNodeRepository seedNodeRepository;
+    @Injectable
+    Socks5ProxyProvider socks5ProxyProvider;
+    @Injectable
+    KeyRing keyRing;
+
+    private final NodeAddress myNodeAddress = new NodeAddress("myAddress.onion:9999");
+    private final NodeAddress senderNodeAddress = new NodeAddress("sender.onion:9999");
+    private final KeyPair myKeyPair = Sig.generateKeyPair();
+    private final KeyPair senderKeyPair = Sig.generateKeyPair();
+    // Delays of the decryption by message, so the decryptions complete in another order than they were started
+    private final Map<String, Long> decryptionDelayByMsg = new ConcurrentHashMap<>();
+    private final Map<String, CountDownLatch> decryptionLatchByMsg = new ConcurrentHashMap<>();
+
+    private Executor previousUserThreadExecutor;
+    private ExecutorService userThread;
+    private P2PService p2PService;
+    private List<String> receivedMsgs;
+    private CountDownLatch receivedLatch;
+
+    @Before
+    public void setup() {
+        new Expectations() {{
+            networkNode.getNodeAddress();
+            result = myNodeAddress;
+            minTimes = 0;
+            keyRing.getSignatureKeyPair();
+            result = myKeyPair;
+            minTimes = 0;
+        }};
+
+        previousUserThreadExecutor = UserThread.getExecutor();
+        userThread = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "UserThread"));
+        UserThread.setExecutor(userThread);
+
+        p2PService = new P2PService(networkNode, peerManager, p2PDataStorage, requestDataManager, peerExchangeManager,
+                keepAliveManager, broadcaster, seedNodeRepository, socks5ProxyProvider, new TestEncryptionService(),
+                keyRing);
+        // Only accessed from the user thread
+        receivedMsgs = new ArrayList<>();
+        p2PService.addDecryptedMailboxListener((decryptedMessageWithPubKey, senderNodeAddress) -> {
+            receivedMsgs.add(((MockMailboxPayload) decryptedMessageWithPubKey.getNetworkEnvelope()).msg);
+            receivedLatch.countDown();
+        });
+    }
+
+    @After
+    public void tearDown() {
+        UserThread.setExecutor(previousUserThreadExecutor);
+        userThread.shutdownNow();
+    }
+
+    @Test
+    public void testIsMailboxEntryForUs() {
+        assertTrue(p2PService.isMailboxEntryForUs(getEntry("msg", myKeyPair.getPublic(), myNodeAddress)));
+
+        // Another receiver key
+        assertFalse(p2PService.isMailboxEntryForUs(getEntry("msg", Sig.generateKeyPair().getPublic(), myNodeAddress)));
+
+        // Our key but another address prefix
+        assertFalse(p2PService.isMailboxEntryForUs(getEntry("msg", myKeyPair.getPublic(),
+                new NodeAddress("otherAddress.onion:9999"))));
+    }
+
+    @Test
+    public void testDecryptedEntriesAreAppliedInOrder() throws InterruptedException {
+        List<ProtectedMailboxStorageEntry> entries = new ArrayList<>();
+        List<String> expectedMsgs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String msg = "msg" + i;
+            // The first entries take longest to decrypt
+            decryptionDelayByMsg.put(msg, (long) (10 - i) * 20);
+            entries.add(getEntry(msg, myKeyPair.getPublic(), myNodeAddress));
+            expectedMsgs.add(msg);
+        }
+        entries.add(3, getEntry(UNDECRYPTABLE, myKeyPair.getPublic(), myNodeAddress));
+        entries.add(6, getEntry("foreign", Sig.generateKeyPair().getPublic(), myNodeAddress));
+        receivedLatch = new CountDownLatch(expectedMsgs.size());
+
+        UserThread.execute(() -> p2PService.processMailboxEntries(entries, true));
+
+        assertTrue(receivedLatch.await(10, TimeUnit.SECONDS));
+        assertEquals(expectedMsgs, getReceivedMsgs());
+    }
+
+    @Test
+    public void testEntryRemovedDuringDecryptionIsNotApplied() throws InterruptedException {
+        ProtectedMailboxStorageEntry removedEntry = getEntry("removed", myKeyPair.getPublic(), myNodeAddress);
+        ProtectedMailboxStorageEntry entry = getEntry("msg", myKeyPair.getPublic(), myNodeAddress);
+        CountDownLatch removedLatch = new CountDownLatch(1);
+        decryptionLatchByMsg.put("removed", removedLatch);
+        receivedLatch = new CountDownLatch(1);
+
+        UserThread.execute(() -> p2PService.processMailboxEntries(Arrays.asList(removedEntry, entry), false));
+        // The remove operation has a higher sequence number and another signature than the stored entry
+        ProtectedMailboxStorageEntry removeEntry = new ProtectedMailboxStorageEntry(removedEntry.getMailboxStoragePayload(),
+                myKeyPair.getPublic(), removedEntry.getSequenceNumber() + 1, new byte[]{4, 5, 6}, myKeyPair.getPublic());
+        UserThread.execute(() -> {
+            p2PService.onRemoved(removeEntry);
+            removedLatch.countDown();
+        });
+
+        // The results of both entries are applied in one task on the user thread
+        assertTrue(receivedLatch.await(10, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("msg"), getReceivedMsgs());
+
+        // A later add of the same entry gets applied again
+        receivedLatch = new CountDownLatch(1);
+        UserThread.execute(() -> p2PService.processMailboxEntries(Collections.singletonList(removedEntry), false));
+        assertTrue(receivedLatch.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("msg", "removed"), getReceivedMsgs());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Utils
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private List<String> getReceivedMsgs() throws InterruptedException {
+        List<String> msgs = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        UserThread.execute(() -> {
+            msgs.addAll(receivedMsgs);
+            latch.countDown();
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        return msgs;
+    }
+
+    // The message is the encrypted payload of the entry, so the TestEncryptionService can decrypt it without keys
+    private ProtectedMailboxStorageEntry getEntry(String msg, PublicKey receiversPubKey, NodeAddress receiversNodeAddress) {
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(new byte[]{1, 2, 3}, msg.getBytes(StandardCharsets.UTF_8),
+                new byte[]{7, 8}, senderKeyPair.getPublic());
+        PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = new PrefixedSealedAndSignedMessage(senderNodeAddress,
+                sealedAndSigned, receiversNodeAddress.getAddressPrefixHash(), msg);
+        MailboxStoragePayload payload = new MailboxStoragePayload(prefixedSealedAndSignedMessage, senderKeyPair.getPublic(),
+                receiversPubKey);
+        return new ProtectedMailboxStorageEntry(payload, senderKeyPair.getPublic(), 1, new byte[]{1, 2, 3}, receiversPubKey);
+    }
+
+    private class TestEncryptionService extends EncryptionService {
+        TestEncryptionService() {
+            super(null, null);
+        }
+
+        @Override
+        public DecryptedMessageWithPubKey decryptAndVerify(SealedAndSigned sealedAndSigned) throws CryptoException {
+            String msg = new String(sealedAndSigned.getEncryptedPayloadWithHmac(), StandardCharsets.UTF_8);
+            try {
+                CountDownLatch latch = decryptionLatchByMsg.get(msg);
+                if (latch != null && !latch.await(10, TimeUnit.SECONDS))
+                    throw new CryptoException("Timeout");
+                Thread.sleep(decryptionDelayByMsg.getOrDefault(msg, 0L));
+            } catch (InterruptedException e) {
+                throw new CryptoException(e);
+            }
+            if (msg.equals(UNDECRYPTABLE))
+                throw new CryptoException("Not for us");
+            return new DecryptedMessageWithPubKey(new MockMailboxPayload(msg, senderNodeAddress), senderKeyPair.getPublic());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+import bisq.network.p2p.peers.keepalive.messages.Pong;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+
+import bisq.common.app.Version;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.Random;
+
+/**
+ * Compares the time for writing Ping, Pong and RefreshOfferMessage with toProtoNetworkEnvelope().writeDelimitedTo, as
+ * ProtoOutputStream did before, and with CompactEnvelopeCodec.writeDelimitedTo. Not a unit test; run it from the test
+ * classpath of p2p:
+ *
+ * <pre>
+ * java -cp ... bisq.network.p2p.network.CompactEnvelopeCodecBenchmark 1000000 10
+ * </pre>
+ *
+ * Arguments are the number of messages written per round (default 1000000) and the number of rounds (default 10).
+ * The first half of the rounds is a warm up and not reported. The messages are written to a stream which only counts
+ * the bytes, so the time is spent in the serialization and not in the socket.
+ */
+public class CompactEnvelopeCodecBenchmark {
+
+    private static class CountingOutputStream extends OutputStream {
+        private long numBytes;
+
+        @Override
+        public void write(int b) {
+            numBytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            numBytes += len;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int numMessages = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        // BTC_MAINNET
+        Version.setBaseCryptoNetworkId(0);
+        Random random = new Random(1);
+        byte[] hashOfDataAndSeqNr = new byte[32];
+        random.nextBytes(hashOfDataAndSeqNr);
+        // Signature and hash of the payload as used for an offer
+        byte[] signature = new byte[71];
+        random.nextBytes(signature);
+        byte[] hashOfPayload = new byte[32];
+        random.nextBytes(hashOfPayload);
+
+        run("Ping", new Ping(random.nextInt(), random.nextInt(1000)), numMessages, rounds);
+        run("Pong", new Pong(random.nextInt()), numMessages, rounds);
+        run("RefreshOfferMessage",
+                new RefreshOfferMessage(hashOfDataAndSeqNr, signature, hashOfPayload, random.nextInt(100)),
+                numMessages, rounds);
+    }
+
+    private static <T extends NetworkEnvelope & CompactNetworkEnvelope> void run(String name,
+                                                                                 T envelope,
+                                                                                 int numMessages,
+                                                                                 int rounds) throws IOException {
+        CompactEnvelopeCodec codec = new CompactEnvelopeCodec();
+        CountingOutputStream protoOutputStream = new CountingOutputStream();
+        CountingOutputStream compactOutputStream = new CountingOutputStream();
+        long protoNanos = 0;
+        long compactNanos = 0;
+        for (int round = 0; round < rounds; round++) {
+            long ts = System.nanoTime();
+            for (int i = 0; i < numMessages; i++)
+                envelope.toProtoNetworkEnvelope().writeDelimitedTo(protoOutputStream);
+            long protoDuration = System.nanoTime() - ts;
+
+            ts = System.nanoTime();
+            for (int i = 0; i < numMessages; i++)
+                codec.writeDelimitedTo(envelope, compactOutputStream);
+            long compactDuration = System.nanoTime() - ts;
+
+            if (round >= rounds / 2) {
+                protoNanos += protoDuration;
+                compactNanos += compactDuration;
+            }
+        }
+
+        // Both write the same bytes, so the byte counts must be equal
+        long measuredMessages = (long) numMessages * (rounds - rounds / 2);
+        System.out.printf("%-20s proto: %7.1f ns per message, compact: %7.1f ns per message, bytes: %d / %d%n",
+                name,
+                (double) protoNanos / measuredMessages,
+                (double) compactNanos / measuredMessages,
+                protoOutputStream.numBytes, compactOutputStream.numBytes);
+    }
+}
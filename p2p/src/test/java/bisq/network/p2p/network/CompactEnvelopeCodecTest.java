@@ -0,0 +1,110 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+import bisq.network.p2p.peers.keepalive.messages.Pong;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+
+import bisq.common.app.Version;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.CodedInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CompactEnvelopeCodecTest {
+    private final CompactEnvelopeCodec codec = new CompactEnvelopeCodec();
+
+    @Before
+    public void setUp() {
+        Version.setBaseCryptoNetworkId(2);
+    }
+
+    @Test
+    public void testSameBytesAsProtobuf() throws Exception {
+        assertSameBytesAsProtobuf(new Ping(123456, 250));
+        assertSameBytesAsProtobuf(new Ping(-1, 0));
+        assertSameBytesAsProtobuf(new Pong(987654));
+        assertSameBytesAsProtobuf(new Pong(0));
+        assertSameBytesAsProtobuf(new RefreshOfferMessage(bytes(32, 1), bytes(46, 2), bytes(32, 3), 17));
+        assertSameBytesAsProtobuf(new RefreshOfferMessage(new byte[0], bytes(46, 2), bytes(32, 3), 0));
+    }
+
+    @Test
+    public void testDecodeProtobufBytes() throws Exception {
+        assertDecodesProtobufBytes(new Ping(123456, 250));
+        assertDecodesProtobufBytes(new Pong(-42));
+        assertDecodesProtobufBytes(new RefreshOfferMessage(bytes(32, 1), bytes(46, 2), bytes(32, 3), 17));
+    }
+
+    @Test
+    public void testOtherMessagesAreLeftToProtobuf() throws Exception {
+        byte[] bytes = PB.NetworkEnvelope.newBuilder()
+                .setMessageVersion(Version.getP2PMessageVersion())
+                .setCloseConnectionMessage(PB.CloseConnectionMessage.newBuilder().setReason("test"))
+                .build()
+                .toByteArray();
+        assertNull(codec.decode(bytes, bytes.length));
+
+        // Without message version we let the protobuf path report the wrong network id
+        bytes = PB.NetworkEnvelope.newBuilder()
+                .setPong(PB.Pong.newBuilder().setRequestNonce(1))
+                .build()
+                .toByteArray();
+        assertNull(codec.decode(bytes, bytes.length));
+    }
+
+    private void assertSameBytesAsProtobuf(NetworkEnvelope envelope) throws Exception {
+        ByteArrayOutputStream protobufOutputStream = new ByteArrayOutputStream();
+        envelope.toProtoNetworkEnvelope().writeDelimitedTo(protobufOutputStream);
+
+        ByteArrayOutputStream compactOutputStream = new ByteArrayOutputStream();
+        int size = codec.writeDelimitedTo((CompactNetworkEnvelope) envelope, compactOutputStream);
+
+        assertArrayEquals(protobufOutputStream.toByteArray(), compactOutputStream.toByteArray());
+        assertEquals(envelope.toProtoNetworkEnvelope().getSerializedSize(), size);
+    }
+
+    private void assertDecodesProtobufBytes(NetworkEnvelope envelope) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        envelope.toProtoNetworkEnvelope().writeDelimitedTo(outputStream);
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+
+        int size = CodedInputStream.readRawVarint32(inputStream.read(), inputStream);
+        byte[] bytes = codec.readFully(inputStream, size);
+        assertEquals(envelope, codec.decode(bytes, size));
+    }
+
+    private static byte[] bytes(int length, int value) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+            bytes[i] = (byte) (value + i);
+        return bytes;
+    }
+}
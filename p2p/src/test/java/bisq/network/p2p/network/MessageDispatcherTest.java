@@ -0,0 +1,185 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.mocks.MockPayload;
+
+import bisq.common.UserThread;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.integration.junit4.JMockit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JMockit.class)
+public class MessageDispatcherTest {
+    private static final int NUM_MESSAGES = 200;
+
+    @Injectable
+    Connection connection1;
+    @Injectable
+    Connection connection2;
+    @Injectable
+    Connection connection3;
+
+    private List<Connection> connections;
+
+    @Before
+    public void setup() {
+        new Expectations() {{
+            connection1.getUid();
+            result = "connection1";
+            minTimes = 0;
+            connection2.getUid();
+            result = "connection2";
+            minTimes = 0;
+            connection3.getUid();
+            result = "connection3";
+            minTimes = 0;
+        }};
+        connections = Arrays.asList(connection1, connection2, connection3);
+    }
+
+    @Test
+    public void testOrderedListenersGetMessagesOfConnectionInOrder() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(connections.size() * NUM_MESSAGES);
+        Map<String, AtomicInteger> numRunningByUid = new ConcurrentHashMap<>();
+        Map<String, List<String>> messagesByUid = new ConcurrentHashMap<>();
+        AtomicInteger maxNumRunningPerConnection = new AtomicInteger();
+        MessageListener orderedListener = new MessageListener() {
+            @Override
+            public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+                String uid = connection.getUid();
+                AtomicInteger numRunning = numRunningByUid.computeIfAbsent(uid, k -> new AtomicInteger());
+                maxNumRunningPerConnection.accumulateAndGet(numRunning.incrementAndGet(), Math::max);
+                messagesByUid.computeIfAbsent(uid, k -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(((MockPayload) networkEnvelope).msg);
+                numRunning.decrementAndGet();
+                latch.countDown();
+            }
+
+            @Override
+            public DispatchMode getDispatchMode() {
+                return DispatchMode.ORDERED;
+            }
+        };
+
+        MessageDispatcher dispatcher = MessageDispatcher.getInstance();
+        for (int i = 0; i < NUM_MESSAGES; i++) {
+            for (Connection connection : connections)
+                dispatcher.dispatch(new MockPayload(String.valueOf(i)), connection, Collections.singletonList(orderedListener));
+        }
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertEquals(1, maxNumRunningPerConnection.get());
+        assertEquals(connections.size(), messagesByUid.size());
+        messagesByUid.values().forEach(messages -> {
+            assertEquals(NUM_MESSAGES, messages.size());
+            for (int i = 0; i < NUM_MESSAGES; i++)
+                assertEquals(String.valueOf(i), messages.get(i));
+        });
+        assertLanesRemoved(dispatcher);
+    }
+
+    @Test
+    public void testUserThreadListenersGetMessagesAfterTasksOfOrderedListeners() throws InterruptedException {
+        Executor previousExecutor = UserThread.getExecutor();
+        ExecutorService userThread = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "UserThread"));
+        UserThread.setExecutor(userThread);
+        try {
+            CountDownLatch latch = new CountDownLatch(connections.size() * NUM_MESSAGES);
+            // Only written on the user thread
+            Map<String, List<String>> eventsByUid = new ConcurrentHashMap<>();
+            Map<String, String> threadNameByListener = new ConcurrentHashMap<>();
+            MessageListener orderedListener = new MessageListener() {
+                @Override
+                public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+                    threadNameByListener.put("ordered", Thread.currentThread().getName());
+                    // Like the RequestDataHandler, which hands the decoded data over to the user thread
+                    UserThread.execute(() -> addEvent(eventsByUid, connection, "ordered-" + ((MockPayload) networkEnvelope).msg));
+                }
+
+                @Override
+                public DispatchMode getDispatchMode() {
+                    return DispatchMode.ORDERED;
+                }
+            };
+            MessageListener userThreadListener = (networkEnvelope, connection) -> {
+                threadNameByListener.put("userThread", Thread.currentThread().getName());
+                addEvent(eventsByUid, connection, "userThread-" + ((MockPayload) networkEnvelope).msg);
+                latch.countDown();
+            };
+
+            // The user thread listener is registered first to show that the order of the listeners does not matter
+            List<MessageListener> listeners = Arrays.asList(userThreadListener, orderedListener);
+            MessageDispatcher dispatcher = MessageDispatcher.getInstance();
+            for (int i = 0; i < NUM_MESSAGES; i++) {
+                for (Connection connection : connections)
+                    dispatcher.dispatch(new MockPayload(String.valueOf(i)), connection, listeners);
+            }
+
+            assertTrue(latch.await(30, TimeUnit.SECONDS));
+            assertTrue(threadNameByListener.get("ordered").startsWith("MessageDispatcher-"));
+            assertEquals("UserThread", threadNameByListener.get("userThread"));
+            assertEquals(connections.size(), eventsByUid.size());
+            eventsByUid.values().forEach(events -> {
+                assertEquals(2 * NUM_MESSAGES, events.size());
+                for (int i = 0; i < NUM_MESSAGES; i++) {
+                    assertEquals("ordered-" + i, events.get(2 * i));
+                    assertEquals("userThread-" + i, events.get(2 * i + 1));
+                }
+            });
+            assertLanesRemoved(dispatcher);
+        } finally {
+            UserThread.setExecutor(previousExecutor);
+            userThread.shutdownNow();
+        }
+    }
+
+    private static void addEvent(Map<String, List<String>> eventsByUid, Connection connection, String event) {
+        eventsByUid.computeIfAbsent(connection.getUid(), k -> new ArrayList<>()).add(event);
+    }
+
+    private static void assertLanesRemoved(MessageDispatcher dispatcher) throws InterruptedException {
+        // The lane gets removed after the last listener has been called
+        long deadline = System.currentTimeMillis() + 5000;
+        while (dispatcher.getNumLanes() > 0 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertEquals(0, dispatcher.getNumLanes());
+    }
+}
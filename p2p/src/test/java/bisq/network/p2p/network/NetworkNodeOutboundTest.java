@@ -0,0 +1,121 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.TestUtils;
+import bisq.network.p2p.Utils;
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+// Uses localhost nodes, so unlike the other P2P network tests it does not need Tor
+public class NetworkNodeOutboundTest {
+    private static final Logger log = LoggerFactory.getLogger(NetworkNodeOutboundTest.class);
+
+    @Test
+    public void testShutDownRejectsOutboundTasks() throws Exception {
+        LocalhostNetworkNode node = new LocalhostNetworkNode(Utils.findFreeSystemPort(), TestUtils.getNetworkProtoResolver());
+        node.createExecutorService();
+        CountDownLatch shutDownLatch = new CountDownLatch(1);
+        node.shutDown(shutDownLatch::countDown);
+        assertTrue(shutDownLatch.await(10, TimeUnit.SECONDS));
+
+        ListenableFuture<String> future = node.outboundExecutor.submit("peer", () -> "rejected");
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("Expected a RejectedExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    // Sends a burst of messages to several peers at once. The outbound tasks of each peer run one after another, so
+    // the sender uses at most one thread per receiver.
+    @Test
+    public void testOutboundStress() throws Exception {
+        int numReceivers = 5;
+        int numMessagesPerReceiver = 40;
+        CountDownLatch msgLatch = new CountDownLatch(numReceivers * numMessagesPerReceiver);
+        List<LocalhostNetworkNode> receivers = new ArrayList<>();
+        for (int i = 0; i < numReceivers; i++) {
+            LocalhostNetworkNode receiver = startNode(Utils.findFreeSystemPort());
+            receiver.addMessageListener((message, connection) -> {
+                if (message instanceof Ping)
+                    msgLatch.countDown();
+            });
+            receivers.add(receiver);
+        }
+        LocalhostNetworkNode sender = startNode(Utils.findFreeSystemPort());
+
+        long ts = System.currentTimeMillis();
+        for (int i = 0; i < numMessagesPerReceiver; i++) {
+            for (LocalhostNetworkNode receiver : receivers)
+                sender.sendMessage(new NodeAddress("localhost", receiver.servicePort), new Ping(i, 0));
+        }
+        assertTrue(msgLatch.await(60, TimeUnit.SECONDS));
+        log.info("Sending {} messages took {} ms. {}", numReceivers * numMessagesPerReceiver,
+                System.currentTimeMillis() - ts, sender.outboundExecutor);
+
+        CountDownLatch shutDownLatch = new CountDownLatch(numReceivers + 1);
+        sender.shutDown(shutDownLatch::countDown);
+        receivers.forEach(receiver -> receiver.shutDown(shutDownLatch::countDown));
+        assertTrue(shutDownLatch.await(10, TimeUnit.SECONDS));
+    }
+
+    private static LocalhostNetworkNode startNode(int port) throws InterruptedException {
+        LocalhostNetworkNode node = new LocalhostNetworkNode(port, TestUtils.getNetworkProtoResolver());
+        CountDownLatch startupLatch = new CountDownLatch(1);
+        node.start(new SetupListener() {
+            @Override
+            public void onTorNodeReady() {
+            }
+
+            @Override
+            public void onHiddenServicePublished() {
+                startupLatch.countDown();
+            }
+
+            @Override
+            public void onSetupFailed(Throwable throwable) {
+                log.debug("onSetupFailed");
+            }
+
+            @Override
+            public void onRequestCustomBridges() {
+            }
+        });
+        assertTrue(startupLatch.await(10, TimeUnit.SECONDS));
+        return node;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OutboundExecutorTest {
+
+    @Test
+    public void testTasksOfOnePeerRunOneAfterAnother() throws Exception {
+        int maxThreads = 4;
+        int numPeers = 20;
+        int numTasksPerPeer = 50;
+        OutboundExecutor executor = new OutboundExecutor("test", maxThreads, numPeers * numTasksPerPeer, false);
+        AtomicInteger numRunning = new AtomicInteger();
+        AtomicInteger maxNumRunning = new AtomicInteger();
+        Map<String, AtomicInteger> numRunningByPeer = new ConcurrentHashMap<>();
+        Map<String, List<Integer>> runOrderByPeer = new ConcurrentHashMap<>();
+
+        List<ListenableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < numTasksPerPeer; i++) {
+            for (int peer = 0; peer < numPeers; peer++) {
+                String peerKey = "peer" + peer;
+                int taskIndex = i;
+                futures.add(executor.submit(peerKey, () -> {
+                    maxNumRunning.accumulateAndGet(numRunning.incrementAndGet(), Math::max);
+                    AtomicInteger numRunningForPeer = numRunningByPeer.computeIfAbsent(peerKey, k -> new AtomicInteger());
+                    assertEquals(1, numRunningForPeer.incrementAndGet());
+                    Thread.sleep(1);
+                    runOrderByPeer.computeIfAbsent(peerKey, k -> new ArrayList<>()).add(taskIndex);
+                    numRunningForPeer.decrementAndGet();
+                    numRunning.decrementAndGet();
+                    return taskIndex;
+                }));
+            }
+        }
+
+        for (ListenableFuture<Integer> future : futures)
+            future.get(30, TimeUnit.SECONDS);
+
+        assertTrue(maxNumRunning.get() <= maxThreads);
+        assertEquals(numPeers, runOrderByPeer.size());
+        runOrderByPeer.values().forEach(runOrder -> {
+            assertEquals(numTasksPerPeer, runOrder.size());
+            for (int i = 0; i < numTasksPerPeer; i++)
+                assertEquals(i, (int) runOrder.get(i));
+        });
+        assertEquals(0, executor.getNumQueuedTasks());
+    }
+
+    @Test
+    public void testTasksGetRejectedIfTooManyAreWaiting() throws Exception {
+        OutboundExecutor executor = new OutboundExecutor("test", 1, 2, false);
+        CountDownLatch blockingTaskStarted = new CountDownLatch(1);
+        CountDownLatch releaseBlockingTask = new CountDownLatch(1);
+        ListenableFuture<Boolean> blockingTask = executor.submit("peer", () -> {
+            blockingTaskStarted.countDown();
+            return releaseBlockingTask.await(10, TimeUnit.SECONDS);
+        });
+        assertTrue(blockingTaskStarted.await(10, TimeUnit.SECONDS));
+
+        ListenableFuture<String> first = executor.submit("peer", () -> "first");
+        ListenableFuture<String> second = executor.submit("otherPeer", () -> "second");
+        ListenableFuture<String> rejected = executor.submit("peer", () -> "rejected");
+        try {
+            rejected.get();
+            fail("Expected a RejectedExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+
+        releaseBlockingTask.countDown();
+        assertTrue(blockingTask.get(10, TimeUnit.SECONDS));
+        assertEquals("first", first.get(10, TimeUnit.SECONDS));
+        assertEquals("second", second.get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.TestUtils;
+
+import org.berndpruenster.netlayer.tor.Tor;
+import org.berndpruenster.netlayer.tor.TorCtlException;
+
+import java.io.File;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TorBootstrapTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPhaseDurations() throws Exception {
+        TorNetworkNode node = new TorNetworkNode(9001, TestUtils.getNetworkProtoResolver(), false,
+                new FailingTorMode(folder.getRoot(), false));
+        TestSetupListener setupListener = new TestSetupListener();
+        node.addSetupListener(setupListener);
+
+        assertEquals(TorBootstrapState.NOT_STARTED, node.bootstrapStateProperty().get());
+        node.setBootstrapState(TorBootstrapState.STARTING_TOR);
+        Thread.sleep(50);
+        node.setBootstrapState(TorBootstrapState.PUBLISHING_HIDDEN_SERVICE);
+        Thread.sleep(100);
+        node.setBootstrapState(TorBootstrapState.STARTING_SERVER);
+        node.setBootstrapState(TorBootstrapState.READY);
+
+        assertEquals(TorBootstrapState.READY, node.bootstrapStateProperty().get());
+        // Leaving NOT_STARTED is not reported and the final state is no phase
+        assertEquals(Arrays.asList(TorBootstrapState.STARTING_TOR,
+                TorBootstrapState.PUBLISHING_HIDDEN_SERVICE,
+                TorBootstrapState.STARTING_SERVER), setupListener.completedPhases);
+        assertTrue(setupListener.durations.get(0) >= 50);
+        assertTrue(setupListener.durations.get(1) >= 100);
+    }
+
+    @Test
+    public void testWarmStartFallsBackToColdStart() throws Exception {
+        FailingTorMode torMode = new FailingTorMode(folder.getRoot(), true);
+        TorNetworkNode node = new TorNetworkNode(9002, TestUtils.getNetworkProtoResolver(), false, torMode);
+        TestSetupListener setupListener = new TestSetupListener();
+        node.start(setupListener);
+
+        assertTrue(setupListener.customBridgesRequested.await(10, TimeUnit.SECONDS));
+        // The warm start and one cold start after clearing the cached state
+        assertEquals(2, torMode.numGetTorCalls.get());
+        assertEquals(1, torMode.numClearCachedStateCalls.get());
+        assertEquals(TorBootstrapState.FAILED, node.bootstrapStateProperty().get());
+        // The failed warm start adds to the duration of STARTING_TOR
+        assertEquals(Arrays.asList(TorBootstrapState.STARTING_TOR, TorBootstrapState.STARTING_TOR),
+                setupListener.completedPhases);
+    }
+
+    @Test
+    public void testColdStartRequestsCustomBridges() throws Exception {
+        FailingTorMode torMode = new FailingTorMode(folder.getRoot(), false);
+        TorNetworkNode node = new TorNetworkNode(9003, TestUtils.getNetworkProtoResolver(), false, torMode);
+        TestSetupListener setupListener = new TestSetupListener();
+        node.start(setupListener);
+
+        assertTrue(setupListener.customBridgesRequested.await(10, TimeUnit.SECONDS));
+        assertEquals(1, torMode.numGetTorCalls.get());
+        assertEquals(0, torMode.numClearCachedStateCalls.get());
+        assertEquals(TorBootstrapState.FAILED, node.bootstrapStateProperty().get());
+        assertEquals(Arrays.asList(TorBootstrapState.STARTING_TOR), setupListener.completedPhases);
+    }
+
+    // Runs only with a local Tor managed outside of the test, e.g. started with
+    // "tor --ControlPort 9151 --CookieAuthentication 0" and -DtorControlPort=9151
+    @Test
+    public void testRunningTor() throws Exception {
+        String torControlPort = System.getProperty("torControlPort");
+        Assume.assumeTrue(torControlPort != null);
+
+        TorNetworkNode node = new TorNetworkNode(9004, TestUtils.getNetworkProtoResolver(), false,
+                new RunningTor(folder.getRoot(), Integer.parseInt(torControlPort)));
+        TestSetupListener setupListener = new TestSetupListener();
+        node.start(setupListener);
+        try {
+            assertTrue(setupListener.hiddenServicePublished.await(3, TimeUnit.MINUTES));
+            assertEquals(TorBootstrapState.READY, node.bootstrapStateProperty().get());
+            assertEquals(Arrays.asList(TorBootstrapState.STARTING_TOR,
+                    TorBootstrapState.PUBLISHING_HIDDEN_SERVICE,
+                    TorBootstrapState.STARTING_SERVER), setupListener.completedPhases);
+        } finally {
+            CountDownLatch shutDownLatch = new CountDownLatch(1);
+            node.shutDown(shutDownLatch::countDown);
+            shutDownLatch.await(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static class FailingTorMode extends TorMode {
+        private final boolean warmStart;
+        private final AtomicInteger numGetTorCalls = new AtomicInteger();
+        private final AtomicInteger numClearCachedStateCalls = new AtomicInteger();
+
+        FailingTorMode(File torDir, boolean warmStart) {
+            super(torDir);
+            this.warmStart = warmStart;
+        }
+
+        @Override
+        public Tor getTor() throws TorCtlException {
+            numGetTorCalls.incrementAndGet();
+            throw new TorCtlException("Test failure", null);
+        }
+
+        @Override
+        public String getHiddenServiceDirectory() {
+            return "";
+        }
+
+        @Override
+        public boolean isWarmStart() {
+            return warmStart;
+        }
+
+        @Override
+        public void clearCachedState() {
+            numClearCachedStateCalls.incrementAndGet();
+        }
+    }
+
+    private static class TestSetupListener implements SetupListener {
+        private final List<TorBootstrapState> completedPhases = new CopyOnWriteArrayList<>();
+        private final List<Long> durations = new CopyOnWriteArrayList<>();
+        private final CountDownLatch customBridgesRequested = new CountDownLatch(1);
+        private final CountDownLatch hiddenServicePublished = new CountDownLatch(1);
+
+        @Override
+        public void onTorNodeReady() {
+        }
+
+        @Override
+        public void onHiddenServicePublished() {
+            hiddenServicePublished.countDown();
+        }
+
+        @Override
+        public void onSetupFailed(Throwable throwable) {
+        }
+
+        @Override
+        public void onRequestCustomBridges() {
+            customBridgesRequested.countDown();
+        }
+
+        @Override
+        public void onTorBootstrapPhaseCompleted(TorBootstrapState phase, long durationMs) {
+            completedPhases.add(phase);
+            durations.add(durationMs);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers;
+
+import bisq.network.p2p.NodeAddress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class RoundTripTimeEstimatorTest {
+    private final NodeAddress fast = new NodeAddress("fast.onion:9999");
+    private final NodeAddress slow = new NodeAddress("slow.onion:9999");
+    private final NodeAddress unknown1 = new NodeAddress("unknown1.onion:9999");
+    private final NodeAddress unknown2 = new NodeAddress("unknown2.onion:9999");
+
+    @Test
+    public void testSingleOutlierIsSmoothed() {
+        RoundTripTimeEstimator estimator = new RoundTripTimeEstimator();
+        assertFalse(estimator.getEstimate(fast).isPresent());
+
+        estimator.addSample(fast, 800);
+        assertEquals(Optional.of(800L), estimator.getEstimate(fast));
+
+        estimator.addSample(fast, 8800);
+        assertEquals(Optional.of(1800L), estimator.getEstimate(fast));
+    }
+
+    @Test
+    public void testLowLatencyFirst() {
+        RoundTripTimeEstimator estimator = new RoundTripTimeEstimator();
+        estimator.addSample(slow, 5000);
+        estimator.addSample(fast, 500);
+
+        List<NodeAddress> nodeAddresses = new ArrayList<>(Arrays.asList(unknown2, slow, unknown1, fast));
+        nodeAddresses.sort(estimator.lowLatencyFirst());
+        assertEquals(Arrays.asList(fast, slow, unknown2, unknown1), nodeAddresses);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.keepalive;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KeepAliveManagerTest {
+    private static final long RECENT = 1000;
+    private static final long OLD = 200_000;
+
+    @Test
+    public void testRequiresPing() {
+        assertFalse(KeepAliveManager.requiresPing(RECENT, RECENT, true));
+
+        // The peer only pushes data to us, its socket would time out without our pings
+        assertTrue(KeepAliveManager.requiresPing(RECENT, OLD, true));
+        assertTrue(KeepAliveManager.requiresPing(OLD, RECENT, true));
+        assertTrue(KeepAliveManager.requiresPing(OLD, OLD, true));
+
+        // We want a round trip time estimate even for busy connections
+        assertTrue(KeepAliveManager.requiresPing(RECENT, RECENT, false));
+    }
+
+    @Test
+    public void testPingsAreSpreadOverInterval() {
+        long intervalMs = 30_000;
+        int numPings = 100;
+        long slotMs = intervalMs / numPings;
+        long previousDelay = 0;
+        for (int i = 0; i < numPings; i++) {
+            long minDelay = KeepAliveManager.getPingDelay(i, numPings, intervalMs, 0);
+            long maxDelay = KeepAliveManager.getPingDelay(i, numPings, intervalMs, 0.999);
+            assertTrue(minDelay > previousDelay);
+            assertTrue(minDelay >= i * slotMs);
+            assertTrue(maxDelay <= (i + 1) * slotMs);
+            previousDelay = maxDelay;
+        }
+        assertTrue(previousDelay <= intervalMs);
+
+        // With more pings than milliseconds in the interval we still get a positive delay for each ping
+        assertTrue(KeepAliveManager.getPingDelay(0, 100_000, intervalMs, 0) > 0);
+    }
+}
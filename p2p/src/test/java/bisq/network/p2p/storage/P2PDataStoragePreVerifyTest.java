@@ -0,0 +1,168 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
+import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
+import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
+import bisq.network.p2p.storage.persistence.SequenceNumberMap;
+
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.Sig;
+import bisq.common.storage.Storage;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+import java.util.Collections;
+import java.util.Map;
+
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import javax.annotation.Nullable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JMockit.class)
+public class P2PDataStoragePreVerifyTest {
+    @Mocked
+    NetworkNode networkNode;
+    @Mocked
+    Broadcaster broadcaster;
+    @Mocked
+    AppendOnlyDataStoreService appendOnlyDataStoreService;
+    @Mocked
+    ProtectedDataStoreService protectedDataStoreService;
+    @Mocked
+    ResourceDataStoreService resourceDataStoreService;
+    @Mocked
+    Storage<SequenceNumberMap> sequenceNumberMapStorage;
+
+    private P2PDataStorage dataStorage;
+    private KeyPair keyPair;
+
+    @Before
+    public void setup() {
+        dataStorage = new P2PDataStorage(networkNode, broadcaster, appendOnlyDataStoreService, protectedDataStoreService,
+                resourceDataStoreService, sequenceNumberMapStorage);
+        keyPair = Sig.generateKeyPair();
+    }
+
+    @Test
+    public void testPreVerifiedEntryIsConsumedByAdd() throws CryptoException {
+        ProtectedStorageEntry entry = dataStorage.getProtectedStorageEntry(new TestPayload("msg", keyPair.getPublic()), keyPair);
+
+        dataStorage.preVerifySignatures(Collections.singletonList(entry));
+        assertEquals(1, dataStorage.getNumPreVerifiedEntries());
+
+        assertTrue(dataStorage.addProtectedStorageEntry(entry, null, null, false, false));
+        assertEquals(0, dataStorage.getNumPreVerifiedEntries());
+    }
+
+    @Test
+    public void testEntryNotReachingSignatureCheckIsDiscarded() throws CryptoException {
+        // The entry is correctly signed but the payload belongs to another owner, so the add fails before the
+        // signature check
+        KeyPair otherKeyPair = Sig.generateKeyPair();
+        ProtectedStorageEntry entry = dataStorage.getProtectedStorageEntry(new TestPayload("msg", otherKeyPair.getPublic()), keyPair);
+
+        dataStorage.preVerifySignatures(Collections.singletonList(entry));
+        assertEquals(1, dataStorage.getNumPreVerifiedEntries());
+
+        assertFalse(dataStorage.addProtectedStorageEntry(entry, null, null, false, false));
+        assertEquals(1, dataStorage.getNumPreVerifiedEntries());
+
+        dataStorage.discardPreVerifiedEntries(Collections.singletonList(entry));
+        assertEquals(0, dataStorage.getNumPreVerifiedEntries());
+    }
+
+    @Test
+    public void testInvalidAndKnownEntriesAreNotPreVerified() throws CryptoException {
+        TestPayload payload = new TestPayload("msg", keyPair.getPublic());
+        ProtectedStorageEntry entry = dataStorage.getProtectedStorageEntry(payload, keyPair);
+        ProtectedStorageEntry invalidEntry = new ProtectedStorageEntry(payload, keyPair.getPublic(),
+                entry.getSequenceNumber() + 1, entry.getSignature());
+
+        dataStorage.preVerifySignatures(Collections.singletonList(invalidEntry));
+        assertEquals(0, dataStorage.getNumPreVerifiedEntries());
+
+        assertTrue(dataStorage.addProtectedStorageEntry(entry, null, null, false, false));
+        dataStorage.preVerifySignatures(Collections.singletonList(entry));
+        assertEquals(0, dataStorage.getNumPreVerifiedEntries());
+    }
+
+    @Test
+    public void testDiscardOnlyRemovesGivenEntries() throws CryptoException {
+        ProtectedStorageEntry entry1 = dataStorage.getProtectedStorageEntry(new TestPayload("msg1", keyPair.getPublic()), keyPair);
+        ProtectedStorageEntry entry2 = dataStorage.getProtectedStorageEntry(new TestPayload("msg2", keyPair.getPublic()), keyPair);
+
+        dataStorage.preVerifySignatures(Collections.singletonList(entry1));
+        dataStorage.preVerifySignatures(Collections.singletonList(entry2));
+        assertEquals(2, dataStorage.getNumPreVerifiedEntries());
+
+        dataStorage.discardPreVerifiedEntries(Collections.singletonList(entry1));
+        assertEquals(1, dataStorage.getNumPreVerifiedEntries());
+
+        assertTrue(dataStorage.addProtectedStorageEntry(entry2, null, null, false, false));
+        assertEquals(0, dataStorage.getNumPreVerifiedEntries());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Test payload
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class TestPayload implements ProtectedStoragePayload {
+        private final String msg;
+        private final PublicKey ownerPubKey;
+
+        TestPayload(String msg, PublicKey ownerPubKey) {
+            this.msg = msg;
+            this.ownerPubKey = ownerPubKey;
+        }
+
+        @Override
+        public PublicKey getOwnerPubKey() {
+            return ownerPubKey;
+        }
+
+        @Nullable
+        @Override
+        public Map<String, String> getExtraDataMap() {
+            return null;
+        }
+
+        @Override
+        public PB.StoragePayload toProtoMessage() {
+            return PB.StoragePayload.newBuilder().setAlert(PB.Alert.newBuilder().setMessage(msg)).build();
+        }
+    }
+}
@@ -17,10 +17,16 @@
 
 package bisq.price;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ModelAttribute;
 
 import javax.servlet.http.HttpServletRequest;
 
+import java.util.Arrays;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,4 +38,44 @@ public abstract class PriceController {
     public void logRequest(HttpServletRequest request) {
         log.info("Incoming {} request from: {}", request.getServletPath(), request.getHeader("User-Agent"));
     }
+
+    /**
+     * Respond with the given pre-rendered snapshot: <code>304 Not Modified</code> if the
+     * client already has it, the gzip body if the client accepts it, otherwise the
+     * uncompressed body.
+     */
+    protected ResponseEntity<byte[]> respondWith(PriceSnapshot snapshot,
+                                                 HttpServletRequest request,
+                                                 RequestMetrics requestMetrics) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(snapshot.getEtag());
+        headers.setCacheControl("no-cache");
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (matchesEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), snapshot.getEtag())) {
+            requestMetrics.record(request.getServletPath(), true, false, 0);
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        byte[] body = gzip ? snapshot.gzip() : snapshot.identity();
+        if (gzip)
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        headers.setContentLength(body.length);
+
+        requestMetrics.record(request.getServletPath(), false, gzip, body.length);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null)
+            return false;
+
+        return Arrays.stream(ifNoneMatch.split(","))
+            .map(String::trim)
+            .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+            .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
 }
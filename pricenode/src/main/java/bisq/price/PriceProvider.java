@@ -17,26 +17,37 @@
 
 package bisq.price;
 
-import org.springframework.context.SmartLifecycle;
-
 import java.time.Duration;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
+/**
+ * Abstract base class for providers of price data. Providers do not refresh
+ * themselves; all of them are refreshed concurrently by the
+ * {@link PriceProviderRefresher}, which also enforces the
+ * {@link #getRefreshTimeout() refresh timeout}. Until a refresh succeeds,
+ * {@link #get()} keeps serving the last successfully fetched result.
+ */
+public abstract class PriceProvider<T> implements Supplier<T> {
+
+    private static final Duration DEFAULT_REFRESH_TIMEOUT = Duration.ofSeconds(20);
 
     protected final Logger log = LoggerFactory.getLogger(this.getClass());
 
-    private final Timer timer = new Timer(true);
-
     protected final Duration refreshInterval;
 
-    private T cachedResult;
+    private volatile T cachedResult;
+    private volatile long lastRefreshTs;
+    private volatile long lastRefreshDuration;
+    private volatile int consecutiveFailures;
+    private volatile String lastFailure;
+    private final AtomicLong refreshCount = new AtomicLong();
 
     public PriceProvider(Duration refreshInterval) {
         this.refreshInterval = refreshInterval;
@@ -45,71 +56,88 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
 
     @Override
     public final T get() {
-        if (!isRunning())
-            throw new IllegalStateException("call start() before calling get()");
+        if (!isAvailable())
+            throw new IllegalStateException("no data has been fetched yet");
 
         return cachedResult;
     }
 
-    @Override
-    public final void start() {
-        // we call refresh outside the context of a timer once at startup to ensure that
-        // any exceptions thrown get propagated and cause the application to halt
-        refresh();
-
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    refresh();
-                } catch (Throwable t) {
-                    // we only log scheduled calls to refresh that fail to ensure that
-                    // the application does *not* halt, assuming the failure is temporary
-                    // and on the side of the upstream price provider, eg. BitcoinAverage
-                    log.warn("refresh failed", t);
-                }
-            }
-        }, refreshInterval.toMillis(), refreshInterval.toMillis());
+    /**
+     * @return true once the first refresh succeeded, even if later ones failed
+     */
+    public boolean isAvailable() {
+        return cachedResult != null;
     }
 
-    private void refresh() {
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * @return the time after which a refresh in progress is abandoned and the
+     * previous result continues to be served
+     */
+    public Duration getRefreshTimeout() {
+        return refreshInterval.compareTo(DEFAULT_REFRESH_TIMEOUT) < 0 ? refreshInterval : DEFAULT_REFRESH_TIMEOUT;
+    }
+
+    void refresh() {
         long ts = System.currentTimeMillis();
 
-        cachedResult = doGet();
+        T result = doGet();
 
-        log.info("refresh took {} ms.", (System.currentTimeMillis() - ts));
+        // the refresher interrupts us once the refresh timeout is reached
+        if (Thread.currentThread().isInterrupted()) {
+            log.warn("discarding result that arrived after {} ms", (System.currentTimeMillis() - ts));
+            return;
+        }
 
-        onRefresh();
-    }
+        cachedResult = result;
+        lastRefreshTs = System.currentTimeMillis();
+        lastRefreshDuration = lastRefreshTs - ts;
+        consecutiveFailures = 0;
+        refreshCount.incrementAndGet();
 
-    protected abstract T doGet();
+        log.info("refresh took {} ms.", lastRefreshDuration);
 
-    protected void onRefresh() {
+        onRefresh();
     }
 
-    @Override
-    public void stop() {
-        timer.cancel();
+    /**
+     * @return the number of successful refreshes so far, allowing consumers to detect
+     * that the data changed without comparing it
+     */
+    public long getRefreshCount() {
+        return refreshCount.get();
     }
 
-    @Override
-    public void stop(Runnable callback) {
-        stop();
-        callback.run();
+    void onRefreshFailed(Throwable t) {
+        consecutiveFailures++;
+        lastFailure = t.toString();
     }
 
-    @Override
-    public boolean isAutoStartup() {
-        return true;
-    }
+    protected abstract T doGet();
 
-    @Override
-    public boolean isRunning() {
-        return cachedResult != null;
+    protected void onRefresh() {
     }
 
-    @Override
-    public int getPhase() {
-        return 0;
+    /**
+     * @return the latency of the last successful refresh and the staleness of
+     * the data currently served
+     */
+    public Map<String, Object> getRefreshStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("available", isAvailable());
+        stats.put("lastRefreshTs", lastRefreshTs);
+        stats.put("lastRefreshDurationMs", lastRefreshDuration);
+        stats.put("staleMs", lastRefreshTs == 0 ? -1 : System.currentTimeMillis() - lastRefreshTs);
+        stats.put("consecutiveFailures", consecutiveFailures);
+        if (lastFailure != null)
+            stats.put("lastFailure", lastFailure);
+        return stats;
     }
 }
@@ -0,0 +1,183 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price;
+
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Refreshes all {@link PriceProvider}s concurrently, each one on its own refresh
+ * interval and with its own refresh timeout. A provider that is slow or fails keeps
+ * serving its previous result (if any) and does not delay the other providers, nor
+ * does a failure at startup halt the application. Refresh latency and staleness of
+ * each provider are exposed via the actuator info endpoint.
+ */
+@Component
+public class PriceProviderRefresher implements SmartLifecycle, InfoContributor {
+
+    private static final int MAX_CONCURRENT_REFRESHES = 8;
+
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final List<PriceProvider<?>> providers;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService refreshExecutor;
+    private final Map<PriceProvider<?>, Object> refreshesInProgress = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+
+    public PriceProviderRefresher(List<PriceProvider<?>> providers) {
+        this.providers = providers;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("PriceProviderScheduler").setDaemon(true).build());
+        // a refresh that timed out may still block its thread on a socket read, so the pool
+        // must not be sized to the number of providers
+        ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(
+            MAX_CONCURRENT_REFRESHES, MAX_CONCURRENT_REFRESHES, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("PriceProviderRefresh-%d").setDaemon(true).build());
+        refreshExecutor.allowCoreThreadTimeOut(true);
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public void start() {
+        long ts = System.currentTimeMillis();
+
+        // fetch from all providers at once and wait until each one has either delivered or hit its timeout
+        List<CompletableFuture<Void>> initialRefreshes = providers.stream()
+            .map(this::refresh)
+            .collect(Collectors.toList());
+        CompletableFuture.allOf(initialRefreshes.toArray(new CompletableFuture[0])).join();
+
+        log.info("initial refresh of {} providers took {} ms, {} of them available",
+            providers.size(),
+            (System.currentTimeMillis() - ts),
+            providers.stream().filter(PriceProvider::isAvailable).count());
+
+        providers.forEach(provider -> {
+            long interval = provider.getRefreshInterval().toMillis();
+            scheduler.scheduleAtFixedRate(() -> refresh(provider), interval, interval, TimeUnit.MILLISECONDS);
+        });
+
+        running = true;
+    }
+
+    /**
+     * Refresh the given provider unless a refresh of it is already in progress.
+     *
+     * @return a future completing once the refresh succeeded, failed or timed out
+     */
+    CompletableFuture<Void> refresh(PriceProvider<?> provider) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Object token = new Object();
+        if (refreshesInProgress.putIfAbsent(provider, token) != null) {
+            log.warn("{}: previous refresh still in progress, skipping this one", provider.getName());
+            done.complete(null);
+            return done;
+        }
+
+        Future<?> refresh = refreshExecutor.submit(() -> {
+            try {
+                provider.refresh();
+            } catch (Throwable t) {
+                // we only log failed refreshes to ensure that the application does *not* halt, assuming
+                // the failure is temporary and on the side of the upstream price provider, eg. BitcoinAverage
+                if (!done.isDone()) {
+                    log.warn("{}: refresh failed", provider.getName(), t);
+                    provider.onRefreshFailed(t);
+                }
+            } finally {
+                refreshesInProgress.remove(provider, token);
+                done.complete(null);
+            }
+        });
+
+        long timeout = provider.getRefreshTimeout().toMillis();
+        scheduler.schedule(() -> {
+            if (done.isDone())
+                return;
+
+            refresh.cancel(true);
+            log.warn("{}: refresh did not complete within {} ms, continuing to serve previous data",
+                provider.getName(), timeout);
+            provider.onRefreshFailed(new TimeoutException("refresh timed out after " + timeout + " ms"));
+            refreshesInProgress.remove(provider, token);
+            done.complete(null);
+        }, timeout, TimeUnit.MILLISECONDS);
+
+        return done;
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        providers.forEach(provider -> stats.put(provider.getName(), provider.getRefreshStats()));
+        builder.withDetail("providers", stats);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        refreshExecutor.shutdownNow();
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.google.common.hash.Hashing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An immutable, pre-rendered JSON response body in both identity and gzip encoding,
+ * along with its ETag. Price data only changes when a {@link PriceProvider} refreshes,
+ * so rendering it once per refresh instead of once per request spares us from
+ * re-serialising (and re-compressing) the same data for thousands of polling clients.
+ */
+public final class PriceSnapshot {
+
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final String etag;
+
+    private PriceSnapshot(byte[] identity, byte[] gzip, String etag) {
+        this.identity = identity;
+        this.gzip = gzip;
+        this.etag = etag;
+    }
+
+    public static PriceSnapshot render(Object value, ObjectMapper objectMapper) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(value);
+            String etag = "\"" + Hashing.sha256().hashBytes(identity).toString().substring(0, 32) + "\"";
+            return new PriceSnapshot(identity, gzip(identity), etag);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("could not render price snapshot", ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    byte[] identity() {
+        return identity;
+    }
+
+    byte[] gzip() {
+        return gzip;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+
+    /**
+     * Holds the latest {@link PriceSnapshot} and renders a new one only once the
+     * given version changed, i.e. once any of the underlying providers refreshed.
+     */
+    public static final class Cache {
+
+        private final LongSupplier version;
+        private final Supplier<Object> value;
+        private final ObjectMapper objectMapper;
+
+        private volatile PriceSnapshot snapshot;
+        private volatile long snapshotVersion = -1;
+
+        public Cache(LongSupplier version, Supplier<Object> value, ObjectMapper objectMapper) {
+            this.version = version;
+            this.value = value;
+            this.objectMapper = objectMapper;
+        }
+
+        public PriceSnapshot get() {
+            long currentVersion = version.getAsLong();
+            if (currentVersion != snapshotVersion) {
+                synchronized (this) {
+                    if (currentVersion != snapshotVersion) {
+                        snapshot = render(value.get(), objectMapper);
+                        snapshotVersion = currentVersion;
+                    }
+                }
+            }
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price;
+
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts requests per endpoint, how many of them could be answered with
+ * <code>304 Not Modified</code> or a gzip body, the number of body bytes sent and the
+ * request rate over the last minute. The figures are exposed via the actuator info
+ * endpoint.
+ */
+@Component
+public class RequestMetrics implements InfoContributor {
+
+    private static final int RATE_WINDOW_SEC = 60;
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, boolean notModified, boolean gzip, int bodyBytes) {
+        endpoints.computeIfAbsent(endpoint, e -> new EndpointMetrics()).record(notModified, gzip, bodyBytes);
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        Map<String, Object> details = new TreeMap<>();
+        endpoints.forEach((endpoint, metrics) -> details.put(endpoint, metrics.toMap()));
+        builder.withDetail("requests", details);
+    }
+
+
+    private static class EndpointMetrics {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder notModified = new LongAdder();
+        private final LongAdder gzip = new LongAdder();
+        private final LongAdder bytesSent = new LongAdder();
+
+        // per-second request counts of the last RATE_WINDOW_SEC seconds, used as a ring buffer
+        private final long[] slotSecond = new long[RATE_WINDOW_SEC];
+        private final long[] slotCount = new long[RATE_WINDOW_SEC];
+
+        void record(boolean notModified, boolean gzip, int bodyBytes) {
+            requests.increment();
+            if (notModified)
+                this.notModified.increment();
+            if (gzip)
+                this.gzip.increment();
+            bytesSent.add(bodyBytes);
+
+            long second = System.currentTimeMillis() / 1000;
+            int slot = (int) (second % RATE_WINDOW_SEC);
+            synchronized (this) {
+                if (slotSecond[slot] != second) {
+                    slotSecond[slot] = second;
+                    slotCount[slot] = 0;
+                }
+                slotCount[slot]++;
+            }
+        }
+
+        synchronized double getRequestsPerSecond() {
+            long now = System.currentTimeMillis() / 1000;
+            long count = 0;
+            for (int i = 0; i < RATE_WINDOW_SEC; i++) {
+                if (now - slotSecond[i] < RATE_WINDOW_SEC)
+                    count += slotCount[i];
+            }
+            return (double) count / RATE_WINDOW_SEC;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("total", requests.sum());
+            map.put("notModified", notModified.sum());
+            map.put("gzip", gzip.sum());
+            map.put("bytesSent", bytesSent.sum());
+            map.put("requestsPerSecond", getRequestsPerSecond());
+            return map;
+        }
+    }
+}
@@ -18,23 +18,27 @@
 package bisq.price.mining;
 
 import bisq.price.PriceController;
+import bisq.price.RequestMetrics;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
 
 @RestController
 class FeeRateController extends PriceController {
 
     private final FeeRateService feeRateService;
+    private final RequestMetrics requestMetrics;
 
-    public FeeRateController(FeeRateService feeRateService) {
+    public FeeRateController(FeeRateService feeRateService, RequestMetrics requestMetrics) {
         this.feeRateService = feeRateService;
+        this.requestMetrics = requestMetrics;
     }
 
     @GetMapping(path = "/getFees")
-    public Map<String, Object> getFees() {
-        return feeRateService.getFees();
+    public ResponseEntity<byte[]> getFees(HttpServletRequest request) {
+        return respondWith(feeRateService.getFeesSnapshot(), request, requestMetrics);
     }
 }
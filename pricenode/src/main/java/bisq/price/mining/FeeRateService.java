@@ -17,8 +17,12 @@
 
 package bisq.price.mining;
 
+import bisq.price.PriceSnapshot;
+
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -30,16 +34,29 @@ import java.util.Set;
 class FeeRateService {
 
     private final Set<FeeRateProvider> providers;
+    private final PriceSnapshot.Cache snapshotCache;
 
-    public FeeRateService(Set<FeeRateProvider> providers) {
+    public FeeRateService(Set<FeeRateProvider> providers, ObjectMapper objectMapper) {
         this.providers = providers;
+        this.snapshotCache = new PriceSnapshot.Cache(
+            () -> providers.stream().mapToLong(FeeRateProvider::getRefreshCount).sum(),
+            this::getFees,
+            objectMapper);
+    }
+
+    /**
+     * @return {@link #getFees()} rendered as JSON, re-rendered only after a provider
+     * refreshed
+     */
+    public PriceSnapshot getFeesSnapshot() {
+        return snapshotCache.get();
     }
 
     public Map<String, Object> getFees() {
         Map<String, Long> metadata = new HashMap<>();
         Map<String, Long> allFeeRates = new HashMap<>();
 
-        providers.forEach(p -> {
+        providers.stream().filter(FeeRateProvider::isAvailable).forEach(p -> {
             FeeRate feeRate = p.get();
             String currency = feeRate.getCurrency();
             if ("BTC".equals(currency)) {
@@ -18,23 +18,37 @@
 package bisq.price.spot;
 
 import bisq.price.PriceController;
+import bisq.price.PriceSnapshot;
+import bisq.price.RequestMetrics;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
 
 @RestController
 class ExchangeRateController extends PriceController {
 
     private final ExchangeRateService exchangeRateService;
+    private final RequestMetrics requestMetrics;
 
-    public ExchangeRateController(ExchangeRateService exchangeRateService) {
+    public ExchangeRateController(ExchangeRateService exchangeRateService, RequestMetrics requestMetrics) {
         this.exchangeRateService = exchangeRateService;
+        this.requestMetrics = requestMetrics;
     }
 
+    /**
+     * @param since optional "ts" value of an earlier response, to return only the exchange
+     *              rates changed afterwards
+     */
     @GetMapping(path = "/getAllMarketPrices")
-    public Map<String, Object> getAllMarketPrices() {
-        return exchangeRateService.getAllMarketPrices();
+    public ResponseEntity<byte[]> getAllMarketPrices(@RequestParam(required = false) Long since,
+                                                     HttpServletRequest request) {
+        PriceSnapshot snapshot = since == null ?
+            exchangeRateService.getAllMarketPricesSnapshot() :
+            exchangeRateService.getMarketPricesSnapshot(since);
+        return respondWith(snapshot, request, requestMetrics);
     }
 }
@@ -46,6 +46,7 @@ public abstract class ExchangeRateProvider extends PriceProvider<Set<ExchangeRat
         this.prefix = prefix;
     }
 
+    @Override
     public String getName() {
         return name;
     }
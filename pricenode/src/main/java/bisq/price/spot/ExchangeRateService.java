@@ -17,16 +17,24 @@
 
 package bisq.price.spot;
 
+import bisq.price.PriceSnapshot;
 import bisq.price.spot.providers.BitcoinAverage;
 
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,16 +47,58 @@ class ExchangeRateService {
     protected final Logger log = LoggerFactory.getLogger(this.getClass());
 
     private final List<ExchangeRateProvider> providers;
+    private final ObjectMapper objectMapper;
+    private final PriceSnapshot.Cache snapshotCache;
+    // the data of the latest snapshot, from which we serve the changes since an earlier one
+    private volatile MarketPrices marketPrices;
+
+    // for each currency, the ts at which we first served its current exchange rate
+    private final Map<String, Long> changedTs = new HashMap<>();
+    private final Map<String, ExchangeRate> lastExchangeRates = new HashMap<>();
+    private long lastChangeTs;
 
     /**
      * Construct an {@link ExchangeRateService} with a list of all
      * {@link ExchangeRateProvider} implementations discovered via classpath scanning.
      *
-     * @param providers all {@link ExchangeRateProvider} implementations in ascending
-     *                  order of precedence
+     * @param providers    all {@link ExchangeRateProvider} implementations in ascending
+     *                     order of precedence
+     * @param objectMapper used to render {@link #getAllMarketPricesSnapshot()} and
+     *                     {@link #getMarketPricesSnapshot(long)}
      */
-    public ExchangeRateService(List<ExchangeRateProvider> providers) {
+    public ExchangeRateService(List<ExchangeRateProvider> providers, ObjectMapper objectMapper) {
         this.providers = providers;
+        this.objectMapper = objectMapper;
+        this.snapshotCache = new PriceSnapshot.Cache(
+            () -> providers.stream().mapToLong(ExchangeRateProvider::getRefreshCount).sum(),
+            () -> {
+                // the cache renders one snapshot at a time, so no other call tracks changes meanwhile
+                Map<String, Object> allMarketPrices = getAllMarketPrices();
+                marketPrices = new MarketPrices(allMarketPrices, getChangedTs());
+                return allMarketPrices;
+            },
+            objectMapper);
+    }
+
+    /**
+     * @return {@link #getAllMarketPrices()} rendered as JSON, re-rendered only after a
+     * provider refreshed
+     */
+    public PriceSnapshot getAllMarketPricesSnapshot() {
+        return snapshotCache.get();
+    }
+
+    /**
+     * @param since the "ts" value of an earlier response
+     * @return the latest snapshot with only the exchange rates which changed after
+     * <code>since</code>, rendered once for all clients polling with the same changes
+     */
+    public PriceSnapshot getMarketPricesSnapshot(long since) {
+        PriceSnapshot allMarketPricesSnapshot = getAllMarketPricesSnapshot();
+        if (since <= 0)
+            return allMarketPricesSnapshot;
+
+        return marketPrices.getChangesSnapshot(since, objectMapper);
     }
 
     public Map<String, Object> getAllMarketPrices() {
@@ -56,7 +106,8 @@ class ExchangeRateService {
         Map<String, ExchangeRate> allExchangeRates = new LinkedHashMap<>();
 
         providers.forEach(p -> {
-            Set<ExchangeRate> exchangeRates = p.get();
+            // A provider which did not deliver any data yet is reported with a timestamp of 0, see getMetadata
+            Set<ExchangeRate> exchangeRates = p.isAvailable() ? p.get() : Collections.emptySet();
             metadata.putAll(getMetadata(p, exchangeRates));
             exchangeRates.forEach(e ->
                 allExchangeRates.put(e.getCurrency(), e)
@@ -69,10 +120,34 @@ class ExchangeRateService {
             // price nodes easier
             List<ExchangeRate> values = new ArrayList<>(allExchangeRates.values());
             values.sort(Comparator.comparing(ExchangeRate::getCurrency));
+            // Clients pass this value as 'since' parameter to get only the exchange rates changed afterwards
+            put("ts", trackChanges(values));
             put("data", values);
         }};
     }
 
+    /**
+     * @return a ts which is greater than or equal to the changed ts of all given exchange
+     * rates and less than the changed ts of any exchange rate changing later on
+     */
+    private synchronized long trackChanges(List<ExchangeRate> exchangeRates) {
+        long ts = Math.max(System.currentTimeMillis(), lastChangeTs + 1);
+        boolean changed = false;
+        for (ExchangeRate exchangeRate : exchangeRates) {
+            if (!exchangeRate.equals(lastExchangeRates.put(exchangeRate.getCurrency(), exchangeRate))) {
+                changedTs.put(exchangeRate.getCurrency(), ts);
+                changed = true;
+            }
+        }
+        if (changed)
+            lastChangeTs = ts;
+        return lastChangeTs;
+    }
+
+    private synchronized Map<String, Long> getChangedTs() {
+        return new HashMap<>(changedTs);
+    }
+
     private Map<String, Object> getMetadata(ExchangeRateProvider provider, Set<ExchangeRate> exchangeRates) {
         Map<String, Object> metadata = new LinkedHashMap<>();
 
@@ -105,4 +180,42 @@ class ExchangeRateService {
             .orElseThrow(() -> new IllegalStateException("No exchange rate data found for " + provider.getName()))
             .getTimestamp();
     }
+
+
+    /**
+     * The data of a snapshot along with the ts at which each of its exchange rates changed.
+     */
+    private static final class MarketPrices {
+
+        private final Map<String, Object> allMarketPrices;
+        private final Map<String, Long> changedTs;
+        private final TreeSet<Long> distinctChangedTs;
+        // keyed by the greatest changed ts not after the requested 'since' value, as all
+        // 'since' values between two changes ask for the same exchange rates. That bounds
+        // the entries to the number of currencies, whatever values clients send.
+        private final Map<Long, PriceSnapshot> changesSnapshots = new ConcurrentHashMap<>();
+
+        MarketPrices(Map<String, Object> allMarketPrices, Map<String, Long> changedTs) {
+            this.allMarketPrices = allMarketPrices;
+            this.changedTs = changedTs;
+            this.distinctChangedTs = new TreeSet<>(changedTs.values());
+        }
+
+        PriceSnapshot getChangesSnapshot(long since, ObjectMapper objectMapper) {
+            Long key = distinctChangedTs.floor(since);
+            long normalizedSince = key != null ? key : 0;
+            return changesSnapshots.computeIfAbsent(normalizedSince,
+                e -> PriceSnapshot.render(getChanges(normalizedSince), objectMapper));
+        }
+
+        private Map<String, Object> getChanges(long since) {
+            Map<String, Object> changes = new LinkedHashMap<>(allMarketPrices);
+            //noinspection unchecked
+            List<ExchangeRate> data = (List<ExchangeRate>) allMarketPrices.get("data");
+            changes.put("data", data.stream()
+                .filter(e -> changedTs.getOrDefault(e.getCurrency(), Long.MAX_VALUE) > since)
+                .collect(Collectors.toList()));
+            return changes;
+        }
+    }
 }
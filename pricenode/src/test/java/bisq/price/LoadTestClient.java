@@ -0,0 +1,115 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A simple concurrent client for measuring how many requests per second a pricenode
+ * serves. Not a unit test; run it against a local pricenode, e.g. once built from
+ * before and once from after a change:
+ *
+ * <pre>
+ * java -cp ... bisq.price.LoadTestClient http://localhost:8080/getAllMarketPrices 32 30
+ * </pre>
+ *
+ * Arguments are the URL, the number of concurrent clients (default 16) and the
+ * duration of each round in seconds (default 20). Three rounds are run: plain
+ * requests as sent by older Bisq clients, requests accepting gzip, and conditional
+ * requests sending the ETag of the previous response.
+ */
+public class LoadTestClient {
+
+    private enum Mode {
+        PLAIN, GZIP, CONDITIONAL
+    }
+
+    public static void main(String[] args) throws Exception {
+        URL url = new URL(args.length > 0 ? args[0] : "http://localhost:8080/getAllMarketPrices");
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int durationSec = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        for (Mode mode : Mode.values())
+            run(url, mode, clients, durationSec);
+    }
+
+    private static void run(URL url, Mode mode, int clients, int durationSec) throws Exception {
+        LongAdder requests = new LongAdder();
+        LongAdder notModified = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LongAdder bytes = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSec);
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            futures.add(executor.submit(() -> {
+                String etag = null;
+                byte[] buffer = new byte[16 * 1024];
+                while (System.nanoTime() < deadline) {
+                    try {
+                        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                        if (mode != Mode.PLAIN)
+                            connection.setRequestProperty("Accept-Encoding", "gzip");
+                        if (mode == Mode.CONDITIONAL && etag != null)
+                            connection.setRequestProperty("If-None-Match", etag);
+
+                        int status = connection.getResponseCode();
+                        if (status == 304) {
+                            notModified.increment();
+                        } else if (status == 200) {
+                            etag = connection.getHeaderField("ETag");
+                            try (InputStream in = connection.getInputStream()) {
+                                int read;
+                                while ((read = in.read(buffer)) != -1)
+                                    bytes.add(read);
+                            }
+                        } else {
+                            errors.increment();
+                        }
+                        requests.increment();
+                    } catch (IOException e) {
+                        errors.increment();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures)
+            future.get();
+        executor.shutdown();
+
+        System.out.printf("%-11s %8.1f requests/sec, %6.1f KiB/request, %d not modified, %d errors%n",
+            mode,
+            requests.sum() / (double) durationSec,
+            requests.sum() == 0 ? 0 : bytes.sum() / 1024d / requests.sum(),
+            notModified.sum(),
+            errors.sum());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price;
+
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetSocketAddress;
+
+import java.nio.charset.StandardCharsets;
+
+import java.time.Duration;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the {@link PriceProviderRefresher} against stub upstream price providers
+ * served from localhost.
+ */
+public class PriceProviderRefresherTest {
+
+    private static final Duration REFRESH_TIMEOUT = Duration.ofMillis(500);
+
+    private HttpServer server;
+    private volatile String price = "42";
+    private volatile long delayMs = 2000;
+
+    @Before
+    public void startStubServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/price", exchange -> {
+            byte[] body = price.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException ignore) {
+            }
+            byte[] body = "1".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/error", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @After
+    public void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void slowAndFailingProvidersNeitherDelayNorHaltStartup() {
+        StubProvider healthy = new StubProvider("/price");
+        StubProvider slow = new StubProvider("/slow");
+        StubProvider failing = new StubProvider("/error");
+        PriceProviderRefresher refresher = new PriceProviderRefresher(Arrays.asList(healthy, slow, failing));
+
+        long ts = System.currentTimeMillis();
+        refresher.start();
+        long startupDuration = System.currentTimeMillis() - ts;
+
+        assertTrue(refresher.isRunning());
+        assertTrue("startup took " + startupDuration + " ms", startupDuration < delayMs);
+        assertTrue(healthy.isAvailable());
+        assertEquals("42", healthy.get());
+        assertFalse(slow.isAvailable());
+        assertFalse(failing.isAvailable());
+        assertEquals(1, slow.getRefreshStats().get("consecutiveFailures"));
+        assertEquals(1, failing.getRefreshStats().get("consecutiveFailures"));
+
+        refresher.stop();
+    }
+
+    @Test
+    public void staleDataIsServedWhileUpstreamIsUnavailable() {
+        StubProvider provider = new StubProvider("/price");
+        PriceProviderRefresher refresher = new PriceProviderRefresher(Arrays.asList(provider));
+        refresher.start();
+        assertEquals("42", provider.get());
+
+        price = "43";
+        refresher.refresh(provider).join();
+        assertEquals("43", provider.get());
+
+        provider.path = "/slow";
+        refresher.refresh(provider).join();
+        assertEquals("43", provider.get());
+        assertEquals(1, provider.getRefreshStats().get("consecutiveFailures"));
+        assertTrue((long) provider.getRefreshStats().get("staleMs") >= REFRESH_TIMEOUT.toMillis());
+
+        provider.path = "/price";
+        refresher.refresh(provider).join();
+        assertEquals(0, provider.getRefreshStats().get("consecutiveFailures"));
+
+        refresher.stop();
+    }
+
+
+    private class StubProvider extends PriceProvider<String> {
+
+        private final RestTemplate restTemplate = new RestTemplate();
+        private volatile String path;
+
+        StubProvider(String path) {
+            super(Duration.ofMinutes(1));
+            this.path = path;
+        }
+
+        @Override
+        public Duration getRefreshTimeout() {
+            return REFRESH_TIMEOUT;
+        }
+
+        @Override
+        protected String doGet() {
+            return restTemplate.getForObject(
+                "http://127.0.0.1:" + server.getAddress().getPort() + path, String.class);
+        }
+    }
+}
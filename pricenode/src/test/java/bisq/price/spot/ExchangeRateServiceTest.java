@@ -0,0 +1,153 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.spot;
+
+import bisq.price.PriceProvider;
+import bisq.price.PriceProviderRefresher;
+import bisq.price.RequestMetrics;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.servlet.http.HttpServletRequest;
+
+import java.lang.reflect.Proxy;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ExchangeRateServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubProvider provider;
+    private ExchangeRateService service;
+    private ExchangeRateController controller;
+
+    @Before
+    public void setUp() {
+        provider = new StubProvider();
+        service = new ExchangeRateService(Collections.singletonList(provider), objectMapper);
+        controller = new ExchangeRateController(service, new RequestMetrics());
+    }
+
+    @Test
+    public void testChangesSince() throws Exception {
+        refresh(new ExchangeRate("EUR", 1, 1000, "STUB"), new ExchangeRate("USD", 2, 1000, "STUB"));
+        JsonNode all = get(null, null);
+        assertEquals(Arrays.asList("EUR", "USD"), getCurrencies(all));
+        long ts = all.get("ts").asLong();
+
+        // nothing changed yet
+        assertEquals(Collections.emptyList(), getCurrencies(get(ts, null)));
+
+        refresh(new ExchangeRate("EUR", 1, 1000, "STUB"), new ExchangeRate("USD", 3, 2000, "STUB"));
+        JsonNode changes = get(ts, null);
+        assertEquals(Collections.singletonList("USD"), getCurrencies(changes));
+        long nextTs = changes.get("ts").asLong();
+        assertEquals(Collections.emptyList(), getCurrencies(get(nextTs, null)));
+
+        // a client which missed a change gets all exchange rates changed since its ts
+        assertEquals(Arrays.asList("EUR", "USD"), getCurrencies(get(ts - 1, null)));
+        assertEquals(Arrays.asList("EUR", "USD"), getCurrencies(get(1L, null)));
+    }
+
+    @Test
+    public void testChangesAreRenderedOncePerDistinctChanges() throws Exception {
+        refresh(new ExchangeRate("EUR", 1, 1000, "STUB"));
+        long ts = get(null, null).get("ts").asLong();
+
+        // all 'since' values between two changes ask for the same, so they share a snapshot
+        assertSame(service.getMarketPricesSnapshot(ts), service.getMarketPricesSnapshot(ts + 1));
+        assertSame(service.getMarketPricesSnapshot(ts), service.getMarketPricesSnapshot(Long.MAX_VALUE));
+        assertSame(service.getMarketPricesSnapshot(1), service.getMarketPricesSnapshot(ts - 1));
+        assertSame(service.getAllMarketPricesSnapshot(), service.getMarketPricesSnapshot(0));
+    }
+
+    @Test
+    public void testChangesSupportEtag() throws Exception {
+        refresh(new ExchangeRate("EUR", 1, 1000, "STUB"));
+        long ts = get(null, null).get("ts").asLong();
+        String etag = service.getMarketPricesSnapshot(ts).getEtag();
+
+        ResponseEntity<byte[]> response = controller.getAllMarketPrices(ts, createRequest(etag));
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    }
+
+    private JsonNode get(Long since, String ifNoneMatch) throws Exception {
+        ResponseEntity<byte[]> response = controller.getAllMarketPrices(since, createRequest(ifNoneMatch));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return objectMapper.readTree(response.getBody());
+    }
+
+    private static List<String> getCurrencies(JsonNode marketPrices) {
+        List<String> currencies = new ArrayList<>();
+        marketPrices.get("data").forEach(e -> currencies.add(e.get("currencyCode").asText()));
+        return currencies;
+    }
+
+    private void refresh(ExchangeRate... exchangeRates) {
+        provider.exchangeRates = new HashSet<>(Arrays.asList(exchangeRates));
+        PriceProviderRefresher refresher = new PriceProviderRefresher(
+            Collections.<PriceProvider<?>>singletonList(provider));
+        refresher.start();
+        refresher.stop();
+    }
+
+    // a request without Accept-Encoding, so we get the uncompressed body
+    private static HttpServletRequest createRequest(String ifNoneMatch) {
+        return (HttpServletRequest) Proxy.newProxyInstance(ExchangeRateServiceTest.class.getClassLoader(),
+            new Class<?>[]{HttpServletRequest.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("getServletPath"))
+                    return "/getAllMarketPrices";
+                if (method.getName().equals("getHeader") && HttpHeaders.IF_NONE_MATCH.equals(args[0]))
+                    return ifNoneMatch;
+                return null;
+            });
+    }
+
+    private static class StubProvider extends ExchangeRateProvider {
+
+        private volatile Set<ExchangeRate> exchangeRates;
+
+        StubProvider() {
+            super("STUB", "stub", Duration.ofDays(1));
+        }
+
+        @Override
+        protected Set<ExchangeRate> doGet() {
+            return exchangeRates;
+        }
+    }
+}
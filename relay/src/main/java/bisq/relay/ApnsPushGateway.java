@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.relay;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.turo.pushy.apns.ApnsClient;
+import com.turo.pushy.apns.PushNotificationResponse;
+import com.turo.pushy.apns.util.ApnsPayloadBuilder;
+import com.turo.pushy.apns.util.SimpleApnsPushNotification;
+import com.turo.pushy.apns.util.concurrent.PushNotificationResponseListener;
+
+/**
+ * Sends notifications to the APNs gateway. The ApnsClient multiplexes the notifications over its HTTP/2
+ * connection, so many notifications can be in flight at the same time.
+ */
+class ApnsPushGateway implements PushGateway {
+    private static final Logger log = LoggerFactory.getLogger(ApnsPushGateway.class);
+    // Rejection reasons of the APNs gateway which are worth a retry
+    private static final Set<String> RETRYABLE_REJECTION_REASONS = new HashSet<>(Arrays.asList(
+        "TooManyRequests", "InternalServerError", "ServiceUnavailable", "Shutdown"));
+
+    private final String appleBundleId;
+    private final ApnsClient productionApnsClient;
+    private final ApnsClient devApnsClient; // used for iOS development in XCode
+
+    ApnsPushGateway(String appleBundleId, ApnsClient productionApnsClient, ApnsClient devApnsClient) {
+        this.appleBundleId = appleBundleId;
+        this.productionApnsClient = productionApnsClient;
+        this.devApnsClient = devApnsClient;
+    }
+
+    @Override
+    public ListenableFuture<Void> send(PushNotification notification) {
+        ApnsPayloadBuilder payloadBuilder = new ApnsPayloadBuilder();
+        if (notification.isUseSound())
+            payloadBuilder.setSoundFileName("default");
+        payloadBuilder.setAlertBody("Bisq notification");
+        payloadBuilder.setContentAvailable(notification.isContentAvailable());
+        payloadBuilder.addCustomProperty("encrypted", notification.getEncryptedMessage());
+        final String payload = payloadBuilder.buildWithDefaultMaximumLength();
+        log.debug("payload " + payload);
+        SimpleApnsPushNotification simpleApnsPushNotification = new SimpleApnsPushNotification(notification.getToken(),
+            appleBundleId, payload);
+
+        SettableFuture<Void> result = SettableFuture.create();
+        ApnsClient apnsClient = notification.isProduction() ? productionApnsClient : devApnsClient;
+        apnsClient.sendNotification(simpleApnsPushNotification).addListener(
+            (PushNotificationResponseListener<SimpleApnsPushNotification>) future -> {
+                if (!future.isSuccess()) {
+                    result.setException(future.cause());
+                    return;
+                }
+
+                PushNotificationResponse<SimpleApnsPushNotification> pushNotificationResponse = future.getNow();
+                if (pushNotificationResponse.isAccepted()) {
+                    log.info("Push notification accepted by APNs gateway.");
+                    result.set(null);
+                } else {
+                    String reason = pushNotificationResponse.getRejectionReason();
+                    String msg = "Notification rejected by the APNs gateway: " + reason;
+                    if (pushNotificationResponse.getTokenInvalidationTimestamp() != null)
+                        msg += " and the token is invalid as of " +
+                            pushNotificationResponse.getTokenInvalidationTimestamp();
+                    result.setException(new PushRejectedException(msg, RETRYABLE_REJECTION_REASONS.contains(reason)));
+                }
+            });
+        return result;
+    }
+}
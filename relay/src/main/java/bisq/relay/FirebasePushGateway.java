@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.relay;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+
+import com.google.api.core.ApiFuture;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.Notification;
+
+/**
+ * Sends notifications to Firebase Cloud Messaging with the async API of the Firebase SDK.
+ */
+class FirebasePushGateway implements PushGateway {
+    private static final Logger log = LoggerFactory.getLogger(FirebasePushGateway.class);
+    // Error codes of Firebase which are worth a retry
+    private static final Set<String> RETRYABLE_ERROR_CODES = new HashSet<>(Arrays.asList(
+        "internal-error", "server-unavailable", "unknown-error"));
+
+    @Override
+    public ListenableFuture<Void> send(PushNotification notification) {
+        Message.Builder messageBuilder = Message.builder();
+        Notification firebaseNotification = new Notification("Bisq", "Notification");
+        messageBuilder.setNotification(firebaseNotification);
+        messageBuilder.putData("encrypted", notification.getEncryptedMessage());
+        messageBuilder.setToken(notification.getToken());
+        if (notification.isUseSound())
+            messageBuilder.putData("sound", "default");
+        Message message = messageBuilder.build();
+
+        SettableFuture<Void> result = SettableFuture.create();
+        ApiFuture<String> future = FirebaseMessaging.getInstance().sendAsync(message);
+        future.addListener(() -> {
+            try {
+                // The future is done, so get() does not block
+                future.get();
+                log.info("Push notification accepted by Firebase.");
+                result.set(null);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof FirebaseMessagingException) {
+                    String errorCode = ((FirebaseMessagingException) cause).getErrorCode();
+                    result.setException(new PushRejectedException("Notification rejected by Firebase: " + errorCode,
+                        RETRYABLE_ERROR_CODES.contains(errorCode)));
+                } else {
+                    result.setException(cause);
+                }
+            } catch (Throwable t) {
+                result.setException(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+}
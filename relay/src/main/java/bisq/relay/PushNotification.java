@@ -0,0 +1,101 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.relay;
+
+import java.util.Objects;
+
+/**
+ * A push notification for one device as received from a Bisq app.
+ */
+final class PushNotification {
+    private final boolean isAndroid;
+    private final boolean isProduction;
+    private final boolean isContentAvailable;
+    private final String token;
+    private final String encryptedMessage;
+    private final boolean useSound;
+
+    PushNotification(boolean isAndroid, boolean isProduction, boolean isContentAvailable, String token,
+                     String encryptedMessage, boolean useSound) {
+        this.isAndroid = isAndroid;
+        this.isProduction = isProduction;
+        this.isContentAvailable = isContentAvailable;
+        this.token = token;
+        this.encryptedMessage = encryptedMessage;
+        this.useSound = useSound;
+    }
+
+    boolean isAndroid() {
+        return isAndroid;
+    }
+
+    boolean isProduction() {
+        return isProduction;
+    }
+
+    boolean isContentAvailable() {
+        return isContentAvailable;
+    }
+
+    String getToken() {
+        return token;
+    }
+
+    String getEncryptedMessage() {
+        return encryptedMessage;
+    }
+
+    boolean isUseSound() {
+        return useSound;
+    }
+
+    // Notifications for the same device share the key
+    String getDeviceKey() {
+        return (isAndroid ? "android:" : isProduction ? "ios:" : "ios-dev:") + token;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PushNotification)) return false;
+
+        PushNotification that = (PushNotification) o;
+        return isAndroid == that.isAndroid &&
+            isProduction == that.isProduction &&
+            isContentAvailable == that.isContentAvailable &&
+            useSound == that.useSound &&
+            token.equals(that.token) &&
+            encryptedMessage.equals(that.encryptedMessage);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(isAndroid, isProduction, isContentAvailable, token, encryptedMessage, useSound);
+    }
+
+    @Override
+    public String toString() {
+        return "PushNotification{" +
+            "isAndroid=" + isAndroid +
+            ", isProduction=" + isProduction +
+            ", isContentAvailable=" + isContentAvailable +
+            ", token='" + token + '\'' +
+            ", useSound=" + useSound +
+            '}';
+    }
+}
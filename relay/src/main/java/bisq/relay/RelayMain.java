@@ -46,6 +46,8 @@ public class RelayMain {
 
     /**
      * @param args      Pass port as program argument if other port than default port 8080 is wanted.
+     *                  With the system property useStubGateways=true the notifications are delivered to local stub
+     *                  gateways instead of APNs and Firebase, the other arguments are ignored then except the port.
      */
     public static void main(String[] args) {
         final String logPath = System.getProperty("user.home") + File.separator + "provider";
@@ -56,6 +58,19 @@ public class RelayMain {
         Utilities.printSysInfo();
 
 
+        if (Boolean.getBoolean("useStubGateways")) {
+            int port = 8080;
+            if (args.length > 4)
+                port = Integer.parseInt(args[4]);
+
+            port(port);
+            log.warn("We use stub push gateways. Notifications are not delivered to the devices.");
+            relayService = new RelayService(100);
+            handleRelay();
+            keepRunning();
+            return;
+        }
+
         String appleCertPwPath;
         if (args.length > 0)
             appleCertPwPath = args[0];
@@ -103,13 +118,15 @@ public class RelayMain {
             String encryptedMessage = new String(Hex.decodeHex(request.queryParams("msg").toCharArray()), "UTF-8");
             log.info("isAndroid={}\nuseSound={}\napsTokenHex={}\nencryptedMessage={}", isAndroid, useSound, token,
                 encryptedMessage);
-            if (isAndroid) {
-                return relayService.sendAndroidMessage(token, encryptedMessage, useSound);
-            } else {
-                boolean isProduction = request.queryParams("isProduction").equalsIgnoreCase("true");
-                boolean isContentAvailable = request.queryParams("isContentAvailable").equalsIgnoreCase("true");
-                return relayService.sendAppleMessage(isProduction, isContentAvailable, token, encryptedMessage, useSound);
-            }
+            boolean isProduction = !isAndroid && request.queryParams("isProduction").equalsIgnoreCase("true");
+            boolean isContentAvailable = !isAndroid && request.queryParams("isContentAvailable").equalsIgnoreCase("true");
+            return relayService.relay(new PushNotification(isAndroid, isProduction, isContentAvailable, token,
+                encryptedMessage, useSound));
+        });
+
+        get("/metrics", (request, response) -> {
+            response.type("text/plain");
+            return relayService.getMetrics();
         });
     }
 
@@ -0,0 +1,98 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.relay;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the relay pipeline. Thread safe.
+ */
+class RelayMetrics {
+    private final AtomicLong numQueued = new AtomicLong();
+    private final AtomicLong numCoalesced = new AtomicLong();
+    private final AtomicLong numRejected = new AtomicLong();
+    private final AtomicLong numDelivered = new AtomicLong();
+    private final AtomicLong numFailed = new AtomicLong();
+    private final AtomicLong numRetries = new AtomicLong();
+    private final AtomicLong totalLatencyMs = new AtomicLong();
+    private final AtomicLong maxLatencyMs = new AtomicLong();
+
+    void onQueued() {
+        numQueued.incrementAndGet();
+    }
+
+    void onCoalesced() {
+        numCoalesced.incrementAndGet();
+    }
+
+    void onRejected() {
+        numRejected.incrementAndGet();
+    }
+
+    void onRetry() {
+        numRetries.incrementAndGet();
+    }
+
+    void onFailed() {
+        numFailed.incrementAndGet();
+    }
+
+    // Latency from accepting the request to the delivery to the push service
+    void onDelivered(long latencyMs) {
+        numDelivered.incrementAndGet();
+        totalLatencyMs.addAndGet(latencyMs);
+        maxLatencyMs.accumulateAndGet(latencyMs, Math::max);
+    }
+
+    long getNumQueued() {
+        return numQueued.get();
+    }
+
+    long getNumCoalesced() {
+        return numCoalesced.get();
+    }
+
+    long getNumRejected() {
+        return numRejected.get();
+    }
+
+    long getNumDelivered() {
+        return numDelivered.get();
+    }
+
+    long getNumFailed() {
+        return numFailed.get();
+    }
+
+    long getNumRetries() {
+        return numRetries.get();
+    }
+
+    @Override
+    public String toString() {
+        long delivered = numDelivered.get();
+        return "numQueued=" + numQueued.get() +
+            "\nnumCoalesced=" + numCoalesced.get() +
+            "\nnumRejected=" + numRejected.get() +
+            "\nnumDelivered=" + delivered +
+            "\nnumFailed=" + numFailed.get() +
+            "\nnumRetries=" + numRetries.get() +
+            "\naverageLatencyMs=" + (delivered > 0 ? totalLatencyMs.get() / delivered : 0) +
+            "\nmaxLatencyMs=" + maxLatencyMs.get();
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.relay;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Accepts push notifications into a bounded queue and delivers them asynchronously, so the HTTP worker threads are
+ * not blocked while the push services respond.
+ * <p>
+ * A dispatcher thread takes the notifications from the queue and hands them to the push gateway of the platform. Up
+ * to maxInFlight notifications are delivered at the same time. Failed deliveries which are worth a retry are queued
+ * again after an exponential backoff. A notification which equals one which is still pending is coalesced with it,
+ * so the device does not receive the same alert twice.
+ */
+class RelayPipeline {
+    private static final Logger log = LoggerFactory.getLogger(RelayPipeline.class);
+
+    static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    static final int DEFAULT_MAX_IN_FLIGHT = 100;
+    private static final int MAX_RETRIES = 3;
+
+    enum SubmitResult {
+        QUEUED,
+        COALESCED,
+        QUEUE_FULL
+    }
+
+    private static class Delivery {
+        private final PushNotification notification;
+        private final long submitTs;
+        private int numAttempts;
+
+        private Delivery(PushNotification notification, long submitTs) {
+            this.notification = notification;
+            this.submitTs = submitTs;
+        }
+    }
+
+    private final PushGateway appleGateway;
+    private final PushGateway androidGateway;
+    private final long initialRetryDelayMs;
+    private final LinkedBlockingQueue<Delivery> queue;
+    private final Semaphore inFlightPermits;
+    private final int maxInFlight;
+    // Queued, in flight or waiting for a retry
+    private final Map<PushNotification, Delivery> pendingDeliveries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService retryExecutor;
+    private final Thread dispatcher;
+    private final RelayMetrics metrics = new RelayMetrics();
+
+    RelayPipeline(PushGateway appleGateway, PushGateway androidGateway) {
+        this(appleGateway, androidGateway, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_IN_FLIGHT, 1000);
+    }
+
+    RelayPipeline(PushGateway appleGateway, PushGateway androidGateway, int queueCapacity, int maxInFlight,
+                  long initialRetryDelayMs) {
+        this.appleGateway = appleGateway;
+        this.androidGateway = androidGateway;
+        this.initialRetryDelayMs = initialRetryDelayMs;
+        this.maxInFlight = maxInFlight;
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        inFlightPermits = new Semaphore(maxInFlight);
+        retryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RelayPipeline.retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher = new Thread(this::dispatch, "RelayPipeline.dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    SubmitResult submit(PushNotification notification) {
+        Delivery delivery = new Delivery(notification, System.currentTimeMillis());
+        if (pendingDeliveries.putIfAbsent(notification, delivery) != null) {
+            metrics.onCoalesced();
+            return SubmitResult.COALESCED;
+        }
+
+        if (!queue.offer(delivery)) {
+            pendingDeliveries.remove(notification, delivery);
+            metrics.onRejected();
+            log.warn("Relay queue is full. We reject {}", notification);
+            return SubmitResult.QUEUE_FULL;
+        }
+
+        metrics.onQueued();
+        return SubmitResult.QUEUED;
+    }
+
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    int getNumInFlight() {
+        return maxInFlight - inFlightPermits.availablePermits();
+    }
+
+    RelayMetrics getMetrics() {
+        return metrics;
+    }
+
+    String getMetricsAsString() {
+        return "queueDepth=" + getQueueDepth() +
+            "\nnumInFlight=" + getNumInFlight() +
+            "\n" + metrics;
+    }
+
+    void shutDown() {
+        dispatcher.interrupt();
+        retryExecutor.shutdownNow();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Delivery delivery = queue.take();
+                inFlightPermits.acquire();
+                deliver(delivery);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                log.error("Error at dispatching a notification", t);
+            }
+        }
+    }
+
+    private void deliver(Delivery delivery) {
+        delivery.numAttempts++;
+        PushNotification notification = delivery.notification;
+        PushGateway gateway = notification.isAndroid() ? androidGateway : appleGateway;
+        ListenableFuture<Void> future;
+        try {
+            future = gateway.send(notification);
+        } catch (Throwable t) {
+            future = Futures.immediateFailedFuture(t);
+        }
+
+        Futures.addCallback(future, new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                inFlightPermits.release();
+                pendingDeliveries.remove(notification, delivery);
+                metrics.onDelivered(System.currentTimeMillis() - delivery.submitTs);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                inFlightPermits.release();
+                boolean retryable = !(throwable instanceof PushRejectedException) ||
+                    ((PushRejectedException) throwable).isRetryable();
+                if (retryable && delivery.numAttempts <= MAX_RETRIES) {
+                    long delayMs = initialRetryDelayMs << (delivery.numAttempts - 1);
+                    log.info("Delivery of {} failed at attempt {}. We retry in {} ms. error={}",
+                        notification, delivery.numAttempts, delayMs, throwable.toString());
+                    metrics.onRetry();
+                    retryExecutor.schedule(() -> requeue(delivery), delayMs, TimeUnit.MILLISECONDS);
+                } else {
+                    log.warn("Delivery of {} failed. error={}", notification, throwable.toString());
+                    pendingDeliveries.remove(notification, delivery);
+                    metrics.onFailed();
+                }
+            }
+        });
+    }
+
+    private void requeue(Delivery delivery) {
+        if (!queue.offer(delivery)) {
+            log.warn("Relay queue is full. We drop the retry of {}", delivery.notification);
+            pendingDeliveries.remove(delivery.notification, delivery);
+            metrics.onFailed();
+        }
+    }
+}
@@ -23,8 +23,6 @@ import java.io.IOException;
 import java.io.InputStream;
 
 import java.util.Scanner;
-import java.util.concurrent.ExecutionException;
-
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,16 +32,8 @@ import org.slf4j.LoggerFactory;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
-import com.google.firebase.messaging.FirebaseMessaging;
-import com.google.firebase.messaging.FirebaseMessagingException;
-import com.google.firebase.messaging.Message;
-import com.google.firebase.messaging.Notification;
 import com.turo.pushy.apns.ApnsClient;
 import com.turo.pushy.apns.ApnsClientBuilder;
-import com.turo.pushy.apns.PushNotificationResponse;
-import com.turo.pushy.apns.util.ApnsPayloadBuilder;
-import com.turo.pushy.apns.util.SimpleApnsPushNotification;
-import com.turo.pushy.apns.util.concurrent.PushNotificationFuture;
 
 class RelayService {
     private static final Logger log = LoggerFactory.getLogger(RelayMain.class);
@@ -52,16 +42,22 @@ class RelayService {
     // duplicated in core and here. Must not be changed.
     private static final String SUCCESS = "success";
 
-    private final String appleBundleId;
+    private final RelayPipeline relayPipeline;
 
     private ApnsClient productionApnsClient;
     private ApnsClient devApnsClient; // used for iOS development in XCode
 
     RelayService(String appleCertPwPath, String appleCertPath, String appleBundleId, String androidCertPath) {
-        this.appleBundleId = appleBundleId;
-
         setupForAndroid(androidCertPath);
         setupForApple(appleCertPwPath, appleCertPath);
+
+        relayPipeline = new RelayPipeline(new ApnsPushGateway(appleBundleId, productionApnsClient, devApnsClient),
+            new FirebasePushGateway());
+    }
+
+    // Delivers to local stub gateways instead of APNs and Firebase
+    RelayService(long stubDelayMs) {
+        relayPipeline = new RelayPipeline(new StubPushGateway(stubDelayMs), new StubPushGateway(stubDelayMs));
     }
 
     private void setupForAndroid(String androidCertPath) {
@@ -97,60 +93,19 @@ class RelayService {
         }
     }
 
-    String sendAppleMessage(boolean isProduction, boolean isContentAvailable, String apsTokenHex, String encryptedMessage, boolean useSound) {
-        ApnsPayloadBuilder payloadBuilder = new ApnsPayloadBuilder();
-        if (useSound)
-            payloadBuilder.setSoundFileName("default");
-        payloadBuilder.setAlertBody("Bisq notification");
-        payloadBuilder.setContentAvailable(isContentAvailable);
-        payloadBuilder.addCustomProperty("encrypted", encryptedMessage);
-        final String payload = payloadBuilder.buildWithDefaultMaximumLength();
-        log.info("payload " + payload);
-        SimpleApnsPushNotification simpleApnsPushNotification = new SimpleApnsPushNotification(apsTokenHex, appleBundleId, payload);
-
-        ApnsClient apnsClient = isProduction ? productionApnsClient : devApnsClient;
-        PushNotificationFuture<SimpleApnsPushNotification, PushNotificationResponse<SimpleApnsPushNotification>>
-            notificationFuture = apnsClient.sendNotification(simpleApnsPushNotification);
-        try {
-            PushNotificationResponse<SimpleApnsPushNotification> pushNotificationResponse = notificationFuture.get();
-            if (pushNotificationResponse.isAccepted()) {
-                log.info("Push notification accepted by APNs gateway.");
-                return SUCCESS;
-            } else {
-                String msg1 = "Notification rejected by the APNs gateway: " +
-                    pushNotificationResponse.getRejectionReason();
-                String msg2 = "";
-                if (pushNotificationResponse.getTokenInvalidationTimestamp() != null)
-                    msg2 = " and the token is invalid as of " +
-                        pushNotificationResponse.getTokenInvalidationTimestamp();
-
-                log.info(msg1 + msg2);
-                return "Error: " + msg1 + msg2;
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            log.error(e.toString());
-            e.printStackTrace();
-            return "Error: " + e.toString();
-        }
+    /**
+     * Queues the notification for the delivery to the push service. The delivery happens asynchronously, so the
+     * result only tells if the notification was accepted by the relay.
+     */
+    String relay(PushNotification notification) {
+        RelayPipeline.SubmitResult submitResult = relayPipeline.submit(notification);
+        if (submitResult == RelayPipeline.SubmitResult.QUEUE_FULL)
+            return "Error: The relay queue is full";
+
+        return SUCCESS;
     }
 
-    String sendAndroidMessage(String apsTokenHex, String encryptedMessage, boolean useSound) {
-        Message.Builder messageBuilder = Message.builder();
-        Notification notification = new Notification("Bisq", "Notification");
-        messageBuilder.setNotification(notification);
-        messageBuilder.putData("encrypted", encryptedMessage);
-        messageBuilder.setToken(apsTokenHex);
-        if (useSound)
-            messageBuilder.putData("sound", "default");
-        Message message = messageBuilder.build();
-        try {
-            FirebaseMessaging firebaseMessaging = FirebaseMessaging.getInstance();
-            firebaseMessaging.send(message);
-            return SUCCESS;
-        } catch (FirebaseMessagingException e) {
-            log.error(e.toString());
-            e.printStackTrace();
-            return "Error: " + e.toString();
-        }
+    String getMetrics() {
+        return relayPipeline.getMetricsAsString();
     }
 }
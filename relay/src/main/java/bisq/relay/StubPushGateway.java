@@ -0,0 +1,71 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.relay;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Local push gateway which accepts all notifications after a fixed delay, so the relay can be run and tested without
+ * access to APNs and Firebase. The delivered notifications are kept for inspection.
+ */
+class StubPushGateway implements PushGateway {
+    private static final Logger log = LoggerFactory.getLogger(StubPushGateway.class);
+
+    private final long delayMs;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "StubPushGateway");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<PushNotification> deliveredNotifications = new ArrayList<>();
+
+    StubPushGateway(long delayMs) {
+        this.delayMs = delayMs;
+    }
+
+    @Override
+    public ListenableFuture<Void> send(PushNotification notification) {
+        SettableFuture<Void> result = SettableFuture.create();
+        executor.schedule(() -> {
+            synchronized (deliveredNotifications) {
+                deliveredNotifications.add(notification);
+            }
+            log.info("Stub delivered {}", notification);
+            result.set(null);
+        }, delayMs, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    List<PushNotification> getDeliveredNotifications() {
+        synchronized (deliveredNotifications) {
+            return new ArrayList<>(deliveredNotifications);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.relay;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RelayPipelineTest {
+    @Test
+    public void testDeliveryAndCoalescing() throws Exception {
+        StubPushGateway appleGateway = new StubPushGateway(50);
+        StubPushGateway androidGateway = new StubPushGateway(50);
+        RelayPipeline pipeline = new RelayPipeline(appleGateway, androidGateway);
+
+        PushNotification notification = new PushNotification(false, true, false, "token", "msg1", true);
+        assertEquals(RelayPipeline.SubmitResult.QUEUED, pipeline.submit(notification));
+        assertEquals(RelayPipeline.SubmitResult.COALESCED,
+            pipeline.submit(new PushNotification(false, true, false, "token", "msg1", true)));
+        assertEquals(RelayPipeline.SubmitResult.QUEUED,
+            pipeline.submit(new PushNotification(true, false, false, "token", "msg2", false)));
+
+        waitFor(() -> pipeline.getMetrics().getNumDelivered() == 2);
+        assertEquals(1, appleGateway.getDeliveredNotifications().size());
+        assertEquals(1, androidGateway.getDeliveredNotifications().size());
+        assertEquals(1, pipeline.getMetrics().getNumCoalesced());
+
+        // After the delivery the same notification is not coalesced anymore
+        assertEquals(RelayPipeline.SubmitResult.QUEUED, pipeline.submit(notification));
+        pipeline.shutDown();
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+        AtomicInteger numAttempts = new AtomicInteger();
+        PushGateway flakyGateway = notification -> numAttempts.incrementAndGet() < 3 ?
+            Futures.immediateFailedFuture(new PushRejectedException("TooManyRequests", true)) :
+            Futures.immediateFuture(null);
+        PushGateway rejectingGateway = notification ->
+            Futures.immediateFailedFuture(new PushRejectedException("BadDeviceToken", false));
+        RelayPipeline pipeline = new RelayPipeline(flakyGateway, rejectingGateway, 10, 10, 10);
+
+        pipeline.submit(new PushNotification(false, true, false, "token", "msg", false));
+        pipeline.submit(new PushNotification(true, false, false, "token", "msg", false));
+
+        waitFor(() -> pipeline.getMetrics().getNumDelivered() == 1 && pipeline.getMetrics().getNumFailed() == 1);
+        assertEquals(3, numAttempts.get());
+        assertEquals(2, pipeline.getMetrics().getNumRetries());
+        pipeline.shutDown();
+    }
+
+    @Test
+    public void testQueueFull() {
+        // The gateway never completes, so the in flight slot stays taken
+        PushGateway blockingGateway = notification -> SettableFuture.create();
+        RelayPipeline pipeline = new RelayPipeline(blockingGateway, blockingGateway, 1, 1, 10);
+
+        int numQueueFull = 0;
+        for (int i = 0; i < 5; i++) {
+            PushNotification notification = new PushNotification(true, false, false, "token", "msg" + i, false);
+            if (pipeline.submit(notification) == RelayPipeline.SubmitResult.QUEUE_FULL)
+                numQueueFull++;
+        }
+        // At most one notification is in flight, one taken by the dispatcher and one in the queue
+        assertEquals(numQueueFull, pipeline.getMetrics().getNumRejected());
+        assertTrue(numQueueFull >= 2);
+        pipeline.shutDown();
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.isMet()) {
+            if (System.currentTimeMillis() > deadline)
+                throw new AssertionError("Condition was not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+}